@@ -0,0 +1,7 @@
+#!/bin/sh
+# Génère de la charge sur l'API HTTP locale ; le serveur doit déjà tourner :
+#   mvn compile exec:java -Dexec.mainClass=org.example.ServeurApi
+# Les options sont transmises au générateur, par exemple :
+#   benchmarks/charge-api.sh -Dbench.clients=2000 -Dbench.duree=60 -Dbench.url=http://localhost:8080
+cd "$(dirname "$0")" || exit 1
+exec mvn -q compile exec:java -Dexec.mainClass=org.example.bench.ChargeApiBenchmark "$@"
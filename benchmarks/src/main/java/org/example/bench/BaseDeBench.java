@@ -0,0 +1,150 @@
+package org.example.bench;
+
+import org.example.dao.InventaireCategorieDAO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Outils communs aux benchmarks qui ont besoin d'une vraie base MySQL.
+ * <p>
+ * La base visée est celle de {@code -Ddb.url} (obligatoire, pour ne jamais écraser
+ * la base de l'application par erreur) : elle est vidée puis recréée à partir de
+ * {@code schema.sql}. Les connexions utilisées ici sont directes (hors pool) afin
+ * de ne pas fausser les mesures de l'application.
+ */
+public final class BaseDeBench {
+
+    private static final int LIGNES_PAR_INSERT = 1_000;
+    private static final LocalDateTime DEBUT_EVENEMENTS = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BaseDeBench() {
+    }
+
+    /**
+     * Ouvre une connexion directe vers la base de benchmark.
+     */
+    public static Connection connexionDirecte() throws SQLException {
+        String url = System.getProperty("db.url");
+        if (url == null) {
+            throw new IllegalStateException("Indiquez une base dédiée aux benchmarks avec -Ddb.url=jdbc:mysql://.../BDReservation_bench"
+                    + " (elle sera entièrement effacée).");
+        }
+        return DriverManager.getConnection(url, System.getProperty("db.user", "root"), System.getProperty("db.password", ""));
+    }
+
+    /**
+     * Supprime puis recrée la base et applique le schéma (voir {@link #creerSchema}).
+     * À appeler avant tout usage de {@code Database}.
+     */
+    public static void reinitialiser() throws SQLException, IOException {
+        try (Connection conn = connexionDirecte(); Statement st = conn.createStatement()) {
+            String base = conn.getCatalog();
+            st.execute("DROP DATABASE IF EXISTS `" + base + "`");
+            st.execute("CREATE DATABASE `" + base + "`");
+            st.execute("USE `" + base + "`");
+            creerSchema(st);
+        }
+    }
+
+    /**
+     * Applique {@code schema.sql} sur une base vide puis insère l'organisateur (id 1), le client (id 2)
+     * et les quatre catégories habituelles. Sert aussi aux benchmarks sur base embarquée.
+     */
+    public static void creerSchema(Statement st) throws SQLException, IOException {
+        for (String instruction : lireSchema()) {
+            st.execute(instruction);
+        }
+        st.execute("INSERT INTO `user` (user_id, user_name, first_name, last_name, email, password, user_type) "
+                + "VALUES (1, 'bench_orga', 'Bench', 'Orga', 'bench@example.com', 'x', 'Organisateur'), "
+                + "(2, 'bench_client', 'Bench', 'Client', 'client@example.com', 'x', 'Client')");
+        st.execute("INSERT INTO category (category_id, category_name, normalized_name) "
+                + "VALUES (1, 'VIP', 'vip'), (2, 'Gold', 'gold'), (3, 'Silver', 'silver'), (4, 'Standard', 'standard')");
+    }
+
+    private static List<String> lireSchema() throws IOException {
+        Path chemin = Path.of(System.getProperty("bench.schema", "src/main/java/org/example/db/schema.sql"));
+        if (!Files.exists(chemin)) {
+            chemin = Path.of("..").resolve(chemin);
+        }
+        // les commentaires sont retirés avant le découpage : ils peuvent contenir des « ; »
+        String schema = Files.readString(chemin).replaceAll("(?m)^\\s*--.*$", "");
+        List<String> instructions = new ArrayList<>();
+        for (String morceau : schema.split(";")) {
+            if (!morceau.isBlank()) {
+                instructions.add(morceau.trim());
+            }
+        }
+        return instructions;
+    }
+
+    /**
+     * Ajoute des événements numérotés à partir de {@code premierId}, chacun avec
+     * {@code placesParEvenement} places réparties sur les 4 catégories. Une réservation
+     * par événement occupe les {@code placesVendues} premières places. Les compteurs
+     * {@code event_category_inventory} sont ensuite recalculés.
+     */
+    public static void insererEvenements(int premierId, int nombre, int placesParEvenement, int placesVendues) throws SQLException {
+        try (Connection conn = connexionDirecte(); Statement st = conn.createStatement()) {
+            inserer(st, "INSERT INTO event (event_id, name, event_type, special_guest, event_date, location, organizer_id, seat_count) VALUES ",
+                    nombre, i -> {
+                        int id = premierId + i;
+                        return "(" + id + ", 'Evenement " + id + "', 'Concert', 'Artiste " + id + "', "
+                                + "'" + Timestamp.valueOf(DEBUT_EVENEMENTS.plusHours(id)) + "', 'Salle " + (id % 50) + "', 1, " + placesParEvenement + ")";
+                    });
+            inserer(st, "INSERT INTO place (place_id, price, category_id, event_id) VALUES ",
+                    nombre * placesParEvenement, i -> {
+                        int evenement = premierId + i / placesParEvenement;
+                        int placeId = (premierId - 1) * placesParEvenement + i + 1;
+                        int categorie = 1 + (i % placesParEvenement) * 4 / placesParEvenement;
+                        return "(" + placeId + ", " + (200 - categorie * 40) + ", " + categorie + ", " + evenement + ")";
+                    });
+            if (placesVendues > 0) {
+                inserer(st, "INSERT INTO reservation (reservation_id, reservation_date, client_id) VALUES ",
+                        nombre, i -> "(" + (premierId + i) + ", NOW(), 2)");
+                inserer(st, "INSERT INTO reservation_has_place (reservation_id, place_id) VALUES ",
+                        nombre * placesVendues, i -> {
+                            int evenement = premierId + i / placesVendues;
+                            int placeId = (evenement - 1) * placesParEvenement + i % placesVendues + 1;
+                            return "(" + evenement + ", " + placeId + ")";
+                        });
+            }
+            new InventaireCategorieDAO().reconstruire(conn);
+        }
+    }
+
+    private static void inserer(Statement st, String entete, int nombre, IntFunction<String> ligne) throws SQLException {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < nombre; i++) {
+            sql.append(sql.isEmpty() ? entete : ", ").append(ligne.apply(i));
+            if ((i + 1) % LIGNES_PAR_INSERT == 0 || i == nombre - 1) {
+                st.executeUpdate(sql.toString());
+                sql.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * Compteur global {@code Questions} du serveur : nombre d'instructions reçues,
+     * toutes connexions confondues. La différence entre deux lectures donne le nombre
+     * d'allers-retours SQL (la lecture elle-même compte pour un).
+     */
+    public static long compterRequetes(Connection directe) throws SQLException {
+        try (Statement st = directe.createStatement();
+             ResultSet rs = st.executeQuery("SHOW GLOBAL STATUS LIKE 'Questions'")) {
+            rs.next();
+            return rs.getLong(2);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.bench;
+
+import org.example.util.Json;
+import org.example.util.LatencyHistogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Générateur de charge pour l'API HTTP ({@code org.example.ServeurApi}, à lancer à part).
+ * <p>
+ * Chaque client virtuel (un thread virtuel) ouvre une session puis répète jusqu'à la fin
+ * de la mesure le parcours d'un acheteur : liste des événements, catégories d'un événement,
+ * réservation d'une place, paiement, annulation (pour que les places restent disponibles).
+ * Affiche ensuite, par opération, le débit, les latences et la répartition des statuts HTTP.
+ * <pre>
+ * mvn -f benchmarks/pom.xml compile exec:java -Dexec.mainClass=org.example.bench.ChargeApiBenchmark \
+ *     [-Dbench.url=http://localhost:8080] [-Dbench.clients=1000] [-Dbench.duree=30] \
+ *     [-Dbench.pseudo=bench_client] [-Dbench.motDePasse=x] [-Dbench.evenements=20]
+ * </pre>
+ * Le compte indiqué doit être un client ; les événements réservés sont tirés parmi les
+ * {@code bench.evenements} premiers du catalogue.
+ */
+public class ChargeApiBenchmark {
+
+    private enum Operation { SESSION, EVENEMENTS, CATEGORIES, RESERVATION, PAIEMENT, ANNULATION, DECONNEXION }
+
+    private static final Pattern ID_RESERVATION = Pattern.compile("\"id\":(\\d+)");
+    private static final Pattern ID_CATEGORIE = Pattern.compile("\"id\":(\\d+),\"nom\":\"[^\"]*\",\"total\":\\d+,\"restantes\":([1-9]\\d*)");
+    private static final Pattern JETON = Pattern.compile("\"jeton\":\"([^\"]+)\"");
+
+    private final String url = System.getProperty("bench.url", "http://localhost:8080");
+    private final int clients = Integer.getInteger("bench.clients", 1_000);
+    private final Duration duree = Duration.ofSeconds(Integer.getInteger("bench.duree", 30));
+    private final String pseudo = System.getProperty("bench.pseudo", "bench_client");
+    private final String motDePasse = System.getProperty("bench.motDePasse", "x");
+    private final int nombreEvenements = Integer.getInteger("bench.evenements", 20);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final Map<Operation, LatencyHistogram> latences = new EnumMap<>(Operation.class);
+    private final Map<String, LongAdder> statuts = new ConcurrentHashMap<>();
+    private final LongAdder erreursReseau = new LongAdder();
+
+    public static void main(String[] args) throws Exception {
+        new ChargeApiBenchmark().executer();
+    }
+
+    private void executer() throws InterruptedException {
+        for (Operation operation : Operation.values()) {
+            latences.put(operation, new LatencyHistogram());
+        }
+        CountDownLatch fin = new CountDownLatch(clients);
+        long debut = System.nanoTime();
+        long echeance = debut + duree.toNanos();
+        try (ExecutorService executeur = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executeur.submit(() -> {
+                    try {
+                        acheteur(echeance);
+                    } finally {
+                        fin.countDown();
+                    }
+                });
+            }
+            fin.await();
+        }
+        double secondes = (System.nanoTime() - debut) / 1e9;
+
+        System.out.println("operation;requetes;par_seconde;latence");
+        latences.forEach((operation, histogramme) -> System.out.printf(Locale.ROOT, "%s;%d;%.1f;%s%n",
+                operation, histogramme.getCount(), histogramme.getCount() / secondes, histogramme));
+        System.out.println("statuts : " + statuts + ", erreurs réseau : " + erreursReseau.sum());
+    }
+
+    private void acheteur(long echeance) {
+        String jeton = extraire(JETON, envoyer(Operation.SESSION, "POST", "/api/sessions",
+                new Json.Objet().champ("pseudo", pseudo).champ("motDePasse", motDePasse).toString(), null));
+        if (jeton == null) {
+            return;
+        }
+        ThreadLocalRandom aleatoire = ThreadLocalRandom.current();
+        while (System.nanoTime() < echeance) {
+            envoyer(Operation.EVENEMENTS, "GET", "/api/evenements?taille=20", null, null);
+
+            int evenement = 1 + aleatoire.nextInt(nombreEvenements);
+            String categorie = extraire(ID_CATEGORIE,
+                    envoyer(Operation.CATEGORIES, "GET", "/api/evenements/" + evenement + "/categories", null, null));
+            if (categorie == null) {
+                continue;
+            }
+
+            String reservation = extraire(ID_RESERVATION, envoyer(Operation.RESERVATION, "POST", "/api/reservations",
+                    new Json.Objet().champ("evenementId", evenement).champ("categorieId", Long.parseLong(categorie))
+                            .champ("nombre", 1).toString(), jeton));
+            if (reservation == null) {
+                continue;
+            }
+            envoyer(Operation.PAIEMENT, "POST", "/api/reservations/" + reservation + "/paiement",
+                    new Json.Objet().champ("nomCarte", "Bench Client").champ("numeroCarte", "4111111111111111").toString(), jeton);
+            envoyer(Operation.ANNULATION, "DELETE", "/api/reservations/" + reservation, null, jeton);
+        }
+        envoyer(Operation.DECONNEXION, "DELETE", "/api/sessions", null, jeton);
+    }
+
+    /**
+     * Envoie une requête et mesure sa durée.
+     *
+     * @return le corps de la réponse si le statut est 2xx, sinon {@code null}.
+     */
+    private String envoyer(Operation operation, String methode, String chemin, String corps, String jeton) {
+        HttpRequest.Builder requete = HttpRequest.newBuilder(URI.create(url + chemin))
+                .timeout(Duration.ofSeconds(30))
+                .method(methode, corps == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(corps));
+        if (corps != null) {
+            requete.header("Content-Type", "application/json");
+        }
+        if (jeton != null) {
+            requete.header("Authorization", "Bearer " + jeton);
+        }
+        long debut = System.nanoTime();
+        try {
+            HttpResponse<String> reponse = http.send(requete.build(), HttpResponse.BodyHandlers.ofString());
+            latences.get(operation).record(System.nanoTime() - debut);
+            statuts.computeIfAbsent(operation + " " + reponse.statusCode(), k -> new LongAdder()).increment();
+            return reponse.statusCode() / 100 == 2 ? reponse.body() : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            erreursReseau.increment();
+            return null;
+        }
+    }
+
+    private static String extraire(Pattern motif, String json) {
+        if (json == null) {
+            return null;
+        }
+        Matcher m = motif.matcher(json);
+        return m.find() ? m.group(1) : null;
+    }
+}
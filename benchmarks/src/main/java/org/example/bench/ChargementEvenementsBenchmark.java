@@ -0,0 +1,66 @@
+package org.example.bench;
+
+import org.example.dao.EvenementDAO;
+import org.example.dao.EvenementDAO.ChargementPlaces;
+import org.example.model.Evenement;
+import org.example.util.Database;
+
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compare les deux stratégies de {@link EvenementDAO#findAll(ChargementPlaces)} :
+ * une requête de places par événement (N+1) et le chargement ensembliste (2 requêtes).
+ * <p>
+ * Pour 100, 1 000 puis 10 000 événements, affiche le nombre d'allers-retours SQL
+ * et le temps médian d'un appel.
+ * <pre>
+ * mvn -f benchmarks/pom.xml compile exec:java -Dexec.mainClass=org.example.bench.ChargementEvenementsBenchmark \
+ *     -Ddb.url=jdbc:mysql://localhost:3306/BDReservation_bench [-Dbench.placesParEvenement=20] [-Dbench.repetitions=5]
+ * </pre>
+ */
+public class ChargementEvenementsBenchmark {
+
+    private static final int[] PALIERS = {100, 1_000, 10_000};
+
+    public static void main(String[] args) throws Exception {
+        int placesParEvenement = Integer.getInteger("bench.placesParEvenement", 20);
+        int repetitions = Integer.getInteger("bench.repetitions", 5);
+
+        BaseDeBench.reinitialiser();
+        EvenementDAO dao = new EvenementDAO();
+
+        System.out.println("evenements;mode;allers_retours;mediane_ms;places_chargees");
+        int dejaInseres = 0;
+        try (Connection directe = BaseDeBench.connexionDirecte()) {
+            for (int palier : PALIERS) {
+                BaseDeBench.insererEvenements(dejaInseres + 1, palier - dejaInseres, placesParEvenement, placesParEvenement / 4);
+                dejaInseres = palier;
+
+                for (ChargementPlaces mode : ChargementPlaces.values()) {
+                    dao.findAll(mode); // chauffe (JIT, pool)
+
+                    long avant = BaseDeBench.compterRequetes(directe);
+                    List<Evenement> evenements = dao.findAll(mode);
+                    long allersRetours = BaseDeBench.compterRequetes(directe) - avant - 1;
+
+                    long[] durees = new long[repetitions];
+                    for (int i = 0; i < repetitions; i++) {
+                        long debut = System.nanoTime();
+                        dao.findAll(mode);
+                        durees[i] = System.nanoTime() - debut;
+                    }
+                    Arrays.sort(durees);
+
+                    long places = evenements.stream().mapToLong(Evenement::getCapaciteTotale).sum();
+                    System.out.printf(Locale.ROOT, "%d;%s;%d;%.1f;%d%n",
+                            palier, mode, allersRetours, durees[repetitions / 2] / 1e6, places);
+                }
+            }
+        } finally {
+            Database.shutdown();
+        }
+    }
+}
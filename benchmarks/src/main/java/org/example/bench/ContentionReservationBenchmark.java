@@ -0,0 +1,202 @@
+package org.example.bench;
+
+import org.example.exception.PlacesInsuffisantesException;
+import org.example.model.Client;
+import org.example.model.Evenement;
+import org.example.model.Organisateur;
+import org.example.model.Reservation;
+import org.example.model.StockPlaces;
+import org.example.service.ExecuteurReservations;
+import org.example.service.InventairePlaces;
+import org.example.service.ReservationService;
+import org.example.util.Database;
+import org.example.util.LatencyHistogram;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 1 000 acheteurs simultanés (threads virtuels) pour une seule catégorie.
+ * <p>
+ * Toujours exécuté : l'inventaire en mémoire seul ({@link StockPlaces}), avec vérification
+ * qu'aucune place n'est vendue deux fois. Si {@code -Ddb.url} est fourni, la même
+ * charge passe ensuite par {@link ReservationService#reserver}, inventaire actif puis
+ * désactivé (verrous {@code FOR UPDATE}), puis par {@link ExecuteurReservations} (concurrence
+ * bornée à la taille du pool), sur une base réinitialisée à chaque fois.
+ * <pre>
+ * mvn -f benchmarks/pom.xml compile exec:java -Dexec.mainClass=org.example.bench.ContentionReservationBenchmark \
+ *     [-Dbench.acheteurs=1000] [-Dbench.places=800] [-Dbench.tours=5] [-Ddb.url=jdbc:mysql://localhost:3306/BDReservation_bench]
+ * </pre>
+ */
+public class ContentionReservationBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int acheteurs = Integer.getInteger("bench.acheteurs", 1_000);
+        int places = Integer.getInteger("bench.places", 800);
+        int tours = Integer.getInteger("bench.tours", 5);
+
+        System.out.println("mode;tour;acheteurs;places;vendues;refus;duree_ms;latence");
+        for (int tour = 1; tour <= tours; tour++) {
+            mesurerMemoire(tour, acheteurs, places);
+        }
+
+        if (System.getProperty("db.url") != null) {
+            try {
+                for (boolean inventaireActif : new boolean[]{true, false}) {
+                    mesurerService(inventaireActif, acheteurs, places);
+                }
+                mesurerExecuteur(acheteurs, places);
+            } finally {
+                Database.shutdown();
+            }
+        }
+    }
+
+    private static void mesurerMemoire(int tour, int acheteurs, int capacite) throws InterruptedException {
+        int[] ids = new int[capacite];
+        double[] prix = new double[capacite];
+        for (int i = 0; i < capacite; i++) {
+            ids[i] = i + 1;
+            prix[i] = 50;
+        }
+        StockPlaces stock = new StockPlaces(1, 1, "Standard", ids, prix, new BitSet());
+        BitSet vendues = new BitSet(capacite);
+        AtomicInteger doublons = new AtomicInteger();
+        AtomicInteger refus = new AtomicInteger();
+        LatencyHistogram latences = new LatencyHistogram();
+
+        long duree = lancer(acheteurs, () -> {
+            int quantite = ThreadLocalRandom.current().nextInt(1, 3);
+            long debut = System.nanoTime();
+            int[] obtenues = stock.reserver(quantite);
+            latences.record(System.nanoTime() - debut);
+            if (obtenues == null) {
+                refus.incrementAndGet();
+                return;
+            }
+            synchronized (vendues) {
+                for (int index : obtenues) {
+                    if (vendues.get(index)) {
+                        doublons.incrementAndGet();
+                    }
+                    vendues.set(index);
+                }
+            }
+        });
+
+        if (doublons.get() > 0 || vendues.cardinality() + stock.getNombreLibres() != capacite) {
+            throw new IllegalStateException("Inventaire incohérent : " + doublons.get() + " place(s) vendue(s) deux fois, "
+                    + vendues.cardinality() + " vendues + " + stock.getNombreLibres() + " libres pour " + capacite + " places");
+        }
+        afficher("memoire", tour, acheteurs, capacite, vendues.cardinality(), refus.get(), duree, latences);
+    }
+
+    private static void mesurerService(boolean inventaireActif, int acheteurs, int capacite) throws Exception {
+        BaseDeBench.reinitialiser();
+        // la catégorie 1 occupe le premier quart des places de l'événement
+        BaseDeBench.insererEvenements(1, 1, capacite * 4, 0);
+        System.setProperty("reservation.inventaire.actif", String.valueOf(inventaireActif));
+        InventairePlaces.partage().reconstruire();
+        ReservationService service = new ReservationService();
+
+        Client client = new Client(2, "bench_client", "Bench", "Client", "client@example.com", "x");
+        Evenement evenement = new Evenement(1, "Evenement 1", LocalDateTime.now().plusYears(5), "Salle 1", (Organisateur) null) {
+            @Override
+            public String getSpecialGuest() { return ""; }
+        };
+        AtomicInteger vendues = new AtomicInteger();
+        AtomicInteger refus = new AtomicInteger();
+        LatencyHistogram latences = new LatencyHistogram();
+
+        long duree = lancer(acheteurs, () -> {
+            long debut = System.nanoTime();
+            try {
+                vendues.addAndGet(service.reserver(client, evenement, 1, 1).getPlaces().size());
+            } catch (PlacesInsuffisantesException e) {
+                refus.incrementAndGet();
+            } finally {
+                latences.record(System.nanoTime() - debut);
+            }
+        });
+        afficher(inventaireActif ? "service_inventaire" : "service_for_update", 1, acheteurs, capacite,
+                vendues.get(), refus.get(), duree, latences);
+    }
+
+    private static void mesurerExecuteur(int acheteurs, int capacite) throws Exception {
+        BaseDeBench.reinitialiser();
+        BaseDeBench.insererEvenements(1, 1, capacite * 4, 0);
+        System.setProperty("reservation.inventaire.actif", "true");
+        InventairePlaces.partage().reconstruire();
+
+        Client client = new Client(2, "bench_client", "Bench", "Client", "client@example.com", "x");
+        Evenement evenement = new Evenement(1, "Evenement 1", LocalDateTime.now().plusYears(5), "Salle 1", (Organisateur) null) {
+            @Override
+            public String getSpecialGuest() { return ""; }
+        };
+        int vendues = 0;
+        int refus = 0;
+        long debut = System.nanoTime();
+        try (ExecuteurReservations executeur = new ExecuteurReservations()) {
+            List<CompletableFuture<Reservation>> demandes = new ArrayList<>(acheteurs);
+            for (int i = 0; i < acheteurs; i++) {
+                demandes.add(executeur.soumettre(client, evenement, 1, 1));
+            }
+            for (CompletableFuture<Reservation> demande : demandes) {
+                try {
+                    vendues += demande.get().getPlaces().size();
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof PlacesInsuffisantesException)) {
+                        throw e;
+                    }
+                    refus++;
+                }
+            }
+            long duree = System.nanoTime() - debut;
+            afficher("service_executeur", 1, acheteurs, capacite, vendues, refus, duree, executeur.getLatences());
+        }
+    }
+
+    /**
+     * Démarre tous les acheteurs en même temps et attend leur fin.
+     *
+     * @return la durée totale en nanosecondes.
+     */
+    private static long lancer(int acheteurs, Runnable achat) throws InterruptedException {
+        CountDownLatch depart = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(acheteurs);
+        try (ExecutorService executeur = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < acheteurs; i++) {
+                executeur.submit(() -> {
+                    try {
+                        depart.await();
+                        achat.run();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        fin.countDown();
+                    }
+                });
+            }
+            long debut = System.nanoTime();
+            depart.countDown();
+            fin.await();
+            return System.nanoTime() - debut;
+        }
+    }
+
+    private static void afficher(String mode, int tour, int acheteurs, int places, int vendues, int refus,
+                                 long dureeNanos, LatencyHistogram latences) {
+        System.out.printf(Locale.ROOT, "%s;%d;%d;%d;%d;%d;%.2f;%s%n",
+                mode, tour, acheteurs, places, vendues, refus, dureeNanos / 1e6, latences);
+    }
+}
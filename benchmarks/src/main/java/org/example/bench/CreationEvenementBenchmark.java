@@ -0,0 +1,83 @@
+package org.example.bench;
+
+import org.example.dao.EvenementDAO;
+import org.example.model.CategoriePlaceDefinition;
+import org.example.model.Concert;
+import org.example.model.Organisateur;
+import org.example.util.Database;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Mesure la création d'un événement ({@link EvenementDAO#saveEvenement}) selon la taille
+ * des lots d'insertion des places ({@code evenement.insertion.taille.lot}).
+ * <p>
+ * Un lot de 1 reproduit l'ancien comportement (une instruction par place) ; les autres
+ * tailles envoient des {@code INSERT} multi-lignes. Le modèle en plages est mesuré en
+ * référence. Pour chaque capacité, affiche le nombre d'allers-retours SQL et le temps médian.
+ * <pre>
+ * mvn -f benchmarks/pom.xml compile exec:java -Dexec.mainClass=org.example.bench.CreationEvenementBenchmark \
+ *     -Ddb.url=jdbc:mysql://localhost:3306/BDReservation_bench [-Dbench.repetitions=3]
+ * </pre>
+ */
+public class CreationEvenementBenchmark {
+
+    private static final int[] CAPACITES = {1_000, 10_000, 100_000};
+    private static final int[] TAILLES_LOT = {1, 100, 1_000, 5_000};
+
+    public static void main(String[] args) throws Exception {
+        int repetitions = Integer.getInteger("bench.repetitions", 3);
+
+        BaseDeBench.reinitialiser();
+        EvenementDAO dao = new EvenementDAO();
+        Organisateur organisateur = new Organisateur(1, "bench_orga", "Bench", "Orga", "bench@example.com", "x");
+
+        System.out.println("places;mode;allers_retours;mediane_ms");
+        try (Connection directe = BaseDeBench.connexionDirecte()) {
+            for (int capacite : CAPACITES) {
+                List<CategoriePlaceDefinition> definitions = List.of(
+                        new CategoriePlaceDefinition("VIP", 150, capacite / 10),
+                        new CategoriePlaceDefinition("Gold", 100, capacite / 5),
+                        new CategoriePlaceDefinition("Silver", 70, capacite / 4),
+                        new CategoriePlaceDefinition("Standard", 40, capacite - capacite / 10 - capacite / 5 - capacite / 4));
+
+                for (int tailleLot : TAILLES_LOT) {
+                    System.setProperty("evenement.modele.places", "PLACE");
+                    System.setProperty("evenement.insertion.taille.lot", String.valueOf(tailleLot));
+                    mesurer(dao, organisateur, definitions, directe, capacite, "lot_" + tailleLot, repetitions);
+                }
+                System.setProperty("evenement.modele.places", "PLAGE");
+                mesurer(dao, organisateur, definitions, directe, capacite, "plages", repetitions);
+            }
+        } finally {
+            System.clearProperty("evenement.modele.places");
+            System.clearProperty("evenement.insertion.taille.lot");
+            Database.shutdown();
+        }
+    }
+
+    private static void mesurer(EvenementDAO dao, Organisateur organisateur, List<CategoriePlaceDefinition> definitions,
+                                Connection directe, int capacite, String mode, int repetitions) throws Exception {
+        dao.saveEvenement(nouvelEvenement(organisateur), definitions); // chauffe (JIT, pool)
+
+        long avant = BaseDeBench.compterRequetes(directe);
+        long[] durees = new long[repetitions];
+        for (int i = 0; i < repetitions; i++) {
+            long debut = System.nanoTime();
+            dao.saveEvenement(nouvelEvenement(organisateur), definitions);
+            durees[i] = System.nanoTime() - debut;
+        }
+        long allersRetours = (BaseDeBench.compterRequetes(directe) - avant - 1) / repetitions;
+        Arrays.sort(durees);
+
+        System.out.printf(Locale.ROOT, "%d;%s;%d;%.1f%n", capacite, mode, allersRetours, durees[repetitions / 2] / 1e6);
+    }
+
+    private static Concert nouvelEvenement(Organisateur organisateur) {
+        return new Concert(0, "Création bench", LocalDateTime.of(2031, 1, 1, 20, 0), "Salle bench", organisateur, "Artiste", null);
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.bench;
+
+import org.example.model.Categorie;
+import org.example.model.Concert;
+import org.example.model.Evenement;
+import org.example.model.Place;
+import org.example.model.SiegesEvenement;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Mémoire occupée par les places d'événements chargés, mesurée avec l'histogramme des classes
+ * du tas de la JVM (le même que {@code jcmd <pid> GC.class_histogram}, après un GC complet) :
+ * <ul>
+ *     <li>{@code objets} : une {@link Place} et une {@link Categorie} (avec son nom) par ligne lue,
+ *     comme le faisaient les DAO avant le stockage en colonnes ;</li>
+ *     <li>{@code colonnes} : {@link SiegesEvenement}, une catégorie par événement.</li>
+ * </ul>
+ * Affiche les octets par place et les classes qui en occupent le plus. Aucune base n'est nécessaire.
+ * <pre>
+ * mvn -f benchmarks/pom.xml compile exec:java -Dexec.mainClass=org.example.bench.EmpreintePlacesBenchmark \
+ *     [-Dbench.evenements=20] [-Dbench.placesParEvenement=50000]
+ * </pre>
+ */
+public class EmpreintePlacesBenchmark {
+
+    private static final String[] CATEGORIES = {"VIP", "Gold", "Silver", "Standard"};
+    private static final int CLASSES_AFFICHEES = 6;
+
+    private record Ligne(long instances, long octets) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int nombreEvenements = Integer.getInteger("bench.evenements", 20);
+        int placesParEvenement = Integer.getInteger("bench.placesParEvenement", 50_000);
+        long places = (long) nombreEvenements * placesParEvenement;
+
+        System.out.println("stockage;places;octets;octets_par_place");
+        for (String stockage : List.of("objets", "colonnes")) {
+            Map<String, Ligne> avant = histogramme();
+            List<Object> charges = new ArrayList<>();
+            for (int e = 0; e < nombreEvenements; e++) {
+                charges.add(stockage.equals("objets")
+                        ? placesObjets(e + 1, placesParEvenement)
+                        : placesColonnes(e + 1, placesParEvenement));
+            }
+            Map<String, Ligne> apres = histogramme();
+            Reference.reachabilityFence(charges);
+
+            long octets = apres.get("Total").octets() - avant.get("Total").octets();
+            System.out.printf(Locale.ROOT, "%s;%d;%d;%.1f%n", stockage, places, octets, (double) octets / places);
+            apres.entrySet().stream()
+                    .filter(entree -> !entree.getKey().equals("Total"))
+                    .map(entree -> Map.entry(entree.getKey(), entree.getValue().octets()
+                            - avant.getOrDefault(entree.getKey(), new Ligne(0, 0)).octets()))
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .limit(CLASSES_AFFICHEES)
+                    .forEach(entree -> System.out.printf(Locale.ROOT, "    %-40s %,14d octets%n", entree.getKey(), entree.getValue()));
+        }
+    }
+
+    /**
+     * Ce que produisaient les DAO : un objet par place, une catégorie et un nom relus à chaque ligne.
+     */
+    private static List<Place> placesObjets(int idEvenement, int nombre) {
+        Evenement evenement = evenement(idEvenement);
+        List<Place> places = new ArrayList<>();
+        for (int i = 0; i < nombre; i++) {
+            int categorie = i * CATEGORIES.length / nombre;
+            // le driver JDBC crée une nouvelle chaîne par ligne
+            Categorie lue = new Categorie(categorie + 1, new String(CATEGORIES[categorie]));
+            Place place = new Place(idEvenement * nombre + i, 150 - categorie * 30, lue, evenement);
+            place.setLibre(i % 3 != 0);
+            places.add(place);
+        }
+        return places;
+    }
+
+    private static Evenement placesColonnes(int idEvenement, int nombre) {
+        Evenement evenement = evenement(idEvenement);
+        SiegesEvenement sieges = evenement.getSieges();
+        for (int i = 0; i < nombre; i++) {
+            int categorie = i * CATEGORIES.length / nombre;
+            int index = sieges.indexCategorie(categorie + 1);
+            if (index < 0) {
+                index = sieges.ajouterCategorie(new Categorie(categorie + 1, new String(CATEGORIES[categorie])));
+            }
+            sieges.ajouter(idEvenement * nombre + i, index, 150 - categorie * 30, i % 3 != 0);
+        }
+        return evenement;
+    }
+
+    private static Evenement evenement(int id) {
+        return new Concert(id, "Concert " + id, LocalDateTime.of(2031, 1, 1, 20, 0), "Salle", null, "Artiste", null);
+    }
+
+    /**
+     * Objets vivants par classe, après un GC complet ; la clé {@code Total} porte la somme.
+     */
+    private static Map<String, Ligne> histogramme() throws Exception {
+        String texte = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+                new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+                new Object[]{new String[0]}, new String[]{String[].class.getName()});
+        Map<String, Ligne> lignes = new HashMap<>();
+        for (String ligne : texte.split("\n")) {
+            String[] colonnes = ligne.trim().split("\\s+");
+            if (colonnes.length >= 4 && colonnes[0].endsWith(":")) {
+                lignes.merge(colonnes[3], new Ligne(Long.parseLong(colonnes[1]), Long.parseLong(colonnes[2])),
+                        (a, b) -> new Ligne(a.instances() + b.instances(), a.octets() + b.octets()));
+            } else if (colonnes.length == 3 && colonnes[0].equals("Total")) {
+                lignes.put("Total", new Ligne(Long.parseLong(colonnes[1]), Long.parseLong(colonnes[2])));
+            }
+        }
+        return lignes;
+    }
+}
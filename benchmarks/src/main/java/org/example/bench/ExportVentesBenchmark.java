@@ -0,0 +1,80 @@
+package org.example.bench;
+
+import org.example.dao.ReservationDAO;
+import org.example.service.ExportVentesService;
+import org.example.service.ExportVentesService.Format;
+import org.example.util.Database;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Débit de l'export des ventes ({@link ExportVentesService}) : tous les sièges de
+ * {@code bench.evenements} événements sont vendus et payés, puis exportés en CSV et en binaire.
+ * La ligne {@code LECTURE} parcourt les mêmes ventes sans rien écrire, pour séparer le coût
+ * de la base de celui de l'encodage et du disque.
+ * <p>
+ * Affiche pour chaque mode le temps médian, les sièges par seconde et les Mo écrits par seconde.
+ * <pre>
+ * mvn -f benchmarks/pom.xml compile exec:java -Dexec.mainClass=org.example.bench.ExportVentesBenchmark \
+ *     -Ddb.url=jdbc:mysql://localhost:3306/BDReservation_bench \
+ *     [-Dbench.evenements=100] [-Dbench.placesParEvenement=10000] [-Dbench.repetitions=3] [-Dbench.dossier=/tmp]
+ * </pre>
+ */
+public class ExportVentesBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int evenements = Integer.getInteger("bench.evenements", 100);
+        int placesParEvenement = Integer.getInteger("bench.placesParEvenement", 10_000);
+        int repetitions = Integer.getInteger("bench.repetitions", 3);
+        Path dossier = Path.of(System.getProperty("bench.dossier", System.getProperty("java.io.tmpdir")));
+
+        BaseDeBench.reinitialiser();
+        BaseDeBench.insererEvenements(1, evenements, placesParEvenement, placesParEvenement);
+        try (Connection directe = BaseDeBench.connexionDirecte(); Statement st = directe.createStatement()) {
+            st.executeUpdate("INSERT INTO payment (card_name, card_number, payment_date, reservation_id) "
+                    + "SELECT 'Bench', '4111111111111111', reservation_date, reservation_id FROM reservation");
+        }
+
+        ExportVentesService export = new ExportVentesService();
+        ReservationDAO reservationDAO = new ReservationDAO();
+
+        System.out.println("mode;sieges;octets;mediane_ms;sieges_par_s;mo_par_s");
+        try {
+            for (String mode : new String[]{"LECTURE", Format.CSV.name(), Format.BINAIRE.name()}) {
+                Path fichier = dossier.resolve("export-ventes-bench." + mode.toLowerCase(Locale.ROOT));
+                long sieges = 0;
+                long[] durees = new long[repetitions + 1];
+                // la première mesure sert de chauffe (JIT, pool, cache de la base)
+                for (int i = 0; i <= repetitions; i++) {
+                    long debut = System.nanoTime();
+                    if (mode.equals("LECTURE")) {
+                        LongAdder lignes = new LongAdder();
+                        try (Connection conn = Database.getConnection()) {
+                            reservationDAO.parcourirVentes(conn, null, ligne -> lignes.add(ligne.getNombreSieges()));
+                        }
+                        sieges = lignes.sum();
+                    } else {
+                        sieges = export.exporter(null, fichier, Format.valueOf(mode));
+                    }
+                    durees[i] = System.nanoTime() - debut;
+                }
+                long[] mesures = Arrays.copyOfRange(durees, 1, durees.length);
+                Arrays.sort(mesures);
+
+                long octets = Files.exists(fichier) ? Files.size(fichier) : 0;
+                double secondes = mesures[repetitions / 2] / 1e9;
+                System.out.printf(Locale.ROOT, "%s;%d;%d;%.1f;%.0f;%.1f%n",
+                        mode, sieges, octets, secondes * 1e3, sieges / secondes, octets / 1e6 / secondes);
+                Files.deleteIfExists(fichier);
+            }
+        } finally {
+            Database.shutdown();
+        }
+    }
+}
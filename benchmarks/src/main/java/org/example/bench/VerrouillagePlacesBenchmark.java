@@ -0,0 +1,89 @@
+package org.example.bench;
+
+import org.example.dao.PlaceDAO;
+import org.example.dao.PlaceDAO.VerrouillagePlaces;
+import org.example.dao.ReservationDAO;
+import org.example.model.Place;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Débit de réservation sur une catégorie très demandée, selon le verrouillage des places
+ * ({@link VerrouillagePlaces}) et le nombre de threads.
+ * <p>
+ * Chaque thread a sa propre connexion et enchaîne des transactions : recherche et verrouillage
+ * de 2 places libres, courte pause simulant le travail fait sous verrou, insertion de la
+ * réservation, commit. Avec FOR_UPDATE, le débit reste proche d'une réservation à la fois ;
+ * avec SKIP_LOCKED, il doit croître avec le nombre de threads.
+ * <pre>
+ * mvn -f benchmarks/pom.xml compile exec:java -Dexec.mainClass=org.example.bench.VerrouillagePlacesBenchmark \
+ *     -Ddb.url=jdbc:mysql://localhost:3306/BDReservation_bench [-Dbench.dureeSecondes=5] [-Dbench.travailSousVerrouMs=5]
+ * </pre>
+ */
+public class VerrouillagePlacesBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16};
+    private static final int PLACES_PAR_RESERVATION = 2;
+
+    public static void main(String[] args) throws Exception {
+        int dureeSecondes = Integer.getInteger("bench.dureeSecondes", 5);
+        long travailSousVerrouMs = Long.getLong("bench.travailSousVerrouMs", 5);
+        // assez de places pour ne jamais épuiser la catégorie pendant la mesure
+        int placesCategorie = Integer.getInteger("bench.places", 50_000);
+
+        System.out.println("verrouillage;threads;reservations;reservations_par_s");
+        for (VerrouillagePlaces verrouillage : VerrouillagePlaces.values()) {
+            for (int threads : THREADS) {
+                BaseDeBench.reinitialiser();
+                // la catégorie 1 occupe le premier quart des places de l'événement
+                BaseDeBench.insererEvenements(1, 1, placesCategorie * 4, 0);
+
+                long reservations = mesurer(verrouillage, threads, dureeSecondes * 1_000_000_000L, travailSousVerrouMs);
+                System.out.printf(Locale.ROOT, "%s;%d;%d;%.1f%n",
+                        verrouillage, threads, reservations, reservations / (double) dureeSecondes);
+            }
+        }
+    }
+
+    private static long mesurer(VerrouillagePlaces verrouillage, int threads, long dureeNanos, long travailSousVerrouMs) throws Exception {
+        PlaceDAO placeDAO = new PlaceDAO();
+        ReservationDAO reservationDAO = new ReservationDAO();
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<Long>> resultats = new ArrayList<>();
+
+        try (ExecutorService executeur = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                resultats.add(executeur.submit(() -> {
+                    long reussies = 0;
+                    try (Connection conn = BaseDeBench.connexionDirecte()) {
+                        conn.setAutoCommit(false);
+                        depart.await();
+                        long fin = System.nanoTime() + dureeNanos;
+                        while (System.nanoTime() < fin) {
+                            List<Place> places = placeDAO.findFreePlacesByEventAndCategory(conn, 1, 1, PLACES_PAR_RESERVATION, verrouillage);
+                            Thread.sleep(travailSousVerrouMs);
+                            List<Integer> ids = places.stream().map(Place::getIdPlace).toList();
+                            reservationDAO.saveReservation(conn, 2, ids);
+                            conn.commit();
+                            reussies++;
+                        }
+                    }
+                    return reussies;
+                }));
+            }
+            depart.countDown();
+            long total = 0;
+            for (Future<Long> resultat : resultats) {
+                total += resultat.get();
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.bench.jmh;
+
+import org.example.bench.BaseDeBench;
+import org.example.dao.EvenementDAO;
+import org.example.dao.EvenementDAO.ChargementPlaces;
+import org.example.model.Evenement;
+import org.example.model.EvenementResume;
+import org.example.model.FiltreEvenements;
+import org.example.model.PageEvenements;
+import org.example.util.Database;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requêtes et conversion des lignes en objets de {@link EvenementDAO}, sur une base H2
+ * embarquée en mémoire (mode MySQL) créée à partir de {@code schema.sql} : mesure le code
+ * Java du DAO (mapping, regroupement, filtres du catalogue) sans dépendre d'un serveur.
+ * <p>
+ * Les temps ne sont pas ceux de MySQL : pour comparer des plans d'exécution, utiliser les
+ * benchmarks sur une vraie base ({@code -Ddb.url}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvenementDaoJmh {
+
+    private static final String URL_H2 = "jdbc:h2:mem:bench_jmh;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1";
+
+    @Param({"200"})
+    int evenements;
+
+    @Param({"40"})
+    int placesParEvenement;
+
+    private EvenementDAO dao;
+    private FiltreEvenements filtreLieu;
+    private FiltreEvenements filtreType;
+
+    @Setup
+    public void preparer() throws Exception {
+        // chaque benchmark tourne dans sa propre JVM (fork) : le pool de Database pointera sur H2
+        System.setProperty("db.url", URL_H2);
+        System.setProperty("db.user", "sa");
+        System.setProperty("db.password", "");
+        try (Connection conn = BaseDeBench.connexionDirecte(); Statement st = conn.createStatement()) {
+            BaseDeBench.creerSchema(st);
+        }
+        BaseDeBench.insererEvenements(1, evenements, placesParEvenement, placesParEvenement / 4);
+
+        dao = new EvenementDAO();
+        filtreLieu = new FiltreEvenements(null, "salle 1", null);
+        filtreType = new FiltreEvenements("Concert", null, "artiste");
+    }
+
+    @TearDown
+    public void fermer() {
+        Database.shutdown();
+    }
+
+    @Benchmark
+    public List<Evenement> findAllEnsembliste() throws Exception {
+        return dao.findAll(ChargementPlaces.ENSEMBLISTE);
+    }
+
+    @Benchmark
+    public List<Evenement> findAllParEvenement() throws Exception {
+        return dao.findAll(ChargementPlaces.PAR_EVENEMENT);
+    }
+
+    @Benchmark
+    public Evenement findById() throws Exception {
+        return dao.findById(evenements / 2);
+    }
+
+    @Benchmark
+    public List<EvenementResume> findAllResumes() throws Exception {
+        return dao.findAllResumes();
+    }
+
+    @Benchmark
+    public PageEvenements pageSansFiltre() throws Exception {
+        return dao.findPageResumes(FiltreEvenements.aucun(), null, 50);
+    }
+
+    @Benchmark
+    public PageEvenements pageFiltreLieu() throws Exception {
+        return dao.findPageResumes(filtreLieu, null, 50);
+    }
+
+    @Benchmark
+    public PageEvenements pageFiltreTypeEtArtiste() throws Exception {
+        return dao.findPageResumes(filtreType, null, 50);
+    }
+}
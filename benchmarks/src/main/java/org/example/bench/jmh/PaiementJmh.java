@@ -0,0 +1,73 @@
+package org.example.bench.jmh;
+
+import org.example.exception.PaiementInvalideException;
+import org.example.model.Categorie;
+import org.example.model.Client;
+import org.example.model.Concert;
+import org.example.model.Evenement;
+import org.example.model.Paiement;
+import org.example.model.Place;
+import org.example.model.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation des données de carte avant l'enregistrement d'un paiement
+ * ({@link Paiement#verifierDonneesDePaiement}), pour un paiement valide et pour un
+ * numéro de carte refusé (chemin avec exception).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaiementJmh {
+
+    private Paiement valide;
+    private Paiement numeroInvalide;
+
+    @Setup
+    public void preparer() {
+        Evenement evenement = new Concert(1, "Concert bench", LocalDateTime.of(2031, 1, 1, 20, 0), "Salle", null, "Artiste", null);
+        Categorie categorie = new Categorie(1, "VIP");
+        List<Place> places = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            places.add(new Place(i + 1, 80, categorie, evenement));
+        }
+        Client client = new Client(2, "bench_client", "Bench", "Client", "client@example.com", "x");
+        Reservation reservation = new Reservation(1, client, evenement, places, LocalDateTime.now());
+
+        valide = new Paiement("Jean-Pierre Martin", "4970101234567890", reservation);
+        numeroInvalide = new Paiement("Jean-Pierre Martin", "4970 1012 3456", reservation);
+    }
+
+    @Benchmark
+    public Paiement paiementValide() throws PaiementInvalideException {
+        valide.verifierDonneesDePaiement();
+        return valide;
+    }
+
+    @Benchmark
+    public PaiementInvalideException numeroRefuse() {
+        try {
+            numeroInvalide.verifierDonneesDePaiement();
+            return null;
+        } catch (PaiementInvalideException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.bench.jmh;
+
+import org.example.model.Categorie;
+import org.example.model.Concert;
+import org.example.model.Evenement;
+import org.example.model.EvenementStats;
+import org.example.model.Place;
+import org.example.service.EvenementService;
+import org.example.service.MoteurStatistiques;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculs faits sur un événement chargé en mémoire : statistiques du tableau de bord
+ * ({@link EvenementService#calculerStatistiques}) et indicateurs de {@link Evenement}.
+ * {@link #calculerStatistiquesParNom} reproduit l'ancien calcul (trois {@code HashMap}
+ * indexées par nom de catégorie) pour comparaison avec le moteur en tableaux primitifs,
+ * {@link #calculerStatistiquesObjets} le même moteur sur une liste d'objets {@link Place}
+ * (stockage des places avant leur passage en colonnes).
+ * <p>
+ * Les places sont réparties sur 4 catégories ; {@code tauxVendu} % d'entre elles,
+ * tirées au hasard (graine fixe), sont réservées.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatistiquesEvenementJmh {
+
+    private static final String[] CATEGORIES = {"VIP", "Gold", "Silver", "Standard"};
+
+    @Param({"100", "10000", "100000"})
+    int places;
+
+    @Param({"30"})
+    int tauxVendu;
+
+    private Evenement evenement;
+    private List<Place> placesObjets;
+    private EvenementService service;
+
+    @Setup
+    public void preparer() {
+        evenement = new Concert(1, "Concert bench", LocalDateTime.of(2031, 1, 1, 20, 0), "Salle", null, "Artiste", null);
+        List<Categorie> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            categories.add(new Categorie(i + 1, CATEGORIES[i]));
+        }
+
+        SplittableRandom hasard = new SplittableRandom(42);
+        List<Place> liste = new ArrayList<>(places);
+        for (int i = 0; i < places; i++) {
+            int categorie = i * CATEGORIES.length / places;
+            Place place = new Place(i + 1, 150 - categorie * 30, categories.get(categorie), evenement);
+            place.setLibre(hasard.nextInt(100) >= tauxVendu);
+            liste.add(place);
+        }
+        evenement.setPlaces(liste);
+        placesObjets = liste;
+        service = new EvenementService();
+    }
+
+    @Benchmark
+    public EvenementStats calculerStatistiques() {
+        return service.calculerStatistiques(evenement);
+    }
+
+    @Benchmark
+    public EvenementStats calculerStatistiquesObjets() {
+        return MoteurStatistiques.calculer(placesObjets);
+    }
+
+    @Benchmark
+    public Map<String, Double> calculerStatistiquesParNom(Blackhole trou) {
+        int totalVendues = 0;
+        double chiffreAffaires = 0;
+        Map<String, Integer> totalParCategorie = new HashMap<>();
+        Map<String, Integer> venduesParCategorie = new HashMap<>();
+
+        for (Place place : evenement.getPlaces()) {
+            String categorie = place.getCategorie().getNomCategorie();
+            totalParCategorie.put(categorie, totalParCategorie.getOrDefault(categorie, 0) + 1);
+            if (!place.estDisponible()) {
+                venduesParCategorie.put(categorie, venduesParCategorie.getOrDefault(categorie, 0) + 1);
+                totalVendues++;
+                chiffreAffaires += place.getPrix();
+            }
+        }
+
+        Map<String, Double> tauxParCategorie = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : totalParCategorie.entrySet()) {
+            int vendues = venduesParCategorie.getOrDefault(entry.getKey(), 0);
+            tauxParCategorie.put(entry.getKey(), entry.getValue() == 0 ? 0 : (vendues * 100.0) / entry.getValue());
+        }
+        trou.consume(totalVendues);
+        trou.consume(chiffreAffaires);
+        return tauxParCategorie;
+    }
+
+    @Benchmark
+    public double tauxRemplissage() {
+        return evenement.getTauxRemplissage();
+    }
+
+    @Benchmark
+    public double totalVentes() {
+        return evenement.getTotalVentes();
+    }
+
+    @Benchmark
+    public long nombrePlacesReservees() {
+        return evenement.getNombrePlacesReservees();
+    }
+}
@@ -4,6 +4,8 @@ module org.example.plateformereservation {
 
     requires com.dlsc.formsfx;
     requires java.sql;
+    requires jdk.httpserver;
+    requires jdk.jfr;
     requires javafx.graphics;
     requires javafx.base;
     //requires org.example.plateformereservation;
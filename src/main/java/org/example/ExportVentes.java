@@ -0,0 +1,39 @@
+package org.example;
+
+import org.example.service.ExportVentesService;
+import org.example.service.ExportVentesService.Format;
+import org.example.util.Database;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Outil en ligne de commande qui exporte les ventes (une ligne par siège vendu) vers un fichier :
+ * <pre>
+ * ExportVentes fichier [CSV|BINAIRE] [idEvenement]
+ * </pre>
+ * Sans identifiant, tout le catalogue est exporté ; le format par défaut est CSV.
+ */
+public class ExportVentes {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("Usage : ExportVentes fichier [CSV|BINAIRE] [idEvenement]");
+            System.exit(2);
+        }
+        Path fichier = Path.of(args[0]);
+        Format format = args.length > 1 ? Format.valueOf(args[1].toUpperCase(Locale.ROOT)) : Format.CSV;
+        Integer eventId = args.length > 2 ? Integer.valueOf(args[2]) : null;
+
+        try {
+            long debut = System.nanoTime();
+            long sieges = new ExportVentesService().exporter(eventId, fichier, format);
+            double secondes = (System.nanoTime() - debut) / 1e9;
+            System.out.printf(Locale.ROOT, "%d sièges exportés dans %s (%d octets) en %.1f s%n",
+                    sieges, fichier, Files.size(fichier), secondes);
+        } finally {
+            Database.shutdown();
+        }
+    }
+}
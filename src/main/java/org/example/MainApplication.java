@@ -5,8 +5,13 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.example.service.InventairePlaces;
+import org.example.util.BackgroundTasks;
+import org.example.util.Configuration;
+import org.example.util.Database;
 
 import java.io.IOException;
+import java.sql.SQLException;
 
 
 /**
@@ -18,6 +23,23 @@ import java.io.IOException;
  * la feuille de style CSS de l'application.
  */
 public class MainApplication extends Application {
+    /**
+     * Appelée par JavaFX avant {@link #start(Stage)}, hors du thread de l'interface :
+     * reconstruit l'inventaire des places libres à partir de la base.
+     * En cas d'échec, chaque stock sera chargé à sa première réservation.
+     */
+    @Override
+    public void init() {
+        if (!Configuration.booleen("reservation.inventaire.actif", true)) {
+            return;
+        }
+        try {
+            InventairePlaces.partage().reconstruire();
+        } catch (SQLException e) {
+            System.err.println("Inventaire des places non reconstruit : " + e.getMessage());
+        }
+    }
+
     /**
      * Point d'entrée JavaFX. Cette méthode est appelée après
      * le lancement de l'application et initialise la scène principale.
@@ -40,4 +62,14 @@ public class MainApplication extends Application {
         stage.setScene(scene);
         stage.show();
     }
+
+    /**
+     * Appelée par JavaFX à la fermeture de l'application :
+     * on interrompt les chargements en cours puis on ferme proprement les connexions du pool.
+     */
+    @Override
+    public void stop() {
+        BackgroundTasks.shutdown();
+        Database.shutdown();
+    }
 }
@@ -0,0 +1,49 @@
+package org.example;
+
+import org.example.dao.PlageSiegeDAO;
+import org.example.service.EvenementService;
+import org.example.util.Database;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outil en ligne de commande qui convertit des événements du modèle « une ligne par place »
+ * vers le modèle en plages de sièges.
+ * <p>
+ * Sans argument, tous les événements encore en places sont convertis ; sinon seuls les
+ * identifiants passés en arguments. Chaque événement est converti dans sa propre transaction.
+ */
+public class MigrationPlages {
+
+    public static void main(String[] args) throws Exception {
+        EvenementService evenementService = new EvenementService();
+        try {
+            List<Integer> ids = new ArrayList<>();
+            if (args.length == 0) {
+                try (Connection conn = Database.getConnection()) {
+                    ids.addAll(new PlageSiegeDAO().listerEvenementsEnPlaces(conn));
+                }
+            } else {
+                for (String arg : args) {
+                    ids.add(Integer.parseInt(arg));
+                }
+            }
+
+            int total = 0;
+            for (int id : ids) {
+                try {
+                    int sieges = evenementService.migrerVersPlages(id);
+                    total += sieges;
+                    System.out.println("Événement " + id + " : " + sieges + " sièges convertis");
+                } catch (Exception e) {
+                    System.err.println("Échec de la conversion de l'événement " + id + " : " + e.getMessage());
+                }
+            }
+            System.out.println(ids.size() + " événement(s) traité(s), " + total + " sièges convertis.");
+        } finally {
+            Database.shutdown();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.example;
+
+import org.example.api.ApiReservations;
+import org.example.service.InventairePlaces;
+import org.example.util.Configuration;
+import org.example.util.Database;
+
+import java.sql.SQLException;
+
+/**
+ * Lance l'API HTTP de réservation sans interface graphique (voir {@link ApiReservations}),
+ * par exemple pour des bornes ou des tests de charge :
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=org.example.ServeurApi -Dapi.port=8080
+ * </pre>
+ * Le serveur s'arrête proprement sur Ctrl+C, en affichant les mesures des requêtes par opération de DAO.
+ */
+public class ServeurApi {
+
+    public static void main(String[] args) throws Exception {
+        // même préparation que l'application graphique
+        if (Configuration.booleen("reservation.inventaire.actif", true)) {
+            try {
+                InventairePlaces.partage().reconstruire();
+            } catch (SQLException e) {
+                System.err.println("Inventaire des places non reconstruit : " + e.getMessage());
+            }
+        }
+
+        ApiReservations api = new ApiReservations();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            api.close();
+            System.out.print(Database.getPool().getQueryMetrics().resume());
+            Database.shutdown();
+        }, "arret-api"));
+        api.demarrer();
+        System.out.println("API de réservation à l'écoute sur le port " + api.getAdresse().getPort());
+    }
+}
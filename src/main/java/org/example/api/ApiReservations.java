@@ -0,0 +1,547 @@
+package org.example.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.dao.UtilisateurDAO;
+import org.example.exception.AnnulationTardiveException;
+import org.example.exception.PaiementInvalideException;
+import org.example.exception.PlacesInsuffisantesException;
+import org.example.exception.RessourceIntrouvableException;
+import org.example.exception.RetenueExpireeException;
+import org.example.model.Client;
+import org.example.model.DisponibiliteCategorie;
+import org.example.model.Evenement;
+import org.example.model.EvenementResume;
+import org.example.model.FiltreEvenements;
+import org.example.model.Paiement;
+import org.example.model.PageEvenements;
+import org.example.model.Place;
+import org.example.model.Reservation;
+import org.example.model.Retenue;
+import org.example.model.Utilisateur;
+import org.example.service.CacheCatalogue;
+import org.example.service.EvenementService;
+import org.example.service.ExecuteurReservations;
+import org.example.service.ReservationService;
+import org.example.service.RetenuesPlaces;
+import org.example.service.UtilisateurService;
+import org.example.util.Configuration;
+import org.example.util.ConnectionPool;
+import org.example.util.Database;
+import org.example.util.Json;
+import org.example.util.LatencyHistogram;
+import org.example.util.LruCache;
+import org.example.util.QueryMetrics;
+import org.example.util.StatementStats;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * API HTTP/JSON de réservation, servie par le serveur HTTP du JDK sans interface graphique.
+ * <p>
+ * Chaque requête est traitée sur son propre thread virtuel : un client qui attend la base
+ * n'occupe pas de thread système, et des milliers de connexions simultanées coûtent peu.
+ * Les réservations passent par un {@link ExecuteurReservations} borné à la taille du pool.
+ * <pre>
+ * POST   /api/sessions                          {"pseudo", "motDePasse"} → {"jeton"}
+ * DELETE /api/sessions                          fermeture de la session du jeton
+ * GET    /api/evenements?type=&lieu=&invite=&taille=&apresDate=&apresId=
+ * GET    /api/evenements/{id}/categories        places restantes, options en cours déduites
+ * POST   /api/reservations                      {"evenementId", "categorieId", "nombre"}
+ * POST   /api/reservations/{id}/paiement        {"nomCarte", "numeroCarte"}
+ * DELETE /api/reservations/{id}
+ * POST   /api/retenues                          {"evenementId", "categorieId", "nombre"} → option
+ * POST   /api/retenues/{id}/paiement            {"nomCarte", "numeroCarte"} → réservation payée
+ * DELETE /api/retenues/{id}
+ * GET    /api/etat                              jauges du pool, de l'exécuteur et des options
+ * </pre>
+ * Les options ({@code /api/retenues}) gardent les places en mémoire jusqu'au paiement, sans écrire
+ * en base ; elles n'existent que si {@link ReservationService#retenuesActives()}. Une option
+ * expirée, déjà relâchée ou en cours de paiement répond 410.
+ * Les opérations sur les réservations demandent l'en-tête {@code Authorization: Bearer <jeton>}.
+ * Les sessions sont gardées en mémoire et perdues au redémarrage du serveur ; une session
+ * expire après {@code api.session.inactiviteMinutes} sans requête, et les moins récemment
+ * utilisées sont oubliées au-delà de {@code api.sessions.max}.
+ */
+public class ApiReservations implements AutoCloseable {
+
+    private static final int TAILLE_PAGE_MAX = 100;
+    private static final int TAILLE_CORPS_MAX = 64 * 1024;
+    // requêtes les plus exécutées reportées par GET /api/etat
+    private static final int REQUETES_AFFICHEES = 20;
+
+    private final HttpServer serveur;
+    private final ExecutorService threadsRequetes = Executors.newVirtualThreadPerTaskExecutor();
+    private final EvenementService evenementService = new EvenementService();
+    private final ReservationService reservationService = new ReservationService();
+    private final UtilisateurService utilisateurService = new UtilisateurService(new UtilisateurDAO());
+    private final ExecuteurReservations executeur = new ExecuteurReservations();
+    // jeton → utilisateur ; une session inutilisée pendant api.session.inactiviteMinutes expire
+    private final LruCache<String, Utilisateur> sessions = new LruCache<>(
+            Configuration.entier("api.sessions.max", 100_000),
+            Duration.ofMinutes(Configuration.entierLong("api.session.inactiviteMinutes", 30)));
+
+    /**
+     * Erreur due à la requête elle-même (paramètre manquant ou mal formé) : réponse 400.
+     */
+    private static class RequeteInvalideException extends RuntimeException {
+        RequeteInvalideException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Session inconnue ou identifiants refusés : réponse 401.
+     */
+    private static class SessionAbsenteException extends SecurityException {
+        SessionAbsenteException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Crée le serveur sans le démarrer.
+     *
+     * @param port    port d'écoute.
+     * @param backlog connexions en attente d'acceptation gardées par le système.
+     */
+    public ApiReservations(int port, int backlog) throws IOException {
+        serveur = HttpServer.create(new InetSocketAddress(port), backlog);
+        serveur.setExecutor(threadsRequetes);
+        serveur.createContext("/api/", this::traiter);
+    }
+
+    /**
+     * Crée le serveur avec {@code api.port} et {@code api.backlog}.
+     */
+    public ApiReservations() throws IOException {
+        this(Configuration.entier("api.port", 8080), Configuration.entier("api.backlog", 1024));
+    }
+
+    public void demarrer() {
+        serveur.start();
+    }
+
+    public InetSocketAddress getAdresse() {
+        return serveur.getAddress();
+    }
+
+    /**
+     * Arrête d'accepter des requêtes, laisse une seconde aux requêtes en cours puis
+     * attend les réservations déjà soumises.
+     */
+    @Override
+    public void close() {
+        serveur.stop(1);
+        executeur.close();
+        threadsRequetes.shutdown();
+    }
+
+    private void traiter(HttpExchange echange) throws IOException {
+        try (echange) {
+            String[] chemin = echange.getRequestURI().getPath().substring("/api/".length()).split("/");
+            String methode = echange.getRequestMethod();
+            try {
+                router(echange, methode, chemin);
+            } catch (Exception e) {
+                repondreErreur(echange, e);
+            }
+        }
+    }
+
+    private void router(HttpExchange echange, String methode, String[] chemin) throws Exception {
+        switch (chemin[0]) {
+            case "sessions" -> {
+                if (chemin.length == 1 && methode.equals("POST")) { ouvrirSession(echange); return; }
+                if (chemin.length == 1 && methode.equals("DELETE")) { fermerSession(echange); return; }
+            }
+            case "evenements" -> {
+                if (chemin.length == 1 && methode.equals("GET")) { listerEvenements(echange); return; }
+                if (chemin.length == 3 && chemin[2].equals("categories") && methode.equals("GET")) {
+                    listerCategories(echange, entier(chemin[1], "id"));
+                    return;
+                }
+            }
+            case "reservations" -> {
+                if (chemin.length == 1 && methode.equals("POST")) { reserver(echange); return; }
+                if (chemin.length == 2 && methode.equals("DELETE")) { annuler(echange, entier(chemin[1], "id")); return; }
+                if (chemin.length == 3 && chemin[2].equals("paiement") && methode.equals("POST")) {
+                    payer(echange, entier(chemin[1], "id"));
+                    return;
+                }
+            }
+            case "retenues" -> {
+                if (reservationService.retenuesActives()) {
+                    if (chemin.length == 1 && methode.equals("POST")) { retenir(echange); return; }
+                    if (chemin.length == 2 && methode.equals("DELETE")) { relacher(echange, entier(chemin[1], "id")); return; }
+                    if (chemin.length == 3 && chemin[2].equals("paiement") && methode.equals("POST")) {
+                        payerRetenue(echange, entier(chemin[1], "id"));
+                        return;
+                    }
+                }
+            }
+            case "etat" -> {
+                if (chemin.length == 1 && methode.equals("GET")) { etat(echange); return; }
+                if (chemin.length == 2 && chemin[1].equals("requetes") && methode.equals("GET")) { etatRequetes(echange); return; }
+            }
+            default -> { }
+        }
+        repondre(echange, 404, new Json.Objet().champ("erreur", "Ressource inconnue : " + methode + " " + echange.getRequestURI().getPath()));
+    }
+
+    private void ouvrirSession(HttpExchange echange) throws Exception {
+        Map<String, String> corps = lireCorps(echange);
+        Utilisateur utilisateur;
+        try {
+            utilisateur = utilisateurService.login(requis(corps, "pseudo"), requis(corps, "motDePasse"));
+        } catch (SQLException | RequeteInvalideException e) {
+            throw e;
+        } catch (Exception e) {
+            // le service signale les identifiants refusés par une Exception simple
+            throw new SessionAbsenteException(e.getMessage());
+        }
+        String jeton = UUID.randomUUID().toString();
+        sessions.put(jeton, utilisateur);
+        repondre(echange, 201, new Json.Objet()
+                .champ("jeton", jeton)
+                .champ("idUtilisateur", utilisateur.getIdUser())
+                .champ("type", utilisateur.getTypeCompte()));
+    }
+
+    private void fermerSession(HttpExchange echange) throws IOException {
+        String jeton = jeton(echange);
+        if (jeton == null) {
+            throw new SessionAbsenteException("Session absente ou expirée.");
+        }
+        sessions.invalidate(jeton);
+        echange.sendResponseHeaders(204, -1);
+    }
+
+    private void listerEvenements(HttpExchange echange) throws Exception {
+        Map<String, String> parametres = lireParametres(echange);
+        FiltreEvenements filtre = new FiltreEvenements(parametres.get("type"), parametres.get("lieu"), parametres.get("invite"));
+        int taille = Math.clamp(parametres.containsKey("taille") ? entier(parametres.get("taille"), "taille") : 20, 1, TAILLE_PAGE_MAX);
+        PageEvenements precedente = null;
+        if (parametres.containsKey("apresDate")) {
+            precedente = PageEvenements.reprise(dateHeure(parametres.get("apresDate")),
+                    entier(parametres.getOrDefault("apresId", "0"), "apresId"));
+        }
+
+        PageEvenements page = evenementService.chargerPageResumes(filtre, precedente, taille);
+        Json.Tableau liste = new Json.Tableau();
+        for (EvenementResume resume : page.getElements()) {
+            Evenement evenement = resume.getEvenement();
+            liste.ajouter(new Json.Objet()
+                    .champ("id", evenement.getIdEvenement())
+                    .champ("nom", evenement.getNom())
+                    .champ("type", evenement.getTypeEvenement())
+                    .champ("date", evenement.getDateEvent().toString())
+                    .champ("lieu", evenement.getLieu())
+                    .champ("invite", evenement.getSpecialGuest())
+                    .champ("capacite", resume.getCapaciteTotale())
+                    .champ("disponibles", resume.getNombrePlacesDisponibles()));
+        }
+        Json.Objet reponse = new Json.Objet().champ("evenements", liste);
+        if (!page.estDerniere() && page.getDateDernier() != null) {
+            reponse.champ("suite", new Json.Objet()
+                    .champ("apresDate", page.getDateDernier().toString())
+                    .champ("apresId", page.getIdDernier()));
+        }
+        repondre(echange, 200, reponse);
+    }
+
+    private void listerCategories(HttpExchange echange, int idEvenement) throws Exception {
+        Json.Tableau liste = new Json.Tableau();
+        for (DisponibiliteCategorie categorie : reservationService.listerDisponibilites(idEvenement)) {
+            liste.ajouter(new Json.Objet()
+                    .champ("id", categorie.getIdCategorie())
+                    .champ("nom", categorie.getNomCategorie())
+                    .champ("total", categorie.getTotalPlaces())
+                    .champ("restantes", categorie.getPlacesRestantes())
+                    .champ("retenues", categorie.getPlacesRetenues())
+                    .champ("prixMin", categorie.getPrixMin())
+                    .champ("prixMax", categorie.getPrixMax()));
+        }
+        repondre(echange, 200, new Json.Objet().champ("categories", liste));
+    }
+
+    private void reserver(HttpExchange echange) throws Exception {
+        Client client = client(echange);
+        Map<String, String> corps = lireCorps(echange);
+        int idEvenement = entier(requis(corps, "evenementId"), "evenementId");
+        int idCategorie = entier(requis(corps, "categorieId"), "categorieId");
+        int nombre = entier(requis(corps, "nombre"), "nombre");
+        if (nombre < 1) {
+            throw new RequeteInvalideException("Le nombre de places doit être positif.");
+        }
+
+        Reservation reservation = executeur.soumettre(client, evenement(idEvenement), idCategorie, nombre).get();
+        Json.Tableau places = new Json.Tableau();
+        for (Place place : reservation.getPlaces()) {
+            places.ajouter(place.getIdPlace());
+        }
+        repondre(echange, 201, new Json.Objet()
+                .champ("id", reservation.getIdReservation())
+                .champ("evenementId", idEvenement)
+                .champ("places", places)
+                .champ("total", reservation.calculateTotalPrice()));
+    }
+
+    private void payer(HttpExchange echange, int idReservation) throws Exception {
+        Client client = client(echange);
+        Map<String, String> corps = lireCorps(echange);
+        Paiement paiement = reservationService.payer(idReservation, client,
+                requis(corps, "nomCarte"), requis(corps, "numeroCarte"));
+        repondre(echange, 201, new Json.Objet()
+                .champ("id", paiement.getId())
+                .champ("reservationId", idReservation)
+                .champ("montant", paiement.getReservation().calculateTotalPrice()));
+    }
+
+    private void annuler(HttpExchange echange, int idReservation) throws Exception {
+        reservationService.annulerReservation(idReservation, client(echange));
+        echange.sendResponseHeaders(204, -1);
+    }
+
+    private void retenir(HttpExchange echange) throws Exception {
+        Client client = client(echange);
+        Map<String, String> corps = lireCorps(echange);
+        int idEvenement = entier(requis(corps, "evenementId"), "evenementId");
+        int idCategorie = entier(requis(corps, "categorieId"), "categorieId");
+        int nombre = entier(requis(corps, "nombre"), "nombre");
+        if (nombre < 1) {
+            throw new RequeteInvalideException("Le nombre de places doit être positif.");
+        }
+
+        // sans écriture en base : pas de passage par l'exécuteur borné au pool
+        Retenue retenue = reservationService.retenir(client, evenement(idEvenement), idCategorie, nombre).getRetenue();
+        Json.Tableau places = new Json.Tableau();
+        for (int idPlace : retenue.getIdsPlaces()) {
+            places.ajouter(idPlace);
+        }
+        repondre(echange, 201, new Json.Objet()
+                .champ("id", retenue.getIdRetenue())
+                .champ("evenementId", idEvenement)
+                .champ("places", places)
+                .champ("total", retenue.calculateTotalPrice())
+                .champ("expiration", retenue.getDateExpiration().toString()));
+    }
+
+    private void payerRetenue(HttpExchange echange, int idRetenue) throws Exception {
+        Client client = client(echange);
+        Map<String, String> corps = lireCorps(echange);
+        Paiement paiement = reservationService.payerRetenue(idRetenue, client,
+                requis(corps, "nomCarte"), requis(corps, "numeroCarte"));
+        repondre(echange, 201, new Json.Objet()
+                .champ("id", paiement.getId())
+                .champ("reservationId", paiement.getReservation().getIdReservation())
+                .champ("montant", paiement.getReservation().calculateTotalPrice()));
+    }
+
+    private void relacher(HttpExchange echange, int idRetenue) throws Exception {
+        if (!reservationService.relacherRetenue(idRetenue, client(echange))) {
+            throw new RetenueExpireeException("Option " + idRetenue + " expirée, déjà relâchée ou en cours de paiement.");
+        }
+        echange.sendResponseHeaders(204, -1);
+    }
+
+    /**
+     * Mesures par opération de DAO, de la plus coûteuse à la moins coûteuse.
+     */
+    private void etatRequetes(HttpExchange echange) throws IOException {
+        Json.Tableau operations = new Json.Tableau();
+        for (QueryMetrics.Operation operation : Database.getPool().getQueryMetrics().getOperations()) {
+            LatencyHistogram durees = operation.getDurees();
+            operations.ajouter(new Json.Objet()
+                    .champ("operation", operation.getNom())
+                    .champ("appels", operation.getCount())
+                    .champ("lignes", operation.getLignes())
+                    .champ("erreurs", operation.getErreurs())
+                    .champ("lentes", operation.getLentes())
+                    .champ("p50Ms", durees.getPercentileMillis(50))
+                    .champ("p95Ms", durees.getPercentileMillis(95))
+                    .champ("p99Ms", durees.getPercentileMillis(99))
+                    .champ("maxMs", durees.getMaxMillis()));
+        }
+        repondre(echange, 200, new Json.Objet().champ("operations", operations));
+    }
+
+    private void etat(HttpExchange echange) throws IOException {
+        ConnectionPool pool = Database.getPool();
+        RetenuesPlaces retenues = RetenuesPlaces.partage();
+        Json.Tableau requetes = new Json.Tableau();
+        for (StatementStats stats : pool.getStatementStats().stream().limit(REQUETES_AFFICHEES).toList()) {
+            requetes.ajouter(new Json.Objet()
+                    .champ("sql", stats.getSql())
+                    .champ("cache", stats.getHitRatio())
+                    .champ("execution", stats.getExecutionTimes().toString()));
+        }
+        repondre(echange, 200, new Json.Objet()
+                .champ("sessions", sessions.size())
+                .champ("catalogue", CacheCatalogue.partage().toString())
+                .champ("pool", new Json.Objet()
+                        .champ("actives", pool.getActiveCount())
+                        .champ("inactives", pool.getIdleCount())
+                        .champ("enAttente", pool.getWaitingCount())
+                        .champ("max", pool.getMaxSize())
+                        .champ("acquisition", pool.getAcquisitionTimes().toString())
+                        .champ("cacheInstructions", pool.getStatementCacheHitRatio())
+                        .champ("requetes", requetes))
+                .champ("reservations", new Json.Objet()
+                        .champ("enAttente", executeur.getNombreEnAttente())
+                        .champ("enCours", executeur.getNombreEnCours())
+                        .champ("reussies", executeur.getNombreReussies())
+                        .champ("refusees", executeur.getNombreRefusees())
+                        .champ("echouees", executeur.getNombreEchouees())
+                        .champ("latences", executeur.getLatences().toString()))
+                .champ("retenues", new Json.Objet()
+                        .champ("actives", retenues.getNombreActives())
+                        .champ("places", retenues.getPlacesRetenues())
+                        .champ("creees", retenues.getNombreCreees())
+                        .champ("confirmees", retenues.getNombreConfirmees())
+                        .champ("expirees", retenues.getNombreExpirees())
+                        .champ("relachees", retenues.getNombreRelachees())
+                        .champ("dureeSecondes", retenues.getDuree().toSeconds())));
+    }
+
+    private Evenement evenement(int idEvenement) throws Exception {
+        Evenement evenement = evenementService.chargerEvenement(idEvenement);
+        if (evenement == null) {
+            throw new RessourceIntrouvableException("Événement introuvable.");
+        }
+        return evenement;
+    }
+
+    /**
+     * Client de la session désignée par l'en-tête {@code Authorization}. Chaque requête
+     * repousse l'expiration de la session.
+     */
+    private Client client(HttpExchange echange) {
+        String jeton = jeton(echange);
+        Utilisateur utilisateur = jeton != null ? sessions.refresh(jeton) : null;
+        if (utilisateur == null) {
+            throw new SessionAbsenteException("Session absente ou expirée.");
+        }
+        if (!(utilisateur instanceof Client client)) {
+            throw new SecurityException("Seul un client peut réserver.");
+        }
+        return client;
+    }
+
+    private static String jeton(HttpExchange echange) {
+        String autorisation = echange.getRequestHeaders().getFirst("Authorization");
+        return autorisation != null && autorisation.startsWith("Bearer ")
+                ? autorisation.substring("Bearer ".length()).trim()
+                : null;
+    }
+
+    private static Map<String, String> lireCorps(HttpExchange echange) throws IOException {
+        byte[] octets;
+        try (InputStream in = echange.getRequestBody()) {
+            octets = in.readNBytes(TAILLE_CORPS_MAX + 1);
+        }
+        if (octets.length > TAILLE_CORPS_MAX) {
+            throw new RequeteInvalideException("Corps de requête trop volumineux.");
+        }
+        try {
+            return Json.lireObjet(new String(octets, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new RequeteInvalideException(e.getMessage());
+        }
+    }
+
+    private static Map<String, String> lireParametres(HttpExchange echange) {
+        Map<String, String> parametres = new HashMap<>();
+        String requete = echange.getRequestURI().getRawQuery();
+        if (requete == null || requete.isEmpty()) {
+            return parametres;
+        }
+        for (String paire : requete.split("&")) {
+            int egal = paire.indexOf('=');
+            String cle = URLDecoder.decode(egal < 0 ? paire : paire.substring(0, egal), StandardCharsets.UTF_8);
+            String valeur = egal < 0 ? "" : URLDecoder.decode(paire.substring(egal + 1), StandardCharsets.UTF_8);
+            if (!valeur.isBlank()) {
+                parametres.put(cle, valeur);
+            }
+        }
+        return parametres;
+    }
+
+    private static String requis(Map<String, String> valeurs, String cle) {
+        String valeur = valeurs.get(cle);
+        if (valeur == null) {
+            throw new RequeteInvalideException("Champ obligatoire manquant : " + cle);
+        }
+        return valeur;
+    }
+
+    private static int entier(String texte, String nom) {
+        try {
+            return Integer.parseInt(texte);
+        } catch (NumberFormatException e) {
+            throw new RequeteInvalideException("Entier attendu pour " + nom + " : " + texte);
+        }
+    }
+
+    private static LocalDateTime dateHeure(String texte) {
+        try {
+            return LocalDateTime.parse(texte);
+        } catch (DateTimeParseException e) {
+            throw new RequeteInvalideException("Date attendue (aaaa-mm-jjThh:mm) : " + texte);
+        }
+    }
+
+    private static void repondre(HttpExchange echange, int statut, Json.Objet corps) throws IOException {
+        byte[] octets = corps.toString().getBytes(StandardCharsets.UTF_8);
+        echange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        echange.sendResponseHeaders(statut, octets.length);
+        try (OutputStream out = echange.getResponseBody()) {
+            out.write(octets);
+        }
+    }
+
+    /**
+     * Traduit une exception en statut HTTP. Les services enveloppent parfois l'erreur
+     * d'origine dans une {@code RuntimeException} : c'est la cause la plus précise qui compte.
+     */
+    private static void repondreErreur(HttpExchange echange, Exception e) throws IOException {
+        Throwable cause = e;
+        while ((cause instanceof ExecutionException || cause.getClass() == RuntimeException.class)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        int statut = switch (cause) {
+            case RequeteInvalideException r -> 400;
+            case SessionAbsenteException s -> 401;
+            case SecurityException s -> 403;
+            case PlacesInsuffisantesException p -> 409;
+            case RetenueExpireeException r -> 410;
+            case AnnulationTardiveException a -> 409;
+            case PaiementInvalideException p -> 422;
+            case RessourceIntrouvableException r -> 404;
+            // identifiant ou valeur mal formés (NumberFormatException...), validation d'un service
+            case IllegalArgumentException i -> 400;
+            default -> 500;
+        };
+        if (statut == 500) {
+            System.err.println("Erreur de l'API sur " + echange.getRequestMethod() + " " + echange.getRequestURI() + " : " + cause);
+        }
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        repondre(echange, statut, new Json.Objet().champ("erreur", message));
+    }
+}
@@ -1,22 +1,27 @@
 package org.example.controller;
 
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.SpinnerValueFactory.DoubleSpinnerValueFactory;
 import javafx.scene.control.SpinnerValueFactory.IntegerSpinnerValueFactory;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import org.example.model.*;
 import org.example.service.EvenementService;
 import org.example.MainApplication;
+import org.example.util.BackgroundTasks;
 
 import java.io.IOException;
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -51,6 +56,10 @@ public class EvenementController {
     // --- Constantes utiles --------------------------------------------------
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
     private static final String HEURE_PAR_DEFAUT = "20:00";
+    private static final int TAILLE_PAGE = 50;
+    // Une page suivante est demandée quand la barre de défilement dépasse cette proportion
+    private static final double SEUIL_PAGE_SUIVANTE = 0.9;
+    private static final Duration DELAI_SAISIE_FILTRE = Duration.millis(300);
 
     // --- Sections affichées ou non selon le rôle ----------------------------
     @FXML private TitledPane creationPane;
@@ -75,13 +84,14 @@ public class EvenementController {
     @FXML private ComboBox<String> filtreTypeCombo;
     @FXML private TextField filtreLieuField;
     @FXML private TextField filtreGuestField;
-    @FXML private TableView<Evenement> evenementsTable;
-    @FXML private TableColumn<Evenement, String> nomColumn;
-    @FXML private TableColumn<Evenement, String> typeColumn;
-    @FXML private TableColumn<Evenement, String> dateColumn;
-    @FXML private TableColumn<Evenement, String> lieuColumn;
-    @FXML private TableColumn<Evenement, String> guestColumn;
-    @FXML private TableColumn<Evenement, String> placesColumn;
+    @FXML private ProgressIndicator chargementIndicator;
+    @FXML private TableView<EvenementResume> evenementsTable;
+    @FXML private TableColumn<EvenementResume, String> nomColumn;
+    @FXML private TableColumn<EvenementResume, String> typeColumn;
+    @FXML private TableColumn<EvenementResume, String> dateColumn;
+    @FXML private TableColumn<EvenementResume, String> lieuColumn;
+    @FXML private TableColumn<EvenementResume, String> guestColumn;
+    @FXML private TableColumn<EvenementResume, String> placesColumn;
     @FXML private Button reserverSelectionButton;
     @FXML private Button historyButton;
     @FXML private Button retourConnexionButton;
@@ -93,8 +103,16 @@ public class EvenementController {
     @FXML private ListView<String> statCategorieListView;
 
     private final EvenementService evenementService = new EvenementService();
-    private final ObservableList<Evenement> evenements = FXCollections.observableArrayList();
-    private final ObservableList<Evenement> evenementsAffiches = FXCollections.observableArrayList();
+    // Accès à la base hors du thread JavaFX : un nouveau chargement remplace le précédent
+    private final BackgroundTasks.Slot chargementCatalogue = new BackgroundTasks.Slot();
+    private final BackgroundTasks.Slot chargementStatistiques = new BackgroundTasks.Slot();
+    // Le tableau n'affiche que des résumés, chargés page par page pendant le défilement
+    private final ObservableList<EvenementResume> evenementsAffiches = FXCollections.observableArrayList();
+    private final PauseTransition attenteSaisieFiltre = new PauseTransition(DELAI_SAISIE_FILTRE);
+    private FiltreEvenements filtreCourant = FiltreEvenements.aucun();
+    private PageEvenements dernierePage;
+    // Barre de défilement verticale du tableau, trouvée quand son skin est créé
+    private ScrollBar barreDefilement;
     private final ObservableList<CategoriePlaceDefinition> categoriesEnCreation = FXCollections.observableArrayList();
     private Utilisateur utilisateurConnecte;
 
@@ -259,16 +277,19 @@ public class EvenementController {
      * (VIP, Gold, Silver, Standard).
      */
     private void chargerCategoriesDepuisBdd() {
-        List<String> categories;
-        try {
-            categories = evenementService.chargerCategories()
-                    .stream()
-                    .map(Categorie::getNomCategorie)
-                    .sorted(String::compareToIgnoreCase)
-                    .toList();
-        } catch (SQLException e) {
-            categories = List.of("VIP", "Gold", "Silver", "Standard");
-        }
+        afficherCategoriesProposees(List.of("VIP", "Gold", "Silver", "Standard"));
+        BackgroundTasks.run(
+                () -> evenementService.chargerCategories()
+                        .stream()
+                        .map(Categorie::getNomCategorie)
+                        .sorted(String::compareToIgnoreCase)
+                        .toList(),
+                this::afficherCategoriesProposees,
+                erreur -> { /* on garde les catégories par défaut */ },
+                null);
+    }
+
+    private void afficherCategoriesProposees(List<String> categories) {
         ObservableList<String> items = FXCollections.observableArrayList(categories);
         items.add("Personnalisée");
         categorieCombo.setItems(items);
@@ -279,40 +300,43 @@ public class EvenementController {
     /**
      * Configure les filtres de recherche d'événements (type, lieu, guest).
      * <p>
-     * Chaque modification de filtre déclenche un recalcul de la liste
-     * d'événements affichés.
+     * Les filtres sont appliqués par la base : chaque modification recharge
+     * le catalogue depuis la première page. Pour les champs texte, on attend
+     * une courte pause dans la saisie afin de ne pas lancer une requête par touche.
      */
     private void configurerFiltres() {
         filtreTypeCombo.getItems().setAll("Tous", "Concert", "Spectacle", "Conference");
         filtreTypeCombo.getSelectionModel().selectFirst();
 
-        filtreTypeCombo.valueProperty().addListener((obs, o, n) -> appliquerFiltres());
-        filtreLieuField.textProperty().addListener((obs, o, n) -> appliquerFiltres());
-        filtreGuestField.textProperty().addListener((obs, o, n) -> appliquerFiltres());
+        attenteSaisieFiltre.setOnFinished(e -> rechargerEvenements());
+        filtreTypeCombo.valueProperty().addListener((obs, o, n) -> rechargerEvenements());
+        filtreLieuField.textProperty().addListener((obs, o, n) -> attenteSaisieFiltre.playFromStart());
+        filtreGuestField.textProperty().addListener((obs, o, n) -> attenteSaisieFiltre.playFromStart());
     }
 
     /**
      * Configure les colonnes du tableau des événements et les actions associées.
      * <p>
-     * - Définit comment chaque colonne lit les données d'un objet {@link Evenement}.<br>
+     * - Définit comment chaque colonne lit les données d'un {@link EvenementResume}.<br>
      * - Relie la liste observable {@code evenementsAffiches} à la table.<br>
      * - Met à jour les statistiques quand la sélection change.<br>
      * - Configure les actions des boutons de réservation et de retour à la connexion.
      */
     private void configurerTableau() {
-        nomColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getNom()));
-        typeColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getTypeEvenement()));
+        nomColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getEvenement().getNom()));
+        typeColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getEvenement().getTypeEvenement()));
         dateColumn.setCellValueFactory(data ->
-                new SimpleStringProperty(data.getValue().getDateEvent().format(DATE_FORMATTER)));
-        lieuColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getLieu()));
-        guestColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getSpecialGuest()));
+                new SimpleStringProperty(data.getValue().getEvenement().getDateEvent().format(DATE_FORMATTER)));
+        lieuColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getEvenement().getLieu()));
+        guestColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getEvenement().getSpecialGuest()));
         placesColumn.setCellValueFactory(data -> {
-            Evenement evt = data.getValue();
-            String texte = evt.getNombrePlacesDisponibles() + "/" + evt.getCapaciteTotale();
+            EvenementResume resume = data.getValue();
+            String texte = resume.getNombrePlacesDisponibles() + "/" + resume.getCapaciteTotale();
             return new SimpleStringProperty(texte);
         });
 
         evenementsTable.setItems(evenementsAffiches);
+        evenementsTable.skinProperty().addListener((obs, ancien, skin) -> brancherChargementAuDefilement());
         evenementsTable.getSelectionModel().selectedItemProperty()
                 .addListener((obs, ancien, selection) -> afficherStatistiques(selection));
 
@@ -331,63 +355,85 @@ public class EvenementController {
     }
 
     /**
-     * Recharge la liste complète des événements depuis la base de données,
-     * trie les événements par date, puis applique les filtres en cours.
+     * Repart de la première page du catalogue avec les filtres saisis.
+     * Seules les pages qui remplissent le tableau sont chargées : le temps
+     * d'affichage ne dépend pas du nombre total d'événements en base.
      */
     private void rechargerEvenements() {
-        try {
-            evenements.setAll(evenementService.chargerEvenements());
-            evenements.sort(Comparator.comparing(Evenement::getDateEvent));
-            appliquerFiltres();
-        } catch (SQLException e) {
-            afficherErreur("Erreur de chargement", e.getMessage());
-        }
+        attenteSaisieFiltre.stop();
+        filtreCourant = lireFiltre();
+        dernierePage = null;
+        evenementsAffiches.clear();
+        // une page encore en chargement correspond aux anciens filtres
+        chargementCatalogue.cancel();
+        chargerPageSuivante();
     }
 
     /**
-     * Applique les filtres saisis (type, lieu, artiste/intervenant)
-     * à la liste complète des événements, puis met à jour la liste
-     * observable {@code evenementsAffiches} utilisée par la table.
+     * Ajoute au tableau la page qui suit la dernière page chargée
+     * (les événements arrivent déjà triés par date depuis la base).
+     * La page est lue en arrière-plan ; une demande faite pendant un chargement est ignorée.
      */
-    private void appliquerFiltres() {
-        List<Evenement> resultat = new ArrayList<>();
-        for (Evenement evt : evenements) {
-            if (correspondFiltre(evt)) {
-                resultat.add(evt);
-            }
+    private void chargerPageSuivante() {
+        if ((dernierePage != null && dernierePage.estDerniere()) || chargementCatalogue.isBusy()) {
+            return;
         }
-        evenementsAffiches.setAll(resultat);
+        FiltreEvenements filtre = filtreCourant;
+        PageEvenements precedente = dernierePage;
+        chargementCatalogue.run(
+                () -> evenementService.chargerPageResumes(filtre, precedente, TAILLE_PAGE),
+                page -> {
+                    dernierePage = page;
+                    evenementsAffiches.addAll(page.getElements());
+                    completerEcran();
+                },
+                erreur -> afficherErreur("Erreur de chargement", erreur.getMessage()),
+                chargementIndicator);
     }
 
     /**
-     * Indique si un événement correspond aux filtres actuellement saisis.
-     *
-     * @param evt événement à tester
-     * @return {@code true} si l'événement correspond à tous les filtres,
-     *         {@code false} sinon
+     * Surveille la barre de défilement verticale du tableau (créée avec son skin)
+     * et demande la page suivante quand l'utilisateur approche du bas de la liste.
      */
-    private boolean correspondFiltre(Evenement evt) {
-        if (evt == null) {
-            return false;
-        }
-
-        String typeChoisi = filtreTypeCombo.getValue();
-        if (typeChoisi != null && !"Tous".equalsIgnoreCase(typeChoisi)
-                && !evt.getTypeEvenement().equalsIgnoreCase(typeChoisi)) {
-            return false;
+    private void brancherChargementAuDefilement() {
+        for (Node noeud : evenementsTable.lookupAll(".scroll-bar")) {
+            if (noeud instanceof ScrollBar barre && barre.getOrientation() == Orientation.VERTICAL) {
+                barreDefilement = barre;
+                barre.valueProperty().addListener((obs, ancienne, valeur) -> {
+                    if (valeur.doubleValue() >= barre.getMax() * SEUIL_PAGE_SUIVANTE) {
+                        chargerPageSuivante();
+                    }
+                });
+                // une première page arrivée avant le skin n'a pas pu remplir le tableau
+                Platform.runLater(this::completerEcran);
+            }
         }
+    }
 
-        String lieuRecherche = filtreLieuField.getText();
-        if (!estVide(lieuRecherche) && !evt.getLieu().toLowerCase(Locale.ROOT).contains(lieuRecherche.toLowerCase(Locale.ROOT))) {
-            return false;
+    /**
+     * Demande la page suivante tant que le défilement ne le fera pas : pages trop courtes
+     * pour faire apparaître la barre (grand écran, filtres très sélectifs) ou barre déjà
+     * au-delà du seuil pendant le chargement.
+     */
+    private void completerEcran() {
+        ScrollBar barre = barreDefilement;
+        if (barre == null) {
+            return;
         }
-
-        String guestRecherche = filtreGuestField.getText();
-        if (!estVide(guestRecherche) && !evt.getSpecialGuest().toLowerCase(Locale.ROOT).contains(guestRecherche.toLowerCase(Locale.ROOT))) {
-            return false;
+        // met à jour la barre avec les lignes qui viennent d'être ajoutées
+        evenementsTable.layout();
+        if (!barre.isVisible() || barre.getValue() >= barre.getMax() * SEUIL_PAGE_SUIVANTE) {
+            chargerPageSuivante();
         }
+    }
 
-        return true;
+    /**
+     * Construit les critères de recherche à partir des champs de filtre.
+     */
+    private FiltreEvenements lireFiltre() {
+        String typeChoisi = filtreTypeCombo.getValue();
+        String type = typeChoisi == null || "Tous".equalsIgnoreCase(typeChoisi) ? null : typeChoisi;
+        return new FiltreEvenements(type, filtreLieuField.getText(), filtreGuestField.getText());
     }
 
     /**
@@ -512,16 +558,25 @@ public class EvenementController {
         LocalDateTime dateEvenement = LocalDateTime.of(date, heure);
         Evenement evenement = construireEvenement(type, nom.trim(), dateEvenement, lieu.trim(), specialGuest.trim(), organisateur);
 
-        try {
-            evenementService.creerEvenement(evenement, new ArrayList<>(categoriesEnCreation));
-            creationFeedbackLabel.setStyle("-fx-text-fill: #1b8a3d;");
-            creationFeedbackLabel.setText("Événement créé avec succès !");
-            reinitialiserFormulaire();
-            rechargerEvenements();
-        } catch (SQLException e) {
-            creationFeedbackLabel.setStyle("-fx-text-fill: #cc0000;");
-            creationFeedbackLabel.setText("Erreur : " + e.getMessage());
-        }
+        List<CategoriePlaceDefinition> definitions = new ArrayList<>(categoriesEnCreation);
+        creationFeedbackLabel.setStyle("-fx-text-fill: #555555;");
+        creationFeedbackLabel.setText("Création en cours...");
+        BackgroundTasks.run(
+                () -> {
+                    evenementService.creerEvenement(evenement, definitions);
+                    return evenement;
+                },
+                cree -> {
+                    creationFeedbackLabel.setStyle("-fx-text-fill: #1b8a3d;");
+                    creationFeedbackLabel.setText("Événement créé avec succès !");
+                    reinitialiserFormulaire();
+                    rechargerEvenements();
+                },
+                erreur -> {
+                    creationFeedbackLabel.setStyle("-fx-text-fill: #cc0000;");
+                    creationFeedbackLabel.setText("Erreur : " + erreur.getMessage());
+                },
+                null);
     }
 
     /**
@@ -583,6 +638,8 @@ public class EvenementController {
      * Affiche les statistiques pour l'événement sélectionné, uniquement
      * si l'utilisateur connecté est un organisateur.
      * <p>
+     * Les chiffres viennent du cache de statistiques (lu en arrière-plan) : aucune place n'est parcourue.
+     * <p>
      * Les informations affichées sont :
      * <ul>
      *     <li>nombre de tickets vendus / capacité totale,</li>
@@ -590,25 +647,33 @@ public class EvenementController {
      *     <li>taux de remplissage par catégorie de place.</li>
      * </ul>
      *
-     * @param evenement événement sélectionné dans le tableau
+     * @param resume événement sélectionné dans le tableau
      */
-    private void afficherStatistiques(Evenement evenement) {
-        if (!(utilisateurConnecte instanceof Organisateur) || evenement == null) {
+    private void afficherStatistiques(EvenementResume resume) {
+        if (!(utilisateurConnecte instanceof Organisateur) || resume == null) {
             statTotalTicketsLabel.setText("");
             statChiffreAffairesLabel.setText("");
             statCategorieListView.getItems().clear();
             return;
         }
 
-        EvenementStats stats = evenementService.calculerStatistiques(evenement);
+        chargementStatistiques.run(
+                () -> evenementService.lireStatistiques(resume.getIdEvenement()),
+                this::afficherStatistiques,
+                // totaux du résumé affiché, calculés au chargement de la page
+                erreur -> afficherStatistiques(resume.versStatistiques()),
+                null);
+    }
+
+    private void afficherStatistiques(EvenementStats stats) {
         statTotalTicketsLabel.setText("Tickets vendus : " + stats.getTotalTicketsVendues()
-                + " / " + evenement.getCapaciteTotale());
+                + " / " + stats.getCapaciteTotale());
         statChiffreAffairesLabel.setText(String.format(Locale.FRANCE,
                 "Chiffre d'affaires : %.2f €", stats.getChiffreAffaires()));
 
         List<String> lignes = new ArrayList<>();
-        for (Map.Entry<String, Double> entry : stats.getTauxRemplissageParCategorie().entrySet()) {
-            lignes.add(String.format(Locale.FRANCE, "%s : %.1f %%", entry.getKey(), entry.getValue()));
+        for (EvenementResume.LigneCategorie ligne : stats.getCategories()) {
+            lignes.add(String.format(Locale.FRANCE, "%s : %.1f %%", ligne.getNomCategorie(), ligne.getTauxRemplissage()));
         }
         lignes.sort(String::compareToIgnoreCase);
         statCategorieListView.getItems().setAll(lignes);
@@ -703,7 +768,7 @@ public class EvenementController {
             return;
         }
 
-        Evenement selection = evenementsTable.getSelectionModel().getSelectedItem();
+        EvenementResume selection = evenementsTable.getSelectionModel().getSelectedItem();
         if (selection == null) {
             afficherErreur("Aucun événement sélectionné", "Veuillez d'abord choisir un événement dans la liste.");
             return;
@@ -726,12 +791,12 @@ public class EvenementController {
             Object ctrl = loader.getController();
             if (ctrl instanceof ReservationController reservationController) {
                 reservationController.setClient(client);
-                reservationController.preselectEvent(selection);
+                reservationController.preselectEvent(selection.getEvenement());
             }
 
             Stage stage = (Stage) evenementsTable.getScene().getWindow();
             stage.setScene(new Scene(root));
-            stage.setTitle("Réservation - " + selection.getNom());
+            stage.setTitle("Réservation - " + selection.getEvenement().getNom());
             stage.centerOnScreen();
         } catch (IOException e) {
             afficherErreur("Erreur d'ouverture", "Impossible d'ouvrir l'écran de réservation : " + e.getMessage());
@@ -8,12 +8,11 @@ import org.example.dao.ReservationDAO;
 import org.example.model.Client;
 import org.example.model.ReservationSummary;
 import org.example.service.ReservationService;
+import org.example.util.BackgroundTasks;
 import org.example.util.Database;
 
 import java.sql.Connection;
-import java.sql.SQLException;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 /**
  * Contrôleur gérant l'historique des réservations du client.
@@ -29,10 +28,12 @@ public class HistoryController {
     @FXML private TableColumn<ReservationSummary, Double> colTotal;
     @FXML private TableColumn<ReservationSummary, Void> colAction;
     @FXML private Label statusLabel;
+    @FXML private ProgressIndicator chargementIndicator;
 
     private Client client;
     private final ReservationDAO reservationDAO = new ReservationDAO();
     private final ReservationService reservationService = new ReservationService();
+    private final BackgroundTasks.Slot chargement = new BackgroundTasks.Slot();
     private Parent previousRoot;
     @FXML private Button backButton;
 
@@ -93,17 +94,23 @@ public class HistoryController {
     }
 
     /**
-     * Charge les réservations du client et les injecte dans le tableau.
+     * Charge en arrière-plan les réservations du client et les injecte dans le tableau.
      */
     private void loadData() {
         if (client == null) return;
-        try (Connection conn = Database.getConnection()) {
-            List<ReservationSummary> list = reservationDAO.listByClient(conn, client.getIdUser());
-            table.setItems(FXCollections.observableArrayList(list));
-            statusLabel.setText("");
-        } catch (SQLException e) {
-            statusLabel.setText("Erreur chargement historique: " + e.getMessage());
-        }
+        int clientId = client.getIdUser();
+        chargement.run(
+                () -> {
+                    try (Connection conn = Database.getConnection()) {
+                        return reservationDAO.listByClient(conn, clientId);
+                    }
+                },
+                list -> {
+                    table.setItems(FXCollections.observableArrayList(list));
+                    statusLabel.setText("");
+                },
+                e -> statusLabel.setText("Erreur chargement historique: " + e.getMessage()),
+                chargementIndicator);
     }
 
     /**
@@ -112,13 +119,22 @@ public class HistoryController {
      */
     private void onCancel(ReservationSummary rs) {
         if (client == null) { statusLabel.setText("Client non connecté."); return; }
-        try {
-            reservationService.annulerReservation(rs.getReservationId(), client);
-            new Alert(Alert.AlertType.INFORMATION, "Réservation annulée.", ButtonType.OK).showAndWait();
-            loadData();
-        } catch (Exception e) {
-            new Alert(Alert.AlertType.ERROR, "Erreur annulation: " + e.getMessage(), ButtonType.OK).showAndWait();
-            statusLabel.setText("Erreur annulation: " + e.getMessage());
-        }
+        Client proprietaire = client;
+        statusLabel.setText("Annulation en cours...");
+        BackgroundTasks.run(
+                () -> {
+                    reservationService.annulerReservation(rs.getReservationId(), proprietaire);
+                    return rs;
+                },
+                annulee -> {
+                    statusLabel.setText("");
+                    new Alert(Alert.AlertType.INFORMATION, "Réservation annulée.", ButtonType.OK).showAndWait();
+                    loadData();
+                },
+                e -> {
+                    new Alert(Alert.AlertType.ERROR, "Erreur annulation: " + e.getMessage(), ButtonType.OK).showAndWait();
+                    statusLabel.setText("Erreur annulation: " + e.getMessage());
+                },
+                chargementIndicator);
     }
 }
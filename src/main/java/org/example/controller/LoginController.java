@@ -12,10 +12,8 @@ import org.example.model.Client;
 import org.example.model.Organisateur;
 import org.example.model.Utilisateur;
 import org.example.service.UtilisateurService;
-import org.example.util.Database;
+import org.example.util.BackgroundTasks;
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.SQLException;
 
 public class LoginController {
 
@@ -23,6 +21,7 @@ public class LoginController {
     @FXML private PasswordField passwordField;
     @FXML private Button loginButton;
     @FXML private Button signupButton;
+    @FXML private ProgressIndicator connexionIndicator;
 
 
     /**
@@ -41,17 +40,8 @@ public class LoginController {
      */
     @FXML
     public void initialize() {
-        try {
-            // Initialiser service avec DAO et connexion
-            Connection connexion = Database.getConnection();
-            UtilisateurDAO utilisateurDAO = new UtilisateurDAO(connexion);
-            userService = new UtilisateurService(utilisateurDAO);
-
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            Alert alert = new Alert(Alert.AlertType.ERROR, "Erreur de connexion à la base : " + ex.getMessage(), ButtonType.OK);
-            alert.showAndWait();
-        }
+        // Le DAO emprunte une connexion au pool à chaque requête
+        userService = new UtilisateurService(new UtilisateurDAO());
 
         loginButton.setOnAction(e -> login());
         signupButton.setOnAction(e -> signup());
@@ -62,30 +52,43 @@ public class LoginController {
      * saisis dans les champs de texte. Si la connexion réussit, l'utilisateur
      * est redirigé vers son tableau de bord correspondant à son type de compte
      * (Client ou Organisateur). En cas d'erreur, une alerte est affichée.
+     * La vérification (requête et hachage du mot de passe) se fait en arrière-plan.
      */
     private void login() {
-        try {
-            String pseudo = pseudoField.getText();
-            String mdp = passwordField.getText();
-
-            Utilisateur user = userService.login(pseudo, mdp);
-
-            if (user instanceof Client) {
-                // Client : on ouvre la page "événements" en mode client
-                // (création / stats cachées), il choisit un événement puis
-                // sera redirigé vers l'écran de réservation.
-                ouvrirDashboard(user);
-            } else if (user instanceof Organisateur) {
-                System.out.println("Login Organisateur réussi !");
-               
-                ouvrirDashboard(user);
-            }
+        String pseudo = pseudoField.getText();
+        String mdp = passwordField.getText();
+
+        loginButton.setDisable(true);
+        BackgroundTasks.run(
+                () -> userService.login(pseudo, mdp),
+                user -> {
+                    loginButton.setDisable(false);
+                    try {
+                        if (user instanceof Client) {
+                            // Client : on ouvre la page "événements" en mode client
+                            // (création / stats cachées), il choisit un événement puis
+                            // sera redirigé vers l'écran de réservation.
+                            ouvrirDashboard(user);
+                        } else if (user instanceof Organisateur) {
+                            System.out.println("Login Organisateur réussi !");
+
+                            ouvrirDashboard(user);
+                        }
+                    } catch (IOException ex) {
+                        afficherErreur(ex);
+                    }
+                },
+                ex -> {
+                    loginButton.setDisable(false);
+                    afficherErreur(ex);
+                },
+                connexionIndicator);
+    }
 
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            Alert alert = new Alert(Alert.AlertType.ERROR, ex.getMessage(), ButtonType.OK);
-            alert.showAndWait();
-        }
+    private void afficherErreur(Throwable ex) {
+        ex.printStackTrace();
+        Alert alert = new Alert(Alert.AlertType.ERROR, ex.getMessage(), ButtonType.OK);
+        alert.showAndWait();
     }
 
 /**
@@ -7,6 +7,8 @@ import org.example.model.Paiement;
 import javafx.fxml.FXML;
 import org.example.exception.PaiementInvalideException;
 import org.example.model.Reservation;
+import org.example.model.Retenue;
+import org.example.service.ReservationService;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.function.UnaryOperator;
@@ -120,7 +122,14 @@ public class PaymentController {
         try {
             this.currentReservation = reservation;
             // Renseignement des inputs de la view idReservation et montant
-            idReservationLabel.setText(String.valueOf(this.currentReservation.getIdReservation()));
+            Retenue retenue = this.currentReservation.getRetenue();
+            if (retenue != null) {
+                // Option pas encore enregistrée : on affiche son numéro et son échéance
+                idReservationLabel.setText("Option " + retenue.getIdRetenue() + ", à payer avant "
+                        + retenue.getDateExpiration().format(DateTimeFormatter.ofPattern("HH:mm")));
+            } else {
+                idReservationLabel.setText(String.valueOf(this.currentReservation.getIdReservation()));
+            }
             montantLabel.setText(String.valueOf(this.currentReservation.calculateTotalPrice()));
         } catch (Exception e) {
             new Alert(Alert.AlertType.ERROR, "Erreur lors de la récupération de la réservation: " + e.getMessage()).showAndWait();
@@ -128,6 +137,18 @@ public class PaymentController {
     }
 
 
+    /**
+     * Désigne la réservation dans les messages : une option n'a pas encore de numéro de réservation,
+     * on affiche alors son numéro et son événement.
+     */
+    private String libelleReservation() {
+        Retenue retenue = this.currentReservation.getRetenue();
+        if (retenue != null && this.currentReservation.getIdReservation() == 0) {
+            return "Option : " + retenue.getIdRetenue() + " (" + retenue.getEvenement().getNom() + ")";
+        }
+        return "Réservation : " + this.currentReservation.getIdReservation();
+    }
+
     /**
      * Tente d'effectuer le paiement en utilisant les données saisies dans le formulaire.
      * <p>
@@ -170,7 +191,7 @@ public class PaymentController {
                 alert.setHeaderText("Votre paiement n'a pas été validé !");
                 alert.setContentText(
                         "Raison: " + errorMessage +
-                                "\nRéservation : " + this.currentReservation.getIdReservation() +
+                                "\n" + libelleReservation() +
                                 "\nMontant : " + this.currentReservation.calculateTotalPrice() + " €"
                 );
                 alert.showAndWait();
@@ -210,6 +231,7 @@ public class PaymentController {
         return switch (code) {
             case -1 -> "Données de carte invalides (Nom, numéro, etc.).";
             case -2 -> "Erreur lors de l'insertion en base de données.";
+            case -3 -> "Option expirée ou places vendues entre-temps : recommencez la réservation.";
             default -> "Échec du paiement (Code: " + code + ").";
         };
     }
@@ -246,6 +268,8 @@ public class PaymentController {
 
     /**
      * Tente d'annuler la réservation actuellement stockée dans le contrôleur.
+     * Une option de places (pas encore enregistrée en base) est simplement relâchée :
+     * ses places sont remises en vente sans attendre son échéance.
      *
      * Affiche des alertes à l'utilisateur si l'annulation échoue,
      * que ce soit pour une annulation tardive (avertissement) ou pour toute autre erreur
@@ -257,6 +281,11 @@ public class PaymentController {
      */
     private boolean deleteReservationHandlerer(){
         try {
+            Retenue retenue = this.currentReservation.getRetenue();
+            if (retenue != null) {
+                new ReservationService().relacherRetenue(retenue.getIdRetenue(), retenue.getClient());
+                return true;
+            }
             System.out.println(this.currentReservation.getDateReservation());
             this.currentReservation.annuler();
             return true;
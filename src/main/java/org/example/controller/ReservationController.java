@@ -8,15 +8,14 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 import org.example.MainApplication;
-import org.example.dao.EvenementDAO;
 import org.example.exception.PlacesInsuffisantesException;
 import org.example.model.*;
+import org.example.service.EvenementService;
 import org.example.service.PaiementService;
 import org.example.service.ReservationService;
+import org.example.util.BackgroundTasks;
 
 import java.io.IOException;
-import java.sql.SQLException;
-import java.util.List;
 
 /**
  * Contrôleur JavaFX responsable de l'écran de réservation.
@@ -26,15 +25,20 @@ import java.util.List;
 public class ReservationController implements Reservable {
 
     @FXML private ComboBox<Evenement> eventsCombo;
-    @FXML private ComboBox<Categorie> categoriesCombo;
+    @FXML private ComboBox<DisponibiliteCategorie> categoriesCombo;
     @FXML private Spinner<Integer> qtySpinner;
     @FXML private Button reserveButton;
     @FXML private Button backButton;
     @FXML private Label statusLabel;
+    @FXML private ProgressIndicator chargementIndicator;
 
     private Client client;
-    private final EvenementDAO evenementDAO = new EvenementDAO();
+    private final EvenementService evenementService = new EvenementService();
     private final ReservationService reservationService = new ReservationService();
+    // seules les catégories du dernier événement choisi sont affichées
+    private final BackgroundTasks.Slot chargementCategories = new BackgroundTasks.Slot();
+    private boolean evenementsCharges;
+    private Evenement evenementAPreselectionner;
 
     /**
      * Initialise les composants graphiques après le chargement du FXML.
@@ -56,19 +60,21 @@ public class ReservationController implements Reservable {
             @Override public Evenement fromString(String string) { return null; }
         });
 
+        // chaque catégorie affiche ses places restantes ; une catégorie complète ne peut pas être choisie
         categoriesCombo.setCellFactory(cb -> new ListCell<>(){
-            @Override protected void updateItem(Categorie item, boolean empty) {
+            @Override protected void updateItem(DisponibiliteCategorie item, boolean empty) {
                 super.updateItem(item, empty);
-                setText(empty || item == null ? "" : item.getNomCategorie());
+                setText(empty || item == null ? "" : libelleCategorie(item));
+                setDisable(!empty && item != null && item.estComplete());
             }
         });
         categoriesCombo.setConverter(new javafx.util.StringConverter<>() {
-            @Override public String toString(Categorie object) { return object == null ? "" : object.getNomCategorie(); }
-            @Override public Categorie fromString(String string) { return null; }
+            @Override public String toString(DisponibiliteCategorie object) { return object == null ? "" : libelleCategorie(object); }
+            @Override public DisponibiliteCategorie fromString(String string) { return null; }
         });
 
         // load events
-        try { loadEvents(); } catch (SQLException e) { statusLabel.setText("Erreur chargement événements: " + e.getMessage()); }
+        loadEvents();
 
         eventsCombo.setOnAction(e -> onEventSelected());
         reserveButton.setOnAction(e -> onReserve()) ;
@@ -90,19 +96,32 @@ public class ReservationController implements Reservable {
         if (evenement == null) {
             return;
         }
-        // s'assure que la liste est chargée puis sélectionne l'événement correspondant
-        if (eventsCombo.getItems() != null && !eventsCombo.getItems().isEmpty()) {
-            eventsCombo.getSelectionModel().select(evenement);
-            onEventSelected();
+        // la liste est peut-être encore en chargement : la sélection sera faite à son arrivée
+        if (!evenementsCharges) {
+            evenementAPreselectionner = evenement;
+            return;
         }
+        eventsCombo.getSelectionModel().select(evenement);
+        onEventSelected();
     }
 
     /**
-     * Charge la liste des événements pour alimenter la combo.
+     * Charge en arrière-plan la liste des événements pour alimenter la combo.
      */
-    private void loadEvents() throws SQLException {
-        List<Evenement> events = evenementDAO.listAll();
-        eventsCombo.setItems(FXCollections.observableArrayList(events));
+    private void loadEvents() {
+        BackgroundTasks.run(
+                evenementService::chargerListeEvenements,
+                events -> {
+                    eventsCombo.setItems(FXCollections.observableArrayList(events));
+                    evenementsCharges = true;
+                    if (evenementAPreselectionner != null) {
+                        Evenement evenement = evenementAPreselectionner;
+                        evenementAPreselectionner = null;
+                        preselectEvent(evenement);
+                    }
+                },
+                e -> statusLabel.setText("Erreur chargement événements: " + e.getMessage()),
+                chargementIndicator);
     }
 
     /**
@@ -111,14 +130,19 @@ public class ReservationController implements Reservable {
     private void onEventSelected() {
         Evenement ev = eventsCombo.getValue();
         categoriesCombo.getItems().clear();
-        if (ev == null) return;
-        try {
-            List<Categorie> cats = evenementDAO.listCategoriesForEvent(ev.getIdEvenement());
-            categoriesCombo.setItems(FXCollections.observableArrayList(cats));
-            if (!cats.isEmpty()) categoriesCombo.getSelectionModel().selectFirst();
-        } catch (SQLException ex) {
-            statusLabel.setText("Erreur chargement catégories: " + ex.getMessage());
+        if (ev == null) {
+            chargementCategories.cancel();
+            return;
         }
+        chargementCategories.run(
+                () -> reservationService.listerDisponibilites(ev.getIdEvenement()),
+                cats -> {
+                    categoriesCombo.setItems(FXCollections.observableArrayList(cats));
+                    cats.stream().filter(c -> !c.estComplete()).findFirst()
+                        .ifPresent(c -> categoriesCombo.getSelectionModel().select(c));
+                },
+                ex -> statusLabel.setText("Erreur chargement catégories: " + ex.getMessage()),
+                chargementIndicator);
     }
 
     /**
@@ -127,30 +151,53 @@ public class ReservationController implements Reservable {
     public void onReserve() {
         if (client == null) { statusLabel.setText("Client non identifié. Connectez-vous."); return; }
         Evenement ev = eventsCombo.getValue();
-        Categorie cat = categoriesCombo.getValue();
+        DisponibiliteCategorie cat = categoriesCombo.getValue();
         int qty = qtySpinner.getValue();
         if (ev == null || cat == null) { statusLabel.setText("Sélectionnez un événement et une catégorie."); return; }
+        if (cat.getPlacesRestantes() < qty) { statusLabel.setText("Il reste " + cat.getPlacesRestantes() + " place(s) dans cette catégorie."); return; }
+
+        Client demandeur = client;
+        // pas de double clic pendant que la réservation est enregistrée
+        reserveButton.setDisable(true);
+        statusLabel.setText("Réservation en cours...");
+        BackgroundTasks.run(
+                // les places sont mises en option le temps du paiement, quand c'est possible
+                () -> reservationService.retenuesActives()
+                    ? reservationService.retenir(demandeur, ev, cat.getIdCategorie(), qty)
+                    : reservationService.reserver(demandeur, ev, cat.getIdCategorie(), qty),
+                newReservation -> {
+                    reserveButton.setDisable(false);
+                    statusLabel.setText("");
+                    // On ouvre la view pour le paiement
+                    PaiementService paiementService = new PaiementService();
+                    paiementService.openPaymentView(newReservation);
+                    // les places restantes ont changé
+                    onEventSelected();
+                },
+                ex -> {
+                    reserveButton.setDisable(false);
+                    if (ex instanceof PlacesInsuffisantesException) {
+                        statusLabel.setText("Pas assez de places disponibles.");
+                        new Alert(Alert.AlertType.WARNING, ex.getMessage(), ButtonType.OK).showAndWait();
+                    } else {
+                        statusLabel.setText("Erreur lors de la réservation: " + ex.getMessage());
+                        new Alert(Alert.AlertType.ERROR, "Erreur: " + ex.getMessage(), ButtonType.OK).showAndWait();
+                    }
+                },
+                chargementIndicator);
+    }
 
-        try {
-            Reservation newReservation = reservationService.reserver(client, ev, cat.getIdCategorie(), qty);
-
-            /*
-            Alert a = new Alert(Alert.AlertType.INFORMATION, "Réservation effectuée.", ButtonType.OK);
-            a.showAndWait();
-            statusLabel.setText("Réservation réussie.");
-            */
-
-            // On ouvre la view pour le paiement
-            PaiementService paiementService = new PaiementService();
-            paiementService.openPaymentView(newReservation);
-
-        } catch (PlacesInsuffisantesException ex) {
-            statusLabel.setText("Pas assez de places disponibles.");
-            new Alert(Alert.AlertType.WARNING, ex.getMessage(), ButtonType.OK).showAndWait();
-        } catch (Exception ex) {
-            statusLabel.setText("Erreur lors de la réservation: " + ex.getMessage());
-            new Alert(Alert.AlertType.ERROR, "Erreur: " + ex.getMessage(), ButtonType.OK).showAndWait();
+    /**
+     * Texte affiché pour une catégorie : nom, places restantes et prix.
+     */
+    private String libelleCategorie(DisponibiliteCategorie categorie) {
+        if (categorie.estComplete()) {
+            return categorie.getNomCategorie() + " — complet";
         }
+        String prix = categorie.getPrixMin() == categorie.getPrixMax()
+            ? String.format("%.2f €", categorie.getPrixMin())
+            : String.format("%.2f à %.2f €", categorie.getPrixMin(), categorie.getPrixMax());
+        return categorie.getNomCategorie() + " — " + categorie.getPlacesRestantes() + " place(s) restante(s), " + prix;
     }
 
     /**
@@ -8,9 +8,6 @@ import org.example.model.Client;
 import org.example.model.Organisateur;
 import org.example.model.Utilisateur;
 import org.example.service.UtilisateurService;
-import org.example.util.Database;
-import java.sql.Connection;
-import java.sql.SQLException;
 
 
 /**
@@ -54,17 +51,8 @@ public class SignUpController {
      * du formulaire d'inscription.
      */
     public void initialize() {
-        try {
-            // Initialiser service avec DAO et connexion
-            Connection connexion = Database.getConnection();
-            UtilisateurDAO utilisateurDAO = new UtilisateurDAO(connexion);
-            userService = new UtilisateurService(utilisateurDAO);
-
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            Alert alert = new Alert(Alert.AlertType.ERROR, "Erreur de connexion à la base : " + ex.getMessage(), ButtonType.OK);
-            alert.showAndWait();
-        }
+        // Le DAO emprunte une connexion au pool à chaque requête
+        userService = new UtilisateurService(new UtilisateurDAO());
 
         // Remplir le ComboBox si nécessaire
         if (typeCompteComboBox.getItems().isEmpty()) {
@@ -0,0 +1,65 @@
+package org.example.dao;
+
+import org.example.model.Categorie;
+import org.example.model.Organisateur;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Carte d'identité d'un chargement : une seule instance de {@link Categorie} et
+ * d'{@link Organisateur} par identifiant, quel que soit le nombre de lignes qui les répètent.
+ * Les colonnes descriptives (nom de catégorie, coordonnées de l'organisateur) ne sont lues
+ * qu'à la première apparition de l'identifiant.
+ * <p>
+ * Une carte dure le temps d'un chargement (une méthode de DAO) : elle n'est pas partagée
+ * entre threads et ne voit pas les modifications faites en base entre deux chargements.
+ */
+final class CarteIdentites {
+
+    private final Map<Integer, Categorie> categories = new HashMap<>();
+    private final Map<Integer, Organisateur> organisateurs = new HashMap<>();
+
+    /**
+     * Catégorie de la ligne courante (colonnes {@code category_id}, {@code category_name}).
+     */
+    Categorie categorie(ResultSet rs) throws SQLException {
+        int id = rs.getInt("category_id");
+        Categorie categorie = categories.get(id);
+        if (categorie == null) {
+            categorie = new Categorie(id, rs.getString("category_name"));
+            categories.put(id, categorie);
+        }
+        return categorie;
+    }
+
+    /**
+     * Catégorie déjà lue sous cet identifiant, sinon une nouvelle portant ce nom.
+     */
+    Categorie categorie(int id, String nom) {
+        return categories.computeIfAbsent(id, cle -> new Categorie(cle, nom));
+    }
+
+    /**
+     * Organisateur de la ligne courante (colonnes {@code organizer_id}, {@code user_name},
+     * {@code first_name}, {@code last_name}, {@code email}, {@code password}).
+     */
+    Organisateur organisateur(ResultSet rs) throws SQLException {
+        int id = rs.getInt("organizer_id");
+        Organisateur organisateur = organisateurs.get(id);
+        if (organisateur == null) {
+            organisateur = new Organisateur(
+                    id,
+                    rs.getString("user_name"),
+                    rs.getString("first_name"),
+                    rs.getString("last_name"),
+                    rs.getString("email"),
+                    rs.getString("password")
+            );
+            organisateurs.put(id, organisateur);
+        }
+        return organisateur;
+    }
+}
@@ -5,10 +5,15 @@ import org.example.util.Database;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class CategoriePlaceDAO {
 
+    private final DictionnaireCategories dictionnaire = DictionnaireCategories.partage();
+
     /**
      * Retourne toutes les catégories stockées dans la base.
      * On se contente ici de lire la table et de construire des objets simples.
@@ -32,54 +37,86 @@ public class CategoriePlaceDAO {
     }
 
     /**
-     * Cherche une catégorie par son nom. Si elle existe on la renvoie,
-     * sinon on la crée immédiatement puis on la retourne.
+     * Cherche une catégorie par son nom (sans tenir compte de la casse). Si elle existe
+     * on la renvoie, sinon on la crée immédiatement puis on la retourne.
      */
     public Categorie findOrCreateByName(Connection connection, String nomCategorie) throws SQLException {
-        String nomNettoye = nomCategorie == null ? "" : nomCategorie.trim();
+        List<Categorie> creees = new ArrayList<>();
+        Categorie categorie = findOrCreateByNames(connection, List.of(nomCategorie == null ? "" : nomCategorie), creees)
+                .get(cleNom(nomCategorie));
+        // dans une transaction, la catégorie créée n'est pas publiée : l'appelant ne peut pas la retirer en cas d'annulation
+        if (connection.getAutoCommit()) {
+            creees.forEach(dictionnaire::enregistrer);
+        }
+        return categorie;
+    }
 
-        // 1) On regarde si la catégorie existe déjà
-        Categorie existante = chercherParNom(connection, nomNettoye);
-        if (existante != null) {
-            return existante;
+    /**
+     * Version groupée de {@link #findOrCreateByName} : les noms déjà connus sont résolus par le
+     * {@link DictionnaireCategories} sans requête, seules les catégories manquantes sont créées.
+     * Les catégories créées ne sont pas ajoutées au dictionnaire partagé : tant que la transaction
+     * n'est pas validée, un autre thread ne doit pas recevoir leur identifiant. L'appelant les
+     * enregistre après le commit ({@link DictionnaireCategories#enregistrer}), ou les oublie
+     * après une annulation ({@link DictionnaireCategories#oublier}).
+     *
+     * @param creees reçoit les catégories créées par cet appel.
+     * @return les catégories indexées par nom nettoyé en minuscules (voir {@link #cleNom}).
+     */
+    public Map<String, Categorie> findOrCreateByNames(Connection connection, List<String> nomsCategories,
+                                                      List<Categorie> creees) throws SQLException {
+        Map<String, Categorie> parNom = new HashMap<>();
+        for (String nom : nomsCategories) {
+            String nomNettoye = nom == null ? "" : nom.trim();
+            String cle = cleNom(nomNettoye);
+            if (parNom.containsKey(cle)) {
+                continue;
+            }
+            Categorie categorie = dictionnaire.trouver(connection, cle);
+            if (categorie == null) {
+                categorie = creer(connection, nomNettoye, cle);
+                creees.add(categorie);
+            }
+            parNom.put(cle, categorie);
         }
+        return parNom;
+    }
+
+    /**
+     * Clé d'une catégorie dans la table renvoyée par {@link #findOrCreateByNames}.
+     */
+    public static String cleNom(String nomCategorie) {
+        return nomCategorie == null ? "" : nomCategorie.trim().toLowerCase(Locale.ROOT);
+    }
 
-        // 2) Sinon on l'insère
-        String insertSql = "INSERT INTO category (category_name) VALUES (?)";
-        try (PreparedStatement ps = connection.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
+    /**
+     * Crée une catégorie en une instruction ; si une autre instance l'a créée entre-temps,
+     * l'index unique sur {@code normalized_name} fait renvoyer l'identifiant existant
+     * ({@code LAST_INSERT_ID(category_id)}) au lieu d'échouer.
+     */
+    private Categorie creer(Connection connection, String nomNettoye, String cle) throws SQLException {
+        String sql = "INSERT INTO category (category_name, normalized_name) VALUES (?, ?) "
+                + "ON DUPLICATE KEY UPDATE category_id = LAST_INSERT_ID(category_id)";
+        try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, nomNettoye);
+            ps.setString(2, cle);
             ps.executeUpdate();
-
-            // 3) On récupère l'identifiant généré automatiquement
             try (ResultSet keys = ps.getGeneratedKeys()) {
                 if (keys.next()) {
-                    int idGenere = keys.getInt(1);
-                    return new Categorie(idGenere, nomNettoye);
+                    return new Categorie(keys.getInt(1), nomNettoye);
                 }
             }
         }
 
-        throw new SQLException("Impossible de créer la catégorie : " + nomNettoye);
-    }
-
-    /**
-     * Méthode utilitaire : on essaie simplement de retrouver une ligne par son nom.
-     */
-    private Categorie chercherParNom(Connection connection, String nomCategorie) throws SQLException {
-        String sql = "SELECT category_id, category_name FROM category WHERE LOWER(category_name) = LOWER(?)";
-
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, nomCategorie);
-
+        // ligne existante et inchangée : selon le pilote, aucune clé n'est renvoyée
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT category_id, category_name FROM category WHERE normalized_name = ?")) {
+            ps.setString(1, cle);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    int id = rs.getInt("category_id");
-                    String nom = rs.getString("category_name");
-                    return new Categorie(id, nom);
+                    return new Categorie(rs.getInt("category_id"), rs.getString("category_name"));
                 }
             }
         }
-
-        return null;
+        throw new SQLException("Impossible de créer la catégorie : " + nomNettoye);
     }
 }
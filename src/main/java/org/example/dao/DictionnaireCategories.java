@@ -0,0 +1,80 @@
+package org.example.dao;
+
+import org.example.model.Categorie;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionnaire en mémoire des catégories de places, indexé par nom normalisé
+ * ({@link CategoriePlaceDAO#cleNom}), partagé par toute l'application.
+ * <p>
+ * Il est chargé en une requête à la première utilisation puis complété après chaque création
+ * de catégorie validée : retrouver une catégorie connue ne coûte plus d'aller-retour. Une catégorie
+ * créée par une autre instance est simplement absente du dictionnaire ; sa création est alors
+ * retentée et l'index unique {@code category.normalized_name} renvoie la ligne existante.
+ */
+public class DictionnaireCategories {
+
+    private static final DictionnaireCategories PARTAGE = new DictionnaireCategories();
+
+    private final Map<String, Categorie> parCle = new ConcurrentHashMap<>();
+    private volatile boolean charge;
+
+    /**
+     * Retourne le dictionnaire de l'application.
+     */
+    public static DictionnaireCategories partage() {
+        return PARTAGE;
+    }
+
+    /**
+     * Catégorie connue sous ce nom normalisé, ou {@code null}. Charge le dictionnaire au premier appel.
+     *
+     * @param conn connexion de l'appelant, utilisée pour le chargement initial.
+     */
+    public Categorie trouver(Connection conn, String cle) throws SQLException {
+        if (!charge) {
+            charger(conn);
+        }
+        return parCle.get(cle);
+    }
+
+    /**
+     * Ajoute une catégorie lue en base, ou créée par une transaction validée.
+     */
+    public void enregistrer(Categorie categorie) {
+        parCle.put(CategoriePlaceDAO.cleNom(categorie.getNomCategorie()), categorie);
+    }
+
+    /**
+     * Retire des catégories créées par une transaction annulée, si le dictionnaire les a vues
+     * (chargement initial fait sur la connexion de cette transaction, par exemple). Une entrée
+     * remplacée depuis par une autre catégorie du même nom est gardée.
+     */
+    public void oublier(List<Categorie> categories) {
+        for (Categorie categorie : categories) {
+            parCle.computeIfPresent(CategoriePlaceDAO.cleNom(categorie.getNomCategorie()),
+                    (cle, connue) -> connue.getIdCategorie() == categorie.getIdCategorie() ? null : connue);
+        }
+    }
+
+    private synchronized void charger(Connection conn) throws SQLException {
+        if (charge) {
+            return;
+        }
+        parCle.clear();
+        try (PreparedStatement ps = conn.prepareStatement("SELECT category_id, category_name FROM category");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                enregistrer(new Categorie(rs.getInt("category_id"), rs.getString("category_name")));
+            }
+        }
+        charge = true;
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.dao;
 
+import org.example.jfr.ChargementEvenementsEvent;
 import org.example.model.Concert;
 import org.example.model.Evenement;
 import org.example.model.Organisateur;
@@ -10,7 +11,14 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.example.util.Configuration;
 import org.example.util.Database;
 
 
@@ -22,49 +30,434 @@ import java.sql.*;
 
 public class EvenementDAO {
 
+    // Lignes par INSERT multi-lignes ; MySQL limite une instruction préparée à 65 535 paramètres (3 par place)
+    private static final int TAILLE_LOT_PAR_DEFAUT = 1_000;
+    private static final int TAILLE_LOT_MAX = 65_535 / 3;
+
     private final CategoriePlaceDAO categoriePlaceDAO = new CategoriePlaceDAO();
+    private final InventaireCategorieDAO inventaireCategorieDAO = new InventaireCategorieDAO();
+    private final PlageSiegeDAO plageSiegeDAO = new PlageSiegeDAO();
+
+    /**
+     * Manière de charger les places des événements renvoyés par {@link #findAll(ChargementPlaces)}.
+     */
+    public enum ChargementPlaces {
+        /** Une requête de places par événement (1 + N allers-retours). */
+        PAR_EVENEMENT,
+        /** Une seule requête pour toutes les places, regroupées ensuite par événement (2 allers-retours). */
+        ENSEMBLISTE
+    }
+
+    /** Colonnes d'un événement et de son organisateur ; les requêtes ajoutent leur WHERE / ORDER BY. */
+    private static final String SQL_EVENEMENTS = """
+            SELECT e.event_id,
+                   e.name,
+                   e.event_type,
+                   e.special_guest,
+                   e.event_date,
+                   e.location,
+                   e.seat_model,
+                   e.organizer_id,
+                   u.user_name,
+                   u.first_name,
+                   u.last_name,
+                   u.email,
+                   u.password
+            FROM event e
+            JOIN `user` u ON u.user_id = e.organizer_id
+            """;
+
+    /** Places de tous les événements en places, avec leur disponibilité, regroupées par événement. */
+    private static final String SQL_TOUTES_LES_PLACES = """
+            SELECT p.event_id,
+                   p.place_id,
+                   p.price,
+                   c.category_id,
+                   c.category_name,
+                   CASE WHEN rhp.place_id IS NULL THEN 1 ELSE 0 END AS disponible
+            FROM place p
+            JOIN category c ON c.category_id = p.category_id
+            LEFT JOIN reservation_has_place rhp ON rhp.place_id = p.place_id
+            ORDER BY p.event_id
+            """;
 
     /**
-     * Charge tous les événements, triés par date.
+     * Charge tous les événements, triés par date, avec toutes leurs places.
+     * Le nombre de requêtes ne dépend pas du nombre d'événements.
      */
     public List<Evenement> findAll() throws SQLException {
-        String sql = """
-                SELECT e.event_id,
-                       e.name,
-                       e.event_type,
-                       e.special_guest,
-                       e.event_date,
-                       e.location,
-                       e.organizer_id,
-                       u.user_name,
-                       u.first_name,
-                       u.last_name,
-                       u.email,
-                       u.password
-                FROM event e
-                JOIN `user` u ON u.user_id = e.organizer_id
-                ORDER BY e.event_date
-                """;
+        return findAll(ChargementPlaces.ENSEMBLISTE);
+    }
 
+    /**
+     * Charge tous les événements, triés par date, en choisissant la stratégie de chargement des places.
+     * {@link ChargementPlaces#PAR_EVENEMENT} est conservé pour comparaison (benchmarks).
+     */
+    public List<Evenement> findAll(ChargementPlaces mode) throws SQLException {
         List<Evenement> evenements = new ArrayList<>();
+        CarteIdentites identites = new CarteIdentites();
+        ChargementEvenementsEvent jfr = new ChargementEvenementsEvent();
+        jfr.begin();
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+        try (Connection conn = Database.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(SQL_EVENEMENTS + "ORDER BY e.event_date");
+                 ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) {
-                Evenement evenement = mapperEvenementComplet(rs, conn);
-                evenements.add(evenement);
+                while (rs.next()) {
+                    evenements.add(mapperEvenement(rs, identites));
+                }
+            }
+
+            if (mode == ChargementPlaces.PAR_EVENEMENT) {
+                for (Evenement evenement : evenements) {
+                    if (evenement.getModelePlaces() == ModelePlaces.PLAGE) {
+                        plageSiegeDAO.chargerPlaces(conn, List.of(evenement), identites);
+                    } else {
+                        chargerPlaces(conn, evenement.getIdEvenement(), evenement, identites);
+                    }
+                }
+            } else {
+                chargerToutesLesPlaces(conn, evenements, identites);
+                plageSiegeDAO.chargerPlaces(conn, evenements, identites);
             }
         }
 
+        jfr.end();
+        if (jfr.shouldCommit()) {
+            jfr.strategie = mode.name();
+            jfr.evenements = evenements.size();
+            jfr.places = evenements.stream().mapToLong(e -> e.getPlaces().size()).sum();
+            jfr.commit();
+        }
         return evenements;
     }
 
     /**
-     * Transforme une ligne SQL en objet Evenement, puis charge les places liées.
+     * Variante de {@link #findAll()} pour les très grands catalogues (exports) : chaque événement est
+     * passé au consommateur avec toutes ses places dès que ses lignes sont lues, puis oublié. Seuls
+     * les en-têtes des événements restent en mémoire pendant le parcours, et les places sont lues
+     * en flux par le driver ({@link Database#lireEnFlux}), en une requête triée par événement.
+     * <p>
+     * Les événements en places arrivent par identifiant croissant, puis ceux en plages, chargés un par un
+     * une fois le flux terminé. Le consommateur ne doit pas garder les événements s'il veut
+     * profiter de la mémoire constante.
+     */
+    public void parcourirAvecPlaces(Consumer<Evenement> consommateur) throws SQLException {
+        CarteIdentites identites = new CarteIdentites();
+        List<Evenement> enPlaces = new ArrayList<>();
+        List<Evenement> enPlages = new ArrayList<>();
+        ChargementEvenementsEvent jfr = new ChargementEvenementsEvent();
+        jfr.begin();
+        long places = 0;
+
+        try (Connection conn = Database.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(SQL_EVENEMENTS + "ORDER BY e.event_id");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Evenement evenement = mapperEvenement(rs, identites);
+                    (evenement.getModelePlaces() == ModelePlaces.PLAGE ? enPlages : enPlaces).add(evenement);
+                }
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(SQL_TOUTES_LES_PLACES)) {
+                Database.lireEnFlux(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    // les deux listes sont triées par identifiant : on avance dans les en-têtes au fil des places
+                    int suivant = 0;
+                    Evenement courant = null;
+                    while (rs.next()) {
+                        int eventId = rs.getInt("event_id");
+                        if (courant == null || courant.getIdEvenement() != eventId) {
+                            if (courant != null) {
+                                places += courant.getPlaces().size();
+                                consommateur.accept(courant);
+                                courant = null;
+                            }
+                            // événements sans aucune place
+                            while (suivant < enPlaces.size() && enPlaces.get(suivant).getIdEvenement() < eventId) {
+                                consommateur.accept(enPlaces.set(suivant++, null));
+                            }
+                            if (suivant < enPlaces.size() && enPlaces.get(suivant).getIdEvenement() == eventId) {
+                                courant = enPlaces.set(suivant++, null);
+                            }
+                        }
+                        if (courant != null) {
+                            ajouterPlace(courant.getSieges(), rs, identites);
+                        }
+                    }
+                    if (courant != null) {
+                        places += courant.getPlaces().size();
+                        consommateur.accept(courant);
+                    }
+                    while (suivant < enPlaces.size()) {
+                        consommateur.accept(enPlaces.set(suivant++, null));
+                    }
+                }
+            }
+
+            for (int i = 0; i < enPlages.size(); i++) {
+                Evenement evenement = enPlages.set(i, null);
+                plageSiegeDAO.chargerPlaces(conn, List.of(evenement), identites);
+                places += evenement.getPlaces().size();
+                consommateur.accept(evenement);
+            }
+        }
+
+        jfr.end();
+        if (jfr.shouldCommit()) {
+            jfr.strategie = "FLUX";
+            jfr.evenements = enPlaces.size() + enPlages.size();
+            jfr.places = places;
+            jfr.commit();
+        }
+    }
+
+    /**
+     * Charge un résumé par événement (capacité, places vendues, chiffre d'affaires,
+     * remplissage par catégorie), trié par date. Les totaux sont calculés par la base
+     * avec {@code COUNT}/{@code SUM ... GROUP BY} : aucune place n'est chargée.
+     */
+    public List<EvenementResume> findAllResumes() throws SQLException {
+        List<EvenementResume> resumes = new ArrayList<>();
+        CarteIdentites identites = new CarteIdentites();
+
+        try (Connection conn = Database.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(SQL_EVENEMENTS + "ORDER BY e.event_date");
+                 ResultSet rs = ps.executeQuery()) {
+
+                while (rs.next()) {
+                    resumes.add(new EvenementResume(mapperEvenement(rs, identites)));
+                }
+            }
+            chargerTotaux(conn, resumes, true);
+        }
+
+        return resumes;
+    }
+
+    /**
+     * Charge une page de résumés triés par (date, identifiant), en reprenant juste après
+     * la page précédente (pagination par clé : pas d'{@code OFFSET}, le coût ne dépend pas
+     * de la position dans le catalogue). Les filtres sont appliqués par la base.
+     *
+     * @param filtre     critères de recherche.
+     * @param precedente page déjà affichée, ou {@code null} pour la première page.
+     * @param taille     nombre maximal d'événements dans la page.
+     */
+    public PageEvenements findPageResumes(FiltreEvenements filtre, PageEvenements precedente, int taille) throws SQLException {
+        StringBuilder sql = new StringBuilder(SQL_EVENEMENTS).append("WHERE 1 = 1\n");
+        List<Object> parametres = new ArrayList<>();
+
+        if (filtre.getType() != null) {
+            sql.append("AND e.event_type = ?\n");
+            parametres.add(filtre.getType());
+        }
+        if (filtre.getLieu() != null) {
+            sql.append("AND LOWER(e.location) LIKE ? ESCAPE '!'\n");
+            parametres.add(motifContient(filtre.getLieu()));
+        }
+        if (filtre.getSpecialGuest() != null) {
+            sql.append("AND LOWER(e.special_guest) LIKE ? ESCAPE '!'\n");
+            parametres.add(motifContient(filtre.getSpecialGuest()));
+        }
+        if (precedente != null && precedente.getDateDernier() != null) {
+            Timestamp dateDernier = Timestamp.valueOf(precedente.getDateDernier());
+            sql.append("AND (e.event_date > ? OR (e.event_date = ? AND e.event_id > ?))\n");
+            parametres.add(dateDernier);
+            parametres.add(dateDernier);
+            parametres.add(precedente.getIdDernier());
+        }
+        // Une ligne de plus que demandé pour savoir s'il reste une page après celle-ci
+        sql.append("ORDER BY e.event_date, e.event_id\nLIMIT ?");
+        parametres.add(taille + 1);
+
+        List<EvenementResume> resumes = new ArrayList<>();
+        CarteIdentites identites = new CarteIdentites();
+        boolean derniere = true;
+
+        try (Connection conn = Database.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+                for (int i = 0; i < parametres.size(); i++) {
+                    ps.setObject(i + 1, parametres.get(i));
+                }
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (resumes.size() == taille) {
+                            derniere = false;
+                            break;
+                        }
+                        resumes.add(new EvenementResume(mapperEvenement(rs, identites)));
+                    }
+                }
+            }
+            chargerTotaux(conn, resumes, false);
+        }
+
+        return new PageEvenements(resumes, derniere);
+    }
+
+    /**
+     * Motif LIKE "contient", insensible à la casse, avec les caractères spéciaux échappés.
      */
-    private Evenement mapperEvenementComplet(ResultSet rs, Connection conn) throws SQLException {
+    private String motifContient(String texte) {
+        String echappe = texte.toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + echappe + "%";
+    }
+
+    /**
+     * Complète les résumés avec les totaux par catégorie calculés en SQL.
+     *
+     * @param tous {@code true} si les résumés couvrent tout le catalogue (pas besoin de filtrer
+     *             les places par événement), {@code false} pour ne calculer que ces événements.
+     */
+    private void chargerTotaux(Connection conn, List<EvenementResume> resumes, boolean tous) throws SQLException {
+        if (resumes.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, EvenementResume> parId = new HashMap<>();
+        for (EvenementResume resume : resumes) {
+            parId.put(resume.getIdEvenement(), resume);
+        }
+
+        lireTotaux(conn, tous ? null : new ArrayList<>(parId.keySet()), (eventId, ligne) -> {
+            EvenementResume resume = parId.get(eventId);
+            if (resume != null) {
+                resume.ajouterCategorie(ligne);
+            }
+        });
+    }
+
+    /**
+     * Totaux par catégorie d'un seul événement (capacité, places réservées, ventes), calculés en SQL.
+     */
+    public List<EvenementResume.LigneCategorie> findTotauxCategories(int eventId) throws SQLException {
+        List<EvenementResume.LigneCategorie> lignes = new ArrayList<>();
+        try (Connection conn = Database.getConnection()) {
+            lireTotaux(conn, List.of(eventId), (id, ligne) -> lignes.add(ligne));
+        }
+        return lignes;
+    }
+
+    /**
+     * Exécute la requête d'agrégation par (événement, catégorie) et passe chaque ligne au consommateur,
+     * dans l'ordre (événement, nom de catégorie).
+     *
+     * @param eventIds événements à calculer, ou {@code null} pour tout le catalogue.
+     */
+    private void lireTotaux(Connection conn, List<Integer> eventIds,
+                            BiConsumer<Integer, EvenementResume.LigneCategorie> consommateur) throws SQLException {
+        boolean tous = eventIds == null;
+        String listeIds = tous ? "" : "(" + "?, ".repeat(eventIds.size() - 1) + "?)";
+        String filtrePlaces = tous ? "" : "WHERE p.event_id IN " + listeIds + "\n";
+        String filtrePlages = tous ? "" : "WHERE sr.event_id IN " + listeIds + "\n";
+        // Événements en places : une ligne par place ; en plages : une ligne par plage avec ses sièges réservés
+        String sql = """
+                SELECT p.event_id,
+                       c.category_id,
+                       c.category_name,
+                       COUNT(*) AS capacite,
+                       COUNT(rhp.place_id) AS reservees,
+                       COALESCE(SUM(CASE WHEN rhp.place_id IS NOT NULL THEN p.price END), 0) AS ventes
+                FROM place p
+                JOIN category c ON c.category_id = p.category_id
+                LEFT JOIN reservation_has_place rhp ON rhp.place_id = p.place_id
+                %sGROUP BY p.event_id, c.category_id, c.category_name
+                UNION ALL
+                SELECT event_id, category_id, category_name,
+                       SUM(seat_count) AS capacite,
+                       SUM(reservees) AS reservees,
+                       SUM(reservees * price) AS ventes
+                FROM (SELECT sr.event_id, c.category_id, c.category_name, sr.seat_count, sr.price,
+                             (SELECT COALESCE(SUM(rsr.seat_count), 0) FROM reservation_seat_range rsr
+                              WHERE rsr.range_id = sr.range_id) AS reservees
+                      FROM seat_range sr
+                      JOIN category c ON c.category_id = sr.category_id
+                      %s) plages
+                GROUP BY event_id, category_id, category_name
+                ORDER BY event_id, category_name
+                """.formatted(filtrePlaces, filtrePlages);
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            if (!tous) {
+                for (int i = 0; i < eventIds.size(); i++) {
+                    ps.setInt(i + 1, eventIds.get(i));
+                    ps.setInt(eventIds.size() + i + 1, eventIds.get(i));
+                }
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    consommateur.accept(rs.getInt("event_id"), mapperLigneCategorie(rs));
+                }
+            }
+        }
+    }
+
+    /**
+     * Lit les totaux d'une catégorie produits par une requête d'agrégation.
+     */
+    private EvenementResume.LigneCategorie mapperLigneCategorie(ResultSet rs) throws SQLException {
+        return new EvenementResume.LigneCategorie(
+                rs.getInt("category_id"),
+                rs.getString("category_name"),
+                rs.getInt("capacite"),
+                rs.getInt("reservees"),
+                rs.getDouble("ventes"));
+    }
+
+    /**
+     * Charge un événement sans ses places (une seule ligne lue).
+     *
+     * @return l'événement, ou {@code null} s'il n'existe pas.
+     */
+    public Evenement findEnTeteById(int eventId) throws SQLException {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_EVENEMENTS + "WHERE e.event_id = ?")) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapperEvenement(rs, new CarteIdentites()) : null;
+            }
+        }
+    }
+
+    /**
+     * Charge un seul événement avec toutes ses places, quand le détail siège par siège est vraiment nécessaire.
+     *
+     * @return l'événement, ou {@code null} s'il n'existe pas.
+     */
+    public Evenement findById(int eventId) throws SQLException {
+        String sql = SQL_EVENEMENTS + "WHERE e.event_id = ?";
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, eventId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                CarteIdentites identites = new CarteIdentites();
+                Evenement evenement = mapperEvenement(rs, identites);
+                if (evenement.getModelePlaces() == ModelePlaces.PLAGE) {
+                    plageSiegeDAO.chargerPlaces(conn, List.of(evenement), identites);
+                } else {
+                    chargerPlaces(conn, eventId, evenement, identites);
+                }
+                return evenement;
+            }
+        }
+    }
+
+    /**
+     * Transforme une ligne SQL en objet Evenement (sans ses places) ; les événements
+     * d'un même organisateur partagent son instance.
+     */
+    private Evenement mapperEvenement(ResultSet rs, CarteIdentites identites) throws SQLException {
         int eventId = rs.getInt("event_id");
         String type = rs.getString("event_type");
         String nom = rs.getString("name");
@@ -72,18 +465,10 @@ public class EvenementDAO {
         LocalDateTime date = rs.getTimestamp("event_date").toLocalDateTime();
         String lieu = rs.getString("location");
 
-        Organisateur organisateur = new Organisateur(
-                rs.getInt("organizer_id"),
-                rs.getString("user_name"),
-                rs.getString("first_name"),
-                rs.getString("last_name"),
-                rs.getString("email"),
-                rs.getString("password")
-        );
+        Organisateur organisateur = identites.organisateur(rs);
 
         Evenement evenement = construireEvenement(type, eventId, nom, date, lieu, organisateur, specialGuest);
-        List<Place> places = chargerPlaces(conn, eventId, evenement);
-        evenement.setPlaces(places);
+        evenement.setModelePlaces(ModelePlaces.valueOf(rs.getString("seat_model")));
         return evenement;
     }
 
@@ -100,9 +485,10 @@ public class EvenementDAO {
     }
 
     /**
-     * Récupère toutes les places d'un événement (avec la catégorie et la disponibilité).
+     * Charge toutes les places d'un événement (avec la catégorie et la disponibilité)
+     * dans ses colonnes de places.
      */
-    private List<Place> chargerPlaces(Connection conn, int eventId, Evenement evenement) throws SQLException {
+    private void chargerPlaces(Connection conn, int eventId, Evenement evenement, CarteIdentites identites) throws SQLException {
         String sql = """
                 SELECT p.place_id,
                        p.price,
@@ -115,41 +501,100 @@ public class EvenementDAO {
                 WHERE p.event_id = ?
                 """;
 
-        List<Place> places = new ArrayList<>();
+        SiegesEvenement sieges = evenement.getSieges();
+        sieges.clear();
 
         try (PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, eventId);
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Categorie categorie = new Categorie(rs.getInt("category_id"), rs.getString("category_name"));
-                    Place place = new Place(rs.getInt("place_id"), rs.getDouble("price"), categorie, evenement);
-                    place.setLibre(rs.getInt("disponible") == 1);
-                    places.add(place);
+                    ajouterPlace(sieges, rs, identites);
                 }
             }
         }
+    }
 
-        return places;
+    /**
+     * Ajoute la place de la ligne courante ; la catégorie n'est cherchée dans la carte d'identité
+     * (et son nom lu) qu'à sa première apparition dans l'événement.
+     */
+    private static void ajouterPlace(SiegesEvenement sieges, ResultSet rs, CarteIdentites identites) throws SQLException {
+        int categorie = sieges.indexCategorie(rs.getInt("category_id"));
+        if (categorie < 0) {
+            categorie = sieges.ajouterCategorie(identites.categorie(rs));
+        }
+        sieges.ajouter(rs.getInt("place_id"), categorie, rs.getDouble("price"), rs.getInt("disponible") == 1);
+    }
+
+    /**
+     * Charge en une seule requête les places de tous les événements fournis :
+     * les lignes sont triées par événement puis rattachées à l'objet correspondant.
+     */
+    private void chargerToutesLesPlaces(Connection conn, List<Evenement> evenements, CarteIdentites identites) throws SQLException {
+        if (evenements.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Evenement> parId = new HashMap<>();
+        for (Evenement evenement : evenements) {
+            parId.put(evenement.getIdEvenement(), evenement);
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(SQL_TOUTES_LES_PLACES);
+             ResultSet rs = ps.executeQuery()) {
+
+            int eventIdCourant = -1;
+            SiegesEvenement siegesCourants = null;
+
+            while (rs.next()) {
+                int eventId = rs.getInt("event_id");
+                if (eventId != eventIdCourant) {
+                    eventIdCourant = eventId;
+                    Evenement evenement = parId.get(eventId);
+                    siegesCourants = evenement == null ? null : evenement.getSieges();
+                    if (siegesCourants != null) {
+                        siegesCourants.clear();
+                    }
+                }
+                if (siegesCourants == null) {
+                    continue; // place d'un événement absent de la liste
+                }
+                ajouterPlace(siegesCourants, rs, identites);
+            }
+        }
     }
 
     /**
      * Enregistre un événement complet :
      * - on crée d'abord la ligne dans la table event
-     * - puis on génère toutes les places (une ligne par place)
+     * - puis on génère toutes les places (une ligne par place), ou une plage de sièges
+     *   par catégorie si {@code evenement.modele.places} vaut {@code PLAGE}
      * On encapsule le tout dans une transaction pour rester cohérent.
      */
     public void saveEvenement(Evenement evenement, List<CategoriePlaceDefinition> definitions) throws SQLException {
+        ModelePlaces modele = lireModeleCreation();
+        evenement.setModelePlaces(modele);
+
         try (Connection conn = Database.getConnection()) {
             conn.setAutoCommit(false);
 
+            // catégories créées par la transaction : publiées seulement une fois validées
+            List<Categorie> categoriesCreees = new ArrayList<>();
             try {
                 int eventIdCree = insererEvenement(conn, evenement, definitions);
                 evenement.setIdEvenement(eventIdCree);
-                insererPlaces(conn, eventIdCree, definitions);
+                if (modele == ModelePlaces.PLAGE) {
+                    plageSiegeDAO.creerPlages(conn, eventIdCree, definitions, categoriesCreees);
+                } else {
+                    insererPlaces(conn, eventIdCree, definitions, categoriesCreees);
+                }
+                inventaireCategorieDAO.initialiserEvenement(conn, eventIdCree);
                 conn.commit();
+                categoriesCreees.forEach(DictionnaireCategories.partage()::enregistrer);
             } catch (SQLException ex) {
                 conn.rollback();
+                DictionnaireCategories.partage().oublier(categoriesCreees);
                 throw ex;
             } finally {
                 conn.setAutoCommit(true);
@@ -159,8 +604,8 @@ public class EvenementDAO {
 
     private int insererEvenement(Connection conn, Evenement evenement, List<CategoriePlaceDefinition> definitions) throws SQLException {
         String sql = """
-                INSERT INTO event (name, event_type, special_guest, event_date, location, organizer_id, seat_count)
-                VALUES (?, ?, ?, ?, ?, ?, ?)
+                INSERT INTO event (name, event_type, special_guest, event_date, location, organizer_id, seat_count, seat_model)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
                 """;
 
         try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -171,6 +616,7 @@ public class EvenementDAO {
             ps.setString(5, evenement.getLieu());
             ps.setInt(6, evenement.getOrganisateur().getIdUser());
             ps.setInt(7, calculerNombreTotalPlaces(definitions));
+            ps.setString(8, evenement.getModelePlaces().name());
             ps.executeUpdate();
 
             try (ResultSet keys = ps.getGeneratedKeys()) {
@@ -183,22 +629,66 @@ public class EvenementDAO {
         throw new SQLException("Impossible de créer l'événement.");
     }
 
-    private void insererPlaces(Connection conn, int eventId, List<CategoriePlaceDefinition> definitions) throws SQLException {
-        String sql = "INSERT INTO place (price, category_id, event_id) VALUES (?, ?, ?)";
+    /**
+     * Insère les places par instructions multi-lignes ({@code INSERT ... VALUES (...), (...), ...})
+     * de {@code evenement.insertion.taille.lot} lignes : un aller-retour par lot au lieu d'un par place.
+     * Les catégories sont résolues une fois pour toutes avant la génération des lignes.
+     */
+    private void insererPlaces(Connection conn, int eventId, List<CategoriePlaceDefinition> definitions,
+                               List<Categorie> categoriesCreees) throws SQLException {
+        int tailleLot = Math.clamp(Configuration.entier("evenement.insertion.taille.lot", TAILLE_LOT_PAR_DEFAUT), 1, TAILLE_LOT_MAX);
+        Map<String, Categorie> categories = categoriePlaceDAO.findOrCreateByNames(conn,
+                definitions.stream().map(CategoriePlaceDefinition::getNomCategorie).toList(), categoriesCreees);
+
+        int total = calculerNombreTotalPlaces(definitions);
+        double[] prix = new double[total];
+        int[] categoryIds = new int[total];
+        int ligne = 0;
+        for (CategoriePlaceDefinition definition : definitions) {
+            int categoryId = categories.get(CategoriePlaceDAO.cleNom(definition.getNomCategorie())).getIdCategorie();
+            for (int i = 0; i < definition.getQuantite(); i++, ligne++) {
+                prix[ligne] = definition.getPrix();
+                categoryIds[ligne] = categoryId;
+            }
+        }
 
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            for (CategoriePlaceDefinition definition : definitions) {
-                Categorie categorie = categoriePlaceDAO.findOrCreateByName(conn, definition.getNomCategorie());
-
-                for (int i = 0; i < definition.getQuantite(); i++) {
-                    ps.setDouble(1, definition.getPrix());
-                    ps.setInt(2, categorie.getIdCategorie());
-                    ps.setInt(3, eventId);
-                    ps.addBatch();
+        int debut = 0;
+        if (total >= tailleLot) {
+            try (PreparedStatement ps = conn.prepareStatement(sqlInsertionPlaces(tailleLot))) {
+                for (; debut + tailleLot <= total; debut += tailleLot) {
+                    insererLot(ps, eventId, prix, categoryIds, debut, tailleLot);
                 }
             }
+        }
+        if (debut < total) {
+            // dernier lot incomplet : instruction à sa taille exacte
+            try (PreparedStatement ps = conn.prepareStatement(sqlInsertionPlaces(total - debut))) {
+                insererLot(ps, eventId, prix, categoryIds, debut, total - debut);
+            }
+        }
+    }
+
+    private static void insererLot(PreparedStatement ps, int eventId, double[] prix, int[] categoryIds,
+                                   int debut, int lignes) throws SQLException {
+        for (int i = 0; i < lignes; i++) {
+            ps.setDouble(i * 3 + 1, prix[debut + i]);
+            ps.setInt(i * 3 + 2, categoryIds[debut + i]);
+            ps.setInt(i * 3 + 3, eventId);
+        }
+        ps.executeUpdate();
+    }
 
-            ps.executeBatch();
+    private static String sqlInsertionPlaces(int lignes) {
+        return "INSERT INTO place (price, category_id, event_id) VALUES " + "(?, ?, ?), ".repeat(lignes - 1) + "(?, ?, ?)";
+    }
+
+    private static ModelePlaces lireModeleCreation() {
+        String valeur = Configuration.texte("evenement.modele.places", ModelePlaces.PLACE.name());
+        try {
+            return ModelePlaces.valueOf(valeur.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Valeur invalide pour evenement.modele.places : " + valeur);
+            return ModelePlaces.PLACE;
         }
     }
 
@@ -211,35 +701,48 @@ public class EvenementDAO {
     }
 
 
+    private static final String SQL_LISTE = "SELECT event_id, name, event_date, location FROM event ORDER BY event_date";
+
     /**
      * Liste les événements (id, name, event_date, location). Utilise une classe concrète simple.
      */
     public List<Evenement> listAll() throws SQLException {
-        String sql = "SELECT event_id, name, event_date, location FROM event ORDER BY event_date";
-        try (Connection conn = Database.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = Database.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_LISTE)) {
             try (ResultSet rs = ps.executeQuery()) {
                 List<Evenement> list = new ArrayList<>();
                 while (rs.next()) {
-                    int id = rs.getInt("event_id");
-                    String name = rs.getString("name");
-                    java.sql.Timestamp ts = rs.getTimestamp("event_date");
-                    LocalDateTime date = ts == null ? LocalDateTime.now() : ts.toLocalDateTime();
-                    String location = rs.getString("location");
-
-                    // On crée un Concert simple comme instance concrète (special guest vide)
-                    Concert c = new Concert(id, name, date, location, (Organisateur) null, "", null);
-                    list.add(c);
+                    list.add(mapperListe(rs));
                 }
                 return list;
             }
         }
     }
 
+    /**
+     * Comme {@link #listAll()}, en {@link Stream} paresseux lu en flux par le driver ; la connexion
+     * reste empruntée jusqu'à la fermeture du flux (try-with-resources).
+     */
+    public Stream<Evenement> streamAll() throws SQLException {
+        return FluxLignes.ouvrir(SQL_LISTE, ps -> { }, EvenementDAO::mapperListe);
+    }
+
+    private static Evenement mapperListe(ResultSet rs) throws SQLException {
+        int id = rs.getInt("event_id");
+        String name = rs.getString("name");
+        java.sql.Timestamp ts = rs.getTimestamp("event_date");
+        LocalDateTime date = ts == null ? LocalDateTime.now() : ts.toLocalDateTime();
+        String location = rs.getString("location");
+
+        // On crée un Concert simple comme instance concrète (special guest vide)
+        return new Concert(id, name, date, location, (Organisateur) null, "", null);
+    }
+
     /**
      * Récupère les catégories (id, name) disponibles pour un événement.
      */
     public List<org.example.model.Categorie> listCategoriesForEvent(int eventId) throws SQLException {
-        String sql = "SELECT DISTINCT c.category_id, c.category_name FROM category c JOIN place p ON c.category_id = p.category_id WHERE p.event_id = ?";
+        // les compteurs ont une ligne par catégorie de l'événement : pas besoin de parcourir ses places
+        String sql = "SELECT c.category_id, c.category_name FROM event_category_inventory i JOIN category c ON c.category_id = i.category_id WHERE i.event_id = ?";
         try (Connection conn = Database.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, eventId);
             try (ResultSet rs = ps.executeQuery()) {
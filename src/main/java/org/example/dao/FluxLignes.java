@@ -0,0 +1,87 @@
+package org.example.dao;
+
+import org.example.util.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Résultat d'une requête lu en flux ({@link Database#lireEnFlux}) et rendu comme un
+ * {@link Stream} paresseux : chaque ligne est transformée au moment où le flux la consomme,
+ * rien n'est accumulé. La connexion reste empruntée jusqu'à la fermeture du flux, qui doit donc
+ * être ouvert dans un try-with-resources.
+ * <p>
+ * Une {@link SQLException} survenue pendant la lecture est relancée dans une
+ * {@link RuntimeException} (les opérations d'un {@code Stream} ne déclarent pas d'exception).
+ */
+final class FluxLignes {
+
+    private FluxLignes() {
+    }
+
+    /**
+     * Lie les paramètres de la requête.
+     */
+    @FunctionalInterface
+    interface Parametres {
+        void lier(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+     * Transforme la ligne courante.
+     */
+    @FunctionalInterface
+    interface Lecteur<T> {
+        T lire(ResultSet rs) throws SQLException;
+    }
+
+    static <T> Stream<T> ouvrir(String sql, Parametres parametres, Lecteur<T> lecteur) throws SQLException {
+        Connection conn = Database.getConnection();
+        try {
+            PreparedStatement ps = conn.prepareStatement(sql);
+            Database.lireEnFlux(ps);
+            parametres.lier(ps);
+            ResultSet rs = ps.executeQuery();
+
+            Spliterator<T> lignes = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept(lecteur.lire(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new RuntimeException("Erreur de lecture en flux : " + e.getMessage(), e);
+                    }
+                }
+            };
+            return StreamSupport.stream(lignes, false).onClose(() -> fermer(rs, ps, conn));
+        } catch (SQLException | RuntimeException e) {
+            fermer(conn);
+            throw e;
+        }
+    }
+
+    /**
+     * Ferme le résultat avant de rendre la connexion : avec MySQL, la connexion ne sert à rien
+     * d'autre tant qu'un résultat en flux est ouvert.
+     */
+    private static void fermer(AutoCloseable... ressources) {
+        for (AutoCloseable ressource : ressources) {
+            try {
+                ressource.close();
+            } catch (Exception e) {
+                System.err.println("Fermeture d'une lecture en flux : " + e.getMessage());
+            }
+        }
+    }
+}
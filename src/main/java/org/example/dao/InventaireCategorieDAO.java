@@ -0,0 +1,171 @@
+package org.example.dao;
+
+import org.example.model.DisponibiliteCategorie;
+import org.example.util.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * DAO des compteurs de places par événement et catégorie ({@code event_category_inventory}).
+ * <p>
+ * Les mises à jour prennent la connexion de l'appelant : elles doivent se faire dans la
+ * transaction qui crée ou supprime les places et les réservations concernées.
+ */
+public class InventaireCategorieDAO {
+
+    private static final String SQL_RECALCUL =
+        "INSERT INTO event_category_inventory (event_id, category_id, total_seats, reserved_seats, min_price, max_price) " +
+        "SELECT p.event_id, p.category_id, COUNT(*), COUNT(rhp.place_id), MIN(p.price), MAX(p.price) " +
+        "FROM place p " +
+        "LEFT JOIN reservation_has_place rhp ON rhp.place_id = p.place_id ";
+    private static final String SQL_GROUPEMENT = "GROUP BY p.event_id, p.category_id";
+    // Même calcul pour les événements en plages : une ligne par plage avec ses sièges réservés, puis regroupement
+    private static final String SQL_RECALCUL_PLAGES =
+        "INSERT INTO event_category_inventory (event_id, category_id, total_seats, reserved_seats, min_price, max_price) " +
+        "SELECT event_id, category_id, SUM(seat_count), SUM(reservees), MIN(price), MAX(price) FROM (" +
+        "SELECT sr.event_id, sr.category_id, sr.seat_count, sr.price, " +
+        "(SELECT COALESCE(SUM(rsr.seat_count), 0) FROM reservation_seat_range rsr WHERE rsr.range_id = sr.range_id) AS reservees " +
+        "FROM seat_range sr %s) plages " +
+        "GROUP BY event_id, category_id";
+
+    /**
+     * Crée les compteurs des catégories d'un événement (après l'insertion de ses places).
+     */
+    public void initialiserEvenement(Connection conn, int eventId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM event_category_inventory WHERE event_id = ?")) {
+            ps.setInt(1, eventId);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(SQL_RECALCUL + "WHERE p.event_id = ? " + SQL_GROUPEMENT)) {
+            ps.setInt(1, eventId);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(SQL_RECALCUL_PLAGES.formatted("WHERE sr.event_id = ?"))) {
+            ps.setInt(1, eventId);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Recalcule tous les compteurs à partir des places et des réservations
+     * (remise en cohérence ou première alimentation de la table).
+     */
+    public void reconstruire(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM event_category_inventory");
+            st.executeUpdate(SQL_RECALCUL + SQL_GROUPEMENT);
+            st.executeUpdate(SQL_RECALCUL_PLAGES.formatted(""));
+        }
+    }
+
+    /**
+     * Compte comme réservées les places indiquées, catégorie par catégorie.
+     */
+    public void ajouterReservees(Connection conn, List<Integer> placeIds) throws SQLException {
+        if (placeIds.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE event_category_inventory i " +
+            "JOIN (SELECT event_id, category_id, COUNT(*) AS nb FROM place WHERE place_id IN (" +
+            String.join(", ", Collections.nCopies(placeIds.size(), "?")) + ") GROUP BY event_id, category_id) g " +
+            "ON i.event_id = g.event_id AND i.category_id = g.category_id " +
+            "SET i.reserved_seats = i.reserved_seats + g.nb";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < placeIds.size(); i++) {
+                ps.setInt(i + 1, placeIds.get(i));
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Compte comme réservés {@code nombre} sièges d'une catégorie (événement en plages).
+     */
+    public void ajouterReservees(Connection conn, int eventId, int categoryId, int nombre) throws SQLException {
+        String sql = "UPDATE event_category_inventory SET reserved_seats = reserved_seats + ? WHERE event_id = ? AND category_id = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, nombre);
+            ps.setInt(2, eventId);
+            ps.setInt(3, categoryId);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Retire des compteurs les places d'une réservation (places ou sièges en plages).
+     * À appeler avant de supprimer ses lignes de {@code reservation_has_place}
+     * et {@code reservation_seat_range}.
+     */
+    public void retirerReservees(Connection conn, int reservationId) throws SQLException {
+        String sql = "UPDATE event_category_inventory i " +
+            "JOIN (SELECT p.event_id, p.category_id, COUNT(*) AS nb FROM reservation_has_place rhp " +
+            "JOIN place p ON p.place_id = rhp.place_id WHERE rhp.reservation_id = ? GROUP BY p.event_id, p.category_id) g " +
+            "ON i.event_id = g.event_id AND i.category_id = g.category_id " +
+            "SET i.reserved_seats = i.reserved_seats - g.nb";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, reservationId);
+            ps.executeUpdate();
+        }
+
+        String sqlPlages = "UPDATE event_category_inventory i " +
+            "JOIN (SELECT sr.event_id, sr.category_id, SUM(rsr.seat_count) AS nb FROM reservation_seat_range rsr " +
+            "JOIN seat_range sr ON sr.range_id = rsr.range_id WHERE rsr.reservation_id = ? GROUP BY sr.event_id, sr.category_id) g " +
+            "ON i.event_id = g.event_id AND i.category_id = g.category_id " +
+            "SET i.reserved_seats = i.reserved_seats - g.nb";
+        try (PreparedStatement ps = conn.prepareStatement(sqlPlages)) {
+            ps.setInt(1, reservationId);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Nombre de places encore libres pour un événement et une catégorie (lecture par clé primaire).
+     *
+     * @return vide si la catégorie n'a pas de compteur (événement sans place dans cette catégorie).
+     */
+    public OptionalInt placesRestantes(Connection conn, int eventId, int categoryId) throws SQLException {
+        String sql = "SELECT total_seats - reserved_seats AS restantes FROM event_category_inventory WHERE event_id = ? AND category_id = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, eventId);
+            ps.setInt(2, categoryId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? OptionalInt.of(rs.getInt("restantes")) : OptionalInt.empty();
+            }
+        }
+    }
+
+    /**
+     * Liste les catégories d'un événement avec leurs places restantes et leurs prix.
+     */
+    public List<DisponibiliteCategorie> listDisponibilites(int eventId) throws SQLException {
+        String sql = "SELECT i.category_id, c.category_name, i.total_seats, i.reserved_seats, i.min_price, i.max_price " +
+            "FROM event_category_inventory i " +
+            "JOIN category c ON c.category_id = i.category_id " +
+            "WHERE i.event_id = ? " +
+            "ORDER BY i.max_price DESC, c.category_name";
+        try (Connection conn = Database.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<DisponibiliteCategorie> list = new ArrayList<>();
+                while (rs.next()) {
+                    list.add(new DisponibiliteCategorie(
+                        rs.getInt("category_id"),
+                        rs.getString("category_name"),
+                        rs.getInt("total_seats"),
+                        rs.getInt("reserved_seats"),
+                        rs.getDouble("min_price"),
+                        rs.getDouble("max_price")));
+                }
+                return list;
+            }
+        }
+    }
+}
@@ -25,8 +25,6 @@ public class PaiementDAO {
             // Saisie des valeurs manquantes de la requête preparée
             ps.setInt(1, id);
 
-            System.out.println("Trying to get payment having id: " + id);
-
             // Execution de la requête
             try (ResultSet rs = ps.executeQuery()) {
 
@@ -56,7 +54,6 @@ public class PaiementDAO {
             e.printStackTrace();
             return null;
         }
-        System.out.println("Paiement non trouvé (id : " + id + ")");
         return null;
     }
 
@@ -80,8 +77,6 @@ public class PaiementDAO {
             // Saisie des valeurs manquantes de la requête preparée
             ps.setInt(1, reservation_id);
 
-            System.out.println("Trying to get payment having reservation_id: " + reservation_id);
-
             // Execution de la requête
             try (ResultSet rs = ps.executeQuery()) {
 
@@ -111,7 +106,6 @@ public class PaiementDAO {
             e.printStackTrace();
             return null;
         }
-        System.out.println("Paiement non trouvé (id de réservation : " + /* reservation.getReservationId() */ "XXXX" + ")");
         return null;
     }
 
@@ -145,8 +139,6 @@ public class PaiementDAO {
             // Conversion de LocalDateTime à Timestamp
             ps.setTimestamp(3, Timestamp.valueOf(paiement.getDatePaiement()));
 
-            System.out.println("Tentative d'insertion d'un nouveau paiement...");
-
             // Execution de la requête
             int rowsAffected = ps.executeUpdate();
 
@@ -157,8 +149,6 @@ public class PaiementDAO {
                     if (rs.next()) {
                         int generatedId = rs.getInt(1);
 
-                        System.out.println("Paiement inséré avec succès. ID généré: " + generatedId);
-
                         return new Paiement(
                                 generatedId,
                                 paiement.getNomCB(),
@@ -189,7 +179,6 @@ public class PaiementDAO {
                     );
                 }
             }
-            System.out.println("L'insertion n'a affecté aucune ligne. Retour de l'objet Paiement original (non mis à jour).");
             return null;
 
         } catch (SQLException e) {
@@ -198,4 +187,29 @@ public class PaiementDAO {
             return null;
         }
     }
+
+
+    /**
+     * Insère le paiement d'une réservation sur la connexion fournie, dans la transaction de
+     * l'appelant (paiement d'une option : la réservation est créée dans la même transaction).
+     *
+     * @return l'identifiant généré du paiement.
+     * @throws SQLException si l'insertion échoue, notamment sur l'unicité de {@code payment.reservation_id}.
+     */
+    public int inserer(Connection conn, Paiement paiement, int reservationId) throws SQLException {
+        String sql = "INSERT INTO `payment` (card_name, card_number, payment_date, reservation_id) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, paiement.getNomCB());
+            ps.setString(2, paiement.getNumeroCB());
+            ps.setTimestamp(3, Timestamp.valueOf(paiement.getDatePaiement()));
+            ps.setInt(4, reservationId);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("Impossible de récupérer l'ID de paiement généré.");
+                }
+                return keys.getInt(1);
+            }
+        }
+    }
 }
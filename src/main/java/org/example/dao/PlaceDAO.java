@@ -4,50 +4,121 @@ import org.example.model.Categorie;
 import org.example.model.Evenement;
 import org.example.model.Organisateur;
 import org.example.model.Place;
+import org.example.model.StockPlaces;
 import org.example.util.Database;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 public class PlaceDAO {
 
+    // Une ligne par place, triée par stock (événement, catégorie) puis par identifiant
+    private static final String SQL_ETAT_PLACES =
+        "SELECT p.place_id, p.price, p.event_id, p.category_id, c.category_name, " +
+        "EXISTS (SELECT 1 FROM reservation_has_place rhp WHERE rhp.place_id = p.place_id) AS reservee " +
+        "FROM place p " +
+        "JOIN category c ON p.category_id = c.category_id ";
+    private static final String SQL_ORDRE_STOCKS = "ORDER BY p.event_id, p.category_id, p.place_id";
+
+    /**
+     * Manière de verrouiller les places libres choisies pour une réservation.
+     */
+    public enum VerrouillagePlaces {
+        /** Les acheteurs d'une même catégorie visent les mêmes premières places et s'attendent. */
+        FOR_UPDATE,
+        /**
+         * Les places déjà verrouillées par une autre transaction sont sautées : chaque acheteur
+         * obtient des places différentes sans attendre. Nécessite MySQL 8 ; à défaut,
+         * {@link #FOR_UPDATE} est utilisé.
+         */
+        SKIP_LOCKED
+    }
+
+    private static final String SQL_PLACES_LIBRES =
+        "SELECT p.place_id, p.price, c.category_id, c.category_name, e.event_id, e.name as event_name, e.event_date, e.location " +
+        "FROM place p " +
+        "JOIN category c ON p.category_id = c.category_id " +
+        "JOIN event e ON p.event_id = e.event_id " +
+        "LEFT JOIN reservation_has_place rhp ON p.place_id = rhp.place_id " +
+        "WHERE p.event_id = ? AND p.category_id = ? AND rhp.place_id IS NULL ";
+
+    // Renseigné au premier appel en SKIP_LOCKED, d'après le serveur de la connexion
+    private static volatile Boolean skipLockedDisponible;
+
     /**
      * Récupère jusqu'à `limit` places libres pour un événement et une catégorie.
      * Doit être appelé avec une connection (pour contrôler la transaction si besoin).
      */
     public List<Place> findFreePlacesByEventAndCategory(Connection conn, int eventId, int categoryId, int limit) throws SQLException {
-        String sql = "SELECT p.place_id, p.price, c.category_id, c.category_name, e.event_id, e.name as event_name, e.event_date, e.location " +
-            "FROM place p " +
-            "JOIN category c ON p.category_id = c.category_id " +
-            "JOIN event e ON p.event_id = e.event_id " +
-            "LEFT JOIN reservation_has_place rhp ON p.place_id = rhp.place_id " +
-            "WHERE p.event_id = ? AND p.category_id = ? AND rhp.place_id IS NULL " +
-            "LIMIT ? FOR UPDATE";
+        return findFreePlacesByEventAndCategory(conn, eventId, categoryId, limit, VerrouillagePlaces.FOR_UPDATE);
+    }
 
+    /**
+     * Récupère et verrouille jusqu'à `limit` places libres selon la stratégie demandée.
+     * En SKIP_LOCKED, seules les lignes de {@code place} sont verrouillées ({@code OF p}) :
+     * verrouiller aussi l'événement ou la catégorie ferait de nouveau attendre tous les acheteurs.
+     */
+    public List<Place> findFreePlacesByEventAndCategory(Connection conn, int eventId, int categoryId, int limit,
+                                                        VerrouillagePlaces verrouillage) throws SQLException {
+        if (verrouillage == VerrouillagePlaces.SKIP_LOCKED && skipLockedDisponible(conn)) {
+            try {
+                return lirePlacesLibres(conn, SQL_PLACES_LIBRES + "ORDER BY p.place_id LIMIT ? FOR UPDATE OF p SKIP LOCKED",
+                    eventId, categoryId, limit);
+            } catch (SQLSyntaxErrorException e) {
+                // Clause refusée : on n'essaiera plus (une erreur de syntaxe n'annule pas la transaction MySQL)
+                skipLockedDisponible = false;
+                System.err.println("SKIP LOCKED refusé par la base, retour à FOR UPDATE : " + e.getMessage());
+            }
+        }
+        return lirePlacesLibres(conn, SQL_PLACES_LIBRES + "LIMIT ? FOR UPDATE", eventId, categoryId, limit);
+    }
+
+    private static boolean skipLockedDisponible(Connection conn) throws SQLException {
+        Boolean disponible = skipLockedDisponible;
+        if (disponible == null) {
+            DatabaseMetaData meta = conn.getMetaData();
+            // MariaDB peut se présenter comme « MySQL » mais ne connaît pas FOR UPDATE OF
+            disponible = "MySQL".equalsIgnoreCase(meta.getDatabaseProductName())
+                && !meta.getDatabaseProductVersion().contains("MariaDB")
+                && meta.getDatabaseMajorVersion() >= 8;
+            if (!disponible) {
+                System.err.println("SKIP LOCKED indisponible sur " + meta.getDatabaseProductName() + " "
+                    + meta.getDatabaseProductVersion() + " : verrouillage FOR UPDATE utilisé.");
+            }
+            skipLockedDisponible = disponible;
+        }
+        return disponible;
+    }
+
+    private List<Place> lirePlacesLibres(Connection conn, String sql, int eventId, int categoryId, int limit) throws SQLException {
         try (PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, eventId);
             ps.setInt(2, categoryId);
             ps.setInt(3, limit);
             try (ResultSet rs = ps.executeQuery()) {
                 List<Place> list = new ArrayList<>();
+                // toutes les lignes portent le même événement et la même catégorie : une instance de chaque
+                Categorie cat = null;
+                Evenement ev = null;
                 while (rs.next()) {
                     int placeId = rs.getInt("place_id");
                     double price = rs.getDouble("price");
-                    int catId = rs.getInt("category_id");
-                    String catName = rs.getString("category_name");
-                    int evId = rs.getInt("event_id");
-                    String evName = rs.getString("event_name");
-                    java.sql.Timestamp evTs = rs.getTimestamp("event_date");
-
-                    Categorie cat = new Categorie(catId, catName);
-                    Evenement ev = new Evenement(evId, evName, evTs.toLocalDateTime(), rs.getString("location"), (Organisateur) null) {
-                        @Override
-                        public String getSpecialGuest() { return ""; }
-                    };
+
+                    if (ev == null) {
+                        cat = new Categorie(rs.getInt("category_id"), rs.getString("category_name"));
+                        java.sql.Timestamp evTs = rs.getTimestamp("event_date");
+                        ev = new Evenement(rs.getInt("event_id"), rs.getString("event_name"), evTs.toLocalDateTime(), rs.getString("location"), (Organisateur) null) {
+                            @Override
+                            public String getSpecialGuest() { return ""; }
+                        };
+                    }
 
                     Place p = new Place(placeId, price, cat, ev);
                     list.add(p);
@@ -69,4 +140,104 @@ public class PlaceDAO {
     public boolean releasePlaces(Connection conn, List<Integer> placeIds) {
         throw new UnsupportedOperationException("releasePlaces not supported; release is done by deleting reservation_has_place rows via ReservationDAO.deleteReservation");
     }
+
+    /**
+     * Charge l'état de toutes les places de la base, regroupé en un stock par
+     * couple (événement, catégorie). Utilisé pour reconstruire l'inventaire au démarrage.
+     */
+    public List<StockPlaces> chargerStocks(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_ETAT_PLACES + SQL_ORDRE_STOCKS);
+             ResultSet rs = ps.executeQuery()) {
+            return lireStocks(rs);
+        }
+    }
+
+    /**
+     * Charge l'état des places d'un seul couple (événement, catégorie).
+     *
+     * @return le stock, vide si l'événement n'a aucune place dans cette catégorie.
+     */
+    public StockPlaces chargerStock(Connection conn, int eventId, int categoryId) throws SQLException {
+        String sql = SQL_ETAT_PLACES + "WHERE p.event_id = ? AND p.category_id = ? " + SQL_ORDRE_STOCKS;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, eventId);
+            ps.setInt(2, categoryId);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<StockPlaces> stocks = lireStocks(rs);
+                return stocks.isEmpty()
+                    ? new StockPlaces(eventId, categoryId, null, new int[0], new double[0], new BitSet())
+                    : stocks.getFirst();
+            }
+        }
+    }
+
+    /**
+     * Parmi les places données, celles déjà liées à une réservation en base.
+     */
+    public List<Integer> filtrerPlacesVendues(Connection conn, int[] placeIds) throws SQLException {
+        List<Integer> vendues = new ArrayList<>();
+        if (placeIds.length == 0) {
+            return vendues;
+        }
+        String sql = "SELECT place_id FROM reservation_has_place WHERE place_id IN ("
+            + "?, ".repeat(placeIds.length - 1) + "?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < placeIds.length; i++) {
+                ps.setInt(i + 1, placeIds[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    vendues.add(rs.getInt("place_id"));
+                }
+            }
+        }
+        return vendues;
+    }
+
+    /**
+     * Regroupe les lignes (déjà triées par stock) au fil de la lecture.
+     */
+    private List<StockPlaces> lireStocks(ResultSet rs) throws SQLException {
+        List<StockPlaces> stocks = new ArrayList<>();
+        int eventId = -1;
+        int categoryId = -1;
+        String categoryName = null;
+        List<Integer> ids = new ArrayList<>();
+        List<Double> prix = new ArrayList<>();
+        BitSet reservees = new BitSet();
+        while (rs.next()) {
+            int ev = rs.getInt("event_id");
+            int cat = rs.getInt("category_id");
+            if (ev != eventId || cat != categoryId) {
+                if (!ids.isEmpty()) {
+                    stocks.add(creerStock(eventId, categoryId, categoryName, ids, prix, reservees));
+                }
+                eventId = ev;
+                categoryId = cat;
+                categoryName = rs.getString("category_name");
+                ids.clear();
+                prix.clear();
+                reservees = new BitSet();
+            }
+            if (rs.getBoolean("reservee")) {
+                reservees.set(ids.size());
+            }
+            ids.add(rs.getInt("place_id"));
+            prix.add(rs.getDouble("price"));
+        }
+        if (!ids.isEmpty()) {
+            stocks.add(creerStock(eventId, categoryId, categoryName, ids, prix, reservees));
+        }
+        return stocks;
+    }
+
+    private StockPlaces creerStock(int eventId, int categoryId, String categoryName, List<Integer> ids, List<Double> prix, BitSet reservees) {
+        int[] tableauIds = new int[ids.size()];
+        double[] tableauPrix = new double[ids.size()];
+        for (int i = 0; i < tableauIds.length; i++) {
+            tableauIds[i] = ids.get(i);
+            tableauPrix[i] = prix.get(i);
+        }
+        return new StockPlaces(eventId, categoryId, categoryName, tableauIds, tableauPrix, reservees);
+    }
 }
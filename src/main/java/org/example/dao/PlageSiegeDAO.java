@@ -0,0 +1,577 @@
+package org.example.dao;
+
+import org.example.model.Categorie;
+import org.example.model.CategoriePlaceDefinition;
+import org.example.model.Evenement;
+import org.example.model.ModelePlaces;
+import org.example.model.Place;
+import org.example.model.PlaceReservee;
+import org.example.model.SiegesEvenement;
+import org.example.model.StockPlaces;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DAO du modèle de places compact ({@link ModelePlaces#PLAGE}) : tables {@code seat_range}
+ * et {@code reservation_seat_range}.
+ * <p>
+ * Une catégorie d'un événement est une plage de numéros de sièges consécutifs ; une
+ * réservation enregistre les sous-plages qu'elle occupe. Un concert de 80 000 places
+ * tient donc en quelques lignes au lieu de 80 000. Les numéros de sièges servent
+ * d'identifiants de place (inventaire, objets {@link Place} créés à la demande).
+ */
+public class PlageSiegeDAO {
+
+    private final CategoriePlaceDAO categoriePlaceDAO = new CategoriePlaceDAO();
+
+    private static final String SQL_PLAGES =
+        "SELECT sr.range_id, sr.event_id, sr.category_id, c.category_name, sr.first_seat, sr.seat_count, sr.price " +
+        "FROM seat_range sr " +
+        "JOIN category c ON c.category_id = sr.category_id ";
+    private static final String SQL_ORDRE_PLAGES = "ORDER BY sr.event_id, sr.category_id, sr.first_seat";
+    private static final String SQL_SOUS_PLAGES =
+        "SELECT rsr.range_id, rsr.first_seat, rsr.seat_count " +
+        "FROM reservation_seat_range rsr " +
+        "JOIN seat_range sr ON sr.range_id = rsr.range_id ";
+
+    /**
+     * Plage lue en base, avec ses sièges réservés (index relatifs au premier siège).
+     */
+    private static final class Plage {
+        final int idPlage;
+        final int idEvenement;
+        final int idCategorie;
+        final String nomCategorie;
+        final int premierSiege;
+        final int nombreSieges;
+        final double prix;
+        final BitSet reserves = new BitSet();
+
+        Plage(ResultSet rs, String nomCategorie) throws SQLException {
+            this.idPlage = rs.getInt("range_id");
+            this.idEvenement = rs.getInt("event_id");
+            this.idCategorie = rs.getInt("category_id");
+            this.nomCategorie = nomCategorie;
+            this.premierSiege = rs.getInt("first_seat");
+            this.nombreSieges = rs.getInt("seat_count");
+            this.prix = rs.getDouble("price");
+        }
+
+        boolean contient(int numero) {
+            return numero >= premierSiege && numero < premierSiege + nombreSieges;
+        }
+    }
+
+    /**
+     * Siège déjà réservé trouvé à l'enregistrement d'une réservation en plages : l'équivalent
+     * du doublon sur {@code uk_rhp_place} pour les places du modèle {@link ModelePlaces#PLACE}.
+     */
+    public static class SiegeDejaReserveException extends SQLIntegrityConstraintViolationException {
+        public SiegeDejaReserveException(int numero) {
+            super("Siège " + numero + " déjà réservé.", "23000");
+        }
+    }
+
+    /**
+     * Indique comment sont stockées les places d'un événement.
+     */
+    public ModelePlaces lireModele(Connection conn, int eventId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT seat_model FROM event WHERE event_id = ?")) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? ModelePlaces.valueOf(rs.getString("seat_model")) : ModelePlaces.PLACE;
+            }
+        }
+    }
+
+    /**
+     * Crée une plage par définition de catégorie, les numéros de sièges se suivant
+     * d'une catégorie à l'autre (1 à n pour la première, etc.). Doit être appelé dans une transaction.
+     *
+     * @param categoriesCreees reçoit les catégories créées, à publier après le commit.
+     */
+    public void creerPlages(Connection conn, int eventId, List<CategoriePlaceDefinition> definitions,
+                            List<Categorie> categoriesCreees) throws SQLException {
+        String sql = "INSERT INTO seat_range (event_id, category_id, first_seat, seat_count, price) VALUES (?, ?, ?, ?, ?)";
+        int premierSiege = 1;
+        Map<String, Categorie> categories = categoriePlaceDAO.findOrCreateByNames(conn,
+                definitions.stream().map(CategoriePlaceDefinition::getNomCategorie).toList(), categoriesCreees);
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (CategoriePlaceDefinition definition : definitions) {
+                if (definition.getQuantite() <= 0) {
+                    continue;
+                }
+                Categorie categorie = categories.get(CategoriePlaceDAO.cleNom(definition.getNomCategorie()));
+                ps.setInt(1, eventId);
+                ps.setInt(2, categorie.getIdCategorie());
+                ps.setInt(3, premierSiege);
+                ps.setInt(4, definition.getQuantite());
+                ps.setDouble(5, definition.getPrix());
+                ps.addBatch();
+                premierSiege += definition.getQuantite();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Charge un stock par couple (événement, catégorie) pour tous les événements en plages.
+     */
+    public List<StockPlaces> chargerStocks(Connection conn) throws SQLException {
+        return construireStocks(lirePlages(conn, "", List.of()));
+    }
+
+    /**
+     * Charge le stock d'un couple (événement, catégorie) d'un événement en plages.
+     */
+    public StockPlaces chargerStock(Connection conn, int eventId, int categoryId) throws SQLException {
+        List<StockPlaces> stocks = construireStocks(
+            lirePlages(conn, "WHERE sr.event_id = ? AND sr.category_id = ? ", List.of(eventId, categoryId)));
+        return stocks.isEmpty()
+            ? new StockPlaces(eventId, categoryId, null, ModelePlaces.PLAGE, new int[0], new double[0], new BitSet())
+            : stocks.getFirst();
+    }
+
+    /**
+     * Parmi les numéros de sièges donnés d'une catégorie, ceux déjà réservés en base.
+     */
+    public List<Integer> filtrerSiegesVendus(Connection conn, int eventId, int categoryId, int[] numeros) throws SQLException {
+        List<Plage> plages = lirePlages(conn, "WHERE sr.event_id = ? AND sr.category_id = ? ", List.of(eventId, categoryId));
+        List<Integer> vendus = new ArrayList<>();
+        for (int numero : numeros) {
+            Plage plage = plageContenant(plages, numero);
+            if (plage != null && plage.reserves.get(numero - plage.premierSiege)) {
+                vendus.add(numero);
+            }
+        }
+        return vendus;
+    }
+
+    /**
+     * Renvoie jusqu'à {@code nombre} sièges libres d'une catégorie, sous forme de places numérotées.
+     * Les plages sont verrouillées une à une, dans l'ordre des numéros, jusqu'à en avoir assez :
+     * les plages suivantes restent libres pour les autres acheteurs. Doit être appelé dans une transaction.
+     */
+    public List<Place> verrouillerSiegesLibres(Connection conn, Evenement evenement, int categoryId, int nombre) throws SQLException {
+        List<Place> places = new ArrayList<>(nombre);
+        Categorie categorie = null;
+
+        for (int idPlage : listerPlages(conn, evenement.getIdEvenement(), categoryId)) {
+            if (places.size() >= nombre) {
+                break;
+            }
+            Plage plage = verrouillerPlage(conn, "range_id = ?", idPlage);
+            if (plage == null) {
+                continue;
+            }
+            lireSousPlages(conn, SQL_SOUS_PLAGES + "WHERE sr.range_id = ? LOCK IN SHARE MODE",
+                List.of(idPlage), Map.of(idPlage, plage));
+            for (int index = plage.reserves.nextClearBit(0);
+                 index < plage.nombreSieges && places.size() < nombre;
+                 index = plage.reserves.nextClearBit(index + 1)) {
+                if (categorie == null) {
+                    categorie = new Categorie(categoryId, nomCategorie(conn, categoryId));
+                }
+                places.add(new Place(plage.premierSiege + index, plage.prix, categorie, evenement));
+            }
+        }
+        return places;
+    }
+
+    /**
+     * Enregistre les sièges d'une réservation, regroupés en suites de numéros consécutifs.
+     * Seule la plage de chaque suite est verrouillée, et le conflit est cherché par une lecture
+     * indexée de la sous-plage réservée qui la précède : le coût ne dépend pas du nombre de sièges
+     * déjà vendus. Si un siège est déjà réservé (inventaire en mémoire périmé par exemple), une
+     * {@link SiegeDejaReserveException} est levée, comme pour une place en double dans
+     * {@code reservation_has_place}.
+     */
+    public void enregistrerSieges(Connection conn, int reservationId, int eventId, int categoryId, int[] numeros) throws SQLException {
+        int[] tries = numeros.clone();
+        Arrays.sort(tries);
+
+        String sql = "INSERT INTO reservation_seat_range (reservation_id, range_id, first_seat, seat_count) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            Plage plage = null;
+            int debut = 0;
+            while (debut < tries.length) {
+                // suites triées : les plages sont verrouillées dans l'ordre des numéros, sans interblocage
+                if (plage == null || !plage.contient(tries[debut])) {
+                    plage = verrouillerPlage(conn, "event_id = ? AND category_id = ? AND first_seat <= ? "
+                        + "ORDER BY first_seat DESC LIMIT 1", eventId, categoryId, tries[debut]);
+                    if (plage == null || !plage.contient(tries[debut])) {
+                        throw new SQLException("Siège " + tries[debut] + " inconnu pour la catégorie " + categoryId + ".");
+                    }
+                }
+                int fin = debut;
+                while (fin + 1 < tries.length && tries[fin + 1] == tries[fin] + 1 && plage.contient(tries[fin + 1])) {
+                    fin++;
+                }
+                int siegeReserve = premierSiegeReserve(conn, plage.idPlage, tries[debut], fin - debut + 1);
+                if (siegeReserve != 0) {
+                    throw new SiegeDejaReserveException(siegeReserve);
+                }
+                ps.setInt(1, reservationId);
+                ps.setInt(2, plage.idPlage);
+                ps.setInt(3, tries[debut]);
+                ps.setInt(4, fin - debut + 1);
+                ps.addBatch();
+                debut = fin + 1;
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Sièges d'une réservation (numéro, événement, catégorie), pour l'inventaire en mémoire.
+     */
+    public List<PlaceReservee> getSiegesReserves(Connection conn, int reservationId) throws SQLException {
+        String sql = "SELECT rsr.first_seat, rsr.seat_count, sr.event_id, sr.category_id, sr.price " +
+            "FROM reservation_seat_range rsr " +
+            "JOIN seat_range sr ON sr.range_id = rsr.range_id " +
+            "WHERE rsr.reservation_id = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, reservationId);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<PlaceReservee> sieges = new ArrayList<>();
+                while (rs.next()) {
+                    int premier = rs.getInt("first_seat");
+                    for (int numero = premier; numero < premier + rs.getInt("seat_count"); numero++) {
+                        sieges.add(new PlaceReservee(numero, rs.getInt("event_id"), rs.getInt("category_id"), rs.getDouble("price")));
+                    }
+                }
+                return sieges;
+            }
+        }
+    }
+
+    /**
+     * Remplit les places ({@link SiegesEvenement}) des événements en plages de la liste (les autres
+     * sont ignorés), en deux requêtes quel que soit le nombre d'événements.
+     */
+    public void chargerPlaces(Connection conn, List<Evenement> evenements) throws SQLException {
+        chargerPlaces(conn, evenements, new CarteIdentites());
+    }
+
+    /**
+     * Comme {@link #chargerPlaces(Connection, List)}, en partageant les catégories du chargement en cours.
+     */
+    void chargerPlaces(Connection conn, List<Evenement> evenements, CarteIdentites identites) throws SQLException {
+        Map<Integer, Evenement> parId = new HashMap<>();
+        for (Evenement evenement : evenements) {
+            if (evenement.getModelePlaces() == ModelePlaces.PLAGE) {
+                parId.put(evenement.getIdEvenement(), evenement);
+            }
+        }
+        if (parId.isEmpty()) {
+            return;
+        }
+
+        String filtre = "WHERE sr.event_id IN (" + "?, ".repeat(parId.size() - 1) + "?) ";
+        for (Evenement evenement : parId.values()) {
+            evenement.getSieges().clear();
+        }
+        for (Plage plage : lirePlages(conn, filtre, new ArrayList<>(parId.keySet()))) {
+            SiegesEvenement sieges = parId.get(plage.idEvenement).getSieges();
+            int categorie = sieges.ajouterCategorie(identites.categorie(plage.idCategorie, plage.nomCategorie));
+            sieges.prevoir(sieges.size() + plage.nombreSieges);
+            for (int index = 0; index < plage.nombreSieges; index++) {
+                sieges.ajouter(plage.premierSiege + index, categorie, plage.prix, !plage.reserves.get(index));
+            }
+        }
+    }
+
+    /**
+     * Identifiants des événements encore stockés avec une ligne par place.
+     */
+    public List<Integer> listerEvenementsEnPlaces(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT event_id FROM event WHERE seat_model = 'PLACE' ORDER BY event_id");
+             ResultSet rs = ps.executeQuery()) {
+            List<Integer> ids = new ArrayList<>();
+            while (rs.next()) {
+                ids.add(rs.getInt("event_id"));
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Convertit un événement du modèle {@code place} vers les plages, dans la transaction de l'appelant.
+     * <p>
+     * Les places sont numérotées dans l'ordre (catégorie, prix, place_id) ; chaque suite de même
+     * catégorie et même prix devient une plage, et chaque suite de sièges consécutifs d'une même
+     * réservation devient une sous-plage. Les lignes {@code place} et {@code reservation_has_place}
+     * de l'événement sont ensuite supprimées.
+     *
+     * @return le nombre de sièges convertis (0 si l'événement est déjà en plages ou n'existe pas).
+     */
+    public int migrerEvenement(Connection conn, int eventId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT seat_model FROM event WHERE event_id = ? FOR UPDATE")) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || ModelePlaces.valueOf(rs.getString("seat_model")) == ModelePlaces.PLAGE) {
+                    return 0;
+                }
+            }
+        }
+
+        // plages : {categorie, premier siège, nombre} + prix ; sous-plages : {index de plage, réservation, premier, nombre}
+        List<int[]> plages = new ArrayList<>();
+        List<Double> prixPlages = new ArrayList<>();
+        List<int[]> sousPlages = new ArrayList<>();
+        int numero = 0;
+
+        String sql = "SELECT p.category_id, p.price, rhp.reservation_id " +
+            "FROM place p " +
+            "LEFT JOIN reservation_has_place rhp ON rhp.place_id = p.place_id " +
+            "WHERE p.event_id = ? " +
+            "ORDER BY p.category_id, p.price, p.place_id " +
+            "FOR UPDATE";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    numero++;
+                    int categorie = rs.getInt("category_id");
+                    double prix = rs.getDouble("price");
+                    int[] plage = plages.isEmpty() ? null : plages.getLast();
+                    if (plage == null || plage[0] != categorie || prixPlages.getLast() != prix) {
+                        plage = new int[]{categorie, numero, 0};
+                        plages.add(plage);
+                        prixPlages.add(prix);
+                    }
+                    plage[2]++;
+
+                    int reservation = rs.getInt("reservation_id");
+                    if (rs.wasNull()) {
+                        continue;
+                    }
+                    int[] sousPlage = sousPlages.isEmpty() ? null : sousPlages.getLast();
+                    if (sousPlage != null && sousPlage[0] == plages.size() - 1 && sousPlage[1] == reservation
+                            && sousPlage[2] + sousPlage[3] == numero) {
+                        sousPlage[3]++;
+                    } else {
+                        sousPlages.add(new int[]{plages.size() - 1, reservation, numero, 1});
+                    }
+                }
+            }
+        }
+
+        int[] idsPlages = new int[plages.size()];
+        String insertPlage = "INSERT INTO seat_range (event_id, category_id, first_seat, seat_count, price) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(insertPlage, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < plages.size(); i++) {
+                ps.setInt(1, eventId);
+                ps.setInt(2, plages.get(i)[0]);
+                ps.setInt(3, plages.get(i)[1]);
+                ps.setInt(4, plages.get(i)[2]);
+                ps.setDouble(5, prixPlages.get(i));
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (!keys.next()) {
+                        throw new SQLException("Impossible de créer la plage de sièges.");
+                    }
+                    idsPlages[i] = keys.getInt(1);
+                }
+            }
+        }
+
+        String insertSousPlage = "INSERT INTO reservation_seat_range (reservation_id, range_id, first_seat, seat_count) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(insertSousPlage)) {
+            for (int[] sousPlage : sousPlages) {
+                ps.setInt(1, sousPlage[1]);
+                ps.setInt(2, idsPlages[sousPlage[0]]);
+                ps.setInt(3, sousPlage[2]);
+                ps.setInt(4, sousPlage[3]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(
+                "DELETE FROM reservation_has_place WHERE place_id IN (SELECT place_id FROM place WHERE event_id = ?)")) {
+            ps.setInt(1, eventId);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM place WHERE event_id = ?")) {
+            ps.setInt(1, eventId);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement("UPDATE event SET seat_model = 'PLAGE' WHERE event_id = ?")) {
+            ps.setInt(1, eventId);
+            ps.executeUpdate();
+        }
+        return numero;
+    }
+
+    /**
+     * Lit des plages (triées par événement, catégorie, premier siège) et leurs sous-plages réservées.
+     */
+    private List<Plage> lirePlages(Connection conn, String filtre, List<Integer> parametres) throws SQLException {
+        List<Plage> plages = new ArrayList<>();
+        Map<Integer, Plage> parId = new HashMap<>();
+
+        try (PreparedStatement ps = conn.prepareStatement(SQL_PLAGES + filtre + SQL_ORDRE_PLAGES)) {
+            for (int i = 0; i < parametres.size(); i++) {
+                ps.setInt(i + 1, parametres.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Plage plage = new Plage(rs, rs.getString("category_name"));
+                    plages.add(plage);
+                    parId.put(plage.idPlage, plage);
+                }
+            }
+        }
+
+        lireSousPlages(conn, SQL_SOUS_PLAGES + filtre, parametres, parId);
+        return plages;
+    }
+
+    /**
+     * Identifiants des plages d'une catégorie, dans l'ordre des numéros de sièges (sans verrou).
+     */
+    private List<Integer> listerPlages(Connection conn, int eventId, int categoryId) throws SQLException {
+        String sql = "SELECT range_id FROM seat_range WHERE event_id = ? AND category_id = ? ORDER BY first_seat";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, eventId);
+            ps.setInt(2, categoryId);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Integer> ids = new ArrayList<>();
+                while (rs.next()) {
+                    ids.add(rs.getInt("range_id"));
+                }
+                return ids;
+            }
+        }
+    }
+
+    /**
+     * Verrouille en écriture une ligne de {@code seat_range} (sans ses sous-plages).
+     * Les écritures d'une plage passent toutes par ce verrou : les lectures verrouillantes
+     * qui suivent voient les réservations validées juste avant son obtention.
+     *
+     * @return la plage, ou {@code null} si aucune ne correspond.
+     */
+    private Plage verrouillerPlage(Connection conn, String condition, int... parametres) throws SQLException {
+        String sql = "SELECT range_id, event_id, category_id, first_seat, seat_count, price " +
+            "FROM seat_range WHERE " + condition + " FOR UPDATE";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametres.length; i++) {
+                ps.setInt(i + 1, parametres[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? new Plage(rs, null) : null;
+            }
+        }
+    }
+
+    /**
+     * Premier siège déjà réservé parmi {@code nombre} sièges à partir de {@code premier} dans une
+     * plage verrouillée, ou 0. Les sous-plages d'une plage ne se chevauchent pas : seule celle qui
+     * commence juste avant la fin de la suite peut la recouvrir, et elle se lit par la clé primaire
+     * (range_id, first_seat) sans parcourir les autres.
+     */
+    private int premierSiegeReserve(Connection conn, int idPlage, int premier, int nombre) throws SQLException {
+        String sql = "SELECT first_seat, seat_count FROM reservation_seat_range " +
+            "WHERE range_id = ? AND first_seat < ? ORDER BY first_seat DESC LIMIT 1 LOCK IN SHARE MODE";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, idPlage);
+            ps.setInt(2, premier + nombre);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return 0;
+                }
+                int debut = rs.getInt("first_seat");
+                return debut + rs.getInt("seat_count") > premier ? Math.max(debut, premier) : 0;
+            }
+        }
+    }
+
+    private void lireSousPlages(Connection conn, String sql, List<Integer> parametres, Map<Integer, Plage> plages) throws SQLException {
+        if (plages.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametres.size(); i++) {
+                ps.setInt(i + 1, parametres.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Plage plage = plages.get(rs.getInt("range_id"));
+                    if (plage != null) {
+                        int debut = rs.getInt("first_seat") - plage.premierSiege;
+                        plage.reserves.set(debut, debut + rs.getInt("seat_count"));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Regroupe des plages triées en un stock par couple (événement, catégorie).
+     */
+    private List<StockPlaces> construireStocks(List<Plage> plages) {
+        List<StockPlaces> stocks = new ArrayList<>();
+        int debut = 0;
+        while (debut < plages.size()) {
+            Plage premiere = plages.get(debut);
+            int fin = debut;
+            int total = 0;
+            while (fin < plages.size() && plages.get(fin).idEvenement == premiere.idEvenement
+                    && plages.get(fin).idCategorie == premiere.idCategorie) {
+                total += plages.get(fin).nombreSieges;
+                fin++;
+            }
+
+            int[] numeros = new int[total];
+            double[] prix = new double[total];
+            BitSet reserves = new BitSet(total);
+            int index = 0;
+            for (int i = debut; i < fin; i++) {
+                Plage plage = plages.get(i);
+                for (int j = 0; j < plage.nombreSieges; j++, index++) {
+                    numeros[index] = plage.premierSiege + j;
+                    prix[index] = plage.prix;
+                    if (plage.reserves.get(j)) {
+                        reserves.set(index);
+                    }
+                }
+            }
+            stocks.add(new StockPlaces(premiere.idEvenement, premiere.idCategorie, premiere.nomCategorie,
+                ModelePlaces.PLAGE, numeros, prix, reserves));
+            debut = fin;
+        }
+        return stocks;
+    }
+
+    private static Plage plageContenant(List<Plage> plages, int numero) {
+        for (Plage plage : plages) {
+            if (plage.contient(numero)) {
+                return plage;
+            }
+        }
+        return null;
+    }
+
+    private String nomCategorie(Connection conn, int categoryId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT category_name FROM category WHERE category_id = ?")) {
+            ps.setInt(1, categoryId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString("category_name") : null;
+            }
+        }
+    }
+}
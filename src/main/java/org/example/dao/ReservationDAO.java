@@ -1,6 +1,9 @@
 package org.example.dao;
 
+import org.example.model.LigneVente;
+import org.example.model.PlaceReservee;
 import org.example.model.ReservationSummary;
+import org.example.util.Database;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -10,6 +13,8 @@ import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * DAO dédié aux opérations d'accès/écriture pour les réservations
@@ -17,8 +22,13 @@ import java.util.List;
  */
 public class ReservationDAO {
 
+    private final InventaireCategorieDAO inventaireCategorieDAO = new InventaireCategorieDAO();
+    private final PlageSiegeDAO plageSiegeDAO = new PlageSiegeDAO();
+
     /**
      * Crée une réservation et insère les liens vers les places. Doit être appelé dans une transaction.
+     * Les compteurs de {@code event_category_inventory} sont mis à jour en dernier, pour garder
+     * le verrou de leur ligne le moins longtemps possible avant le commit.
      */
     public int saveReservation(Connection conn, int clientId, List<Integer> placeIds) throws SQLException {
         String insertReservation = "INSERT INTO reservation (reservation_date, client_id) VALUES (?, ?)";
@@ -39,6 +49,7 @@ public class ReservationDAO {
                         }
                         ps2.executeBatch();
                     }
+                    inventaireCategorieDAO.ajouterReservees(conn, placeIds);
                     return resId;
                 } else {
                     throw new SQLException("Impossible de récupérer l'ID de réservation généré.");
@@ -47,37 +58,168 @@ public class ReservationDAO {
         }
     }
 
+    /**
+     * Crée une réservation de sièges numérotés pour un événement en plages
+     * ({@link org.example.model.ModelePlaces#PLAGE}). Doit être appelé dans une transaction.
+     */
+    public int saveReservationSieges(Connection conn, int clientId, int eventId, int categoryId, int[] numeros) throws SQLException {
+        String insertReservation = "INSERT INTO reservation (reservation_date, client_id) VALUES (?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(insertReservation, PreparedStatement.RETURN_GENERATED_KEYS)) {
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setInt(2, clientId);
+            ps.executeUpdate();
+
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("Impossible de récupérer l'ID de réservation généré.");
+                }
+                int resId = keys.getInt(1);
+                plageSiegeDAO.enregistrerSieges(conn, resId, eventId, categoryId, numeros);
+                inventaireCategorieDAO.ajouterReservees(conn, eventId, categoryId, numeros.length);
+                return resId;
+            }
+        }
+    }
+
+    /** Réservations d'un client agrégées par (réservation, événement) ; paramètres : deux fois le client. */
+    private static final String SQL_PAR_CLIENT =
+        "SELECT r.reservation_id, r.reservation_date, e.name AS event_name, e.event_date, SUM(l.quantity) AS quantity, SUM(l.total) AS total " +
+        "FROM reservation r " +
+        "JOIN (" +
+        "SELECT rhp.reservation_id, p.event_id, COUNT(*) AS quantity, SUM(p.price) AS total " +
+        "FROM reservation r2 " +
+        "JOIN reservation_has_place rhp ON rhp.reservation_id = r2.reservation_id " +
+        "JOIN place p ON rhp.place_id = p.place_id " +
+        "WHERE r2.client_id = ? " +
+        "GROUP BY rhp.reservation_id, p.event_id " +
+        "UNION ALL " +
+        "SELECT rsr.reservation_id, sr.event_id, SUM(rsr.seat_count), SUM(rsr.seat_count * sr.price) " +
+        "FROM reservation r3 " +
+        "JOIN reservation_seat_range rsr ON rsr.reservation_id = r3.reservation_id " +
+        "JOIN seat_range sr ON sr.range_id = rsr.range_id " +
+        "WHERE r3.client_id = ? " +
+        "GROUP BY rsr.reservation_id, sr.event_id" +
+        ") l ON l.reservation_id = r.reservation_id " +
+        "JOIN event e ON l.event_id = e.event_id " +
+        "JOIN payment pay ON pay.reservation_id = r.reservation_id " +
+        "GROUP BY r.reservation_id, r.reservation_date, e.name, e.event_date " +
+        "ORDER BY r.reservation_date DESC";
+
     /**
      * Liste les réservations agrégées par réservation pour un client.
+     * Les lignes par place et les sous-plages de sièges sont d'abord ramenées à
+     * (réservation, événement, quantité, total), filtrées sur le client.
      */
     public List<ReservationSummary> listByClient(Connection conn, int clientId) throws SQLException {
-        String sql = "SELECT r.reservation_id, r.reservation_date, e.name AS event_name, e.event_date, COUNT(rhp.place_id) AS quantity, SUM(p.price) AS total " +
-            "FROM reservation r " +
-            "JOIN reservation_has_place rhp ON r.reservation_id = rhp.reservation_id " +
-            "JOIN place p ON rhp.place_id = p.place_id " +
-            "JOIN event e ON p.event_id = e.event_id " +
-            "JOIN payment pay ON pay.reservation_id = r.reservation_id " +
-            "WHERE r.client_id = ? " +
-            "GROUP BY r.reservation_id, r.reservation_date, e.name, e.event_date " +
-            "ORDER BY r.reservation_date DESC";
+        List<ReservationSummary> list = new ArrayList<>();
+        lireParClient(conn, clientId, false, list::add);
+        return list;
+    }
 
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+    /**
+     * Comme {@link #listByClient}, mais chaque réservation est passée au consommateur dès qu'elle est lue,
+     * sans liste intermédiaire ; le driver lit lui aussi le résultat en flux ({@link Database#lireEnFlux}).
+     * Avec MySQL, la connexion ne doit servir à rien d'autre pendant le parcours (le consommateur
+     * ne peut pas l'utiliser pour une autre requête).
+     */
+    public void parcourirParClient(Connection conn, int clientId, Consumer<ReservationSummary> consommateur) throws SQLException {
+        lireParClient(conn, clientId, true, consommateur);
+    }
+
+    /**
+     * Réservations d'un client en {@link Stream} paresseux, sur une connexion empruntée jusqu'à la
+     * fermeture du flux :
+     * <pre>
+     * try (Stream&lt;ReservationSummary&gt; reservations = dao.streamByClient(clientId)) { ... }
+     * </pre>
+     */
+    public Stream<ReservationSummary> streamByClient(int clientId) throws SQLException {
+        return FluxLignes.ouvrir(SQL_PAR_CLIENT, ps -> {
+            ps.setInt(1, clientId);
+            ps.setInt(2, clientId);
+        }, ReservationDAO::mapperResume);
+    }
+
+    private void lireParClient(Connection conn, int clientId, boolean enFlux,
+                               Consumer<ReservationSummary> consommateur) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_PAR_CLIENT)) {
+            if (enFlux) {
+                Database.lireEnFlux(ps);
+            }
             ps.setInt(1, clientId);
+            ps.setInt(2, clientId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    consommateur.accept(mapperResume(rs));
+                }
+            }
+        }
+    }
+
+    private static ReservationSummary mapperResume(ResultSet rs) throws SQLException {
+        int resId = rs.getInt("reservation_id");
+        Timestamp resTs = rs.getTimestamp("reservation_date");
+        LocalDateTime resDate = resTs.toLocalDateTime();
+        String eventName = rs.getString("event_name");
+        Timestamp evTs = rs.getTimestamp("event_date");
+        LocalDateTime evDate = evTs.toLocalDateTime();
+        int qty = rs.getInt("quantity");
+        double total = rs.getDouble("total");
+
+        return new ReservationSummary(resId, eventName, evDate, qty, total, resDate);
+    }
+
+    /**
+     * Parcourt les places vendues d'un événement, ou de tous, pour un export : une ligne par place
+     * et une par suite de sièges d'une plage, avec le paiement éventuel (sans le numéro de carte).
+     * Le résultat est lu en flux ({@link Database#lireEnFlux}) et passé au consommateur dans une
+     * seule {@link LigneVente} réutilisée : la mémoire ne dépend pas du nombre de lignes. Aucun
+     * ordre n'est garanti (pas de tri côté serveur).
+     *
+     * @param eventId événement à exporter, ou {@code null} pour tous.
+     */
+    public void parcourirVentes(Connection conn, Integer eventId, Consumer<LigneVente> consommateur) throws SQLException {
+        String filtrePlaces = eventId == null ? "" : "WHERE p.event_id = ? ";
+        String filtrePlages = eventId == null ? "" : "WHERE sr.event_id = ? ";
+        String sql = "SELECT p.event_id, r.reservation_id, r.client_id, p.category_id, p.place_id AS first_seat, 1 AS seat_count, " +
+            "p.price, r.reservation_date, pay.payment_id, pay.payment_date " +
+            "FROM reservation_has_place rhp " +
+            "JOIN reservation r ON r.reservation_id = rhp.reservation_id " +
+            "JOIN place p ON p.place_id = rhp.place_id " +
+            "LEFT JOIN payment pay ON pay.reservation_id = r.reservation_id " +
+            filtrePlaces +
+            "UNION ALL " +
+            "SELECT sr.event_id, r.reservation_id, r.client_id, sr.category_id, rsr.first_seat, rsr.seat_count, " +
+            "sr.price, r.reservation_date, pay.payment_id, pay.payment_date " +
+            "FROM reservation_seat_range rsr " +
+            "JOIN reservation r ON r.reservation_id = rsr.reservation_id " +
+            "JOIN seat_range sr ON sr.range_id = rsr.range_id " +
+            "LEFT JOIN payment pay ON pay.reservation_id = r.reservation_id " +
+            filtrePlages;
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            Database.lireEnFlux(ps);
+            if (eventId != null) {
+                ps.setInt(1, eventId);
+                ps.setInt(2, eventId);
+            }
             try (ResultSet rs = ps.executeQuery()) {
-                List<ReservationSummary> list = new ArrayList<>();
+                LigneVente ligne = new LigneVente();
                 while (rs.next()) {
-                    int resId = rs.getInt("reservation_id");
-                    Timestamp resTs = rs.getTimestamp("reservation_date");
-                    LocalDateTime resDate = resTs.toLocalDateTime();
-                    String eventName = rs.getString("event_name");
-                    Timestamp evTs = rs.getTimestamp("event_date");
-                    LocalDateTime evDate = evTs.toLocalDateTime();
-                    int qty = rs.getInt("quantity");
-                    double total = rs.getDouble("total");
-
-                    list.add(new ReservationSummary(resId, eventName, evDate, qty, total, resDate));
+                    Timestamp datePaiement = rs.getTimestamp("payment_date");
+                    ligne.remplir(
+                        rs.getInt("event_id"),
+                        rs.getInt("reservation_id"),
+                        rs.getInt("client_id"),
+                        rs.getInt("category_id"),
+                        rs.getInt("first_seat"),
+                        rs.getInt("seat_count"),
+                        Math.round(rs.getDouble("price") * 100),
+                        rs.getTimestamp("reservation_date").toLocalDateTime(),
+                        rs.getInt("payment_id"),
+                        datePaiement == null ? null : datePaiement.toLocalDateTime());
+                    consommateur.accept(ligne);
                 }
-                return list;
             }
         }
     }
@@ -98,13 +240,41 @@ public class ReservationDAO {
     }
 
     /**
-     * Supprime réservation et relations (dans une transaction).
+     * Récupère les places d'une réservation avec leur événement et leur catégorie
+     * (utilisé pour remettre les places dans l'inventaire après une annulation).
+     */
+    public List<PlaceReservee> getPlacesReservees(Connection conn, int reservationId) throws SQLException {
+        String sql = "SELECT p.place_id, p.event_id, p.category_id, p.price " +
+            "FROM reservation_has_place rhp " +
+            "JOIN place p ON rhp.place_id = p.place_id " +
+            "WHERE rhp.reservation_id = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, reservationId);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<PlaceReservee> places = new ArrayList<>();
+                while (rs.next()) {
+                    places.add(new PlaceReservee(rs.getInt("place_id"), rs.getInt("event_id"), rs.getInt("category_id"), rs.getDouble("price")));
+                }
+                // réservation d'un événement en plages : les numéros de sièges tiennent lieu d'identifiants
+                places.addAll(plageSiegeDAO.getSiegesReserves(conn, reservationId));
+                return places;
+            }
+        }
+    }
+
+    /**
+     * Supprime réservation et relations (dans une transaction), et décompte ses places.
      */
     public void deleteReservation(Connection conn, int reservationId) throws SQLException {
+        inventaireCategorieDAO.retirerReservees(conn, reservationId);
         try (PreparedStatement ps = conn.prepareStatement("DELETE FROM reservation_has_place WHERE reservation_id = ?")) {
             ps.setInt(1, reservationId);
             ps.executeUpdate();
         }
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM reservation_seat_range WHERE reservation_id = ?")) {
+            ps.setInt(1, reservationId);
+            ps.executeUpdate();
+        }
         try (PreparedStatement ps = conn.prepareStatement("DELETE FROM payment WHERE reservation_id = ?")) {
             ps.setInt(1, reservationId);
             ps.executeUpdate();
@@ -3,6 +3,8 @@ package org.example.dao;
 import org.example.model.Client;
 import org.example.model.Organisateur;
 import org.example.model.Utilisateur;
+import org.example.util.Database;
+
 import java.sql.*;
 
 
@@ -13,17 +15,6 @@ import java.sql.*;
  */
 public class UtilisateurDAO {
 
-    private Connection connexion;
-
-    /**
-     * Construit un DAO utilisateur utilisant une connexion JDBC.
-     *
-     * @param connexion la connexion active à la base de données.
-     */
-    public UtilisateurDAO(Connection connexion) {
-        this.connexion = connexion;
-    }
-
     /**
      * Tente de connecter un utilisateur en recherchant en base de données
      * un enregistrement correspondant au pseudo et au mot de passe donnés.
@@ -38,7 +29,8 @@ public class UtilisateurDAO {
     public Utilisateur login(String username, String mdp) throws SQLException {
         String sql = "SELECT * FROM `user` WHERE user_name = ? AND password = ?";
 
-        try (PreparedStatement ps = connexion.prepareStatement(sql)) {
+        try (Connection connexion = Database.getConnection();
+             PreparedStatement ps = connexion.prepareStatement(sql)) {
             ps.setString(1, username);
             ps.setString(2, mdp);
 
@@ -92,7 +84,8 @@ public class UtilisateurDAO {
             VALUES (?, ?, ?, ?, ?, ?)
         """;
 
-        try (PreparedStatement ps = connexion.prepareStatement(sql)) {
+        try (Connection connexion = Database.getConnection();
+             PreparedStatement ps = connexion.prepareStatement(sql)) {
             ps.setString(1, user.getPseudo());
             ps.setString(2, user.getPrenom());
             ps.setString(3, user.getNom());
@@ -112,7 +105,8 @@ public class UtilisateurDAO {
      */
     public boolean existeEmail(String email) throws SQLException {
         String sql = "SELECT 1 FROM user WHERE email = ?";
-        try (PreparedStatement stmt = connexion.prepareStatement(sql)) {
+        try (Connection connexion = Database.getConnection();
+             PreparedStatement stmt = connexion.prepareStatement(sql)) {
             stmt.setString(1, email);
             try (ResultSet rs = stmt.executeQuery()) {
                 return rs.next();
@@ -129,7 +123,8 @@ public class UtilisateurDAO {
      */
     public boolean existePseudo(String pseudo) throws SQLException {
         String sql = "SELECT 1 FROM user WHERE user_name = ?";
-        try (PreparedStatement stmt = connexion.prepareStatement(sql)) {
+        try (Connection connexion = Database.getConnection();
+             PreparedStatement stmt = connexion.prepareStatement(sql)) {
             stmt.setString(1, pseudo);
             try (ResultSet rs = stmt.executeQuery()) {
                 return rs.next();
@@ -10,7 +10,13 @@ CREATE TABLE `user` (
 
 CREATE TABLE category (
     category_id     INT AUTO_INCREMENT PRIMARY KEY,
-    category_name   VARCHAR(50) NOT NULL
+    category_name   VARCHAR(50) NOT NULL,
+    -- nom sans espaces autour et en minuscules, écrit par l'application : « vip » pour « VIP »
+    -- Base existante (doublons à fusionner avant) : ALTER TABLE category ADD normalized_name VARCHAR(50) NOT NULL,
+    -- puis UPDATE category SET normalized_name = LOWER(TRIM(category_name)) et l'index unique ci-dessous
+    normalized_name VARCHAR(50) NOT NULL,
+
+    UNIQUE INDEX uk_category_normalized_name (normalized_name)
 );
 
 CREATE TABLE `event` (
@@ -22,6 +28,12 @@ CREATE TABLE `event` (
     location       VARCHAR(150) NOT NULL,
     organizer_id   INT NOT NULL,
     seat_count      INT NOT NULL,
+    -- PLACE : une ligne par siège dans place, PLAGE : plages de sièges dans seat_range
+    -- Base existante : ALTER TABLE event ADD seat_model ENUM('PLACE', 'PLAGE') NOT NULL DEFAULT 'PLACE'
+    seat_model     ENUM('PLACE', 'PLAGE') NOT NULL DEFAULT 'PLACE',
+
+    -- pagination du catalogue par clé (date, id)
+    INDEX idx_event_date_id (event_date, event_id),
 
     FOREIGN KEY (organizer_id)
         REFERENCES `user`(user_id)
@@ -35,6 +47,9 @@ CREATE TABLE place (
     category_id   INT NOT NULL,
     event_id      INT NOT NULL,
 
+    -- recherche des places d'une catégorie pour un événement (réservation, inventaire)
+    INDEX idx_place_event_category (event_id, category_id, place_id),
+
     FOREIGN KEY (category_id)
         REFERENCES category(category_id)
         ON UPDATE CASCADE
@@ -75,6 +90,10 @@ CREATE TABLE reservation_has_place (
     place_id        INT NOT NULL,
 
     PRIMARY KEY (reservation_id, place_id),
+    -- une place ne peut appartenir qu'à une seule réservation, l'inventaire en mémoire s'appuie
+    -- sur cette contrainte pour détecter un écart avec la base.
+    -- Base existante : ALTER TABLE reservation_has_place ADD UNIQUE KEY uk_rhp_place (place_id)
+    UNIQUE KEY uk_rhp_place (place_id),
 
     FOREIGN KEY (reservation_id)
         REFERENCES reservation(reservation_id)
@@ -86,3 +105,72 @@ CREATE TABLE reservation_has_place (
         ON UPDATE CASCADE
         ON DELETE CASCADE
 );
+
+-- Modèle compact (event.seat_model = 'PLAGE') : une catégorie d'un événement occupe une plage
+-- de numéros de sièges consécutifs, sans ligne par siège.
+CREATE TABLE seat_range (
+    range_id      INT AUTO_INCREMENT PRIMARY KEY,
+    event_id      INT NOT NULL,
+    category_id   INT NOT NULL,
+    first_seat    INT NOT NULL,
+    seat_count    INT NOT NULL,
+    price         DECIMAL(10,2) NOT NULL,
+
+    UNIQUE KEY uk_seat_range_event_first (event_id, first_seat),
+    INDEX idx_seat_range_event_category (event_id, category_id, first_seat),
+
+    FOREIGN KEY (event_id)
+        REFERENCES event(event_id)
+        ON UPDATE CASCADE
+        ON DELETE CASCADE,
+
+    FOREIGN KEY (category_id)
+        REFERENCES category(category_id)
+        ON UPDATE CASCADE
+        ON DELETE CASCADE
+);
+
+-- Sièges réservés dans une plage : une ligne par suite de numéros consécutifs d'une réservation
+CREATE TABLE reservation_seat_range (
+    reservation_id  INT NOT NULL,
+    range_id        INT NOT NULL,
+    first_seat      INT NOT NULL,
+    seat_count      INT NOT NULL,
+
+    PRIMARY KEY (range_id, first_seat),
+    INDEX idx_rsr_reservation (reservation_id),
+
+    FOREIGN KEY (reservation_id)
+        REFERENCES reservation(reservation_id)
+        ON UPDATE CASCADE
+        ON DELETE CASCADE,
+
+    FOREIGN KEY (range_id)
+        REFERENCES seat_range(range_id)
+        ON UPDATE CASCADE
+        ON DELETE CASCADE
+);
+
+-- Compteurs de places par événement et catégorie, tenus à jour dans la même transaction
+-- que les réservations (ReservationDAO) : « reste-t-il N places ? » devient une lecture par clé.
+-- Base existante : créer la table puis exécuter le recalcul qui termine seed.sql.
+CREATE TABLE event_category_inventory (
+    event_id        INT NOT NULL,
+    category_id     INT NOT NULL,
+    total_seats     INT NOT NULL,
+    reserved_seats  INT NOT NULL DEFAULT 0,
+    min_price       DECIMAL(10,2) NOT NULL,
+    max_price       DECIMAL(10,2) NOT NULL,
+
+    PRIMARY KEY (event_id, category_id),
+
+    FOREIGN KEY (event_id)
+        REFERENCES event(event_id)
+        ON UPDATE CASCADE
+        ON DELETE CASCADE,
+
+    FOREIGN KEY (category_id)
+        REFERENCES category(category_id)
+        ON UPDATE CASCADE
+        ON DELETE CASCADE
+);
@@ -1,9 +1,9 @@
 
-INSERT INTO category (category_id, category_name) VALUES
-(1, 'VIP'),
-(2, 'Gold'),
-(3, 'Silver'),
-(4, 'Standard');
+INSERT INTO category (category_id, category_name, normalized_name) VALUES
+(1, 'VIP', 'vip'),
+(2, 'Gold', 'gold'),
+(3, 'Silver', 'silver'),
+(4, 'Standard', 'standard');
 
 
 INSERT INTO `user` (user_id, user_name, first_name, last_name, email, password, user_type) VALUES
@@ -50,3 +50,20 @@ INSERT INTO reservation_has_place (reservation_id, place_id) VALUES
 INSERT INTO payment (payment_id, card_name, card_number, payment_date, reservation_id) VALUES
 (1, 'John Doe', '1234567890123456', '2025-06-01 11:00:00', 1),
 (2, 'Alice Smith', '9876543210987654', '2025-06-02 16:00:00', 2);
+
+
+-- Recalcul des compteurs de places à partir des places et des réservations
+DELETE FROM event_category_inventory;
+INSERT INTO event_category_inventory (event_id, category_id, total_seats, reserved_seats, min_price, max_price)
+SELECT p.event_id, p.category_id, COUNT(*), COUNT(rhp.place_id), MIN(p.price), MAX(p.price)
+FROM place p
+LEFT JOIN reservation_has_place rhp ON rhp.place_id = p.place_id
+GROUP BY p.event_id, p.category_id;
+INSERT INTO event_category_inventory (event_id, category_id, total_seats, reserved_seats, min_price, max_price)
+SELECT event_id, category_id, SUM(seat_count), SUM(reservees), MIN(price), MAX(price)
+FROM (
+    SELECT sr.event_id, sr.category_id, sr.seat_count, sr.price,
+           (SELECT COALESCE(SUM(rsr.seat_count), 0) FROM reservation_seat_range rsr WHERE rsr.range_id = sr.range_id) AS reservees
+    FROM seat_range sr
+) plages
+GROUP BY event_id, category_id;
@@ -0,0 +1,10 @@
+package org.example.exception;
+
+/**
+ * Réservation, événement... demandé par son identifiant et absent de la base.
+ */
+public class RessourceIntrouvableException extends IllegalArgumentException {
+    public RessourceIntrouvableException(String message) {
+        super(message);
+    }
+}
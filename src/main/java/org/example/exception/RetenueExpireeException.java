@@ -0,0 +1,7 @@
+package org.example.exception;
+
+public class RetenueExpireeException extends Exception {
+    public RetenueExpireeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Emprunt d'une connexion au pool. Par défaut seules les acquisitions d'au moins 1 ms sont
+ * enregistrées (le cas courant, une connexion libre, est bien plus rapide) ; le seuil se
+ * règle dans la configuration de l'enregistrement.
+ */
+@Name("org.example.AcquisitionConnexion")
+@Label("Acquisition de connexion")
+@Category({"Plateforme de réservation", "Base de données"})
+@Description("Attente d'une connexion du pool JDBC")
+@Threshold("1 ms")
+public class AcquisitionConnexionEvent extends Event {
+
+    @Label("Obtenue")
+    @Description("Faux si le délai d'acquisition a expiré ou si l'ouverture a échoué")
+    public boolean obtenue;
+
+    @Label("Connexions prêtées")
+    public int actives;
+
+    @Label("Threads en attente")
+    public int enAttente;
+
+    @Label("Taille maximale")
+    public int max;
+}
@@ -0,0 +1,33 @@
+package org.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Une annulation de réservation ({@code ReservationService.annulerReservation}).
+ */
+@Name("org.example.Annulation")
+@Label("Annulation")
+@Category({"Plateforme de réservation", "Réservations"})
+@Description("Annulation d'une réservation et remise en vente de ses places")
+public class AnnulationEvent extends Event {
+
+    /** Réservation supprimée. */
+    public static final String ANNULEE = "ANNULEE";
+    /** Refus : moins de 24 h avant l'événement. */
+    public static final String TARDIVE = "TARDIVE";
+    /** Échec (réservation introuvable ou d'un autre client, erreur de base...). */
+    public static final String ERREUR = "ERREUR";
+
+    @Label("Réservation")
+    public int reservationId;
+
+    @Label("Résultat")
+    public String resultat;
+
+    @Label("Places libérées")
+    public int placesLiberees;
+}
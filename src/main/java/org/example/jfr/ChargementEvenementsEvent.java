@@ -0,0 +1,27 @@
+package org.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Chargement complet du catalogue avec les places ({@code EvenementDAO.findAll}).
+ */
+@Name("org.example.ChargementEvenements")
+@Label("Chargement des événements")
+@Category({"Plateforme de réservation", "Base de données"})
+@Description("Lecture de tous les événements et de leurs places")
+public class ChargementEvenementsEvent extends Event {
+
+    @Label("Stratégie")
+    @Description("ENSEMBLISTE ou PAR_EVENEMENT")
+    public String strategie;
+
+    @Label("Événements")
+    public int evenements;
+
+    @Label("Places")
+    public long places;
+}
@@ -0,0 +1,34 @@
+package org.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Un paiement ({@code Paiement.effectuerPaiement} ou {@code ReservationService.payer}) :
+ * validation des données puis insertion. Le numéro de carte n'est jamais enregistré.
+ */
+@Name("org.example.Paiement")
+@Label("Paiement")
+@Category({"Plateforme de réservation", "Paiements"})
+@Description("Validation et enregistrement du paiement d'une réservation")
+public class PaiementEvent extends Event {
+
+    /** Paiement enregistré. */
+    public static final String ENREGISTRE = "ENREGISTRE";
+    /** Données de carte ou montant refusés. */
+    public static final String INVALIDE = "INVALIDE";
+    /** Insertion impossible (réservation déjà payée, erreur de base...). */
+    public static final String ERREUR = "ERREUR";
+
+    @Label("Réservation")
+    public int reservationId;
+
+    @Label("Montant")
+    public double montant;
+
+    @Label("Résultat")
+    public String resultat;
+}
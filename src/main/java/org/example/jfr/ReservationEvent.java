@@ -0,0 +1,54 @@
+package org.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Une demande de réservation ({@code ReservationService.reserver} ou {@code retenir}), de la prise des places
+ * au commit. Dans JMC, sa durée se compare aux pauses du GC et aux acquisitions de connexion
+ * du même thread.
+ */
+@Name("org.example.Reservation")
+@Label("Réservation")
+@Category({"Plateforme de réservation", "Réservations"})
+@Description("Demande de réservation de places pour une catégorie d'un événement")
+public class ReservationEvent extends Event {
+
+    /** Places réservées. */
+    public static final String RESERVEE = "RESERVEE";
+    /** Places mises en option en attente de paiement, sans écriture en base. */
+    public static final String RETENUE = "RETENUE";
+    /** Refus faute de places libres. */
+    public static final String PLACES_INSUFFISANTES = "PLACES_INSUFFISANTES";
+    /** Échec technique (base, contrainte...). */
+    public static final String ERREUR = "ERREUR";
+
+    @Label("Événement")
+    public int evenementId;
+
+    @Label("Catégorie")
+    public int categorieId;
+
+    @Label("Places demandées")
+    public int placesDemandees;
+
+    @Label("Résultat")
+    public String resultat;
+
+    @Label("Réservation")
+    @Description("Identifiant de la réservation créée, 0 sinon")
+    public int reservationId;
+
+    @Label("Tentatives")
+    @Description("Transactions lancées ; plus d'une quand la base avait déjà vendu une place choisie")
+    public int tentatives;
+
+    @Label("Attente de verrous")
+    @Description("Temps passé à chercher et verrouiller les places libres en base (nul avec l'inventaire en mémoire)")
+    @Timespan(Timespan.NANOSECONDS)
+    public long attenteVerrous;
+}
@@ -0,0 +1,45 @@
+package org.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Fin d'une option de places ({@code RetenuesPlaces}) : payée, expirée ou relâchée.
+ * Le nombre d'événements par issue donne les taux de confirmation et d'expiration.
+ */
+@Name("org.example.Retenue")
+@Label("Option de places")
+@Category({"Plateforme de réservation", "Réservations"})
+@Description("Places gardées en mémoire le temps du paiement, jusqu'à leur vente ou leur remise en stock")
+public class RetenueEvent extends Event {
+
+    /** Paiement reçu : les places sont devenues une réservation. */
+    public static final String CONFIRMEE = "CONFIRMEE";
+    /** Durée dépassée sans paiement : les places sont remises en stock. */
+    public static final String EXPIREE = "EXPIREE";
+    /** Paiement abandonné par le client : les places sont remises en stock. */
+    public static final String RELACHEE = "RELACHEE";
+    /** Places vendues entre-temps par une autre instance : l'option est perdue. */
+    public static final String PERDUE = "PERDUE";
+
+    @Label("Option")
+    public int retenueId;
+
+    @Label("Événement")
+    public int evenementId;
+
+    @Label("Places")
+    public int places;
+
+    @Label("Issue")
+    public String issue;
+
+    @Label("Durée de l'option")
+    @Description("Temps écoulé entre la prise des places et la fin de l'option")
+    @Timespan(Timespan.NANOSECONDS)
+    public long duree;
+}
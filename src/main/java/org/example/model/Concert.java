@@ -10,9 +10,7 @@ public class Concert extends Evenement {
                    String artiste, List<Place> places) {
         super(id, nom, date, lieu, organisateur);
         this.artiste = artiste;
-        if (places != null) {
-            this.places = places;
-        }
+        setPlaces(places);
     }
 
     @Override
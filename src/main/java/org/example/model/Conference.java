@@ -10,9 +10,7 @@ public class Conference extends Evenement {
                       String intervenant, List<Place> places) {
         super(id, nom, date, lieu, organisateur);
         this.intervenant = intervenant;
-        if (places != null) {
-            this.places = places;
-        }
+        setPlaces(places);
     }
 
     @Override
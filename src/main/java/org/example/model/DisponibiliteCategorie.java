@@ -0,0 +1,51 @@
+package org.example.model;
+
+/**
+ * Catégorie de places d'un événement avec ses compteurs (lus dans
+ * {@code event_category_inventory}), pour l'écran de réservation.
+ * <p>
+ * Les places en option ({@code RetenuesPlaces}) ne sont pas encore comptées en base :
+ * elles sont ajoutées par {@link #avecRetenues(int)} et retirées des places restantes.
+ */
+public class DisponibiliteCategorie extends Categorie {
+
+    private final int totalPlaces;
+    private final int placesReservees;
+    private final int placesRetenues;
+    private final double prixMin;
+    private final double prixMax;
+
+    public DisponibiliteCategorie(int idCategorie, String nomCategorie, int totalPlaces, int placesReservees,
+                                  double prixMin, double prixMax) {
+        this(idCategorie, nomCategorie, totalPlaces, placesReservees, 0, prixMin, prixMax);
+    }
+
+    public DisponibiliteCategorie(int idCategorie, String nomCategorie, int totalPlaces, int placesReservees,
+                                  int placesRetenues, double prixMin, double prixMax) {
+        super(idCategorie, nomCategorie);
+        this.totalPlaces = totalPlaces;
+        this.placesReservees = placesReservees;
+        this.placesRetenues = placesRetenues;
+        this.prixMin = prixMin;
+        this.prixMax = prixMax;
+    }
+
+    /**
+     * Copie de la catégorie avec {@code placesRetenues} places en option en attente de paiement.
+     */
+    public DisponibiliteCategorie avecRetenues(int placesRetenues) {
+        return new DisponibiliteCategorie(getIdCategorie(), getNomCategorie(), totalPlaces, placesReservees,
+                placesRetenues, prixMin, prixMax);
+    }
+
+    public int getTotalPlaces() { return totalPlaces; }
+    public int getPlacesReservees() { return placesReservees; }
+    public int getPlacesRetenues() { return placesRetenues; }
+    public int getPlacesRestantes() { return Math.max(0, totalPlaces - placesReservees - placesRetenues); }
+    public double getPrixMin() { return prixMin; }
+    public double getPrixMax() { return prixMax; }
+
+    public boolean estComplete() {
+        return getPlacesRestantes() <= 0;
+    }
+}
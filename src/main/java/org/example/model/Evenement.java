@@ -1,7 +1,6 @@
 package org.example.model;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 public abstract class Evenement {
@@ -12,8 +11,12 @@ public abstract class Evenement {
     protected String lieu;
     protected Organisateur organisateur;
 
-    // Liste des places disponibles pour cet événement
-    protected List<Place> places = new ArrayList<>();
+    // Places de l'événement, stockées en colonnes (voir SiegesEvenement) ; créées au premier accès
+    // pour ne pas exposer l'événement avant la fin de son constructeur
+    private SiegesEvenement places;
+
+    // Stockage des places en base (une ligne par place ou plages de sièges)
+    protected ModelePlaces modelePlaces = ModelePlaces.PLACE;
 
     public Evenement(int idEvenement, String nom, LocalDateTime dateEvenement, String lieu, Organisateur organisateur) {
         this.idEvenement = idEvenement;
@@ -28,37 +31,43 @@ public abstract class Evenement {
 
     // Ajouter une place à l'événement
     public void ajouterPlace(Place place) {
-        places.add(place);
+        getSieges().add(place);
     }
 
-    // Retourne la liste des places
+    // Retourne la liste des places (chaque élément lu est une vue créée à la demande)
     public List<Place> getPlaces() {
+        return getSieges();
+    }
+
+    // Accès aux colonnes, sans créer d'objet Place
+    public SiegesEvenement getSieges() {
+        if (places == null) {
+            places = new SiegesEvenement(this);
+        }
         return places;
     }
 
     public void setPlaces(List<Place> places) {
-        this.places.clear();
+        SiegesEvenement sieges = getSieges();
+        if (places == sieges) {
+            return;
+        }
+        sieges.clear();
         if (places != null) {
-            this.places.addAll(places);
+            sieges.prevoir(places.size());
+            sieges.addAll(places);
         }
     }
 
     // Calcul du chiffre d'affaires total
     public double getTotalVentes() {
-        double total = 0;
-        for (Place p : places) {
-            if (!p.estDisponible()) { // si la place est réservée
-                total += p.getPrix();
-            }
-        }
-        return total;
+        return getSieges().getVentesCentimes() / 100.0;
     }
 
     // Calcul du taux de remplissage
     public double getTauxRemplissage() {
-        if (places.isEmpty()) return 0;
-        long placesReservees = places.stream().filter(p -> !p.estDisponible()).count();
-        return (placesReservees * 100.0) / places.size();
+        if (getSieges().isEmpty()) return 0;
+        return (getNombrePlacesReservees() * 100.0) / getSieges().size();
     }
 
     // Getters et setters
@@ -76,19 +85,24 @@ public abstract class Evenement {
         this.idEvenement = idEvenement;
     }
 
+    public ModelePlaces getModelePlaces() { return modelePlaces; }
+    public void setModelePlaces(ModelePlaces modelePlaces) { this.modelePlaces = modelePlaces; }
+
     public String getTypeEvenement() {
         return getClass().getSimpleName();
     }
 
+    // Les indicateurs ci-dessous sont calculés sur les colonnes de places : pour en afficher
+    // plusieurs, calculer plutôt une fois EvenementService.calculerStatistiques
     public long getNombrePlacesReservees() {
-        return places.stream().filter(p -> !p.estDisponible()).count();
+        return getSieges().getNombreReservees();
     }
 
     public long getNombrePlacesDisponibles() {
-        return places.stream().filter(Place::estDisponible).count();
+        return getSieges().size() - getNombrePlacesReservees();
     }
 
     public int getCapaciteTotale() {
-        return places.size();
+        return getSieges().size();
     }
 }
\ No newline at end of file
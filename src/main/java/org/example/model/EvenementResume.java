@@ -0,0 +1,84 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vue compacte d'un événement pour le tableau de bord : l'événement lui-même
+ * (sans ses places) et les totaux calculés directement en SQL.
+ * <p>
+ * Aucune {@link Place} n'est créée : quelle que soit la taille de la salle,
+ * un résumé coûte un objet par catégorie.
+ */
+public class EvenementResume {
+
+    /**
+     * Totaux d'une catégorie de places pour l'événement.
+     */
+    public static class LigneCategorie {
+        private final int idCategorie;
+        private final String nomCategorie;
+        private final int capacite;
+        private final int reservees;
+        private final double ventes;
+
+        public LigneCategorie(int idCategorie, String nomCategorie, int capacite, int reservees, double ventes) {
+            this.idCategorie = idCategorie;
+            this.nomCategorie = nomCategorie;
+            this.capacite = capacite;
+            this.reservees = reservees;
+            this.ventes = ventes;
+        }
+
+        public int getIdCategorie() { return idCategorie; }
+        public String getNomCategorie() { return nomCategorie; }
+        public int getCapacite() { return capacite; }
+        public int getReservees() { return reservees; }
+        public double getVentes() { return ventes; }
+
+        public double getTauxRemplissage() {
+            return capacite == 0 ? 0 : (reservees * 100.0) / capacite;
+        }
+    }
+
+    private final Evenement evenement;
+    private final List<LigneCategorie> categories = new ArrayList<>();
+    private int capaciteTotale;
+    private int placesReservees;
+    private double totalVentes;
+
+    public EvenementResume(Evenement evenement) {
+        this.evenement = evenement;
+    }
+
+    /**
+     * Ajoute les totaux d'une catégorie et met à jour les totaux de l'événement.
+     */
+    public void ajouterCategorie(LigneCategorie ligne) {
+        categories.add(ligne);
+        capaciteTotale += ligne.getCapacite();
+        placesReservees += ligne.getReservees();
+        totalVentes += ligne.getVentes();
+    }
+
+    public Evenement getEvenement() { return evenement; }
+    public int getIdEvenement() { return evenement.getIdEvenement(); }
+    public List<LigneCategorie> getCategories() { return categories; }
+
+    public int getCapaciteTotale() { return capaciteTotale; }
+    public long getNombrePlacesReservees() { return placesReservees; }
+    public long getNombrePlacesDisponibles() { return capaciteTotale - placesReservees; }
+    public double getTotalVentes() { return totalVentes; }
+
+    public double getTauxRemplissage() {
+        return capaciteTotale == 0 ? 0 : (placesReservees * 100.0) / capaciteTotale;
+    }
+
+    /**
+     * Construit les statistiques affichées dans le panneau organisateur,
+     * sans parcourir aucune place.
+     */
+    public EvenementStats versStatistiques() {
+        return new EvenementStats(capaciteTotale, placesReservees, totalVentes, categories);
+    }
+}
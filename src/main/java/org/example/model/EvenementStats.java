@@ -1,42 +1,74 @@
 package org.example.model;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * On stocke seulement trois informations faciles à afficher dans l'interface :
- *  - nombre total de tickets vendus
- *  - chiffre d'affaires généré
- *  - pour chaque catégorie, le pourcentage de places occupées
+ * Statistiques d'un événement, prêtes à afficher dans l'interface :
+ *  - capacité, nombre total de tickets vendus et chiffre d'affaires généré
+ *  - pour chaque catégorie, ses totaux et le pourcentage de places occupées
+ * Tout est calculé une fois pour toutes : l'affichage ne reparcourt jamais les places.
  */
 public class EvenementStats {
 
+    private static final EvenementStats VIDE = new EvenementStats(0, 0, 0, List.of());
+
+    private final int capaciteTotale;
     private final int totalTicketsVendues;
     private final double chiffreAffaires;
+    private final List<EvenementResume.LigneCategorie> categories;
     private final Map<String, Double> tauxRemplissageParCategorie;
 
-    public EvenementStats(int totalTicketsVendues, double chiffreAffaires,
-                          Map<String, Double> tauxRemplissageParCategorie) {
+    public EvenementStats(int capaciteTotale, int totalTicketsVendues, double chiffreAffaires,
+                          List<EvenementResume.LigneCategorie> categories) {
+        this.capaciteTotale = capaciteTotale;
         this.totalTicketsVendues = totalTicketsVendues;
         this.chiffreAffaires = chiffreAffaires;
+        this.categories = categories == null ? List.of() : Collections.unmodifiableList(categories);
 
-        // On copie la map reçue pour éviter les surprises si on la modifie ailleurs.
-        if (tauxRemplissageParCategorie == null) {
-            this.tauxRemplissageParCategorie = new HashMap<>();
-        } else {
-            this.tauxRemplissageParCategorie = new HashMap<>(tauxRemplissageParCategorie);
+        this.tauxRemplissageParCategorie = new HashMap<>();
+        for (EvenementResume.LigneCategorie ligne : this.categories) {
+            tauxRemplissageParCategorie.put(ligne.getNomCategorie(), ligne.getTauxRemplissage());
         }
     }
 
+    /**
+     * Statistiques d'un événement sans place.
+     */
+    public static EvenementStats vide() {
+        return VIDE;
+    }
+
+    public int getCapaciteTotale() {
+        return capaciteTotale;
+    }
+
     public int getTotalTicketsVendues() {
         return totalTicketsVendues;
     }
 
+    public int getPlacesDisponibles() {
+        return capaciteTotale - totalTicketsVendues;
+    }
+
     public double getChiffreAffaires() {
         return chiffreAffaires;
     }
 
+    public double getTauxRemplissage() {
+        return capaciteTotale == 0 ? 0 : (totalTicketsVendues * 100.0) / capaciteTotale;
+    }
+
+    /**
+     * Totaux par catégorie, triés par identifiant de catégorie.
+     */
+    public List<EvenementResume.LigneCategorie> getCategories() {
+        return categories;
+    }
+
     public Map<String, Double> getTauxRemplissageParCategorie() {
         return tauxRemplissageParCategorie;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package org.example.model;
+
+/**
+ * Critères de recherche du catalogue d'événements (type, lieu, artiste/intervenant).
+ * Un critère {@code null} ou vide n'est pas appliqué. Le filtrage est fait par la base,
+ * ce qui permet de paginer le résultat.
+ */
+public class FiltreEvenements {
+
+    private final String type;
+    private final String lieu;
+    private final String specialGuest;
+
+    /**
+     * @param type         type exact d'événement ("Concert", "Spectacle", "Conference"), ou {@code null} pour tous.
+     * @param lieu         texte recherché dans le lieu (sans tenir compte de la casse).
+     * @param specialGuest texte recherché dans l'artiste / intervenant (sans tenir compte de la casse).
+     */
+    public FiltreEvenements(String type, String lieu, String specialGuest) {
+        this.type = nettoyer(type);
+        this.lieu = nettoyer(lieu);
+        this.specialGuest = nettoyer(specialGuest);
+    }
+
+    /**
+     * Filtre qui laisse passer tous les événements.
+     */
+    public static FiltreEvenements aucun() {
+        return new FiltreEvenements(null, null, null);
+    }
+
+    private static String nettoyer(String texte) {
+        return texte == null || texte.isBlank() ? null : texte.trim();
+    }
+
+    public String getType() { return type; }
+    public String getLieu() { return lieu; }
+    public String getSpecialGuest() { return specialGuest; }
+}
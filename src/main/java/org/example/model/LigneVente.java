@@ -0,0 +1,59 @@
+package org.example.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Places vendues d'une réservation, lues pour un export : une place, ou une suite de sièges
+ * consécutifs d'une même plage ({@link ModelePlaces#PLAGE}), avec le paiement s'il existe.
+ * <p>
+ * Une seule instance est réutilisée pour toutes les lignes d'un parcours
+ * ({@code ReservationDAO.parcourirVentes}) : elle ne doit pas être gardée d'une ligne à l'autre.
+ */
+public class LigneVente {
+
+    private int idEvenement;
+    private int idReservation;
+    private int idClient;
+    private int idCategorie;
+    private int premierSiege;
+    private int nombreSieges;
+    private long prixCentimes;
+    private LocalDateTime dateReservation;
+    private int idPaiement;
+    private LocalDateTime datePaiement;
+
+    /**
+     * Remplace le contenu de la ligne.
+     *
+     * @param premierSiege identifiant de la place, ou premier numéro de siège d'une plage.
+     * @param idPaiement   0 (et {@code datePaiement} nulle) si la réservation n'est pas payée.
+     */
+    public void remplir(int idEvenement, int idReservation, int idClient, int idCategorie,
+                        int premierSiege, int nombreSieges, long prixCentimes, LocalDateTime dateReservation,
+                        int idPaiement, LocalDateTime datePaiement) {
+        this.idEvenement = idEvenement;
+        this.idReservation = idReservation;
+        this.idClient = idClient;
+        this.idCategorie = idCategorie;
+        this.premierSiege = premierSiege;
+        this.nombreSieges = nombreSieges;
+        this.prixCentimes = prixCentimes;
+        this.dateReservation = dateReservation;
+        this.idPaiement = idPaiement;
+        this.datePaiement = datePaiement;
+    }
+
+    public int getIdEvenement() { return idEvenement; }
+    public int getIdReservation() { return idReservation; }
+    public int getIdClient() { return idClient; }
+    public int getIdCategorie() { return idCategorie; }
+    public int getPremierSiege() { return premierSiege; }
+    /** 1 pour une place, la longueur de la suite pour des sièges en plage. */
+    public int getNombreSieges() { return nombreSieges; }
+    /** Prix d'un siège, en centimes. */
+    public long getPrixCentimes() { return prixCentimes; }
+    public LocalDateTime getDateReservation() { return dateReservation; }
+    public int getIdPaiement() { return idPaiement; }
+    public LocalDateTime getDatePaiement() { return datePaiement; }
+    public boolean estPayee() { return idPaiement != 0; }
+}
@@ -0,0 +1,15 @@
+package org.example.model;
+
+/**
+ * Manière dont les places d'un événement sont stockées en base (colonne {@code event.seat_model}).
+ */
+public enum ModelePlaces {
+    /** Une ligne {@code place} par siège ; une réservation référence chaque siège. */
+    PLACE,
+    /**
+     * Une ligne {@code seat_range} par catégorie : une plage de numéros de sièges consécutifs.
+     * Une réservation enregistre les sous-plages qu'elle occupe ; les objets {@link Place}
+     * ne sont créés qu'à la demande, avec le numéro de siège pour identifiant.
+     */
+    PLAGE
+}
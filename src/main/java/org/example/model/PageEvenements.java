@@ -0,0 +1,54 @@
+package org.example.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Une page du catalogue d'événements, triée par (date, identifiant).
+ * <p>
+ * La page mémorise la clé de son dernier élément : la page suivante reprend
+ * juste après cette clé (pagination par clé, sans {@code OFFSET}), ce qui coûte
+ * le même prix quelle que soit la profondeur dans le catalogue.
+ */
+public class PageEvenements {
+
+    private final List<EvenementResume> elements;
+    private final boolean derniere;
+    // clé de reprise d'une page vide créée par reprise()
+    private final LocalDateTime dateReprise;
+    private final int idReprise;
+
+    public PageEvenements(List<EvenementResume> elements, boolean derniere) {
+        this(elements, derniere, null, 0);
+    }
+
+    private PageEvenements(List<EvenementResume> elements, boolean derniere, LocalDateTime dateReprise, int idReprise) {
+        this.elements = elements;
+        this.derniere = derniere;
+        this.dateReprise = dateReprise;
+        this.idReprise = idReprise;
+    }
+
+    /**
+     * Page vide qui ne sert que de point de reprise, quand seule la clé du dernier
+     * élément affiché est connue (curseur transmis par un client de l'API HTTP).
+     */
+    public static PageEvenements reprise(LocalDateTime dateDernier, int idDernier) {
+        return new PageEvenements(List.of(), false, dateDernier, idDernier);
+    }
+
+    public List<EvenementResume> getElements() { return elements; }
+
+    /** {@code true} s'il n'y a plus rien après cette page. */
+    public boolean estDerniere() { return derniere; }
+
+    /** Date du dernier événement de la page (clé de reprise), {@code null} si la page est vide. */
+    public LocalDateTime getDateDernier() {
+        return elements.isEmpty() ? dateReprise : elements.getLast().getEvenement().getDateEvent();
+    }
+
+    /** Identifiant du dernier événement de la page (départage les événements de même date). */
+    public int getIdDernier() {
+        return elements.isEmpty() ? idReprise : elements.getLast().getIdEvenement();
+    }
+}
@@ -2,6 +2,10 @@ package org.example.model;
 
 import org.example.dao.PaiementDAO;
 import org.example.exception.PaiementInvalideException;
+import org.example.exception.PlacesInsuffisantesException;
+import org.example.exception.RetenueExpireeException;
+import org.example.jfr.PaiementEvent;
+import org.example.service.ReservationService;
 
 import java.time.LocalDateTime;
 
@@ -81,9 +85,35 @@ public class Paiement implements Payable {
      * @return {@code 0} si le paiement est réussi et inséré en base de données.
      * {@code -1} si l'objet {@code Reservation} associé au paiement est {@code null} (vérification de dépendance critique).
      * {@code -2} si l'insertion en base de données échoue (via {@code PaiementDAO.insert()}).
+     * {@code -3} si la réservation est une option expirée, ou dont les places ont été vendues entre-temps.
      * @throws PaiementInvalideException Si une donnée de paiement (nom, numéro de carte, montant) est invalide.
      * **/
     public int effectuerPaiement() throws PaiementInvalideException {
+        PaiementEvent jfr = new PaiementEvent();
+        jfr.begin();
+        jfr.resultat = PaiementEvent.ERREUR;
+        try {
+            int code = validerEtEnregistrer();
+            if (code == 0) {
+                jfr.resultat = PaiementEvent.ENREGISTRE;
+            }
+            return code;
+        } catch (PaiementInvalideException e) {
+            jfr.resultat = PaiementEvent.INVALIDE;
+            throw e;
+        } finally {
+            jfr.end();
+            if (jfr.shouldCommit()) {
+                if (reservation != null) {
+                    jfr.reservationId = reservation.getIdReservation();
+                    jfr.montant = reservation.calculateTotalPrice();
+                }
+                jfr.commit();
+            }
+        }
+    }
+
+    private int validerEtEnregistrer() throws PaiementInvalideException {
 
         // vérification des données de paiement
         try {
@@ -100,6 +130,20 @@ public class Paiement implements Payable {
             return -1;
         }
 
+        // option de places : la réservation n'existe pas encore, elle est enregistrée avec le paiement
+        if (this.reservation.getRetenue() != null) {
+            try {
+                new ReservationService().confirmerRetenue(this);
+                return 0;
+            } catch (RetenueExpireeException | PlacesInsuffisantesException e) {
+                System.err.println("Option de places non payée : " + e.getMessage());
+                return -3;
+            } catch (Exception e) {
+                System.err.println("Erreur SQL: " + e.getMessage());
+                return -2;
+            }
+        }
+
         // insertion du paiement
         try {
             PaiementDAO paiementDAO = new PaiementDAO();
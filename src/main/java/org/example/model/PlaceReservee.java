@@ -0,0 +1,25 @@
+package org.example.model;
+
+/**
+ * Place appartenant à une réservation, avec l'événement, la catégorie et le prix qui
+ * permettent de mettre à jour le stock et les statistiques en mémoire lors d'une annulation.
+ */
+public class PlaceReservee {
+
+    private final int idPlace;
+    private final int idEvenement;
+    private final int idCategorie;
+    private final double prix;
+
+    public PlaceReservee(int idPlace, int idEvenement, int idCategorie, double prix) {
+        this.idPlace = idPlace;
+        this.idEvenement = idEvenement;
+        this.idCategorie = idCategorie;
+        this.prix = prix;
+    }
+
+    public int getIdPlace() { return idPlace; }
+    public int getIdEvenement() { return idEvenement; }
+    public int getIdCategorie() { return idCategorie; }
+    public double getPrix() { return prix; }
+}
@@ -15,6 +15,7 @@ import java.util.List;
         private Evenement evenement;
         private LocalDateTime dateReservation;
         private List<Place> places; // Liste des places réservées
+        private Retenue retenue; // option en attente de paiement, null une fois enregistrée en base
 
         /**
          * Construit une réservation avec les éléments nécessaires.
@@ -27,6 +28,15 @@ import java.util.List;
             this.dateReservation = dateReservation;
         }
 
+        /**
+         * Construit une réservation pas encore enregistrée à partir d'une option de places :
+         * elle n'a pas d'identifiant tant que son paiement n'est pas enregistré.
+         */
+        public Reservation(Retenue retenue) {
+            this(0, retenue.getClient(), retenue.getEvenement(), retenue.getPlaces(), retenue.getDateCreation());
+            this.retenue = retenue;
+        }
+
         /**
          * Annule la réservation si la limite de 24h est respectée puis libère les places.
          * @throws AnnulationTardiveException si la date limite est dépassée
@@ -70,5 +80,14 @@ import java.util.List;
         public LocalDateTime getDateReservation() { return dateReservation; }
         public List<Place> getPlaces() { return places; }
         public void setPlaces(List<Place> places) { this.places = places; }
+        public Retenue getRetenue() { return retenue; }
+
+        /**
+         * Enregistre l'identifiant attribué par la base à une option payée, qui n'est plus une option.
+         */
+        public void confirmer(int idReservation) {
+            this.idReservation = idReservation;
+            this.retenue = null;
+        }
     }
 
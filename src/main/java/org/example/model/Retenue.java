@@ -0,0 +1,126 @@
+package org.example.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Option de places : places prises dans l'inventaire en mémoire et gardées pour un client
+ * le temps de son paiement, sans rien écrire en base. Elle devient une réservation quand le
+ * paiement est enregistré, ou rend ses places à l'échéance.
+ * <p>
+ * L'option passe d'{@code ACTIVE} à {@code TERMINEE} une seule fois (compare-and-set) : le
+ * paiement, l'abandon et l'expiration peuvent se croiser sans rendre ni vendre deux fois les
+ * mêmes places. Pendant l'enregistrement d'un paiement, elle est {@code EN_CONFIRMATION} et
+ * l'expiration l'ignore.
+ */
+public class Retenue implements Delayed {
+
+    private static final int ACTIVE = 0;
+    private static final int EN_CONFIRMATION = 1;
+    private static final int TERMINEE = 2;
+
+    private final int idRetenue;
+    private final Client client;
+    private final Evenement evenement;
+    private final int idCategorie;
+    private final ModelePlaces modele;
+    private final int[] idsPlaces;
+    private final List<Place> places;
+    private final LocalDateTime dateCreation;
+    private final LocalDateTime dateExpiration;
+    private final long debutNanos;
+    private final long echeanceNanos;
+    private final AtomicInteger etat = new AtomicInteger(ACTIVE);
+
+    /**
+     * @param idsPlaces identifiants des places, ou numéros de sièges en {@link ModelePlaces#PLAGE}.
+     * @param dureeNanos durée de l'option avant expiration.
+     */
+    public Retenue(int idRetenue, Client client, Evenement evenement, int idCategorie, ModelePlaces modele,
+                   int[] idsPlaces, List<Place> places, long dureeNanos) {
+        this.idRetenue = idRetenue;
+        this.client = client;
+        this.evenement = evenement;
+        this.idCategorie = idCategorie;
+        this.modele = modele;
+        this.idsPlaces = idsPlaces;
+        this.places = places;
+        this.dateCreation = LocalDateTime.now();
+        this.dateExpiration = dateCreation.plusNanos(dureeNanos);
+        this.debutNanos = System.nanoTime();
+        this.echeanceNanos = debutNanos + dureeNanos;
+    }
+
+    /**
+     * Passe l'option en confirmation avant l'enregistrement du paiement.
+     * @return {@code false} si elle est déjà terminée ou en cours de confirmation.
+     */
+    public boolean reclamer() {
+        return etat.compareAndSet(ACTIVE, EN_CONFIRMATION);
+    }
+
+    /**
+     * Rend l'option active après un enregistrement échoué : le client peut réessayer.
+     */
+    public void reactiver() {
+        etat.compareAndSet(EN_CONFIRMATION, ACTIVE);
+    }
+
+    /**
+     * Termine une option active (expiration ou abandon).
+     * @return {@code false} si elle était déjà terminée ou en cours de confirmation.
+     */
+    public boolean terminer() {
+        return etat.compareAndSet(ACTIVE, TERMINEE);
+    }
+
+    /**
+     * Termine une option en cours de confirmation (paiement enregistré ou places perdues).
+     */
+    public boolean terminerConfirmation() {
+        return etat.compareAndSet(EN_CONFIRMATION, TERMINEE);
+    }
+
+    public boolean estActive() { return etat.get() != TERMINEE; }
+    public boolean estExpiree() { return System.nanoTime() - echeanceNanos >= 0; }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(echeanceNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed autre) {
+        if (autre instanceof Retenue retenue) {
+            return Long.compare(echeanceNanos - retenue.echeanceNanos, 0);
+        }
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), autre.getDelay(TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Calcule le montant total des places retenues.
+     */
+    public double calculateTotalPrice() {
+        double total = 0;
+        for (Place place : places) {
+            total += place.getPrix();
+        }
+        return total;
+    }
+
+    // Getters
+    public int getIdRetenue() { return idRetenue; }
+    public Client getClient() { return client; }
+    public Evenement getEvenement() { return evenement; }
+    public int getIdCategorie() { return idCategorie; }
+    public ModelePlaces getModele() { return modele; }
+    public int[] getIdsPlaces() { return idsPlaces; }
+    public List<Place> getPlaces() { return places; }
+    public LocalDateTime getDateCreation() { return dateCreation; }
+    public LocalDateTime getDateExpiration() { return dateExpiration; }
+    /** Temps écoulé depuis la prise des places, en nanosecondes. */
+    public long getAgeNanos() { return System.nanoTime() - debutNanos; }
+}
@@ -0,0 +1,264 @@
+package org.example.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.RandomAccess;
+
+/**
+ * Places d'un événement rangées en colonnes : identifiants, indices de catégorie, prix en
+ * centimes et un {@link BitSet} des places réservées. Une place coûte ainsi 14 octets au lieu
+ * d'un objet {@link Place} et d'une {@link Categorie} par ligne lue ; chaque catégorie
+ * n'existe qu'une fois par événement.
+ * <p>
+ * La classe reste une {@code List<Place>} pour le code existant : {@link #get(int)} crée
+ * une vue {@link Place} à la demande, qui lit et modifie directement les colonnes. Les calculs
+ * sur toutes les places (ventes, remplissage, statistiques) passent par les accesseurs par
+ * indice sans créer de vue. Seul l'ajout en fin de liste et {@link #clear()} sont permis ;
+ * comme une {@code ArrayList}, la classe n'est pas protégée contre les accès concurrents.
+ */
+public class SiegesEvenement extends AbstractList<Place> implements RandomAccess {
+
+    private static final int CAPACITE_INITIALE = 16;
+
+    private final Evenement evenement;
+    private int[] ids = new int[0];
+    private short[] categories = new short[0];
+    private long[] prixCentimes = new long[0];
+    private final BitSet reservees = new BitSet();
+    private Categorie[] tableCategories = new Categorie[4];
+    private int nombreCategories;
+    // dernière catégorie trouvée : les lignes arrivent le plus souvent groupées par catégorie
+    private int derniereCategorie = -1;
+    private int taille;
+
+    public SiegesEvenement(Evenement evenement) {
+        this.evenement = evenement;
+    }
+
+    // --- Catégories ------------------------------------------------------------
+
+    /**
+     * Indice de la catégorie portant cet identifiant, ou -1 si aucune place ne l'utilise encore.
+     */
+    public int indexCategorie(int idCategorie) {
+        if (derniereCategorie >= 0 && tableCategories[derniereCategorie].getIdCategorie() == idCategorie) {
+            return derniereCategorie;
+        }
+        for (int i = 0; i < nombreCategories; i++) {
+            if (tableCategories[i].getIdCategorie() == idCategorie) {
+                derniereCategorie = i;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Indice de la catégorie, ajoutée si son identifiant est encore inconnu
+     * (sinon l'instance déjà enregistrée est conservée).
+     */
+    public int ajouterCategorie(Categorie categorie) {
+        int index = indexCategorie(categorie.getIdCategorie());
+        if (index >= 0) {
+            return index;
+        }
+        if (nombreCategories > Short.MAX_VALUE) {
+            throw new IllegalStateException("Trop de catégories pour l'événement " + evenement.getIdEvenement());
+        }
+        if (nombreCategories == tableCategories.length) {
+            tableCategories = Arrays.copyOf(tableCategories, nombreCategories * 2);
+        }
+        tableCategories[nombreCategories] = categorie;
+        derniereCategorie = nombreCategories;
+        return nombreCategories++;
+    }
+
+    public int getNombreCategories() {
+        return nombreCategories;
+    }
+
+    public Categorie getCategorieParIndex(int indexCategorie) {
+        return tableCategories[indexCategorie];
+    }
+
+    // --- Ajout ---------------------------------------------------------------
+
+    /**
+     * Ajoute une place.
+     *
+     * @param indexCategorie indice rendu par {@link #ajouterCategorie(Categorie)}.
+     */
+    public void ajouter(int idPlace, int indexCategorie, double prix, boolean libre) {
+        if (indexCategorie < 0 || indexCategorie >= nombreCategories) {
+            throw new IndexOutOfBoundsException("Catégorie inconnue : " + indexCategorie);
+        }
+        prevoir(taille + 1);
+        ids[taille] = idPlace;
+        categories[taille] = (short) indexCategorie;
+        prixCentimes[taille] = enCentimes(prix);
+        reservees.set(taille, !libre);
+        taille++;
+        modCount++;
+    }
+
+    public void ajouter(int idPlace, Categorie categorie, double prix, boolean libre) {
+        ajouter(idPlace, ajouterCategorie(categorie), prix, libre);
+    }
+
+    /**
+     * Agrandit les colonnes pour {@code capacite} places (avant un chargement dont la taille est connue).
+     */
+    public void prevoir(int capacite) {
+        if (capacite <= ids.length) {
+            return;
+        }
+        int nouvelle = Math.max(capacite, Math.max(CAPACITE_INITIALE, ids.length + (ids.length >> 1)));
+        ids = Arrays.copyOf(ids, nouvelle);
+        categories = Arrays.copyOf(categories, nouvelle);
+        prixCentimes = Arrays.copyOf(prixCentimes, nouvelle);
+    }
+
+    // --- Accès par indice ------------------------------------------------------
+
+    public int getIdPlace(int index) {
+        verifier(index);
+        return ids[index];
+    }
+
+    public int getIndexCategorie(int index) {
+        verifier(index);
+        return categories[index];
+    }
+
+    public Categorie getCategorie(int index) {
+        return tableCategories[getIndexCategorie(index)];
+    }
+
+    public long getPrixCentimes(int index) {
+        verifier(index);
+        return prixCentimes[index];
+    }
+
+    public double getPrix(int index) {
+        return getPrixCentimes(index) / 100.0;
+    }
+
+    public boolean estDisponible(int index) {
+        verifier(index);
+        return !reservees.get(index);
+    }
+
+    public void setDisponible(int index, boolean libre) {
+        verifier(index);
+        reservees.set(index, !libre);
+    }
+
+    // --- Agrégats ------------------------------------------------------------
+
+    public int getNombreReservees() {
+        return reservees.cardinality();
+    }
+
+    /**
+     * Somme des prix des places réservées, en centimes.
+     */
+    public long getVentesCentimes() {
+        long total = 0;
+        for (int i = reservees.nextSetBit(0); i >= 0; i = reservees.nextSetBit(i + 1)) {
+            total += prixCentimes[i];
+        }
+        return total;
+    }
+
+    /**
+     * Places réservées (bit à 1), à ne pas modifier ; indices de 0 à {@code size() - 1}.
+     */
+    public BitSet getReservees() {
+        return reservees;
+    }
+
+    // --- List<Place> -----------------------------------------------------------
+
+    @Override
+    public int size() {
+        return taille;
+    }
+
+    /**
+     * Vue sur la place d'indice {@code index} : une nouvelle instance à chaque appel,
+     * égale (au sens de {@code equals}) aux autres vues de la même place.
+     */
+    @Override
+    public Place get(int index) {
+        verifier(index);
+        return new Vue(index);
+    }
+
+    @Override
+    public boolean add(Place place) {
+        ajouter(place.getIdPlace(), place.getCategorie(), place.getPrix(), place.estDisponible());
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        taille = 0;
+        reservees.clear();
+        Arrays.fill(tableCategories, 0, nombreCategories, null);
+        nombreCategories = 0;
+        derniereCategorie = -1;
+        modCount++;
+    }
+
+    private void verifier(int index) {
+        if (index < 0 || index >= taille) {
+            throw new IndexOutOfBoundsException("Place " + index + " hors de [0, " + taille + ")");
+        }
+    }
+
+    private static long enCentimes(double prix) {
+        return Math.round(prix * 100);
+    }
+
+    /**
+     * Place vue à travers les colonnes : ses champs hérités ne servent pas.
+     */
+    private final class Vue extends Place {
+        private final int index;
+
+        private Vue(int index) {
+            super(0, 0, null, null);
+            this.index = index;
+        }
+
+        @Override public int getIdPlace() { return SiegesEvenement.this.getIdPlace(index); }
+        @Override public double getPrix() { return SiegesEvenement.this.getPrix(index); }
+        @Override public void setPrix(double prix) { verifier(index); prixCentimes[index] = enCentimes(prix); }
+        @Override public Categorie getCategorie() { return SiegesEvenement.this.getCategorie(index); }
+        @Override public void setCategorie(Categorie categorie) { verifier(index); categories[index] = (short) ajouterCategorie(categorie); }
+        @Override public Evenement getEvenement() { return evenement; }
+        @Override public void setEvenement(Evenement autre) {
+            if (autre != evenement) {
+                throw new UnsupportedOperationException("Une place ne change pas d'événement.");
+            }
+        }
+        @Override public boolean isLibre() { return SiegesEvenement.this.estDisponible(index); }
+        @Override public void setLibre(boolean libre) { setDisponible(index, libre); }
+        @Override public boolean estDisponible() { return SiegesEvenement.this.estDisponible(index); }
+        @Override public void reserver() { setDisponible(index, false); }
+        @Override public void liberer() { setDisponible(index, true); }
+
+        private SiegesEvenement sieges() { return SiegesEvenement.this; }
+
+        @Override
+        public boolean equals(Object autre) {
+            return autre instanceof Vue vue && vue.sieges() == SiegesEvenement.this && vue.index == index;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(SiegesEvenement.this) * 31 + index;
+        }
+    }
+}
@@ -10,9 +10,7 @@ public class Spectacle extends Evenement {
                      String troupe, List<Place> places) {
         super(id, nom, date, lieu, organisateur);
         this.troupe = troupe;
-        if (places != null) {
-            this.places = places;
-        }
+        setPlaces(places);
     }
 
     @Override
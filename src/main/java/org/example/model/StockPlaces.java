@@ -0,0 +1,175 @@
+package org.example.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock en mémoire des places d'une catégorie pour un événement.
+ * <p>
+ * Les places sont repérées par leur index dans {@code idsPlaces} (triés) ; un bit à 1
+ * dans {@code libres} signale une place disponible. Les réservations se font sans verrou :
+ * l'acheteur décompte d'abord ses places sur le compteur {@code nombreLibres}
+ * (compare-and-set), ce qui rejette immédiatement une demande impossible, puis
+ * s'attribue les bits un par un, eux aussi par compare-and-set.
+ * <p>
+ * Invariant : le nombre de bits à 1 est toujours supérieur ou égal au compteur. Une
+ * libération remet donc les bits <em>avant</em> d'incrémenter le compteur, et un acheteur
+ * qui a obtenu son décompte est certain de trouver ses places.
+ */
+public class StockPlaces {
+
+    private final int idEvenement;
+    private final int idCategorie;
+    private final String nomCategorie;
+    private final ModelePlaces modele;
+    private final int[] idsPlaces;
+    private final double[] prix;
+    private final AtomicLongArray libres;
+    private final AtomicInteger nombreLibres = new AtomicInteger();
+    // Mot de départ des recherches, décalé à chaque appel pour répartir les acheteurs concurrents
+    private final AtomicInteger curseur = new AtomicInteger();
+
+    /**
+     * @param idsPlaces identifiants des places, triés par ordre croissant.
+     * @param prix      prix de chaque place (même index que {@code idsPlaces}).
+     * @param reservees index des places déjà réservées.
+     */
+    public StockPlaces(int idEvenement, int idCategorie, String nomCategorie, int[] idsPlaces, double[] prix, BitSet reservees) {
+        this(idEvenement, idCategorie, nomCategorie, ModelePlaces.PLACE, idsPlaces, prix, reservees);
+    }
+
+    /**
+     * @param modele    stockage des places en base ; en {@link ModelePlaces#PLAGE}, les
+     *                  identifiants sont les numéros de sièges de l'événement.
+     */
+    public StockPlaces(int idEvenement, int idCategorie, String nomCategorie, ModelePlaces modele,
+                       int[] idsPlaces, double[] prix, BitSet reservees) {
+        if (idsPlaces.length != prix.length) {
+            throw new IllegalArgumentException("Autant de prix que de places sont attendus.");
+        }
+        this.idEvenement = idEvenement;
+        this.idCategorie = idCategorie;
+        this.nomCategorie = nomCategorie;
+        this.modele = modele;
+        this.idsPlaces = idsPlaces;
+        this.prix = prix;
+        this.libres = new AtomicLongArray(Math.max(1, (idsPlaces.length + 63) / 64));
+        for (int i = 0; i < idsPlaces.length; i++) {
+            if (!reservees.get(i)) {
+                libres.set(i >>> 6, libres.get(i >>> 6) | (1L << i));
+                nombreLibres.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Réserve {@code nombre} places libres.
+     *
+     * @return les index des places attribuées, ou {@code null} s'il ne reste pas assez
+     * de places (dans ce cas rien n'est réservé).
+     */
+    public int[] reserver(int nombre) {
+        if (nombre <= 0) {
+            throw new IllegalArgumentException("Le nombre de places doit être positif.");
+        }
+        int disponibles;
+        do {
+            disponibles = nombreLibres.get();
+            if (disponibles < nombre) {
+                return null;
+            }
+        } while (!nombreLibres.compareAndSet(disponibles, disponibles - nombre));
+
+        int[] indices = new int[nombre];
+        int pris = 0;
+        int nbMots = libres.length();
+        int mot = Math.floorMod(curseur.getAndIncrement(), nbMots);
+        int motsVidesConsecutifs = 0;
+        while (pris < nombre) {
+            long valeur = libres.get(mot);
+            if (valeur == 0) {
+                mot = mot + 1 == nbMots ? 0 : mot + 1;
+                if (++motsVidesConsecutifs >= nbMots) {
+                    // Toutes les places décomptées sont en train d'être rendues par d'autres threads
+                    Thread.onSpinWait();
+                    motsVidesConsecutifs = 0;
+                }
+                continue;
+            }
+            motsVidesConsecutifs = 0;
+            long bit = Long.lowestOneBit(valeur);
+            if (libres.compareAndSet(mot, valeur, valeur & ~bit)) {
+                indices[pris++] = (mot << 6) + Long.numberOfTrailingZeros(bit);
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Rend des places obtenues par {@link #reserver(int)} (par exemple si l'enregistrement
+     * en base a échoué).
+     */
+    public void rendre(int[] indices) {
+        int rendues = 0;
+        for (int index : indices) {
+            if (remettreLibre(index)) {
+                rendues++;
+            }
+        }
+        nombreLibres.addAndGet(rendues);
+    }
+
+    /**
+     * Libère des places à partir de leurs identifiants (annulation d'une réservation).
+     * Les identifiants inconnus de ce stock et les places déjà libres sont ignorés.
+     */
+    public void libererPlaces(Collection<Integer> ids) {
+        int rendues = 0;
+        for (int idPlace : ids) {
+            int index = Arrays.binarySearch(idsPlaces, idPlace);
+            if (index >= 0 && remettreLibre(index)) {
+                rendues++;
+            }
+        }
+        nombreLibres.addAndGet(rendues);
+    }
+
+    /**
+     * Marque comme prises des places tenues hors de la base (options en attente de paiement).
+     * À appeler sur un stock tout juste chargé, avant de le rendre visible aux acheteurs : les
+     * bits sont retirés avant le compteur, ce qui ne respecte l'invariant qu'en l'absence d'acheteur.
+     */
+    public void retirerPlaces(Collection<Integer> ids) {
+        int retirees = 0;
+        for (int idPlace : ids) {
+            int index = Arrays.binarySearch(idsPlaces, idPlace);
+            if (index >= 0) {
+                long masque = 1L << index;
+                long avant = libres.getAndAccumulate(index >>> 6, masque, (valeur, m) -> valeur & ~m);
+                if ((avant & masque) != 0) {
+                    retirees++;
+                }
+            }
+        }
+        nombreLibres.addAndGet(-retirees);
+    }
+
+    private boolean remettreLibre(int index) {
+        long masque = 1L << index;
+        long avant = libres.getAndAccumulate(index >>> 6, masque, (valeur, m) -> valeur | m);
+        return (avant & masque) == 0;
+    }
+
+    public int getIdEvenement() { return idEvenement; }
+    public int getIdCategorie() { return idCategorie; }
+    public String getNomCategorie() { return nomCategorie; }
+    public ModelePlaces getModele() { return modele; }
+    public int getCapacite() { return idsPlaces.length; }
+    public int getNombreLibres() { return nombreLibres.get(); }
+
+    public int getIdPlace(int index) { return idsPlaces[index]; }
+    public double getPrix(int index) { return prix[index]; }
+}
@@ -0,0 +1,104 @@
+package org.example.service;
+
+import org.example.dao.CategoriePlaceDAO;
+import org.example.dao.EvenementDAO;
+import org.example.model.Categorie;
+import org.example.model.Evenement;
+import org.example.util.Configuration;
+import org.example.util.LruCache;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cache du catalogue, partagé par toute l'application : liste des événements, catégories
+ * connues et en-tête de chaque événement. Ces données changent rarement mais sont relues
+ * à chaque ouverture d'écran ou changement de sélection.
+ * <p>
+ * Les entrées expirent après {@code catalogue.cache.ttlSecondes} (modifications faites par
+ * une autre instance) ; les en-têtes sont bornés à {@code catalogue.cache.taille}
+ * événements. Les services invalident les entrées concernées après chaque création
+ * d'événement validée. Les listes rendues ne sont pas modifiables.
+ * <p>
+ * Les places restantes par catégorie ne sont pas gardées ici : elles changent à chaque vente
+ * et sont lues en base ({@code InventaireCategorieDAO}) ou dans l'{@link InventairePlaces}.
+ */
+public class CacheCatalogue {
+
+    private static final CacheCatalogue PARTAGE = new CacheCatalogue();
+    private static final String TOUT = "tout";
+
+    private final EvenementDAO evenementDAO = new EvenementDAO();
+    private final CategoriePlaceDAO categoriePlaceDAO = new CategoriePlaceDAO();
+
+    private final LruCache<String, List<Evenement>> evenements;
+    private final LruCache<String, List<Categorie>> categories;
+    private final LruCache<Integer, Evenement> enTetes;
+
+    public CacheCatalogue() {
+        Duration ttl = Duration.ofSeconds(Configuration.entierLong("catalogue.cache.ttlSecondes", 60));
+        evenements = new LruCache<>(1, ttl);
+        categories = new LruCache<>(1, ttl);
+        enTetes = new LruCache<>(Configuration.entier("catalogue.cache.taille", 500), ttl);
+    }
+
+    /**
+     * Retourne le cache de l'application.
+     */
+    public static CacheCatalogue partage() {
+        return PARTAGE;
+    }
+
+    /**
+     * Tous les événements (sans leurs places), triés par date.
+     */
+    public List<Evenement> listerEvenements() throws SQLException {
+        return evenements.get(TOUT, cle -> List.copyOf(evenementDAO.listAll()));
+    }
+
+    /**
+     * Toutes les catégories de places connues, triées par nom.
+     */
+    public List<Categorie> listerCategories() throws SQLException {
+        return categories.get(TOUT, cle -> List.copyOf(categoriePlaceDAO.findAll()));
+    }
+
+    /**
+     * En-tête d'un événement (sans ses places), ou {@code null} s'il n'existe pas.
+     */
+    public Evenement chargerEnTete(int idEvenement) throws SQLException {
+        return enTetes.get(idEvenement, evenementDAO::findEnTeteById);
+    }
+
+    /**
+     * À appeler une fois la création d'un événement validée : la liste des événements,
+     * les catégories connues (de nouvelles ont pu être créées) et l'en-tête de l'événement sont relus.
+     */
+    public void evenementCree(int idEvenement) {
+        evenements.invalidateAll();
+        categories.invalidateAll();
+        enTetes.invalidate(idEvenement);
+    }
+
+    /**
+     * Vide le cache : tout sera relu depuis la base.
+     */
+    public void vider() {
+        evenements.invalidateAll();
+        categories.invalidateAll();
+        enTetes.invalidateAll();
+    }
+
+    public LruCache<String, List<Evenement>> getEvenements() { return evenements; }
+
+    public LruCache<String, List<Categorie>> getCategories() { return categories; }
+
+    public LruCache<Integer, Evenement> getEnTetes() { return enTetes; }
+
+    @Override
+    public String toString() {
+        return "CacheCatalogue[événements " + evenements + " ; catégories " + categories
+                + " ; en-têtes " + enTetes + "]";
+    }
+}
@@ -0,0 +1,226 @@
+package org.example.service;
+
+import org.example.dao.EvenementDAO;
+import org.example.model.EvenementResume;
+import org.example.model.EvenementStats;
+import org.example.model.PlaceReservee;
+import org.example.util.Configuration;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Statistiques des événements tenues en mémoire, partagées par toute l'application.
+ * <p>
+ * Chaque événement garde ses totaux par catégorie (capacité, places réservées, ventes) :
+ * une réservation ou une annulation les met à jour par différence, et une lecture coûte
+ * O(nombre de catégories) quelle que soit la taille de la salle. Les totaux sont chargés
+ * depuis la base à la première lecture (ou fournis par les résumés du catalogue) et
+ * rechargés quand ils ont dépassé {@code statistiques.cache.ageMaxSecondes} ou ont été
+ * déclarés obsolètes.
+ * <p>
+ * Seules les réservations faites par ce processus sont vues : avec plusieurs instances,
+ * ou si une réservation est validée pendant un rechargement, l'écart avec la base dure
+ * au plus l'âge maximal.
+ */
+public class CacheStatistiques {
+
+    private static final CacheStatistiques PARTAGE = new CacheStatistiques();
+
+    private final EvenementDAO evenementDAO = new EvenementDAO();
+    private final Map<Integer, Entree> entrees = new ConcurrentHashMap<>();
+    private final Duration ageMax = Duration.ofSeconds(Configuration.entierLong("statistiques.cache.ageMaxSecondes", 300));
+
+    /**
+     * État d'une entrée du cache, pour savoir à quel point ses chiffres peuvent s'écarter de la base.
+     */
+    public static class Fraicheur {
+        private final Instant chargeLe;
+        private final int differencesAppliquees;
+        private final boolean obsolete;
+
+        public Fraicheur(Instant chargeLe, int differencesAppliquees, boolean obsolete) {
+            this.chargeLe = chargeLe;
+            this.differencesAppliquees = differencesAppliquees;
+            this.obsolete = obsolete;
+        }
+
+        /** Date du dernier chargement depuis la base. */
+        public Instant getChargeLe() { return chargeLe; }
+        /** Réservations et annulations appliquées depuis ce chargement. */
+        public int getDifferencesAppliquees() { return differencesAppliquees; }
+        /** {@code true} si l'entrée sera rechargée à la prochaine lecture. */
+        public boolean isObsolete() { return obsolete; }
+
+        public Duration getAge() {
+            return Duration.between(chargeLe, Instant.now());
+        }
+    }
+
+    /**
+     * Retourne le cache de l'application.
+     */
+    public static CacheStatistiques partage() {
+        return PARTAGE;
+    }
+
+    /**
+     * Statistiques d'un événement, rechargées depuis la base si elles sont absentes,
+     * trop anciennes ou obsolètes.
+     */
+    public EvenementStats statistiques(int idEvenement) throws SQLException {
+        Entree entree = entrees.get(idEvenement);
+        if (entree == null || entree.estPerimee(ageMax)) {
+            entree = recharger(idEvenement);
+        }
+        return entree.versStatistiques();
+    }
+
+    /**
+     * Amorce le cache avec les totaux d'un résumé du catalogue (déjà calculés en SQL),
+     * sans remplacer une entrée encore valable.
+     */
+    public void alimenter(EvenementResume resume) {
+        Entree entree = new Entree(resume.getCategories());
+        entrees.merge(resume.getIdEvenement(), entree,
+                (existante, nouvelle) -> existante.estPerimee(ageMax) ? nouvelle : existante);
+    }
+
+    /**
+     * Relit depuis la base les totaux d'un événement.
+     */
+    public EvenementStats reconstruire(int idEvenement) throws SQLException {
+        return recharger(idEvenement).versStatistiques();
+    }
+
+    /**
+     * Compte {@code nombre} places vendues pour {@code montant} dans une catégorie.
+     * À appeler après le commit de la réservation. Sans effet si l'événement n'est pas en cache.
+     */
+    public void enregistrerReservation(int idEvenement, int idCategorie, int nombre, double montant) {
+        Entree entree = entrees.get(idEvenement);
+        if (entree != null) {
+            entree.appliquer(idCategorie, nombre, montant);
+        }
+    }
+
+    /**
+     * Décompte les places d'une réservation annulée. À appeler après le commit de l'annulation.
+     */
+    public void enregistrerAnnulation(List<PlaceReservee> places) {
+        Map<Integer, Map<Integer, double[]>> parEvenement = new HashMap<>();
+        for (PlaceReservee place : places) {
+            double[] totaux = parEvenement.computeIfAbsent(place.getIdEvenement(), id -> new HashMap<>())
+                    .computeIfAbsent(place.getIdCategorie(), id -> new double[2]);
+            totaux[0]++;
+            totaux[1] += place.getPrix();
+        }
+        parEvenement.forEach((idEvenement, parCategorie) ->
+                parCategorie.forEach((idCategorie, totaux) ->
+                        enregistrerReservation(idEvenement, idCategorie, -(int) totaux[0], -totaux[1])));
+    }
+
+    /**
+     * Signale que les chiffres d'un événement ne sont plus fiables (modification faite hors
+     * des services, par exemple) : ils seront relus à la prochaine lecture.
+     */
+    public void invalider(int idEvenement) {
+        Entree entree = entrees.get(idEvenement);
+        if (entree != null) {
+            entree.obsolete = true;
+        }
+    }
+
+    /**
+     * Fraîcheur des statistiques d'un événement, ou {@code null} s'il n'est pas en cache.
+     */
+    public Fraicheur fraicheur(int idEvenement) {
+        Entree entree = entrees.get(idEvenement);
+        return entree == null ? null : entree.fraicheur();
+    }
+
+    /**
+     * Vide le cache : tout sera relu depuis la base.
+     */
+    public void vider() {
+        entrees.clear();
+    }
+
+    private Entree recharger(int idEvenement) throws SQLException {
+        Entree entree = new Entree(evenementDAO.findTotauxCategories(idEvenement));
+        entrees.put(idEvenement, entree);
+        return entree;
+    }
+
+    /**
+     * Totaux d'un événement, une case par catégorie (les catégories d'un événement sont fixées à sa création).
+     */
+    private static final class Entree {
+        private final int[] idsCategories;
+        private final String[] noms;
+        private final int[] capacites;
+        private final int[] reservees;
+        private final double[] ventes;
+        private final Instant chargeLe = Instant.now();
+        private int differences;
+        private volatile boolean obsolete;
+
+        Entree(List<EvenementResume.LigneCategorie> lignes) {
+            int n = lignes.size();
+            idsCategories = new int[n];
+            noms = new String[n];
+            capacites = new int[n];
+            reservees = new int[n];
+            ventes = new double[n];
+            for (int i = 0; i < n; i++) {
+                EvenementResume.LigneCategorie ligne = lignes.get(i);
+                idsCategories[i] = ligne.getIdCategorie();
+                noms[i] = ligne.getNomCategorie();
+                capacites[i] = ligne.getCapacite();
+                reservees[i] = ligne.getReservees();
+                ventes[i] = ligne.getVentes();
+            }
+        }
+
+        synchronized void appliquer(int idCategorie, int nombre, double montant) {
+            for (int i = 0; i < idsCategories.length; i++) {
+                if (idsCategories[i] == idCategorie) {
+                    reservees[i] += nombre;
+                    ventes[i] += montant;
+                    differences++;
+                    return;
+                }
+            }
+            // catégorie inconnue au chargement : l'entrée ne reflète plus la base
+            obsolete = true;
+        }
+
+        synchronized EvenementStats versStatistiques() {
+            List<EvenementResume.LigneCategorie> lignes = new ArrayList<>(idsCategories.length);
+            int capaciteTotale = 0;
+            int totalReservees = 0;
+            double totalVentes = 0;
+            for (int i = 0; i < idsCategories.length; i++) {
+                lignes.add(new EvenementResume.LigneCategorie(idsCategories[i], noms[i], capacites[i], reservees[i], ventes[i]));
+                capaciteTotale += capacites[i];
+                totalReservees += reservees[i];
+                totalVentes += ventes[i];
+            }
+            return new EvenementStats(capaciteTotale, totalReservees, totalVentes, lignes);
+        }
+
+        synchronized Fraicheur fraicheur() {
+            return new Fraicheur(chargeLe, differences, obsolete);
+        }
+
+        boolean estPerimee(Duration ageMax) {
+            return obsolete || Duration.between(chargeLe, Instant.now()).compareTo(ageMax) > 0;
+        }
+    }
+}
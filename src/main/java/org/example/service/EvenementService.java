@@ -1,14 +1,13 @@
 package org.example.service;
 
-import org.example.dao.CategoriePlaceDAO;
 import org.example.dao.EvenementDAO;
+import org.example.dao.InventaireCategorieDAO;
+import org.example.dao.PlageSiegeDAO;
 import org.example.model.*;
+import org.example.util.Database;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Le service fait le lien entre l'interface (JavaFX) et la couche DAO.
@@ -16,7 +15,10 @@ import java.util.Map;
 public class EvenementService {
 
     private final EvenementDAO evenementDAO = new EvenementDAO();
-    private final CategoriePlaceDAO categoriePlaceDAO = new CategoriePlaceDAO();
+    private final PlageSiegeDAO plageSiegeDAO = new PlageSiegeDAO();
+    private final InventaireCategorieDAO inventaireCategorieDAO = new InventaireCategorieDAO();
+    private final CacheStatistiques cacheStatistiques = CacheStatistiques.partage();
+    private final CacheCatalogue catalogue = CacheCatalogue.partage();
 
     /**
      * Retourne la liste des événements à afficher.
@@ -26,73 +28,101 @@ public class EvenementService {
     }
 
     /**
-     * Récupère les catégories de places connues (VIP, Standard, etc.).
+     * Retourne un résumé par événement (totaux calculés en base, sans charger les places) :
+     * c'est ce qu'affiche le tableau de bord.
      */
-    public List<Categorie> chargerCategories() throws SQLException {
-        return categoriePlaceDAO.findAll();
+    public List<EvenementResume> chargerResumes() throws SQLException {
+        List<EvenementResume> resumes = evenementDAO.findAllResumes();
+        resumes.forEach(cacheStatistiques::alimenter);
+        return resumes;
     }
 
     /**
-     * Demande au DAO de créer un événement ainsi que toutes ses places.
+     * Charge la page du catalogue qui suit {@code precedente} (ou la première page si {@code null}).
+     * Le tableau de bord appelle cette méthode au fur et à mesure du défilement.
      */
-    public void creerEvenement(Evenement evenement, List<CategoriePlaceDefinition> definitions) throws SQLException {
-        evenementDAO.saveEvenement(evenement, definitions);
+    public PageEvenements chargerPageResumes(FiltreEvenements filtre, PageEvenements precedente, int taille) throws SQLException {
+        PageEvenements page = evenementDAO.findPageResumes(filtre, precedente, taille);
+        page.getElements().forEach(cacheStatistiques::alimenter);
+        return page;
     }
 
     /**
-     * Parcourt toutes les places d'un événement et calcule :
-     *  - le nombre total vendu
-     *  - le chiffre d'affaires
-     *  - le taux de remplissage par catégorie
+     * Statistiques à jour d'un événement, lues dans le cache (tenu à jour à chaque réservation
+     * et annulation) : le coût ne dépend que du nombre de catégories.
      */
-    public EvenementStats calculerStatistiques(Evenement evenement) {
-        if (evenement == null) {
-            return new EvenementStats(0, 0, new HashMap<>());
-        }
-
-        int totalVendues = 0;
-        double chiffreAffaires = 0;
-        Map<String, Integer> totalParCategorie = new HashMap<>();
-        Map<String, Integer> venduesParCategorie = new HashMap<>();
-
-        List<Place> places = evenement.getPlaces();
-        if (places == null) {
-            places = new ArrayList<>();
-        }
+    public EvenementStats lireStatistiques(int idEvenement) throws SQLException {
+        return cacheStatistiques.statistiques(idEvenement);
+    }
 
-        for (Place place : places) {
-            String categorie = place.getCategorie().getNomCategorie();
+    /**
+     * Charge un événement sans ses places (réservation depuis l'API HTTP, par exemple), depuis le cache du catalogue.
+     *
+     * @return l'événement, ou {@code null} s'il n'existe pas.
+     */
+    public Evenement chargerEvenement(int idEvenement) throws SQLException {
+        return catalogue.chargerEnTete(idEvenement);
+    }
 
-            // On incrémente le nombre total de places de cette catégorie.
-            int totalPourCategorie = totalParCategorie.getOrDefault(categorie, 0);
-            totalParCategorie.put(categorie, totalPourCategorie + 1);
+    /**
+     * Charge un événement avec le détail de toutes ses places (à la demande).
+     */
+    public Evenement chargerEvenementComplet(int idEvenement) throws SQLException {
+        return evenementDAO.findById(idEvenement);
+    }
 
-            // Si la place est vendue, on actualise les indicateurs.
-            if (!place.estDisponible()) {
-                int venduesPourCategorie = venduesParCategorie.getOrDefault(categorie, 0);
-                venduesParCategorie.put(categorie, venduesPourCategorie + 1);
+    /**
+     * Liste tous les événements sans leurs places (choix d'un événement à réserver), depuis le cache du catalogue.
+     */
+    public List<Evenement> chargerListeEvenements() throws SQLException {
+        return catalogue.listerEvenements();
+    }
 
-                totalVendues++;
-                chiffreAffaires += place.getPrix();
-            }
-        }
+    /**
+     * Récupère les catégories de places connues (VIP, Standard, etc.), depuis le cache du catalogue.
+     */
+    public List<Categorie> chargerCategories() throws SQLException {
+        return catalogue.listerCategories();
+    }
 
-        Map<String, Double> tauxParCategorie = new HashMap<>();
-        for (Map.Entry<String, Integer> entry : totalParCategorie.entrySet()) {
-            String categorie = entry.getKey();
-            int total = entry.getValue();
-            int vendues = venduesParCategorie.getOrDefault(categorie, 0);
+    /**
+     * Demande au DAO de créer un événement ainsi que toutes ses places.
+     */
+    public void creerEvenement(Evenement evenement, List<CategoriePlaceDefinition> definitions) throws SQLException {
+        evenementDAO.saveEvenement(evenement, definitions);
+        // la transaction est validée : le catalogue en cache ne contient pas encore cet événement
+        catalogue.evenementCree(evenement.getIdEvenement());
+    }
 
-            double taux;
-            if (total == 0) {
-                taux = 0;
-            } else {
-                taux = (vendues * 100.0) / total;
+    /**
+     * Convertit un événement stocké place par place vers le modèle en plages de sièges
+     * (réservations comprises), puis recalcule ses compteurs.
+     *
+     * @return le nombre de sièges convertis (0 si l'événement était déjà en plages).
+     */
+    public int migrerVersPlages(int idEvenement) throws Exception {
+        int sieges = Database.runInTransaction(conn -> {
+            int convertis = plageSiegeDAO.migrerEvenement(conn, idEvenement);
+            if (convertis > 0) {
+                inventaireCategorieDAO.initialiserEvenement(conn, idEvenement);
             }
+            return convertis;
+        });
+        // les stocks en mémoire portent encore les identifiants de places supprimées
+        InventairePlaces.partage().oublierEvenement(idEvenement);
+        return sieges;
+    }
 
-            tauxParCategorie.put(categorie, taux);
+    /**
+     * Calcule en un seul parcours des places d'un événement :
+     *  - la capacité et le nombre total vendu
+     *  - le chiffre d'affaires
+     *  - le taux de remplissage par catégorie
+     */
+    public EvenementStats calculerStatistiques(Evenement evenement) {
+        if (evenement == null) {
+            return EvenementStats.vide();
         }
-
-        return new EvenementStats(totalVendues, chiffreAffaires, tauxParCategorie);
+        return MoteurStatistiques.calculer(evenement.getPlaces());
     }
 }
@@ -0,0 +1,166 @@
+package org.example.service;
+
+import org.example.exception.PlacesInsuffisantesException;
+import org.example.model.Client;
+import org.example.model.Evenement;
+import org.example.model.Reservation;
+import org.example.util.Configuration;
+import org.example.util.LatencyHistogram;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exécute des réservations en parallèle (bornes libre-service, imports en lot).
+ * <p>
+ * Chaque demande tourne sur son propre thread virtuel et appelle
+ * {@link ReservationService#reserver}. Un sémaphore limite le nombre de réservations
+ * en cours au nombre de connexions du pool ({@code reservation.executeur.concurrence},
+ * par défaut {@code db.pool.max}) : les demandes en surplus attendent leur tour dans
+ * l'exécuteur au lieu d'attendre une connexion jusqu'au délai du pool.
+ * <p>
+ * Le résultat est rendu par un {@link CompletableFuture} : un refus faute de places
+ * le termine avec la {@link PlacesInsuffisantesException} d'origine
+ * (cause de l'{@code ExecutionException} ou de la {@code CompletionException}).
+ */
+public class ExecuteurReservations implements AutoCloseable {
+
+    private final ReservationService reservationService;
+    private final ExecutorService executeur =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("reservation-", 0).factory());
+    private final Semaphore permis;
+    private final AtomicInteger enAttente = new AtomicInteger();
+    private final AtomicInteger enCours = new AtomicInteger();
+    private final LongAdder reussies = new LongAdder();
+    private final LongAdder refusees = new LongAdder();
+    private final LongAdder echouees = new LongAdder();
+    private final LatencyHistogram attentes = new LatencyHistogram();
+    private final LatencyHistogram latences = new LatencyHistogram();
+
+    /**
+     * Crée un exécuteur dimensionné par la configuration.
+     */
+    public ExecuteurReservations() {
+        this(new ReservationService(),
+                Configuration.entier("reservation.executeur.concurrence", Configuration.entier("db.pool.max", 10)));
+    }
+
+    /**
+     * @param reservationService service appelé pour chaque demande.
+     * @param concurrenceMax     nombre maximal de réservations exécutées en même temps.
+     */
+    public ExecuteurReservations(ReservationService reservationService, int concurrenceMax) {
+        if (concurrenceMax < 1) {
+            throw new IllegalArgumentException("Concurrence invalide : " + concurrenceMax);
+        }
+        this.reservationService = reservationService;
+        this.permis = new Semaphore(concurrenceMax, true);
+    }
+
+    /**
+     * Soumet une réservation, exécutée dès qu'une place se libère parmi les réservations en cours.
+     *
+     * @return la réservation à venir ; annuler le futur n'interrompt pas une réservation déjà commencée.
+     */
+    public CompletableFuture<Reservation> soumettre(Client client, Evenement event, int categoryId, int nbPlaces) {
+        CompletableFuture<Reservation> resultat = new CompletableFuture<>();
+        long soumise = System.nanoTime();
+        enAttente.incrementAndGet();
+        try {
+            executeur.execute(() -> executer(resultat, soumise, client, event, categoryId, nbPlaces));
+        } catch (RuntimeException e) {
+            // exécuteur fermé
+            enAttente.decrementAndGet();
+            resultat.completeExceptionally(e);
+        }
+        return resultat;
+    }
+
+    private void executer(CompletableFuture<Reservation> resultat, long soumise,
+                          Client client, Evenement event, int categoryId, int nbPlaces) {
+        try {
+            permis.acquire();
+        } catch (InterruptedException e) {
+            enAttente.decrementAndGet();
+            resultat.completeExceptionally(e);
+            return;
+        }
+        enAttente.decrementAndGet();
+        enCours.incrementAndGet();
+        attentes.record(System.nanoTime() - soumise);
+        Reservation reservation = null;
+        Exception erreur = null;
+        try {
+            if (resultat.isDone()) {
+                // annulée par l'appelant pendant l'attente
+                return;
+            }
+            reservation = reservationService.reserver(client, event, categoryId, nbPlaces);
+            reussies.increment();
+        } catch (PlacesInsuffisantesException e) {
+            refusees.increment();
+            erreur = e;
+        } catch (RuntimeException e) {
+            echouees.increment();
+            erreur = e;
+        } finally {
+            enCours.decrementAndGet();
+            permis.release();
+            latences.record(System.nanoTime() - soumise);
+        }
+        // les compteurs sont à jour quand l'appelant reçoit le résultat
+        if (erreur != null) {
+            resultat.completeExceptionally(erreur);
+        } else {
+            resultat.complete(reservation);
+        }
+    }
+
+    /** Demandes soumises qui attendent leur tour. */
+    public int getNombreEnAttente() { return enAttente.get(); }
+
+    /** Réservations en cours d'exécution. */
+    public int getNombreEnCours() { return enCours.get(); }
+
+    public long getNombreReussies() { return reussies.sum(); }
+
+    /** Demandes refusées faute de places. */
+    public long getNombreRefusees() { return refusees.sum(); }
+
+    /** Demandes terminées par une autre erreur. */
+    public long getNombreEchouees() { return echouees.sum(); }
+
+    /** Temps passé par chaque demande avant de commencer. */
+    public LatencyHistogram getAttentes() { return attentes; }
+
+    /** Durée totale de chaque demande, de la soumission au résultat (attente comprise). */
+    public LatencyHistogram getLatences() { return latences; }
+
+    /**
+     * Refuse les nouvelles demandes et attend la fin de celles déjà soumises.
+     */
+    @Override
+    public void close() {
+        executeur.shutdown();
+        try {
+            while (!executeur.awaitTermination(1, TimeUnit.MINUTES)) {
+                System.err.println("Réservations encore en cours : " + (enAttente.get() + enCours.get()));
+            }
+        } catch (InterruptedException e) {
+            executeur.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ExecuteurReservations[attente=" + getNombreEnAttente() + ", en cours=" + getNombreEnCours()
+                + ", réussies=" + getNombreReussies() + ", refusées=" + getNombreRefusees()
+                + ", échouées=" + getNombreEchouees() + ", latences " + latences + "]";
+    }
+}
@@ -0,0 +1,250 @@
+package org.example.service;
+
+import org.example.dao.EvenementDAO;
+import org.example.dao.ReservationDAO;
+import org.example.model.LigneVente;
+import org.example.util.Configuration;
+import org.example.util.Database;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Export des ventes (une ligne par siège vendu, avec sa réservation et son paiement) d'un
+ * événement ou de tout le catalogue, pour les organisateurs.
+ * <p>
+ * Les lignes sont lues en flux ({@link ReservationDAO#parcourirVentes}) et encodées directement
+ * dans un grand tampon hors tas ({@code export.tampon.octets}) vidé par un {@link FileChannel} :
+ * aucune ligne n'est gardée en mémoire et aucune chaîne n'est créée par ligne, le débit ne dépend
+ * que de la base et du disque. Le fichier est d'abord écrit sous un nom temporaire ({@code .part})
+ * puis renommé : un export interrompu ne laisse pas de fichier incomplet à sa place.
+ * <p>
+ * Formats :
+ * <ul>
+ *     <li>{@link Format#CSV} : en-tête puis
+ *     {@code event_id,reservation_id,client_id,category_id,seat,price,reservation_date,payment_id,payment_date},
+ *     prix avec un point décimal, dates {@code yyyy-MM-dd HH:mm:ss}, champs de paiement vides si la
+ *     réservation n'est pas payée ;</li>
+ *     <li>{@link Format#BINAIRE} : en-tête de 12 octets ({@link #SIGNATURE_BINAIRE},
+ *     {@link #VERSION_BINAIRE}, {@link #TAILLE_ENREGISTREMENT}) puis des enregistrements de
+ *     48 octets petit-boutistes : six {@code int} (événement, réservation, client, catégorie, siège,
+ *     paiement ou 0) et trois {@code long} (prix en centimes, dates de réservation et de paiement
+ *     en secondes depuis 1970 sans fuseau, {@link Long#MIN_VALUE} si non payée).</li>
+ * </ul>
+ * Le siège est l'identifiant de la place, ou son numéro pour un événement en plages.
+ */
+public class ExportVentesService {
+
+    public enum Format { CSV, BINAIRE }
+
+    /** « VNTE » lu comme un entier petit-boutiste. */
+    public static final int SIGNATURE_BINAIRE = 0x45544E56;
+    public static final int VERSION_BINAIRE = 1;
+    public static final int TAILLE_ENREGISTREMENT = 6 * Integer.BYTES + 3 * Long.BYTES;
+
+    private static final byte[] ENTETE_CSV = ("event_id,reservation_id,client_id,category_id,seat,price,"
+            + "reservation_date,payment_id,payment_date\n").getBytes(StandardCharsets.US_ASCII);
+    // neuf champs d'au plus 20 caractères et leurs séparateurs
+    private static final int LIGNE_CSV_MAX = 9 * 21;
+
+    private final ReservationDAO reservationDAO = new ReservationDAO();
+    private final EvenementDAO evenementDAO = new EvenementDAO();
+    private final int tailleTampon = Math.max(Configuration.entier("export.tampon.octets", 1 << 20), 4_096);
+
+    /**
+     * Exporte les ventes dans {@code fichier} (remplacé s'il existe).
+     *
+     * @param eventId événement à exporter, ou {@code null} pour tous.
+     * @return le nombre de sièges exportés.
+     * @throws IllegalArgumentException si l'événement n'existe pas.
+     */
+    public long exporter(Integer eventId, Path fichier, Format format) throws SQLException, IOException {
+        if (eventId != null && evenementDAO.findEnTeteById(eventId) == null) {
+            throw new IllegalArgumentException("Événement introuvable : " + eventId);
+        }
+
+        Path temporaire = fichier.resolveSibling(fichier.getFileName() + ".part");
+        long sieges;
+        try (FileChannel canal = FileChannel.open(temporaire, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Connection conn = Database.getConnection()) {
+            Ecriture ecriture = format == Format.CSV
+                    ? new EcritureCsv(canal, tailleTampon)
+                    : new EcritureBinaire(canal, tailleTampon);
+            ecriture.entete();
+            try {
+                reservationDAO.parcourirVentes(conn, eventId, ligne -> {
+                    try {
+                        ecriture.ecrire(ligne);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            ecriture.vider();
+            sieges = ecriture.sieges;
+        } catch (SQLException | IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaire);
+            throw e;
+        }
+
+        Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return sieges;
+    }
+
+    /**
+     * Encodage vers le canal à travers un tampon hors tas, vidé quand il ne peut plus recevoir une ligne.
+     */
+    private abstract static class Ecriture {
+        protected final ByteBuffer tampon;
+        private final FileChannel canal;
+        private final int ligneMax;
+        private long sieges;
+
+        private Ecriture(FileChannel canal, int tailleTampon, int ligneMax) {
+            this.canal = canal;
+            this.tampon = ByteBuffer.allocateDirect(tailleTampon);
+            this.ligneMax = ligneMax;
+        }
+
+        abstract void entete() throws IOException;
+
+        abstract void ecrireSiege(LigneVente ligne, int siege);
+
+        final void ecrire(LigneVente ligne) throws IOException {
+            for (int i = 0; i < ligne.getNombreSieges(); i++) {
+                if (tampon.remaining() < ligneMax) {
+                    vider();
+                }
+                ecrireSiege(ligne, ligne.getPremierSiege() + i);
+                sieges++;
+            }
+        }
+
+        final void vider() throws IOException {
+            tampon.flip();
+            while (tampon.hasRemaining()) {
+                canal.write(tampon);
+            }
+            tampon.clear();
+        }
+    }
+
+    private static final class EcritureCsv extends Ecriture {
+        private final byte[] chiffres = new byte[20];
+
+        private EcritureCsv(FileChannel canal, int tailleTampon) {
+            super(canal, tailleTampon, LIGNE_CSV_MAX);
+        }
+
+        @Override
+        void entete() {
+            tampon.put(ENTETE_CSV);
+        }
+
+        @Override
+        void ecrireSiege(LigneVente ligne, int siege) {
+            nombre(ligne.getIdEvenement());
+            tampon.put((byte) ',');
+            nombre(ligne.getIdReservation());
+            tampon.put((byte) ',');
+            nombre(ligne.getIdClient());
+            tampon.put((byte) ',');
+            nombre(ligne.getIdCategorie());
+            tampon.put((byte) ',');
+            nombre(siege);
+            tampon.put((byte) ',');
+            nombre(ligne.getPrixCentimes() / 100);
+            tampon.put((byte) '.');
+            deuxChiffres((int) (ligne.getPrixCentimes() % 100));
+            tampon.put((byte) ',');
+            date(ligne.getDateReservation());
+            tampon.put((byte) ',');
+            if (ligne.estPayee()) {
+                nombre(ligne.getIdPaiement());
+                tampon.put((byte) ',');
+                date(ligne.getDatePaiement());
+            } else {
+                tampon.put((byte) ',');
+            }
+            tampon.put((byte) '\n');
+        }
+
+        private void nombre(long valeur) {
+            if (valeur < 0) {
+                tampon.put((byte) '-');
+                valeur = -valeur;
+            }
+            int n = 0;
+            do {
+                chiffres[n++] = (byte) ('0' + valeur % 10);
+                valeur /= 10;
+            } while (valeur != 0);
+            while (n > 0) {
+                tampon.put(chiffres[--n]);
+            }
+        }
+
+        private void deuxChiffres(int valeur) {
+            tampon.put((byte) ('0' + valeur / 10));
+            tampon.put((byte) ('0' + valeur % 10));
+        }
+
+        private void date(LocalDateTime date) {
+            if (date == null) {
+                return;
+            }
+            nombre(date.getYear());
+            tampon.put((byte) '-');
+            deuxChiffres(date.getMonthValue());
+            tampon.put((byte) '-');
+            deuxChiffres(date.getDayOfMonth());
+            tampon.put((byte) ' ');
+            deuxChiffres(date.getHour());
+            tampon.put((byte) ':');
+            deuxChiffres(date.getMinute());
+            tampon.put((byte) ':');
+            deuxChiffres(date.getSecond());
+        }
+    }
+
+    private static final class EcritureBinaire extends Ecriture {
+
+        private EcritureBinaire(FileChannel canal, int tailleTampon) {
+            super(canal, tailleTampon, TAILLE_ENREGISTREMENT);
+            tampon.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        @Override
+        void entete() {
+            tampon.putInt(SIGNATURE_BINAIRE).putInt(VERSION_BINAIRE).putInt(TAILLE_ENREGISTREMENT);
+        }
+
+        @Override
+        void ecrireSiege(LigneVente ligne, int siege) {
+            tampon.putInt(ligne.getIdEvenement())
+                    .putInt(ligne.getIdReservation())
+                    .putInt(ligne.getIdClient())
+                    .putInt(ligne.getIdCategorie())
+                    .putInt(siege)
+                    .putInt(ligne.getIdPaiement())
+                    .putLong(ligne.getPrixCentimes())
+                    .putLong(ligne.getDateReservation().toEpochSecond(ZoneOffset.UTC))
+                    .putLong(ligne.estPayee() ? ligne.getDatePaiement().toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE);
+        }
+    }
+}
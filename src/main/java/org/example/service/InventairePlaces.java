@@ -0,0 +1,152 @@
+package org.example.service;
+
+import org.example.dao.PlaceDAO;
+import org.example.dao.PlageSiegeDAO;
+import org.example.model.ModelePlaces;
+import org.example.model.PlaceReservee;
+import org.example.model.StockPlaces;
+import org.example.util.Database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inventaire en mémoire des places libres, partagé par toute l'application.
+ * <p>
+ * Un {@link StockPlaces} est tenu par couple (événement, catégorie) : les réservations y
+ * prennent leurs places sans verrou ni requête, et une demande impossible est refusée
+ * sans toucher la base. La base reste la référence : l'inventaire est reconstruit au
+ * démarrage et un stock absent est chargé à la première demande. L'inventaire n'est partagé
+ * qu'à l'intérieur d'un processus : quand un stock n'a plus assez de places alors que les
+ * compteurs de la base en annoncent (annulations faites par une autre instance), il est
+ * rechargé ({@link #recharger}). Quand la base signale une
+ * place déjà vendue (contrainte d'unicité sur {@code reservation_has_place.place_id}), seules les
+ * places qu'elle a vendues sont retirées du stock en place ({@code ReservationService}) : le
+ * remplacer ferait oublier les places prises par des réservations pas encore validées. Les places
+ * en option ({@link RetenuesPlaces}), absentes de la base, restent prises dans un stock chargé.
+ */
+public class InventairePlaces {
+
+    private static final InventairePlaces PARTAGE = new InventairePlaces();
+
+    private final PlaceDAO placeDAO = new PlaceDAO();
+    private final PlageSiegeDAO plageSiegeDAO = new PlageSiegeDAO();
+    private final Map<Long, StockPlaces> stocks = new ConcurrentHashMap<>();
+
+    /**
+     * Retourne l'inventaire de l'application.
+     */
+    public static InventairePlaces partage() {
+        return PARTAGE;
+    }
+
+    /**
+     * Recharge tous les stocks depuis la base (au démarrage de l'application).
+     */
+    public void reconstruire() throws SQLException {
+        List<StockPlaces> charges;
+        try (Connection conn = Database.getConnection()) {
+            charges = new ArrayList<>(placeDAO.chargerStocks(conn));
+            charges.addAll(plageSiegeDAO.chargerStocks(conn));
+        }
+        stocks.clear();
+        for (StockPlaces stock : charges) {
+            stock.retirerPlaces(RetenuesPlaces.partage().idsRetenus(stock.getIdEvenement(), stock.getIdCategorie()));
+            stocks.put(cle(stock.getIdEvenement(), stock.getIdCategorie()), stock);
+        }
+    }
+
+    /**
+     * Retourne le stock d'un couple (événement, catégorie), chargé depuis la base s'il
+     * n'est pas encore en mémoire (événement créé après le démarrage par exemple).
+     */
+    public StockPlaces stock(int idEvenement, int idCategorie) throws SQLException {
+        StockPlaces stock = stocks.get(cle(idEvenement, idCategorie));
+        if (stock != null) {
+            return stock;
+        }
+        StockPlaces charge = charger(idEvenement, idCategorie);
+        // Si un autre thread l'a chargé entre-temps, on garde le sien : des places y sont peut-être déjà prises
+        StockPlaces existant = stocks.putIfAbsent(cle(idEvenement, idCategorie), charge);
+        return existant != null ? existant : charge;
+    }
+
+    /**
+     * Remplace un stock par son état en base (places rendues par une autre instance, annulations
+     * faites ailleurs), sauf si un autre thread l'a déjà remplacé. Les places prises dans l'ancien
+     * stock par des réservations pas encore validées y paraissent libres : si elles sont vendues
+     * deux fois, la contrainte d'unicité de la base refuse la seconde vente et elles sont retirées.
+     *
+     * @return le stock à utiliser désormais.
+     */
+    public StockPlaces recharger(StockPlaces perime) throws SQLException {
+        StockPlaces charge = charger(perime.getIdEvenement(), perime.getIdCategorie());
+        long cle = cle(perime.getIdEvenement(), perime.getIdCategorie());
+        if (stocks.replace(cle, perime, charge)) {
+            return charge;
+        }
+        StockPlaces courant = stocks.get(cle);
+        return courant != null ? courant : stock(perime.getIdEvenement(), perime.getIdCategorie());
+    }
+
+    /**
+     * Oublie les stocks d'un événement, par exemple après la conversion de ses places
+     * en plages : ils seront rechargés à la prochaine demande.
+     */
+    public void oublierEvenement(int idEvenement) {
+        stocks.keySet().removeIf(cle -> (int) (cle >>> 32) == idEvenement);
+    }
+
+    /**
+     * Remet à disposition les places d'une option expirée ou abandonnée. Le stock courant est
+     * utilisé (il a pu être rechargé depuis la prise des places, voir {@link #recharger}) ; s'il
+     * n'est pas chargé, rien n'est à faire.
+     */
+    public void rendre(int idEvenement, int idCategorie, int[] idsPlaces) {
+        StockPlaces stock = stocks.get(cle(idEvenement, idCategorie));
+        if (stock != null) {
+            stock.libererPlaces(Arrays.stream(idsPlaces).boxed().toList());
+        }
+    }
+
+    /**
+     * Remet à disposition les places d'une réservation annulée. À appeler une fois
+     * la suppression validée en base. Les stocks non chargés sont ignorés : ils liront
+     * l'état à jour lors de leur chargement.
+     */
+    public void liberer(List<PlaceReservee> places) {
+        Map<Long, List<Integer>> parStock = new HashMap<>();
+        for (PlaceReservee place : places) {
+            parStock.computeIfAbsent(cle(place.getIdEvenement(), place.getIdCategorie()), k -> new ArrayList<>())
+                    .add(place.getIdPlace());
+        }
+        parStock.forEach((cle, ids) -> {
+            StockPlaces stock = stocks.get(cle);
+            if (stock != null) {
+                stock.libererPlaces(ids);
+            }
+        });
+    }
+
+    private StockPlaces charger(int idEvenement, int idCategorie) throws SQLException {
+        StockPlaces stock;
+        try (Connection conn = Database.getConnection()) {
+            stock = plageSiegeDAO.lireModele(conn, idEvenement) == ModelePlaces.PLAGE
+                ? plageSiegeDAO.chargerStock(conn, idEvenement, idCategorie)
+                : placeDAO.chargerStock(conn, idEvenement, idCategorie);
+        }
+        // les places en option ne sont pas encore en base : elles restent prises dans le nouveau stock
+        stock.retirerPlaces(RetenuesPlaces.partage().idsRetenus(idEvenement, idCategorie));
+        return stock;
+    }
+
+    private static long cle(int idEvenement, int idCategorie) {
+        return ((long) idEvenement << 32) | (idCategorie & 0xFFFFFFFFL);
+    }
+}
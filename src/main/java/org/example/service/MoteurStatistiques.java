@@ -0,0 +1,115 @@
+package org.example.service;
+
+import org.example.model.EvenementResume;
+import org.example.model.EvenementStats;
+import org.example.model.Place;
+import org.example.model.SiegesEvenement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Calcule les statistiques d'un événement en un seul parcours de ses places.
+ * <p>
+ * Les compteurs sont des tableaux primitifs indexés par identifiant de catégorie
+ * (agrandis si besoin) : ni {@code Integer}, ni {@code HashMap}, ni recherche par nom
+ * pendant le parcours. Seules les lignes du résultat sont allouées, une par catégorie.
+ * Les places d'un événement ({@link SiegesEvenement}) sont lues directement dans leurs
+ * colonnes, sans créer de vue {@link Place}.
+ */
+public final class MoteurStatistiques {
+
+    // Les identifiants de catégorie sont des auto-incréments : quelques cases suffisent en général
+    private static final int TAILLE_INITIALE = 16;
+
+    private MoteurStatistiques() {
+    }
+
+    /**
+     * Capacité, places vendues, chiffre d'affaires et totaux par catégorie des places fournies.
+     */
+    public static EvenementStats calculer(List<Place> places) {
+        if (places == null || places.isEmpty()) {
+            return EvenementStats.vide();
+        }
+        if (places instanceof SiegesEvenement sieges) {
+            return calculer(sieges);
+        }
+
+        int[] capacites = new int[TAILLE_INITIALE];
+        int[] vendues = new int[TAILLE_INITIALE];
+        double[] ventes = new double[TAILLE_INITIALE];
+        String[] noms = new String[TAILLE_INITIALE];
+        int totalVendues = 0;
+        double chiffreAffaires = 0;
+
+        for (Place place : places) {
+            int idCategorie = place.getCategorie().getIdCategorie();
+            if (idCategorie >= capacites.length) {
+                int taille = Math.max(idCategorie + 1, capacites.length * 2);
+                capacites = Arrays.copyOf(capacites, taille);
+                vendues = Arrays.copyOf(vendues, taille);
+                ventes = Arrays.copyOf(ventes, taille);
+                noms = Arrays.copyOf(noms, taille);
+            }
+
+            capacites[idCategorie]++;
+            if (noms[idCategorie] == null) {
+                noms[idCategorie] = place.getCategorie().getNomCategorie();
+            }
+            if (!place.estDisponible()) {
+                vendues[idCategorie]++;
+                ventes[idCategorie] += place.getPrix();
+                totalVendues++;
+                chiffreAffaires += place.getPrix();
+            }
+        }
+
+        List<EvenementResume.LigneCategorie> categories = new ArrayList<>();
+        for (int id = 0; id < capacites.length; id++) {
+            if (capacites[id] > 0) {
+                categories.add(new EvenementResume.LigneCategorie(id, noms[id], capacites[id], vendues[id], ventes[id]));
+            }
+        }
+        return new EvenementStats(places.size(), totalVendues, chiffreAffaires, categories);
+    }
+
+    /**
+     * Même calcul sur les colonnes : les compteurs sont indexés par indice de catégorie
+     * de l'événement et les montants additionnés en centimes.
+     */
+    private static EvenementStats calculer(SiegesEvenement sieges) {
+        int nombreCategories = sieges.getNombreCategories();
+        int[] capacites = new int[nombreCategories];
+        int[] vendues = new int[nombreCategories];
+        long[] ventes = new long[nombreCategories];
+        BitSet reservees = sieges.getReservees();
+
+        for (int i = 0; i < sieges.size(); i++) {
+            capacites[sieges.getIndexCategorie(i)]++;
+        }
+        for (int i = reservees.nextSetBit(0); i >= 0; i = reservees.nextSetBit(i + 1)) {
+            int categorie = sieges.getIndexCategorie(i);
+            vendues[categorie]++;
+            ventes[categorie] += sieges.getPrixCentimes(i);
+        }
+
+        List<EvenementResume.LigneCategorie> categories = new ArrayList<>(nombreCategories);
+        int totalVendues = 0;
+        long chiffreAffaires = 0;
+        for (int c = 0; c < nombreCategories; c++) {
+            if (capacites[c] > 0) {
+                categories.add(new EvenementResume.LigneCategorie(sieges.getCategorieParIndex(c).getIdCategorie(),
+                        sieges.getCategorieParIndex(c).getNomCategorie(), capacites[c], vendues[c], ventes[c] / 100.0));
+                totalVendues += vendues[c];
+                chiffreAffaires += ventes[c];
+            }
+        }
+        // même ordre que le parcours générique : par identifiant de catégorie
+        categories.sort(Comparator.comparingInt(EvenementResume.LigneCategorie::getIdCategorie));
+        return new EvenementStats(sieges.size(), totalVendues, chiffreAffaires / 100.0, categories);
+    }
+}
@@ -1,18 +1,43 @@
 package org.example.service;
 
+import org.example.dao.InventaireCategorieDAO;
+import org.example.dao.PaiementDAO;
 import org.example.dao.PlaceDAO;
+import org.example.dao.PlageSiegeDAO;
+import org.example.dao.PlageSiegeDAO.SiegeDejaReserveException;
+import org.example.dao.PlaceDAO.VerrouillagePlaces;
 import org.example.dao.ReservationDAO;
+import org.example.exception.PaiementInvalideException;
 import org.example.exception.PlacesInsuffisantesException;
+import org.example.exception.RessourceIntrouvableException;
+import org.example.exception.RetenueExpireeException;
+import org.example.jfr.AnnulationEvent;
+import org.example.jfr.PaiementEvent;
+import org.example.jfr.ReservationEvent;
+import org.example.model.Categorie;
 import org.example.model.Client;
+import org.example.model.DisponibiliteCategorie;
 import org.example.model.Evenement;
+import org.example.model.ModelePlaces;
+import org.example.model.Paiement;
 import org.example.model.Place;
+import org.example.model.PlaceReservee;
 import org.example.model.Reservation;
+import org.example.model.Retenue;
+import org.example.model.StockPlaces;
+import org.example.util.Configuration;
 import org.example.util.Database;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -21,12 +46,29 @@ import java.util.stream.Collectors;
  */
 public class ReservationService {
 
+	// Nombre d'essais quand la base refuse des places que l'inventaire croyait libres
+	private static final int TENTATIVES_MAX = 3;
+	// Code d'erreur MySQL d'une clé en double, et contrainte qui interdit de vendre deux fois une place
+	private static final int ERREUR_DOUBLON = 1062;
+	private static final String CONTRAINTE_PLACE_VENDUE = "uk_rhp_place";
+
 	private final PlaceDAO placeDAO = new PlaceDAO();
 	private final ReservationDAO reservationDAO = new ReservationDAO();
+	private final InventaireCategorieDAO inventaireCategorieDAO = new InventaireCategorieDAO();
+	private final PlageSiegeDAO plageSiegeDAO = new PlageSiegeDAO();
+	private final PaiementDAO paiementDAO = new PaiementDAO();
+	private final InventairePlaces inventaire = InventairePlaces.partage();
+	private final CacheStatistiques statistiques = CacheStatistiques.partage();
+	private final RetenuesPlaces retenues = RetenuesPlaces.partage();
+	private final boolean inventaireActif = Configuration.booleen("reservation.inventaire.actif", true);
+	private final VerrouillagePlaces verrouillage = lireVerrouillage();
 
 	/**
 	 * Réserve `nbPlaces` places pour le client sur l'événement et la catégorie fournis.
-	 * Recherche des places libres, les marque réservées et crée la réservation (transactionnel).
+	 * Les places sont prises dans l'inventaire en mémoire (sans verrou en base) puis la réservation
+	 * est enregistrée ; si l'inventaire est désactivé, les places libres sont cherchées et verrouillées
+	 * en base selon {@code reservation.verrouillage} (FOR UPDATE ou SKIP LOCKED).
+	 * Chaque demande produit un événement JFR {@link ReservationEvent}.
 	 * @param client client demandeur
 	 * @param event événement sélectionné
 	 * @param categoryId identifiant de catégorie de siège
@@ -35,21 +77,461 @@ public class ReservationService {
 	 * @throws PlacesInsuffisantesException si le stock est insuffisant
 	 */
 	public Reservation reserver(Client client, Evenement event, int categoryId, int nbPlaces) throws PlacesInsuffisantesException {
+		ReservationEvent jfr = new ReservationEvent();
+		jfr.begin();
+		jfr.resultat = ReservationEvent.ERREUR;
 		try {
-			return Database.runInTransaction(conn -> {
-				List<Place> free = placeDAO.findFreePlacesByEventAndCategory(conn, event.getIdEvenement(), categoryId, nbPlaces);
-				if (free.size() < nbPlaces) {
-					throw new PlacesInsuffisantesException("Pas assez de places libres pour cette catégorie.");
+			Reservation reservation = inventaireActif
+				? reserverDepuisInventaire(client, event, categoryId, nbPlaces, jfr)
+				: reserverEnBase(client, event, categoryId, nbPlaces, jfr);
+			statistiques.enregistrerReservation(event.getIdEvenement(), categoryId,
+				reservation.getPlaces().size(), reservation.calculateTotalPrice());
+			jfr.resultat = ReservationEvent.RESERVEE;
+			jfr.reservationId = reservation.getIdReservation();
+			return reservation;
+		} catch (PlacesInsuffisantesException pie) {
+			jfr.resultat = ReservationEvent.PLACES_INSUFFISANTES;
+			throw pie;
+		} catch (Exception e) {
+			throw new RuntimeException("Erreur lors de la réservation: " + e.getMessage(), e);
+		} finally {
+			jfr.end();
+			if (jfr.shouldCommit()) {
+				jfr.evenementId = event.getIdEvenement();
+				jfr.categorieId = categoryId;
+				jfr.placesDemandees = nbPlaces;
+				jfr.commit();
+			}
+		}
+	}
+
+	private Reservation reserverDepuisInventaire(Client client, Evenement event, int categoryId, int nbPlaces, ReservationEvent jfr) throws Exception {
+		for (int tentative = 1; ; tentative++) {
+			jfr.tentatives = tentative;
+			PlacesPrises prises = prendrePlaces(event.getIdEvenement(), categoryId, nbPlaces);
+			StockPlaces stock = prises.stock();
+			int[] indices = prises.indices();
+
+			int[] ids = idsPlaces(stock, indices);
+			List<Place> places = places(stock, indices, event);
+
+			ModelePlaces modele = stock.getModele();
+			try {
+				int resId = Database.runInTransaction(conn -> modele == ModelePlaces.PLAGE
+					? reservationDAO.saveReservationSieges(conn, client.getIdUser(), event.getIdEvenement(), categoryId, ids)
+					: reservationDAO.saveReservation(conn, client.getIdUser(), Arrays.stream(ids).boxed().toList()));
+				return new Reservation(resId, client, event, places, LocalDateTime.now());
+			} catch (SQLException e) {
+				if (!estPlaceDejaVendue(e)) {
+					stock.rendre(indices);
+					throw e;
 				}
+				// La base a déjà vendu certaines de ces places (autre instance, modification manuelle) :
+				// elles restent hors du stock, les autres y retournent avant un nouvel essai
+				rendreSaufVendues(stock, indices, ids);
+				if (tentative == TENTATIVES_MAX) {
+					throw new PlacesInsuffisantesException("Les places libres de cette catégorie viennent d'être vendues.");
+				}
+			} catch (Exception e) {
+				stock.rendre(indices);
+				throw e;
+			}
+		}
+	}
 
-				List<Integer> ids = free.stream().map(Place::getIdPlace).collect(Collectors.toList());
-				int resId = reservationDAO.saveReservation(conn, client.getIdUser(), ids);
-				return new Reservation(resId, client, event, free, LocalDateTime.now());
-			});
+	/**
+	 * Places prises dans un stock : les index sont ceux de ce stock, qui a pu être rechargé.
+	 */
+	private record PlacesPrises(StockPlaces stock, int[] indices) {
+	}
+
+	/**
+	 * Prend `nbPlaces` places dans le stock en mémoire. Le stock n'est tenu que par ce processus :
+	 * s'il n'en a pas assez, les compteurs de la base sont relus, et s'ils annoncent assez de places
+	 * (annulées par une autre instance, par exemple), le stock est rechargé puis consulté à nouveau.
+	 * @throws PlacesInsuffisantesException si ni le stock ni la base n'ont assez de places
+	 */
+	private PlacesPrises prendrePlaces(int eventId, int categoryId, int nbPlaces) throws SQLException, PlacesInsuffisantesException {
+		StockPlaces stock = inventaire.stock(eventId, categoryId);
+		int[] indices = stock.reserver(nbPlaces);
+		if (indices == null && baseAnnonceAssez(stock, nbPlaces)) {
+			stock = inventaire.recharger(stock);
+			indices = stock.reserver(nbPlaces);
+		}
+		if (indices == null) {
+			throw new PlacesInsuffisantesException("Pas assez de places libres pour cette catégorie.");
+		}
+		return new PlacesPrises(stock, indices);
+	}
+
+	/**
+	 * Indique si la base a plus de places libres que le stock et assez pour la demande, une fois
+	 * déduites les places en option (absentes de la base).
+	 */
+	private boolean baseAnnonceAssez(StockPlaces stock, int nbPlaces) throws SQLException {
+		OptionalInt restantes;
+		try (Connection conn = Database.getConnection()) {
+			restantes = inventaireCategorieDAO.placesRestantes(conn, stock.getIdEvenement(), stock.getIdCategorie());
+		}
+		if (restantes.isEmpty()) {
+			return false;
+		}
+		int libresEnBase = restantes.getAsInt()
+			- retenues.placesRetenuesParCategorie(stock.getIdEvenement()).getOrDefault(stock.getIdCategorie(), 0);
+		return libresEnBase >= nbPlaces && libresEnBase > stock.getNombreLibres();
+	}
+
+	/**
+	 * Rend au stock les places prises dont la base ne connaît pas la vente. Le stock n'est pas
+	 * relu : les places que d'autres acheteurs y ont prises et pas encore validées restent prises.
+	 * Si la base ne répond pas, toutes les places sont rendues.
+	 */
+	private void rendreSaufVendues(StockPlaces stock, int[] indices, int[] ids) throws SQLException {
+		Set<Integer> vendues;
+		try {
+			vendues = new HashSet<>(lirePlacesVendues(stock.getModele(), stock.getIdEvenement(), stock.getIdCategorie(), ids));
+		} catch (SQLException e) {
+			stock.rendre(indices);
+			throw e;
+		}
+		stock.rendre(Arrays.stream(indices).filter(index -> !vendues.contains(stock.getIdPlace(index))).toArray());
+	}
+
+	private List<Integer> lirePlacesVendues(ModelePlaces modele, int eventId, int categoryId, int[] ids) throws SQLException {
+		try (Connection conn = Database.getConnection()) {
+			return modele == ModelePlaces.PLAGE
+				? plageSiegeDAO.filtrerSiegesVendus(conn, eventId, categoryId, ids)
+				: placeDAO.filtrerPlacesVendues(conn, ids);
+		}
+	}
+
+	private static int[] idsPlaces(StockPlaces stock, int[] indices) {
+		int[] ids = new int[indices.length];
+		for (int i = 0; i < indices.length; i++) {
+			ids[i] = stock.getIdPlace(indices[i]);
+		}
+		return ids;
+	}
+
+	private static List<Place> places(StockPlaces stock, int[] indices, Evenement event) {
+		List<Place> places = new ArrayList<>(indices.length);
+		Categorie categorie = new Categorie(stock.getIdCategorie(), stock.getNomCategorie());
+		for (int index : indices) {
+			places.add(new Place(stock.getIdPlace(index), stock.getPrix(index), categorie, event));
+		}
+		return places;
+	}
+
+	/**
+	 * Indique si les places sont mises en option avant le paiement ({@link #retenir}) : il faut
+	 * l'inventaire en mémoire et une durée {@code reservation.retenue.dureeSecondes} positive.
+	 */
+	public boolean retenuesActives() {
+		return inventaireActif && retenues.estActif();
+	}
+
+	/**
+	 * Met `nbPlaces` places en option pour le client, le temps de son paiement : elles sont prises
+	 * dans l'inventaire en mémoire, sans aucune écriture en base, et remises en vente à l'échéance
+	 * si le paiement n'est pas enregistré ({@link #confirmerRetenue}) ou s'il est abandonné
+	 * ({@link #relacherRetenue}).
+	 * @return réservation sans identifiant, portant l'option ({@link Reservation#getRetenue()})
+	 * @throws PlacesInsuffisantesException si le stock est insuffisant
+	 * @throws IllegalStateException si les options sont désactivées ({@link #retenuesActives()})
+	 */
+	public Reservation retenir(Client client, Evenement event, int categoryId, int nbPlaces) throws PlacesInsuffisantesException {
+		if (!retenuesActives()) {
+			throw new IllegalStateException("Les options de places sont désactivées.");
+		}
+		ReservationEvent jfr = new ReservationEvent();
+		jfr.begin();
+		jfr.resultat = ReservationEvent.ERREUR;
+		try {
+			jfr.tentatives = 1;
+			PlacesPrises prises = prendrePlaces(event.getIdEvenement(), categoryId, nbPlaces);
+			StockPlaces stock = prises.stock();
+			int[] indices = prises.indices();
+			Retenue retenue = retenues.retenir(client, event, categoryId, stock.getModele(),
+				idsPlaces(stock, indices), places(stock, indices, event));
+			jfr.resultat = ReservationEvent.RETENUE;
+			return new Reservation(retenue);
 		} catch (PlacesInsuffisantesException pie) {
+			jfr.resultat = ReservationEvent.PLACES_INSUFFISANTES;
 			throw pie;
 		} catch (Exception e) {
 			throw new RuntimeException("Erreur lors de la réservation: " + e.getMessage(), e);
+		} finally {
+			jfr.end();
+			if (jfr.shouldCommit()) {
+				jfr.evenementId = event.getIdEvenement();
+				jfr.categorieId = categoryId;
+				jfr.placesDemandees = nbPlaces;
+				jfr.commit();
+			}
+		}
+	}
+
+	/**
+	 * Transforme l'option d'un paiement validé en réservation payée : la réservation, ses places
+	 * et le paiement sont écrits dans une seule transaction. Si l'écriture échoue, l'option reste
+	 * valable jusqu'à son échéance et le paiement peut être retenté.
+	 * @param paiement paiement dont la réservation porte une option ; son identifiant et celui de la réservation sont renseignés
+	 * @return le paiement enregistré
+	 * @throws RetenueExpireeException si l'option a expiré, a été relâchée ou est déjà en paiement
+	 * @throws PlacesInsuffisantesException si une autre instance a vendu les places entre-temps
+	 */
+	public Paiement confirmerRetenue(Paiement paiement) throws Exception {
+		Reservation reservation = paiement.getReservation();
+		Retenue retenue = reservation.getRetenue();
+		retenues.reclamer(retenue);
+
+		int clientId = retenue.getClient().getIdUser();
+		int eventId = retenue.getEvenement().getIdEvenement();
+		int[] ids = retenue.getIdsPlaces();
+		int[] enregistres;
+		try {
+			enregistres = Database.runInTransaction(conn -> {
+				int resId = retenue.getModele() == ModelePlaces.PLAGE
+					? reservationDAO.saveReservationSieges(conn, clientId, eventId, retenue.getIdCategorie(), ids)
+					: reservationDAO.saveReservation(conn, clientId, Arrays.stream(ids).boxed().toList());
+				return new int[]{resId, paiementDAO.inserer(conn, paiement, resId)};
+			});
+		} catch (SQLException e) {
+			if (!estPlaceDejaVendue(e)) {
+				retenues.reprendre(retenue);
+				throw e;
+			}
+			// Une autre instance a vendu certaines de ces places : l'option est perdue, seules les places
+			// encore invendues en base retournent dans le stock
+			retenues.perdre(retenue);
+			List<Integer> vendues;
+			try {
+				vendues = lirePlacesVendues(retenue.getModele(), eventId, retenue.getIdCategorie(), ids);
+			} catch (SQLException lecture) {
+				// sans réponse de la base, toutes les places retournent au stock : une place déjà vendue
+				// sera refusée par la contrainte d'unicité et retirée à la prochaine réservation
+				inventaire.rendre(eventId, retenue.getIdCategorie(), ids);
+				lecture.addSuppressed(e);
+				throw lecture;
+			}
+			inventaire.rendre(eventId, retenue.getIdCategorie(),
+				Arrays.stream(ids).filter(id -> !vendues.contains(id)).toArray());
+			throw new PlacesInsuffisantesException("Les places de l'option ont été vendues entre-temps.");
+		} catch (Exception e) {
+			retenues.reprendre(retenue);
+			throw e;
+		}
+
+		retenues.confirmer(retenue);
+		reservation.confirmer(enregistres[0]);
+		paiement.setId(enregistres[1]);
+		statistiques.enregistrerReservation(eventId, retenue.getIdCategorie(), ids.length, reservation.calculateTotalPrice());
+		return paiement;
+	}
+
+	/**
+	 * Paie une option du client désignée par son identifiant (API), après validation de la carte et du montant.
+	 * @return le paiement enregistré, avec son identifiant et celui de la réservation créée
+	 * @throws RetenueExpireeException si l'option n'existe plus
+	 * @throws PaiementInvalideException si les données de paiement sont invalides
+	 */
+	public Paiement payerRetenue(int retenueId, Client client, String nomCB, String numeroCB) throws Exception {
+		PaiementEvent jfr = new PaiementEvent();
+		jfr.begin();
+		jfr.resultat = PaiementEvent.ERREUR;
+		Paiement paiement = null;
+		try {
+			paiement = new Paiement(nomCB, numeroCB, new Reservation(retenues.trouver(retenueId, client)));
+			jfr.montant = paiement.getReservation().calculateTotalPrice();
+			try {
+				paiement.verifierDonneesDePaiement();
+			} catch (PaiementInvalideException e) {
+				jfr.resultat = PaiementEvent.INVALIDE;
+				throw e;
+			}
+			confirmerRetenue(paiement);
+			jfr.resultat = PaiementEvent.ENREGISTRE;
+			return paiement;
+		} finally {
+			jfr.end();
+			if (jfr.shouldCommit()) {
+				jfr.reservationId = paiement != null ? paiement.getReservation().getIdReservation() : 0;
+				jfr.commit();
+			}
+		}
+	}
+
+	/**
+	 * Abandon du paiement : les places de l'option sont remises en vente tout de suite.
+	 * @return {@code false} si l'option avait déjà expiré ou est en cours de paiement
+	 * @throws SecurityException si l'option appartient à un autre client
+	 */
+	public boolean relacherRetenue(int retenueId, Client client) {
+		return retenues.relacher(retenueId, client);
+	}
+
+	/**
+	 * Catégories d'un événement avec leurs places restantes, places en option déduites : les
+	 * compteurs de la base ne les décomptent qu'au paiement.
+	 */
+	public List<DisponibiliteCategorie> listerDisponibilites(int eventId) throws SQLException {
+		List<DisponibiliteCategorie> categories = inventaireCategorieDAO.listDisponibilites(eventId);
+		Map<Integer, Integer> retenuesParCategorie = retenues.placesRetenuesParCategorie(eventId);
+		if (retenuesParCategorie.isEmpty()) {
+			return categories;
+		}
+		List<DisponibiliteCategorie> disponibilites = new ArrayList<>(categories.size());
+		for (DisponibiliteCategorie categorie : categories) {
+			Integer retenuesCategorie = retenuesParCategorie.get(categorie.getIdCategorie());
+			disponibilites.add(retenuesCategorie != null ? categorie.avecRetenues(retenuesCategorie) : categorie);
+		}
+		return disponibilites;
+	}
+
+	private Reservation reserverEnBase(Client client, Evenement event, int categoryId, int nbPlaces, ReservationEvent jfr) throws Exception {
+		for (int tentative = 1; ; tentative++) {
+			jfr.tentatives = tentative;
+			try {
+				return Database.runInTransaction(conn -> {
+					// catégorie complète : refus sur simple lecture du compteur, sans parcourir ni verrouiller de places
+					OptionalInt restantes = inventaireCategorieDAO.placesRestantes(conn, event.getIdEvenement(), categoryId);
+					if (restantes.isPresent() && restantes.getAsInt() < nbPlaces) {
+						throw new PlacesInsuffisantesException("Pas assez de places libres pour cette catégorie.");
+					}
+
+					boolean enPlages = plageSiegeDAO.lireModele(conn, event.getIdEvenement()) == ModelePlaces.PLAGE;
+					long debutVerrous = System.nanoTime();
+					List<Place> free = enPlages
+						? plageSiegeDAO.verrouillerSiegesLibres(conn, event, categoryId, nbPlaces)
+						: placeDAO.findFreePlacesByEventAndCategory(conn, event.getIdEvenement(), categoryId, nbPlaces, verrouillage);
+					jfr.attenteVerrous += System.nanoTime() - debutVerrous;
+					if (free.size() < nbPlaces) {
+						throw new PlacesInsuffisantesException("Pas assez de places libres pour cette catégorie.");
+					}
+
+					int resId;
+					if (enPlages) {
+						int[] numeros = free.stream().mapToInt(Place::getIdPlace).toArray();
+						resId = reservationDAO.saveReservationSieges(conn, client.getIdUser(), event.getIdEvenement(), categoryId, numeros);
+					} else {
+						List<Integer> ids = free.stream().map(Place::getIdPlace).collect(Collectors.toList());
+						resId = reservationDAO.saveReservation(conn, client.getIdUser(), ids);
+					}
+					return new Reservation(resId, client, event, free, LocalDateTime.now());
+				});
+			} catch (SQLException e) {
+				// Une place vue libre a pu être vendue entre la lecture et son verrouillage : on recommence
+				if (!estPlaceDejaVendue(e)) {
+					throw e;
+				}
+				if (tentative == TENTATIVES_MAX) {
+					throw new PlacesInsuffisantesException("Les places libres de cette catégorie viennent d'être vendues.");
+				}
+			}
+		}
+	}
+
+	private static VerrouillagePlaces lireVerrouillage() {
+		String valeur = Configuration.texte("reservation.verrouillage", VerrouillagePlaces.SKIP_LOCKED.name());
+		try {
+			return VerrouillagePlaces.valueOf(valeur.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			System.err.println("Valeur invalide pour reservation.verrouillage : " + valeur);
+			return VerrouillagePlaces.SKIP_LOCKED;
+		}
+	}
+
+	/**
+	 * Seul un doublon sur {@code uk_rhp_place} (erreur MySQL 1062), ou un siège de plage déjà
+	 * réservé ({@link SiegeDejaReserveException}), signifie qu'une place est déjà liée à une autre
+	 * réservation. Les autres violations de contrainte (clé étrangère, colonne obligatoire...) ne
+	 * se corrigent pas en recommençant.
+	 */
+	private static boolean estPlaceDejaVendue(SQLException e) {
+		for (Throwable t = e; t != null; t = t.getCause()) {
+			if (t instanceof SiegeDejaReserveException) {
+				return true;
+			}
+		}
+		return estDoublon(e, CONTRAINTE_PLACE_VENDUE);
+	}
+
+	/**
+	 * Cherche un doublon de clé (erreur MySQL 1062) dans l'erreur et ses causes.
+	 * @param cle nom de la clé dans le message d'erreur, ou {@code null} pour n'importe quelle clé
+	 */
+	private static boolean estDoublon(SQLException e, String cle) {
+		for (Throwable t = e; t != null; t = t.getCause()) {
+			// un lot en échec chaîne l'erreur de chaque ligne par getNextException
+			for (SQLException sql = t instanceof SQLException s ? s : null; sql != null; sql = sql.getNextException()) {
+				if (sql.getErrorCode() == ERREUR_DOUBLON
+						&& (cle == null || (sql.getMessage() != null && sql.getMessage().contains(cle)))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Relit une réservation du client avec ses places et leurs prix (sans le détail de l'événement).
+	 * @throws SecurityException si la réservation appartient à un autre client
+	 * @throws RessourceIntrouvableException si la réservation n'existe pas
+	 */
+	public Reservation chargerReservation(int reservationId, Client client) throws SQLException {
+		try (Connection conn = Database.getConnection()) {
+			LocalDateTime dateReservation;
+			try (var ps = conn.prepareStatement("SELECT client_id, reservation_date FROM reservation WHERE reservation_id = ?")) {
+				ps.setInt(1, reservationId);
+				try (var rs = ps.executeQuery()) {
+					if (!rs.next()) throw new RessourceIntrouvableException("Réservation introuvable.");
+					if (rs.getInt("client_id") != client.getIdUser()) throw new SecurityException("Réservation non autorisée.");
+					dateReservation = rs.getTimestamp("reservation_date").toLocalDateTime();
+				}
+			}
+			List<Place> places = new ArrayList<>();
+			for (PlaceReservee place : reservationDAO.getPlacesReservees(conn, reservationId)) {
+				places.add(new Place(place.getIdPlace(), place.getPrix(), new Categorie(place.getIdCategorie(), null), null));
+			}
+			return new Reservation(reservationId, client, null, places, dateReservation);
+		}
+	}
+
+	/**
+	 * Enregistre le paiement d'une réservation du client, après validation de la carte et du montant.
+	 * @return le paiement enregistré, avec son identifiant
+	 * @throws PaiementInvalideException si les données de paiement sont invalides ou si la réservation est déjà payée
+	 */
+	public Paiement payer(int reservationId, Client client, String nomCB, String numeroCB) throws SQLException, PaiementInvalideException {
+		PaiementEvent jfr = new PaiementEvent();
+		jfr.begin();
+		jfr.resultat = PaiementEvent.ERREUR;
+		try {
+			Paiement paiement = new Paiement(nomCB, numeroCB, chargerReservation(reservationId, client));
+			jfr.montant = paiement.getReservation().calculateTotalPrice();
+			try {
+				paiement.verifierDonneesDePaiement();
+			} catch (PaiementInvalideException e) {
+				jfr.resultat = PaiementEvent.INVALIDE;
+				throw e;
+			}
+			try (Connection conn = Database.getConnection()) {
+				paiement.setId(paiementDAO.inserer(conn, paiement, reservationId));
+			} catch (SQLException e) {
+				// payment n'a qu'une clé unique en plus de son identifiant généré : reservation_id
+				if (estDoublon(e, null)) {
+					throw new PaiementInvalideException("Paiement non enregistré : la réservation est déjà payée.");
+				}
+				throw e;
+			}
+			jfr.resultat = PaiementEvent.ENREGISTRE;
+			return paiement;
+		} finally {
+			jfr.end();
+			if (jfr.shouldCommit()) {
+				jfr.reservationId = reservationId;
+				jfr.commit();
+			}
 		}
 	}
 
@@ -60,8 +542,11 @@ public class ReservationService {
 	 * @throws Exception si l'annulation est refusée ou échoue
 	 */
 	public void annulerReservation(int reservationId, Client client) throws Exception {
+		AnnulationEvent jfr = new AnnulationEvent();
+		jfr.begin();
+		jfr.resultat = AnnulationEvent.ERREUR;
 		try {
-			Database.runInTransaction(conn -> {
+			List<PlaceReservee> liberees = Database.runInTransaction(conn -> {
 				// vérifier propriétaire
 				try (var ps = conn.prepareStatement("SELECT client_id FROM reservation WHERE reservation_id = ?")) {
 					ps.setInt(1, reservationId);
@@ -69,16 +554,19 @@ public class ReservationService {
 						if (rs.next()) {
 							int clientId = rs.getInt("client_id");
 							if (clientId != client.getIdUser()) throw new SecurityException("Réservation non autorisée.");
-						} else throw new IllegalArgumentException("Réservation introuvable.");
+						} else throw new RessourceIntrouvableException("Réservation introuvable.");
 					}
 				}
 
-				// récupère place ids
-				List<Integer> placeIds = reservationDAO.getPlaceIdsForReservation(conn, reservationId);
+				// récupère les places (et leur stock) pour les remettre dans l'inventaire
+				List<PlaceReservee> places = reservationDAO.getPlacesReservees(conn, reservationId);
 
-				// vérifier règle annulation : récupérer event date via join
-				try (var ps = conn.prepareStatement("SELECT e.event_date FROM event e JOIN place p ON e.event_id = p.event_id JOIN reservation_has_place rhp ON p.place_id = rhp.place_id WHERE rhp.reservation_id = ? LIMIT 1")) {
+				// vérifier règle annulation : récupérer event date via join (places ou plages de sièges)
+				try (var ps = conn.prepareStatement("SELECT e.event_date FROM event e WHERE e.event_id IN ("
+						+ "SELECT p.event_id FROM place p JOIN reservation_has_place rhp ON p.place_id = rhp.place_id WHERE rhp.reservation_id = ? "
+						+ "UNION SELECT sr.event_id FROM seat_range sr JOIN reservation_seat_range rsr ON sr.range_id = rsr.range_id WHERE rsr.reservation_id = ?) LIMIT 1")) {
 					ps.setInt(1, reservationId);
+					ps.setInt(2, reservationId);
 					try (var rs = ps.executeQuery()) {
 						if (rs.next()) {
 							var evTs = rs.getTimestamp("event_date");
@@ -92,11 +580,25 @@ public class ReservationService {
 
 				// supprimer la réservation (cela supprime aussi les lignes dans reservation_has_place)
 				reservationDAO.deleteReservation(conn, reservationId);
-				return null;
+				return places;
 			});
+			// seulement après le commit : une place n'est jamais proposée tant qu'elle est encore réservée en base
+			if (inventaireActif) inventaire.liberer(liberees);
+			statistiques.enregistrerAnnulation(liberees);
+			jfr.resultat = AnnulationEvent.ANNULEE;
+			jfr.placesLiberees = liberees.size();
 		} catch (Exception e) {
-			if (e instanceof org.example.exception.AnnulationTardiveException) throw e;
+			if (e instanceof org.example.exception.AnnulationTardiveException) {
+				jfr.resultat = AnnulationEvent.TARDIVE;
+				throw e;
+			}
 			throw new RuntimeException("Erreur annulation: " + e.getMessage(), e);
+		} finally {
+			jfr.end();
+			if (jfr.shouldCommit()) {
+				jfr.reservationId = reservationId;
+				jfr.commit();
+			}
 		}
 	}
 }
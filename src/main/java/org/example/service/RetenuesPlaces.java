@@ -0,0 +1,265 @@
+package org.example.service;
+
+import org.example.exception.RetenueExpireeException;
+import org.example.jfr.RetenueEvent;
+import org.example.model.Client;
+import org.example.model.Evenement;
+import org.example.model.ModelePlaces;
+import org.example.model.Place;
+import org.example.model.Retenue;
+import org.example.util.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Options de places en attente de paiement, partagées par toute l'application.
+ * <p>
+ * Une option garde en mémoire des places prises dans l'{@link InventairePlaces} pendant
+ * {@code reservation.retenue.dureeSecondes} : rien n'est écrit en base avant le paiement, et un
+ * paiement abandonné (fenêtre fermée, client parti) ne coûte aucune écriture. Les échéances sont
+ * rangées dans une {@link DelayQueue} vidée par un thread démon qui remet les places en stock.
+ * Une option payée ou relâchée reste dans la file jusqu'à son échéance, où elle est ignorée :
+ * la retirer coûterait un parcours de la file à chaque paiement.
+ * <p>
+ * Les compteurs (options créées, confirmées, expirées, relâchées) et la jauge des places
+ * retenues sont exposés par {@code GET /api/etat} ; chaque fin d'option produit aussi un
+ * événement JFR {@link RetenueEvent}.
+ */
+public class RetenuesPlaces {
+
+    private static final RetenuesPlaces PARTAGE =
+            creer(Duration.ofSeconds(Configuration.entierLong("reservation.retenue.dureeSecondes", 600)));
+
+    private final Duration duree;
+    private final DelayQueue<Retenue> echeances = new DelayQueue<>();
+    private final Map<Integer, Retenue> actives = new ConcurrentHashMap<>();
+    private final AtomicInteger dernierId = new AtomicInteger();
+    private final LongAdder creees = new LongAdder();
+    private final LongAdder confirmees = new LongAdder();
+    private final LongAdder expirees = new LongAdder();
+    private final LongAdder relachees = new LongAdder();
+    private final LongAdder placesRetenues = new LongAdder();
+
+    private RetenuesPlaces(Duration duree) {
+        this.duree = duree;
+    }
+
+    /**
+     * Crée les options et, si elles sont actives, démarre le thread qui les fait expirer
+     * (une fois l'objet construit).
+     *
+     * @param duree durée de vie d'une option ; nulle, les options sont désactivées.
+     */
+    public static RetenuesPlaces creer(Duration duree) {
+        RetenuesPlaces retenues = new RetenuesPlaces(duree);
+        if (retenues.estActif()) {
+            Thread.ofPlatform().daemon().name("retenues-expiration").start(retenues::expirerEnBoucle);
+        }
+        return retenues;
+    }
+
+    /**
+     * Retourne les options de l'application.
+     */
+    public static RetenuesPlaces partage() {
+        return PARTAGE;
+    }
+
+    public boolean estActif() {
+        return !duree.isZero() && !duree.isNegative();
+    }
+
+    /**
+     * Enregistre une option sur des places déjà prises dans le stock de la catégorie.
+     *
+     * @param idsPlaces identifiants des places, ou numéros de sièges en {@link ModelePlaces#PLAGE}.
+     */
+    public Retenue retenir(Client client, Evenement evenement, int idCategorie, ModelePlaces modele,
+                           int[] idsPlaces, List<Place> places) {
+        Retenue retenue = new Retenue(dernierId.incrementAndGet(), client, evenement, idCategorie, modele,
+                idsPlaces, places, duree.toNanos());
+        actives.put(retenue.getIdRetenue(), retenue);
+        placesRetenues.add(idsPlaces.length);
+        creees.increment();
+        echeances.add(retenue);
+        return retenue;
+    }
+
+    /**
+     * Retourne une option encore en cours du client.
+     *
+     * @throws RetenueExpireeException si l'option n'existe pas ou plus.
+     * @throws SecurityException       si l'option appartient à un autre client.
+     */
+    public Retenue trouver(int idRetenue, Client client) throws RetenueExpireeException {
+        Retenue retenue = actives.get(idRetenue);
+        if (retenue == null || retenue.estExpiree()) {
+            throw new RetenueExpireeException("Option " + idRetenue + " introuvable ou expirée : les places ont été remises en vente.");
+        }
+        if (retenue.getClient().getIdUser() != client.getIdUser()) {
+            throw new SecurityException("Option non autorisée.");
+        }
+        return retenue;
+    }
+
+    /**
+     * Réserve l'option au paiement en cours ; l'expiration l'ignore jusqu'à
+     * {@link #confirmer}, {@link #perdre} ou {@link #reprendre}.
+     *
+     * @throws RetenueExpireeException si l'option est expirée, relâchée ou déjà en paiement.
+     */
+    public void reclamer(Retenue retenue) throws RetenueExpireeException {
+        if (!retenue.reclamer()) {
+            throw new RetenueExpireeException("Option " + retenue.getIdRetenue() + " expirée ou déjà en cours de paiement.");
+        }
+        if (retenue.estExpiree()) {
+            reprendre(retenue);
+            throw new RetenueExpireeException("Option " + retenue.getIdRetenue() + " expirée : les places ont été remises en vente.");
+        }
+    }
+
+    /**
+     * Paiement enregistré : les places sont vendues et restent hors du stock.
+     */
+    public void confirmer(Retenue retenue) {
+        if (retenue.terminerConfirmation()) {
+            cloturer(retenue, confirmees, RetenueEvent.CONFIRMEE);
+        }
+    }
+
+    /**
+     * La base a refusé les places (vendues par une autre instance) : l'option est abandonnée
+     * sans remettre ses places en stock ; l'appelant n'y rend que celles que la base n'a pas vendues.
+     */
+    public void perdre(Retenue retenue) {
+        if (retenue.terminerConfirmation()) {
+            cloturer(retenue, relachees, RetenueEvent.PERDUE);
+        }
+    }
+
+    /**
+     * Enregistrement du paiement échoué : l'option redevient active jusqu'à son échéance,
+     * ou rend ses places tout de suite si elle est déjà passée.
+     */
+    public void reprendre(Retenue retenue) {
+        retenue.reactiver();
+        if (retenue.estExpiree()) {
+            expirer(retenue);
+        }
+    }
+
+    /**
+     * Abandon du paiement par le client : les places sont remises en vente sans attendre l'échéance.
+     * Une option inconnue (déjà expirée) est ignorée.
+     *
+     * @return {@code false} si l'option était déjà terminée ou en cours de paiement.
+     * @throws SecurityException si l'option appartient à un autre client.
+     */
+    public boolean relacher(int idRetenue, Client client) {
+        Retenue retenue = actives.get(idRetenue);
+        if (retenue == null) {
+            return false;
+        }
+        if (retenue.getClient().getIdUser() != client.getIdUser()) {
+            throw new SecurityException("Option non autorisée.");
+        }
+        if (!retenue.terminer()) {
+            return false;
+        }
+        InventairePlaces.partage().rendre(retenue.getEvenement().getIdEvenement(), retenue.getIdCategorie(), retenue.getIdsPlaces());
+        cloturer(retenue, relachees, RetenueEvent.RELACHEE);
+        return true;
+    }
+
+    /**
+     * Identifiants des places en option pour une catégorie d'un événement, à retirer d'un stock chargé depuis la base.
+     */
+    public List<Integer> idsRetenus(int idEvenement, int idCategorie) {
+        List<Integer> ids = new ArrayList<>();
+        for (Retenue retenue : actives.values()) {
+            if (retenue.getEvenement().getIdEvenement() == idEvenement && retenue.getIdCategorie() == idCategorie) {
+                for (int id : retenue.getIdsPlaces()) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Nombre de places en option par catégorie d'un événement : elles sont hors du stock en
+     * mémoire mais pas encore décomptées dans {@code event_category_inventory}.
+     */
+    public Map<Integer, Integer> placesRetenuesParCategorie(int idEvenement) {
+        Map<Integer, Integer> parCategorie = new HashMap<>();
+        for (Retenue retenue : actives.values()) {
+            if (retenue.getEvenement().getIdEvenement() == idEvenement) {
+                parCategorie.merge(retenue.getIdCategorie(), retenue.getIdsPlaces().length, Integer::sum);
+            }
+        }
+        return parCategorie;
+    }
+
+    private void expirerEnBoucle() {
+        try {
+            while (true) {
+                expirer(echeances.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void expirer(Retenue retenue) {
+        // payée, relâchée ou en cours de paiement : rien à rendre
+        if (!retenue.terminer()) {
+            return;
+        }
+        try {
+            InventairePlaces.partage().rendre(retenue.getEvenement().getIdEvenement(), retenue.getIdCategorie(), retenue.getIdsPlaces());
+        } catch (RuntimeException e) {
+            System.err.println("Erreur à l'expiration de l'option " + retenue.getIdRetenue() + " : " + e.getMessage());
+        }
+        cloturer(retenue, expirees, RetenueEvent.EXPIREE);
+    }
+
+    private void cloturer(Retenue retenue, LongAdder compteur, String issue) {
+        actives.remove(retenue.getIdRetenue(), retenue);
+        placesRetenues.add(-retenue.getIdsPlaces().length);
+        compteur.increment();
+
+        RetenueEvent jfr = new RetenueEvent();
+        if (jfr.shouldCommit()) {
+            jfr.retenueId = retenue.getIdRetenue();
+            jfr.evenementId = retenue.getEvenement().getIdEvenement();
+            jfr.places = retenue.getIdsPlaces().length;
+            jfr.issue = issue;
+            jfr.duree = retenue.getAgeNanos();
+            jfr.commit();
+        }
+    }
+
+    public Duration getDuree() { return duree; }
+    public int getNombreActives() { return actives.size(); }
+    public long getPlacesRetenues() { return placesRetenues.sum(); }
+    public long getNombreCreees() { return creees.sum(); }
+    public long getNombreConfirmees() { return confirmees.sum(); }
+    public long getNombreExpirees() { return expirees.sum(); }
+    /** Options relâchées par le client ou perdues au profit d'une autre instance. */
+    public long getNombreRelachees() { return relachees.sum(); }
+
+    @Override
+    public String toString() {
+        return "RetenuesPlaces[actives " + getNombreActives() + " ; places " + getPlacesRetenues()
+                + " ; créées " + getNombreCreees() + " ; confirmées " + getNombreConfirmees()
+                + " ; expirées " + getNombreExpirees() + " ; relâchées " + getNombreRelachees() + "]";
+    }
+}
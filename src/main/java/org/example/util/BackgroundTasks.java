@@ -0,0 +1,111 @@
+package org.example.util;
+
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Exécution des accès à la base hors du thread JavaFX.
+ * <p>
+ * Chaque travail tourne dans une {@link Task} sur un thread virtuel : un appel JDBC bloqué
+ * n'immobilise qu'un thread virtuel, jamais l'interface. Le résultat (ou l'erreur) est remis
+ * au thread JavaFX, où il peut modifier les composants. Le nombre de requêtes simultanées
+ * reste borné par le pool de connexions.
+ */
+public final class BackgroundTasks {
+
+    private static final ExecutorService EXECUTEUR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("acces-donnees-", 0).factory());
+
+    private BackgroundTasks() {
+    }
+
+    /**
+     * Travail exécuté en arrière-plan : typiquement un appel de service ou de DAO.
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * Lance un travail en arrière-plan.
+     *
+     * @param work       travail à exécuter hors du thread JavaFX.
+     * @param onSuccess  reçoit le résultat, sur le thread JavaFX.
+     * @param onFailure  reçoit l'exception levée, sur le thread JavaFX.
+     * @param indicateur composant affiché pendant l'exécution (indicateur de progression), ou {@code null}.
+     * @return la tâche, qui peut être annulée : ni {@code onSuccess} ni {@code onFailure} ne sont alors appelés.
+     * Annuler par {@code cancel(false)}, pour ne pas interrompre un appel JDBC en cours (voir {@link Slot#cancel()}).
+     */
+    public static <T> Task<T> run(Work<T> work, Consumer<? super T> onSuccess, Consumer<Throwable> onFailure, Node indicateur) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
+        task.setOnFailed(e -> onFailure.accept(task.getException()));
+        if (indicateur != null) {
+            indicateur.visibleProperty().bind(task.runningProperty());
+        }
+        EXECUTEUR.execute(task);
+        return task;
+    }
+
+    /**
+     * Interrompt les travaux en cours (fermeture de l'application).
+     */
+    public static void shutdown() {
+        EXECUTEUR.shutdownNow();
+    }
+
+    /**
+     * Emplacement d'un écran qui n'affiche que le résultat du dernier chargement demandé :
+     * lancer un travail annule le précédent, dont le résultat devenu inutile est ignoré
+     * (changement de filtre, nouvelle sélection...). À utiliser depuis le thread JavaFX.
+     */
+    public static class Slot {
+
+        private Task<?> courante;
+
+        public <T> Task<T> run(Work<T> work, Consumer<? super T> onSuccess, Consumer<Throwable> onFailure, Node indicateur) {
+            cancel();
+            Task<T> task = BackgroundTasks.run(work, onSuccess, onFailure, indicateur);
+            courante = task;
+            return task;
+        }
+
+        /**
+         * {@code true} tant que le dernier travail lancé n'est pas terminé. L'état JavaFX de la tâche
+         * est lu, pas {@code isDone()} : il passe à {@code SUCCEEDED} avant l'appel de {@code onSuccess},
+         * alors que la tâche sous-jacente peut ne pas être encore close à ce moment-là.
+         */
+        public boolean isBusy() {
+            if (courante == null) {
+                return false;
+            }
+            return switch (courante.getState()) {
+                case READY, SCHEDULED, RUNNING -> true;
+                case SUCCEEDED, FAILED, CANCELLED -> false;
+            };
+        }
+
+        /**
+         * Annule le dernier travail lancé s'il n'est pas terminé. Le thread n'est pas interrompu :
+         * un thread virtuel interrompu pendant une lecture réseau ferme sa socket, ce qui tuerait
+         * la connexion du pool en pleine requête. L'appel JDBC va donc à son terme et son
+         * résultat est ignoré.
+         */
+        public void cancel() {
+            if (courante != null) {
+                courante.cancel(false);
+                courante = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Classe utilitaire donnant accès aux paramètres de l'application.
+ * Les valeurs sont lues dans le fichier {@code application.properties}
+ * du classpath ; une propriété système du même nom a toujours la priorité,
+ * ce qui permet de tout surcharger au lancement avec {@code -Dcle=valeur}.
+ */
+public final class Configuration {
+
+    private static final Properties PROPRIETES = charger();
+
+    private Configuration() {
+    }
+
+    private static Properties charger() {
+        Properties proprietes = new Properties();
+        try (InputStream in = Configuration.class.getResourceAsStream("/application.properties")) {
+            if (in != null) {
+                proprietes.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("Impossible de lire application.properties : " + e.getMessage());
+        }
+        return proprietes;
+    }
+
+    /**
+     * Retourne la valeur d'un paramètre texte.
+     *
+     * @param cle          nom du paramètre.
+     * @param parDefaut    valeur utilisée si le paramètre n'est défini nulle part.
+     * @return la valeur trouvée, sans espaces superflus.
+     */
+    public static String texte(String cle, String parDefaut) {
+        String valeur = System.getProperty(cle, PROPRIETES.getProperty(cle));
+        return valeur == null ? parDefaut : valeur.trim();
+    }
+
+    /**
+     * Retourne la valeur d'un paramètre entier (valeur par défaut si absent ou invalide).
+     */
+    public static int entier(String cle, int parDefaut) {
+        String valeur = texte(cle, null);
+        if (valeur == null || valeur.isEmpty()) {
+            return parDefaut;
+        }
+        try {
+            return Integer.parseInt(valeur);
+        } catch (NumberFormatException e) {
+            System.err.println("Valeur entière invalide pour " + cle + " : " + valeur);
+            return parDefaut;
+        }
+    }
+
+    /**
+     * Retourne la valeur d'un paramètre entier long (valeur par défaut si absent ou invalide).
+     */
+    public static long entierLong(String cle, long parDefaut) {
+        String valeur = texte(cle, null);
+        if (valeur == null || valeur.isEmpty()) {
+            return parDefaut;
+        }
+        try {
+            return Long.parseLong(valeur);
+        } catch (NumberFormatException e) {
+            System.err.println("Valeur entière invalide pour " + cle + " : " + valeur);
+            return parDefaut;
+        }
+    }
+
+    /**
+     * Retourne la valeur d'un paramètre booléen ({@code true}/{@code false}).
+     */
+    public static boolean booleen(String cle, boolean parDefaut) {
+        String valeur = texte(cle, null);
+        if (valeur == null || valeur.isEmpty()) {
+            return parDefaut;
+        }
+        return Boolean.parseBoolean(valeur);
+    }
+}
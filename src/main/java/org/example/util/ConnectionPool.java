@@ -0,0 +1,750 @@
+package org.example.util;
+
+import org.example.jfr.AcquisitionConnexionEvent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool borné de connexions JDBC.
+ * <p>
+ * Les connexions physiques sont ouvertes une fois puis réutilisées : l'appelant reçoit
+ * une connexion "enveloppe" dont la méthode {@code close()} rend la connexion au pool
+ * au lieu de la fermer. Le code existant ({@code try (Connection c = Database.getConnection())})
+ * fonctionne donc sans modification.
+ * <p>
+ * Le pool gère :
+ * <ul>
+ *     <li>une taille minimale et maximale,</li>
+ *     <li>un délai maximal d'attente quand toutes les connexions sont prêtées,</li>
+ *     <li>la fermeture des connexions inactives depuis trop longtemps,</li>
+ *     <li>la validation d'une connexion restée au repos avant de la prêter,</li>
+ *     <li>la détection des connexions empruntées et jamais rendues (fuites),</li>
+ *     <li>un cache des instructions préparées par connexion physique.</li>
+ * </ul>
+ * Des jauges (connexions actives, inactives, threads en attente, histogramme
+ * des temps d'acquisition) permettent de suivre son état en direct.
+ * <p>
+ * {@code prepareStatement(sql)} et {@code prepareStatement(sql, autoGeneratedKeys)} rendent
+ * elles aussi une enveloppe : sa fermeture remet l'instruction dans le cache de la connexion
+ * (clé : texte SQL et option des clés générées) au lieu de la fermer, et le même texte
+ * préparé plus tard sur cette connexion n'est pas analysé à nouveau par le driver (ni par
+ * le serveur avec les instructions préparées côté serveur de MySQL). Les DAO n'ont donc rien
+ * à changer. Chaque texte SQL a ses {@link StatementStats} (réussite du cache, durées d'exécution)
+ * et chaque opération de DAO ses {@link QueryMetrics} (durées, lignes, erreurs, requêtes lentes).
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final System.Logger LOG = System.getLogger(ConnectionPool.class.getName());
+    private static final int DELAI_VALIDATION_SECONDES = 2;
+    // au-delà, les textes SQL nouveaux (listes IN de longueur variable...) partagent une seule entrée
+    private static final int MAX_REQUETES_SUIVIES = 1_000;
+    private static final String AUTRES_REQUETES = "(autres requêtes)";
+
+    private final String url;
+    private final String utilisateur;
+    private final String motDePasse;
+    private final int tailleMin;
+    private final int tailleMax;
+    private final long delaiAcquisitionMs;
+    private final long delaiInactiviteNanos;
+    private final long intervalleValidationNanos;
+    private final long seuilFuiteNanos;
+    private final int tailleCacheInstructions;
+    private final QueryMetrics metriques;
+
+    private final Semaphore permis;
+    private final LinkedBlockingDeque<ConnexionPhysique> inactives = new LinkedBlockingDeque<>();
+    private final Set<ConnexionPhysique> empruntees = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger total = new AtomicInteger();
+    private final LatencyHistogram tempsAcquisition = new LatencyHistogram();
+    private final LongAdder nbDelaisDepasses = new LongAdder();
+    private final LongAdder nbFuites = new LongAdder();
+    private final ConcurrentMap<String, StatementStats> statistiquesRequetes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService maintenance;
+    private volatile boolean ferme;
+
+    /**
+     * Crée le pool et ouvre immédiatement les {@code tailleMin} premières connexions
+     * (en tâche de fond, pour ne pas bloquer le démarrage si la base est lente).
+     *
+     * @param url                  URL JDBC de la base.
+     * @param utilisateur          identifiant de connexion.
+     * @param motDePasse           mot de passe.
+     * @param tailleMin            nombre de connexions gardées ouvertes.
+     * @param tailleMax            nombre maximal de connexions ouvertes simultanément.
+     * @param delaiAcquisitionMs   attente maximale pour obtenir une connexion.
+     * @param delaiInactiviteMs    au-delà, une connexion inactive est fermée (si le minimum est respecté).
+     * @param intervalleValidationMs une connexion au repos depuis plus longtemps est validée avant d'être prêtée.
+     * @param seuilFuiteMs         au-delà, une connexion empruntée est signalée comme fuite (0 = désactivé).
+     * @param tailleCacheInstructions nombre d'instructions préparées gardées par connexion (0 = pas de cache).
+     * @param seuilRequeteLenteMs  au-delà, une exécution est journalisée avec ses paramètres (0 = désactivé).
+     */
+    public ConnectionPool(String url, String utilisateur, String motDePasse,
+                          int tailleMin, int tailleMax,
+                          long delaiAcquisitionMs, long delaiInactiviteMs,
+                          long intervalleValidationMs, long seuilFuiteMs,
+                          int tailleCacheInstructions, long seuilRequeteLenteMs) {
+        if (tailleMax < 1 || tailleMin < 0 || tailleMin > tailleMax) {
+            throw new IllegalArgumentException("Tailles de pool invalides : min=" + tailleMin + ", max=" + tailleMax);
+        }
+        if (tailleCacheInstructions < 0) {
+            throw new IllegalArgumentException("Taille de cache d'instructions invalide : " + tailleCacheInstructions);
+        }
+        this.url = url;
+        this.utilisateur = utilisateur;
+        this.motDePasse = motDePasse;
+        this.tailleMin = tailleMin;
+        this.tailleMax = tailleMax;
+        this.delaiAcquisitionMs = delaiAcquisitionMs;
+        this.delaiInactiviteNanos = TimeUnit.MILLISECONDS.toNanos(delaiInactiviteMs);
+        this.intervalleValidationNanos = TimeUnit.MILLISECONDS.toNanos(intervalleValidationMs);
+        this.seuilFuiteNanos = TimeUnit.MILLISECONDS.toNanos(seuilFuiteMs);
+        this.tailleCacheInstructions = tailleCacheInstructions;
+        this.metriques = new QueryMetrics(seuilRequeteLenteMs);
+        this.permis = new Semaphore(tailleMax, true);
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("pool-connexions-maintenance").factory());
+        maintenance.execute(this::completerMinimum);
+        maintenance.scheduleWithFixedDelay(this::entretenir, 5, 5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Emprunte une connexion. Elle doit être rendue avec {@code close()}
+     * (idéalement via un try-with-resources).
+     *
+     * @return une connexion prête à l'emploi, en mode auto-commit.
+     * @throws SQLTimeoutException si aucune connexion ne se libère dans le délai configuré.
+     * @throws SQLException        si une nouvelle connexion ne peut pas être ouverte.
+     */
+    public Connection getConnection() throws SQLException {
+        if (ferme) {
+            throw new SQLException("Le pool de connexions est fermé.");
+        }
+
+        AcquisitionConnexionEvent evenement = new AcquisitionConnexionEvent();
+        evenement.begin();
+        long debut = System.nanoTime();
+        boolean obtenu;
+        try {
+            obtenu = permis.tryAcquire(delaiAcquisitionMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            enregistrer(evenement, false);
+            throw new SQLException("Attente d'une connexion interrompue.", e);
+        }
+        if (!obtenu) {
+            nbDelaisDepasses.increment();
+            enregistrer(evenement, false);
+            throw new SQLTimeoutException("Aucune connexion disponible après " + delaiAcquisitionMs
+                    + " ms (" + tailleMax + " connexions déjà prêtées).");
+        }
+
+        try {
+            ConnexionPhysique connexion = prendreOuCreer();
+            connexion.marquerEmprunt(seuilFuiteNanos > 0);
+            empruntees.add(connexion);
+            tempsAcquisition.record(System.nanoTime() - debut);
+            enregistrer(evenement, true);
+            return connexion.envelopper();
+        } catch (SQLException | RuntimeException e) {
+            permis.release();
+            enregistrer(evenement, false);
+            throw e;
+        }
+    }
+
+    private void enregistrer(AcquisitionConnexionEvent evenement, boolean obtenue) {
+        evenement.end();
+        if (evenement.shouldCommit()) {
+            evenement.obtenue = obtenue;
+            evenement.actives = getActiveCount();
+            evenement.enAttente = getWaitingCount();
+            evenement.max = tailleMax;
+            evenement.commit();
+        }
+    }
+
+    private ConnexionPhysique prendreOuCreer() throws SQLException {
+        ConnexionPhysique connexion;
+        while ((connexion = inactives.pollFirst()) != null) {
+            if (estValide(connexion)) {
+                return connexion;
+            }
+            detruire(connexion);
+        }
+        return creer();
+    }
+
+    /**
+     * Une connexion utilisée très récemment est considérée valide sans aller-retour réseau ;
+     * au-delà de l'intervalle de validation on demande au driver de la vérifier.
+     */
+    private boolean estValide(ConnexionPhysique connexion) {
+        if (System.nanoTime() - connexion.derniereUtilisation < intervalleValidationNanos) {
+            return true;
+        }
+        try {
+            return connexion.physique.isValid(DELAI_VALIDATION_SECONDES);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private ConnexionPhysique creer() throws SQLException {
+        Connection physique = DriverManager.getConnection(url, utilisateur, motDePasse);
+        total.incrementAndGet();
+        return new ConnexionPhysique(physique);
+    }
+
+    private void detruire(ConnexionPhysique connexion) {
+        total.decrementAndGet();
+        try {
+            connexion.physique.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * Appelé quand l'appelant ferme son enveloppe : la connexion est remise à zéro
+     * puis replacée en tête de la file (les connexions "chaudes" sont réutilisées en premier).
+     */
+    private void rendre(ConnexionPhysique connexion) {
+        empruntees.remove(connexion);
+        try {
+            if (!ferme && connexion.reinitialiser()) {
+                connexion.derniereUtilisation = System.nanoTime();
+                inactives.offerFirst(connexion);
+            } else {
+                detruire(connexion);
+            }
+        } finally {
+            permis.release();
+        }
+    }
+
+    private void completerMinimum() {
+        while (!ferme && total.get() < tailleMin) {
+            try {
+                inactives.offerLast(creer());
+            } catch (SQLException e) {
+                LOG.log(System.Logger.Level.WARNING, "Impossible d'ouvrir une connexion pour le pool : {0}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Tâche périodique : ferme les connexions inactives trop anciennes,
+     * complète jusqu'au minimum et signale les fuites.
+     */
+    private void entretenir() {
+        try {
+            long maintenant = System.nanoTime();
+
+            Iterator<ConnexionPhysique> plusAnciennes = inactives.descendingIterator();
+            while (plusAnciennes.hasNext() && total.get() > tailleMin) {
+                ConnexionPhysique connexion = plusAnciennes.next();
+                if (maintenant - connexion.derniereUtilisation > delaiInactiviteNanos && inactives.remove(connexion)) {
+                    detruire(connexion);
+                }
+            }
+
+            completerMinimum();
+
+            if (seuilFuiteNanos > 0) {
+                for (ConnexionPhysique connexion : empruntees) {
+                    if (!connexion.fuiteSignalee && maintenant - connexion.empruntA > seuilFuiteNanos) {
+                        connexion.fuiteSignalee = true;
+                        nbFuites.increment();
+                        LOG.log(System.Logger.Level.WARNING, "Connexion empruntée depuis plus de "
+                                + TimeUnit.NANOSECONDS.toMillis(seuilFuiteNanos) + " ms sans être rendue.", connexion.origine);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.log(System.Logger.Level.ERROR, "Erreur lors de l'entretien du pool de connexions.", e);
+        }
+    }
+
+    /**
+     * Ferme toutes les connexions inactives ; celles encore prêtées seront fermées à leur retour.
+     */
+    @Override
+    public void close() {
+        ferme = true;
+        maintenance.shutdownNow();
+        ConnexionPhysique connexion;
+        while ((connexion = inactives.pollFirst()) != null) {
+            detruire(connexion);
+        }
+    }
+
+    // --- Jauges --------------------------------------------------------------
+
+    /** Nombre de connexions actuellement prêtées. */
+    public int getActiveCount() { return empruntees.size(); }
+
+    /** Nombre de connexions ouvertes et disponibles. */
+    public int getIdleCount() { return inactives.size(); }
+
+    /** Nombre de threads qui attendent une connexion. */
+    public int getWaitingCount() { return permis.getQueueLength(); }
+
+    /** Nombre total de connexions physiques ouvertes. */
+    public int getTotalCount() { return total.get(); }
+
+    public int getMaxSize() { return tailleMax; }
+
+    /** Distribution des temps d'obtention d'une connexion. */
+    public LatencyHistogram getAcquisitionTimes() { return tempsAcquisition; }
+
+    /** Nombre de demandes abandonnées faute de connexion libre dans le délai. */
+    public long getTimeoutCount() { return nbDelaisDepasses.sum(); }
+
+    /** Nombre de fuites signalées depuis le démarrage. */
+    public long getLeakCount() { return nbFuites.sum(); }
+
+    /**
+     * Statistiques par texte SQL, de la requête la plus exécutée à la moins exécutée.
+     */
+    public List<StatementStats> getStatementStats() {
+        List<StatementStats> stats = new ArrayList<>(statistiquesRequetes.values());
+        stats.sort(Comparator.comparingLong((StatementStats s) -> s.getExecutionTimes().getCount()).reversed());
+        return stats;
+    }
+
+    /** Mesures par opération de DAO. */
+    public QueryMetrics getQueryMetrics() { return metriques; }
+
+    /** Part des préparations servies par le cache, toutes requêtes confondues. */
+    public double getStatementCacheHitRatio() {
+        long lus = 0;
+        long total = 0;
+        for (StatementStats stats : statistiquesRequetes.values()) {
+            lus += stats.getHitCount();
+            total += stats.getHitCount() + stats.getMissCount();
+        }
+        return total == 0 ? 0 : (double) lus / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "Pool[actives=%d, inactives=%d, attente=%d, total=%d/%d, delais=%d, fuites=%d, "
+                        + "cache instructions=%.1f%%, acquisition: %s]",
+                getActiveCount(), getIdleCount(), getWaitingCount(), getTotalCount(), tailleMax,
+                getTimeoutCount(), getLeakCount(), getStatementCacheHitRatio() * 100, tempsAcquisition);
+    }
+
+    private StatementStats statistiques(String sql) {
+        StatementStats stats = statistiquesRequetes.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        String cle = statistiquesRequetes.size() < MAX_REQUETES_SUIVIES ? sql : AUTRES_REQUETES;
+        return statistiquesRequetes.computeIfAbsent(cle, StatementStats::new);
+    }
+
+    // --- Connexion physique et enveloppe --------------------------------------
+
+    /**
+     * Connexion réellement ouverte vers la base, avec ses informations de suivi.
+     */
+    private final class ConnexionPhysique {
+        private final Connection physique;
+        private volatile long derniereUtilisation = System.nanoTime();
+        private volatile long empruntA;
+        private volatile Throwable origine;
+        private volatile boolean fuiteSignalee;
+        // utilisé seulement par l'emprunteur courant : pas de verrou
+        private final LinkedHashMap<CleInstruction, InstructionPreparee> instructions =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<CleInstruction, InstructionPreparee> eldest) {
+                        if (size() > tailleCacheInstructions) {
+                            eldest.getValue().evincer();
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+
+        private ConnexionPhysique(Connection physique) {
+            this.physique = physique;
+        }
+
+        /**
+         * Rend l'instruction en cache pour ce texte si elle est libre, sinon en prépare une.
+         * Une instruction déjà utilisée (deux préparations imbriquées du même texte) est doublée
+         * d'une instruction hors cache, fermée normalement.
+         */
+        private PreparedStatement preparer(Connection enveloppe, String sql, int clesGenerees) throws SQLException {
+            StatementStats stats = statistiques(sql);
+            QueryMetrics.Operation operation = metriques.operationCourante();
+            CleInstruction cle = new CleInstruction(sql, clesGenerees);
+            InstructionPreparee instruction = instructions.get(cle);
+            if (instruction != null && instruction.physique.isClosed()) {
+                instructions.remove(cle);
+                instruction = null;
+            }
+            if (instruction != null && !instruction.utilisee) {
+                stats.recordHit();
+            } else {
+                stats.recordMiss();
+                boolean enCache = instruction == null && tailleCacheInstructions > 0;
+                PreparedStatement preparee;
+                try {
+                    preparee = physique.prepareStatement(sql, clesGenerees);
+                } catch (SQLException e) {
+                    metriques.enregistrerErreur(operation);
+                    throw e;
+                }
+                instruction = new InstructionPreparee(preparee, stats, enCache);
+                if (enCache) {
+                    instructions.put(cle, instruction);
+                }
+            }
+            return instruction.emprunter(enveloppe, operation);
+        }
+
+        private void marquerEmprunt(boolean memoriserOrigine) {
+            empruntA = System.nanoTime();
+            fuiteSignalee = false;
+            origine = memoriserOrigine ? new Throwable("Connexion empruntée ici") : null;
+        }
+
+        /**
+         * Annule une éventuelle transaction laissée ouverte et remet l'auto-commit.
+         *
+         * @return {@code false} si la connexion est inutilisable et doit être détruite.
+         */
+        private boolean reinitialiser() {
+            try {
+                if (physique.isClosed()) {
+                    return false;
+                }
+                if (!physique.getAutoCommit()) {
+                    physique.rollback();
+                    physique.setAutoCommit(true);
+                }
+                physique.clearWarnings();
+                for (InstructionPreparee instruction : instructions.values()) {
+                    if (instruction.utilisee) {
+                        instruction.liberer();
+                    }
+                }
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private Connection envelopper() {
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Emprunt(this));
+        }
+    }
+
+    /**
+     * Enveloppe remise à l'appelant : une nouvelle instance par emprunt, pour qu'une
+     * connexion déjà rendue ne puisse plus être utilisée par erreur.
+     */
+    private final class Emprunt implements InvocationHandler {
+        private final ConnexionPhysique connexion;
+        private final AtomicBoolean rendue = new AtomicBoolean();
+
+        private Emprunt(ConnexionPhysique connexion) {
+            this.connexion = connexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (rendue.compareAndSet(false, true)) {
+                        rendre(connexion);
+                    }
+                    return null;
+                case "isClosed":
+                    return rendue.get() || connexion.physique.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConnexionPool[" + connexion.physique + (rendue.get() ? ", rendue]" : "]");
+                default:
+                    break;
+            }
+
+            if (rendue.get()) {
+                throw new SQLException("Cette connexion a déjà été rendue au pool.");
+            }
+            if (method.getName().equals("prepareStatement")) {
+                Class<?>[] types = method.getParameterTypes();
+                if (types.length == 1) {
+                    return connexion.preparer((Connection) proxy, (String) args[0], Statement.NO_GENERATED_KEYS);
+                }
+                if (types.length == 2 && types[1] == int.class) {
+                    return connexion.preparer((Connection) proxy, (String) args[0], (Integer) args[1]);
+                }
+            }
+            try {
+                return method.invoke(connexion.physique, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // --- Instructions préparées -----------------------------------------------
+
+    private record CleInstruction(String sql, int clesGenerees) {
+    }
+
+    /**
+     * Instruction réellement préparée sur une connexion physique, en cache ou non.
+     */
+    private final class InstructionPreparee {
+        private final PreparedStatement physique;
+        private final StatementStats stats;
+        private final List<ResultSet> resultats = new ArrayList<>();
+        private boolean enCache;
+        private boolean utilisee;
+        // lecture en flux demandée (Database.lireEnFlux) : à défaire avant la réutilisation
+        private boolean tailleBlocModifiee;
+
+        private InstructionPreparee(PreparedStatement physique, StatementStats stats, boolean enCache) {
+            this.physique = physique;
+            this.stats = stats;
+            this.enCache = enCache;
+        }
+
+        private PreparedStatement emprunter(Connection enveloppe, QueryMetrics.Operation operation) {
+            utilisee = true;
+            return (PreparedStatement) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new UtilisationInstruction(this, enveloppe, operation));
+        }
+
+        /**
+         * Fin d'utilisation : ferme les résultats encore ouverts et efface paramètres et lot,
+         * ou ferme l'instruction si elle n'est pas (ou plus) en cache.
+         */
+        private void liberer() throws SQLException {
+            utilisee = false;
+            try {
+                for (ResultSet resultat : resultats) {
+                    resultat.close();
+                }
+            } finally {
+                resultats.clear();
+            }
+            if (!enCache) {
+                physique.close();
+                return;
+            }
+            physique.clearParameters();
+            physique.clearBatch();
+            physique.clearWarnings();
+            if (tailleBlocModifiee) {
+                tailleBlocModifiee = false;
+                physique.setFetchSize(0);
+            }
+        }
+
+        /** Sortie du cache : fermée tout de suite si libre, sinon à la fin de son utilisation. */
+        private void evincer() {
+            enCache = false;
+            if (!utilisee) {
+                try {
+                    physique.close();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Enveloppe d'instruction remise à l'appelant, une par préparation : mesure les exécutions,
+     * garde les paramètres liés pour le journal des requêtes lentes et remet l'instruction
+     * en cache à sa fermeture.
+     */
+    private final class UtilisationInstruction implements InvocationHandler {
+        private final InstructionPreparee instruction;
+        private final Connection enveloppe;
+        private final QueryMetrics.Operation operation;
+        // indice 0 inutilisé : les paramètres JDBC sont numérotés à partir de 1
+        private Object[] parametres;
+        private boolean fermee;
+
+        private UtilisationInstruction(InstructionPreparee instruction, Connection enveloppe, QueryMetrics.Operation operation) {
+            this.instruction = instruction;
+            this.enveloppe = enveloppe;
+            this.operation = operation;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nom = method.getName();
+            switch (nom) {
+                case "close":
+                    if (!fermee) {
+                        fermee = true;
+                        instruction.liberer();
+                    }
+                    return null;
+                case "isClosed":
+                    return fermee || instruction.physique.isClosed();
+                case "getConnection":
+                    return enveloppe;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Instruction[" + instruction.stats.getSql() + (fermee ? ", fermée]" : "]");
+                default:
+                    break;
+            }
+
+            if (fermee) {
+                throw new SQLException("Cette instruction a déjà été fermée.");
+            }
+            if (nom.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer position) {
+                memoriserParametre(position, nom.equals("setNull") ? null : args[1]);
+            } else if (nom.equals("clearParameters")) {
+                parametres = null;
+            } else if (nom.equals("setFetchSize")) {
+                instruction.tailleBlocModifiee = true;
+            }
+            if (!nom.startsWith("execute")) {
+                Object resultat = invoquer(method, args);
+                if (resultat instanceof ResultSet resultats) {
+                    instruction.resultats.add(resultats);
+                    if (nom.equals("getResultSet")) {
+                        return compterLignes(resultats);
+                    }
+                }
+                return resultat;
+            }
+
+            // une nouvelle exécution ferme les résultats de la précédente
+            instruction.resultats.clear();
+            long debut = System.nanoTime();
+            Object resultat = null;
+            boolean erreur = true;
+            try {
+                resultat = invoquer(method, args);
+                erreur = false;
+            } finally {
+                long duree = System.nanoTime() - debut;
+                instruction.stats.recordExecution(duree);
+                metriques.enregistrer(operation, instruction.stats.getSql(), parametres, duree, lignesModifiees(resultat), erreur);
+            }
+            if (resultat instanceof ResultSet resultats) {
+                instruction.resultats.add(resultats);
+                return compterLignes(resultats);
+            }
+            return resultat;
+        }
+
+        private Object invoquer(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(instruction.physique, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void memoriserParametre(int position, Object valeur) {
+            if (position < 1) {
+                return;
+            }
+            if (parametres == null) {
+                parametres = new Object[Math.max(position + 1, 8)];
+            } else if (position >= parametres.length) {
+                parametres = Arrays.copyOf(parametres, Math.max(position + 1, parametres.length * 2));
+            }
+            parametres[position] = valeur;
+        }
+
+        private static long lignesModifiees(Object resultat) {
+            return switch (resultat) {
+                case Integer nombre -> Math.max(nombre, 0);
+                case Long nombre -> Math.max(nombre, 0);
+                case int[] lot -> Arrays.stream(lot).filter(n -> n > 0).asLongStream().sum();
+                case long[] lot -> Arrays.stream(lot).filter(n -> n > 0).sum();
+                case null, default -> 0;
+            };
+        }
+
+        private ResultSet compterLignes(ResultSet resultats) {
+            return (ResultSet) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, new LignesLues(resultats, operation));
+        }
+    }
+
+    /**
+     * Enveloppe de résultat qui compte les lignes lues pour l'opération.
+     */
+    private static final class LignesLues implements InvocationHandler {
+        private final ResultSet physique;
+        private final QueryMetrics.Operation operation;
+
+        private LignesLues(ResultSet physique, QueryMetrics.Operation operation) {
+            this.physique = physique;
+            this.operation = operation;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object resultat;
+            try {
+                resultat = method.invoke(physique, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (resultat == Boolean.TRUE && method.getName().equals("next")) {
+                operation.ajouterLignes(1);
+            }
+            return resultat;
+        }
+    }
+}
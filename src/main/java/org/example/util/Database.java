@@ -1,14 +1,17 @@
 package org.example.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 
 /**
  * Classe utilitaire responsable de la gestion de la connexion à la base de données.
- * Elle fournit une méthode statique permettant d'établir une connexion JDBC
+ * Elle fournit une méthode statique permettant d'obtenir une connexion JDBC
  * à la base MySQL utilisée par l'application.
+ * <p>
+ * Les connexions proviennent d'un {@link ConnectionPool} partagé, créé au premier appel
+ * et paramétré par les clés {@code db.*} de {@link Configuration}.
  */
 public class Database {
 
@@ -17,14 +20,83 @@ public class Database {
     private static final String PASSWORD = "";
 
     /**
-     * Établit et retourne une connexion à la base de données MySQL.
+     * Initialisation paresseuse et thread-safe du pool (idiome du "holder").
+     */
+    private static final class PoolHolder {
+        private static final ConnectionPool POOL = new ConnectionPool(
+                urlJdbc(),
+                Configuration.texte("db.user", USER),
+                Configuration.texte("db.password", PASSWORD),
+                Configuration.entier("db.pool.min", 2),
+                Configuration.entier("db.pool.max", 10),
+                Configuration.entierLong("db.pool.acquisitionTimeoutMs", 5_000),
+                Configuration.entierLong("db.pool.idleTimeoutMs", 300_000),
+                Configuration.entierLong("db.pool.validationIntervalMs", 1_000),
+                Configuration.entierLong("db.pool.leakThresholdMs", 60_000),
+                Configuration.entier("db.pool.statementCacheSize", 100),
+                Configuration.entierLong("db.slowQueryThresholdMs", 500));
+    }
+
+    /**
+     * URL configurée ; pour MySQL, les instructions préparées côté serveur sont demandées au driver
+     * ({@code useServerPrepStmts}) sauf si {@code db.serverPreparedStatements=false} ou si l'URL
+     * le précise déjà. Avec le cache d'instructions du pool, une requête n'est alors analysée
+     * par le serveur qu'une fois par connexion.
+     */
+    private static String urlJdbc() {
+        String url = Configuration.texte("db.url", URL);
+        if (!url.startsWith("jdbc:mysql:") || url.contains("useServerPrepStmts")
+                || !Configuration.booleen("db.serverPreparedStatements", true)) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "useServerPrepStmts=true";
+    }
+
+    /**
+     * Demande au driver de lire le résultat de l'instruction au fil de la lecture au lieu de le
+     * charger entièrement en mémoire (exports, parcours de tout le catalogue) : avec MySQL ligne
+     * par ligne ({@code fetchSize} à {@link Integer#MIN_VALUE}), ou par blocs de
+     * {@code db.streamingFetchSize} lignes si l'URL active {@code useCursorFetch} ; avec les
+     * autres bases, par blocs de {@code db.streamingFetchSize} lignes.
+     * <p>
+     * À appeler avant l'exécution. Avec MySQL, tant que le résultat reste ouvert, la connexion
+     * ne peut exécuter aucune autre requête, et le fermer avant la fin lit (sans les garder) les
+     * lignes restantes. Le pool remet la taille de bloc d'origine quand l'instruction lui revient.
+     */
+    public static void lireEnFlux(Statement instruction) throws SQLException {
+        String url = urlJdbc();
+        int tailleBloc = Configuration.entier("db.streamingFetchSize", 1_000);
+        if (url.startsWith("jdbc:mysql:") && !url.contains("useCursorFetch=true")) {
+            instruction.setFetchSize(Integer.MIN_VALUE);
+        } else {
+            instruction.setFetchSize(tailleBloc);
+        }
+    }
+
+    /**
+     * Emprunte une connexion à la base de données MySQL.
+     * La fermer (try-with-resources) la rend au pool.
      *
      * @return une connexion JDBC active.
      * @throws SQLException si la connexion ne peut pas être établie
-     * (serveur inaccessible,identifiants incorrects, base inexistante, etc.).
+     * (serveur inaccessible,identifiants incorrects, base inexistante, pool saturé, etc.).
      */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return PoolHolder.POOL.getConnection();
+    }
+
+    /**
+     * Donne accès au pool pour consulter ses jauges (connexions actives, attente, etc.).
+     */
+    public static ConnectionPool getPool() {
+        return PoolHolder.POOL;
+    }
+
+    /**
+     * Ferme les connexions du pool ; à appeler à l'arrêt de l'application.
+     */
+    public static void shutdown() {
+        PoolHolder.POOL.close();
     }
 
     @FunctionalInterface
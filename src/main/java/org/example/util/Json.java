@@ -0,0 +1,215 @@
+package org.example.util;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lecture et écriture JSON minimales pour l'API HTTP, sans dépendance externe.
+ * <p>
+ * Les corps de requête de l'API sont des objets plats (texte, nombres, booléens) :
+ * {@link #lireObjet(String)} ne lit que ce cas et rend toutes les valeurs sous forme de texte.
+ * Les réponses sont construites avec {@link Objet} et {@link Tableau}.
+ */
+public final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Lit un objet JSON plat : {@code {"cle": "texte", "nombre": 12, "actif": true}}.
+     * Les valeurs {@code null} sont ignorées.
+     *
+     * @throws IllegalArgumentException si le texte n'est pas un objet plat valide.
+     */
+    public static Map<String, String> lireObjet(String json) {
+        Lecteur lecteur = new Lecteur(json);
+        Map<String, String> valeurs = new LinkedHashMap<>();
+        lecteur.attendre('{');
+        if (!lecteur.suivantEst('}')) {
+            do {
+                String cle = lecteur.lireTexte();
+                lecteur.attendre(':');
+                String valeur = lecteur.lireValeur();
+                if (valeur != null) {
+                    valeurs.put(cle, valeur);
+                }
+            } while (lecteur.suivantEst(','));
+            lecteur.attendre('}');
+        }
+        lecteur.attendreFin();
+        return valeurs;
+    }
+
+    /**
+     * Texte JSON entre guillemets, caractères spéciaux échappés ({@code null} si la valeur est nulle).
+     */
+    public static String texte(String valeur) {
+        if (valeur == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(valeur.length() + 2).append('"');
+        for (int i = 0; i < valeur.length(); i++) {
+            char c = valeur.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Objet JSON construit champ par champ.
+     */
+    public static class Objet {
+        private final StringBuilder sb = new StringBuilder("{");
+
+        public Objet champ(String nom, String valeur) { return brut(nom, texte(valeur)); }
+        public Objet champ(String nom, long valeur) { return brut(nom, Long.toString(valeur)); }
+        public Objet champ(String nom, double valeur) { return brut(nom, Double.toString(valeur)); }
+        public Objet champ(String nom, boolean valeur) { return brut(nom, Boolean.toString(valeur)); }
+        public Objet champ(String nom, Objet valeur) { return brut(nom, valeur.toString()); }
+        public Objet champ(String nom, Tableau valeur) { return brut(nom, valeur.toString()); }
+
+        private Objet brut(String nom, String json) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append(texte(nom)).append(':').append(json);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return sb + "}";
+        }
+    }
+
+    /**
+     * Tableau JSON construit élément par élément.
+     */
+    public static class Tableau {
+        private final StringBuilder sb = new StringBuilder("[");
+
+        public Tableau ajouter(Objet valeur) { return brut(valeur.toString()); }
+        public Tableau ajouter(long valeur) { return brut(Long.toString(valeur)); }
+
+        private Tableau brut(String json) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append(json);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return sb + "]";
+        }
+    }
+
+    private static final class Lecteur {
+        private final String json;
+        private int position;
+
+        Lecteur(String json) {
+            this.json = json == null ? "" : json;
+        }
+
+        void attendre(char attendu) {
+            sauterEspaces();
+            if (position >= json.length() || json.charAt(position) != attendu) {
+                throw erreur("'" + attendu + "' attendu");
+            }
+            position++;
+        }
+
+        boolean suivantEst(char c) {
+            sauterEspaces();
+            if (position < json.length() && json.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void attendreFin() {
+            sauterEspaces();
+            if (position != json.length()) {
+                throw erreur("fin du texte attendue");
+            }
+        }
+
+        String lireValeur() {
+            sauterEspaces();
+            if (position < json.length() && json.charAt(position) == '"') {
+                return lireTexte();
+            }
+            int debut = position;
+            while (position < json.length() && ",}] \t\r\n".indexOf(json.charAt(position)) < 0) {
+                position++;
+            }
+            String brut = json.substring(debut, position);
+            if (brut.isEmpty() || brut.startsWith("{") || brut.startsWith("[")) {
+                throw erreur("valeur simple attendue");
+            }
+            return brut.equals("null") ? null : brut;
+        }
+
+        String lireTexte() {
+            attendre('"');
+            StringBuilder sb = new StringBuilder();
+            while (position < json.length()) {
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (position >= json.length()) {
+                    break;
+                }
+                char echappe = json.charAt(position++);
+                switch (echappe) {
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (position + 4 > json.length()) {
+                            throw erreur("séquence \\u incomplète");
+                        }
+                        sb.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                        position += 4;
+                    }
+                    default -> sb.append(echappe);
+                }
+            }
+            throw erreur("texte non terminé");
+        }
+
+        private void sauterEspaces() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException erreur(String message) {
+            return new IllegalArgumentException("JSON invalide (position " + position + ") : " + message);
+        }
+    }
+}
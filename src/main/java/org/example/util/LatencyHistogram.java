@@ -0,0 +1,92 @@
+package org.example.util;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de durées, sans verrou, utilisable par plusieurs threads.
+ * <p>
+ * Les mesures sont rangées dans des tranches de puissance de deux en microsecondes
+ * (tranche {@code i} = durées inférieures à {@code 2^i} µs). Les percentiles sont donc
+ * approchés par la borne haute de la tranche, ce qui suffit pour suivre des latences.
+ */
+public class LatencyHistogram {
+
+    private static final int NB_TRANCHES = 40;
+
+    private final AtomicLongArray tranches = new AtomicLongArray(NB_TRANCHES);
+    private final LongAdder nombre = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Enregistre une durée exprimée en nanosecondes.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int tranche = micros == 0 ? 0 : Math.min(NB_TRANCHES - 1, 64 - Long.numberOfLeadingZeros(micros));
+        tranches.incrementAndGet(tranche);
+        nombre.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return nombre.sum();
+    }
+
+    public double getMeanMillis() {
+        long n = nombre.sum();
+        return n == 0 ? 0 : totalNanos.sum() / (n * 1_000_000.0);
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Retourne une estimation du percentile demandé, en millisecondes.
+     *
+     * @param percentile valeur entre 0 et 100 (ex : 99 pour le p99).
+     */
+    public double getPercentileMillis(double percentile) {
+        long n = nombre.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rang = (long) Math.ceil(n * percentile / 100.0);
+        long cumul = 0;
+        for (int i = 0; i < NB_TRANCHES; i++) {
+            cumul += tranches.get(i);
+            if (cumul >= Math.max(1, rang)) {
+                double borneHauteMillis = (1L << i) / 1000.0;
+                return Math.min(borneHauteMillis, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * Retourne le nombre de mesures de chaque tranche (index = exposant de la borne haute en µs).
+     */
+    public long[] getBuckets() {
+        long[] copie = new long[NB_TRANCHES];
+        for (int i = 0; i < NB_TRANCHES; i++) {
+            copie[i] = tranches.get(i);
+        }
+        return copie;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "n=%d moy=%.3fms p50=%.3fms p95=%.3fms p99=%.3fms max=%.3fms",
+                getCount(), getMeanMillis(), getPercentileMillis(50), getPercentileMillis(95),
+                getPercentileMillis(99), getMaxMillis());
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.util;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Cache en lecture traversante, borné en taille (éviction du moins récemment lu) et
+ * à durée de vie limitée. Utilisable par plusieurs threads.
+ * <p>
+ * La valeur absente ou expirée est chargée par l'appelant, hors verrou : deux lecteurs
+ * simultanés peuvent donc charger la même clé, le dernier arrivé remplaçant l'autre.
+ * Le verrou ne protège que la table (quelques opérations en mémoire). Une valeur dont
+ * le chargement a commencé avant une invalidation n'est pas mise en cache : elle a pu
+ * être lue avant la modification qui a motivé l'invalidation.
+ */
+public class LruCache<K, V> {
+
+    /**
+     * Chargement d'une valeur absente du cache, typiquement une requête en base.
+     */
+    @FunctionalInterface
+    public interface Loader<K, V, E extends Exception> {
+        V load(K key) throws E;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    // incrémenté à chaque invalidation, sous le verrou
+    private long generation;
+
+    /**
+     * @param maxSize nombre maximal d'entrées ; au-delà, la moins récemment lue est évincée.
+     * @param ttl     durée de vie d'une entrée après son chargement.
+     */
+    public LruCache(int maxSize, Duration ttl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Taille de cache invalide : " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        // ordre d'accès : la première entrée est la moins récemment lue
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Retourne la valeur en cache, ou la charge avec {@code loader} si elle est absente ou expirée.
+     * Une valeur {@code null} n'est pas mise en cache.
+     */
+    public <E extends Exception> V get(K key, Loader<? super K, ? extends V, E> loader) throws E {
+        long now = System.nanoTime();
+        long generationLue;
+        synchronized (entries) {
+            generationLue = generation;
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (now - entry.expiresAt() < 0) {
+                    hits.increment();
+                    return entry.value();
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+        }
+        misses.increment();
+        V value = loader.load(key);
+        if (value != null) {
+            Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+            synchronized (entries) {
+                if (generation == generationLue) {
+                    entries.put(key, entry);
+                }
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Retourne la valeur en cache et repousse son expiration d'un TTL (expiration après inactivité),
+     * ou {@code null} si elle est absente ou expirée ; rien n'est chargé.
+     */
+    public V refresh(K key) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (now - entry.expiresAt() >= 0) {
+                entries.remove(key);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            entries.put(key, new Entry<>(entry.value(), now + ttlNanos));
+            hits.increment();
+            return entry.value();
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            generation++;
+            if (entries.remove(key) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * Retire toutes les entrées dont la clé vérifie {@code filter}.
+     */
+    public void invalidateIf(Predicate<? super K> filter) {
+        synchronized (entries) {
+            generation++;
+            for (Iterator<K> it = entries.keySet().iterator(); it.hasNext(); ) {
+                if (filter.test(it.next())) {
+                    it.remove();
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() { return hits.sum(); }
+
+    public long getMissCount() { return misses.sum(); }
+
+    /** Entrées évincées parce que le cache était plein. */
+    public long getEvictionCount() { return evictions.sum(); }
+
+    /** Entrées retirées parce que leur durée de vie était dépassée. */
+    public long getExpirationCount() { return expirations.sum(); }
+
+    /** Entrées retirées explicitement. */
+    public long getInvalidationCount() { return invalidations.sum(); }
+
+    public double getHitRatio() {
+        long total = hits.sum() + misses.sum();
+        return total == 0 ? 0 : (double) hits.sum() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "taille=%d/%d lus=%d ratés=%d (%.1f%%) évincés=%d expirés=%d invalidés=%d",
+                size(), maxSize, getHitCount(), getMissCount(), getHitRatio() * 100,
+                getEvictionCount(), getExpirationCount(), getInvalidationCount());
+    }
+}
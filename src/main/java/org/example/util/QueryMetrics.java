@@ -0,0 +1,264 @@
+package org.example.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mesures des requêtes par opération de DAO ({@code EvenementDAO.listAll},
+ * {@code ReservationDAO.saveReservation}...), alimentées par les instructions préparées
+ * du {@link ConnectionPool} : nombre d'exécutions, durées, lignes lues ou modifiées, erreurs.
+ * <p>
+ * L'opération est la méthode la plus profonde du paquet {@code org.example.dao} dans la pile
+ * au moment de {@code prepareStatement} ; les requêtes préparées ailleurs sont regroupées
+ * sous {@link #HORS_DAO}. Une exécution plus longue que le seuil configuré est journalisée
+ * avec ses paramètres ; les mots de passe et numéros de carte y sont masqués.
+ */
+public class QueryMetrics {
+
+    /** Opération des requêtes préparées hors du paquet des DAO. */
+    public static final String HORS_DAO = "(hors DAO)";
+
+    private static final System.Logger LOG = System.getLogger(QueryMetrics.class.getName());
+    private static final String PAQUET_DAO = "org.example.dao.";
+    private static final StackWalker PILE = StackWalker.getInstance();
+
+    // colonnes dont la valeur ne doit jamais apparaître dans le journal
+    private static final Pattern COLONNE_SENSIBLE = Pattern.compile("password|card_number", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COLONNE_EGALE = Pattern.compile("`?(\\w+)`?\\s*(?:=|<>|!=|<=|>=|<|>|LIKE)\\s*\\?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INSERTION = Pattern.compile("\\(([^()]*)\\)\\s*VALUES\\s*\\(", Pattern.CASE_INSENSITIVE);
+    // 13 à 19 chiffres, éventuellement séparés par des espaces ou des tirets
+    private static final Pattern NUMERO_CARTE = Pattern.compile("\\d(?:[ -]?\\d){12,18}");
+
+    private final long seuilLenteNanos;
+    private final ConcurrentMap<String, Operation> operations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, boolean[]> parametresSensibles = new ConcurrentHashMap<>();
+
+    /**
+     * @param seuilLenteMs au-delà, une exécution est journalisée (0 = aucune).
+     */
+    public QueryMetrics(long seuilLenteMs) {
+        this.seuilLenteNanos = TimeUnit.MILLISECONDS.toNanos(seuilLenteMs);
+    }
+
+    /**
+     * Mesures d'une opération de DAO.
+     */
+    public static final class Operation {
+        private final String nom;
+        private final LatencyHistogram durees = new LatencyHistogram();
+        private final LongAdder lignes = new LongAdder();
+        private final LongAdder erreurs = new LongAdder();
+        private final LongAdder lentes = new LongAdder();
+
+        private Operation(String nom) {
+            this.nom = nom;
+        }
+
+        void ajouterLignes(long nombre) {
+            lignes.add(nombre);
+        }
+
+        public String getNom() { return nom; }
+
+        /** Nombre d'exécutions, erreurs d'exécution comprises. */
+        public long getCount() { return durees.getCount(); }
+
+        /** Durées des appels {@code execute*}. */
+        public LatencyHistogram getDurees() { return durees; }
+
+        /** Lignes lues (requêtes) ou modifiées (mises à jour, lots). */
+        public long getLignes() { return lignes.sum(); }
+
+        /** Échecs de préparation ou d'exécution. */
+        public long getErreurs() { return erreurs.sum(); }
+
+        /** Exécutions au-delà du seuil de journalisation. */
+        public long getLentes() { return lentes.sum(); }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s : lignes=%d erreurs=%d lentes=%d %s",
+                    nom, getLignes(), getErreurs(), getLentes(), durees);
+        }
+    }
+
+    /**
+     * Opération en cours dans le thread appelant, d'après la pile.
+     */
+    public Operation operationCourante() {
+        String nom = PILE.walk(cadres -> cadres
+                .filter(cadre -> cadre.getClassName().startsWith(PAQUET_DAO))
+                .findFirst()
+                .map(cadre -> nomOperation(cadre.getClassName(), cadre.getMethodName()))
+                .orElse(HORS_DAO));
+        return operations.computeIfAbsent(nom, Operation::new);
+    }
+
+    /**
+     * {@code EvenementDAO.listAll} pour {@code org.example.dao.EvenementDAO} et
+     * {@code listAll} ou une lambda {@code lambda$listAll$0} déclarée dedans.
+     */
+    private static String nomOperation(String classe, String methode) {
+        String simple = classe.substring(classe.lastIndexOf('.') + 1);
+        int interne = simple.indexOf('$');
+        if (interne >= 0) {
+            simple = simple.substring(0, interne);
+        }
+        if (methode.startsWith("lambda$")) {
+            int fin = methode.indexOf('$', "lambda$".length());
+            methode = methode.substring("lambda$".length(), fin < 0 ? methode.length() : fin);
+        }
+        return simple + "." + methode;
+    }
+
+    /**
+     * Enregistre une exécution et la journalise si elle dépasse le seuil.
+     *
+     * @param parametres valeurs liées, par position (l'indice 0 est inutilisé), ou {@code null}.
+     * @param lignes     lignes modifiées connues dès la fin de l'exécution (les lignes lues sont
+     *                   comptées au fil de la lecture).
+     */
+    void enregistrer(Operation operation, String sql, Object[] parametres, long nanos, long lignes, boolean erreur) {
+        operation.durees.record(nanos);
+        operation.lignes.add(lignes);
+        if (erreur) {
+            operation.erreurs.increment();
+        }
+        if (seuilLenteNanos > 0 && nanos >= seuilLenteNanos) {
+            operation.lentes.increment();
+            if (LOG.isLoggable(System.Logger.Level.WARNING)) {
+                LOG.log(System.Logger.Level.WARNING, String.format(Locale.ROOT, "Requête lente (%.1f ms%s) %s : %s | paramètres %s",
+                        nanos / 1e6, erreur ? ", en erreur" : "", operation.nom, sql.replaceAll("\\s+", " "),
+                        decrireParametres(sql, parametres)));
+            }
+        }
+    }
+
+    /**
+     * Enregistre une erreur survenue dès la préparation (syntaxe, table inconnue...).
+     */
+    void enregistrerErreur(Operation operation) {
+        operation.erreurs.increment();
+    }
+
+    private String decrireParametres(String sql, Object[] parametres) {
+        if (parametres == null) {
+            return "[]";
+        }
+        boolean[] sensibles = parametresSensibles.computeIfAbsent(sql, QueryMetrics::reperer);
+        StringBuilder texte = new StringBuilder("[");
+        for (int i = 1; i < Math.min(parametres.length, sensibles.length); i++) {
+            if (texte.length() > 1) {
+                texte.append(", ");
+            }
+            texte.append(i).append('=');
+            Object valeur = parametres[i];
+            if (sensibles[i]) {
+                texte.append("***");
+            } else if (valeur instanceof String chaine) {
+                texte.append('\'').append(masquerNumerosCarte(chaine)).append('\'');
+            } else {
+                texte.append(valeur);
+            }
+        }
+        return texte.append(']').toString();
+    }
+
+    /**
+     * Positions des paramètres liés à une colonne sensible, repérées dans les formes
+     * {@code colonne = ?} et {@code INSERT ... (colonnes) VALUES (?, ...)}.
+     */
+    private static boolean[] reperer(String sql) {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                positions.add(i);
+            }
+        }
+        boolean[] sensibles = new boolean[positions.size() + 1];
+
+        Matcher egalite = COLONNE_EGALE.matcher(sql);
+        while (egalite.find()) {
+            if (COLONNE_SENSIBLE.matcher(egalite.group(1)).matches()) {
+                sensibles[positions.indexOf(egalite.end() - 1) + 1] = true;
+            }
+        }
+
+        Matcher insertion = INSERTION.matcher(sql);
+        if (insertion.find()) {
+            String[] colonnes = insertion.group(1).split(",");
+            int premier = 0;
+            while (premier < positions.size() && positions.get(premier) < insertion.end()) {
+                premier++;
+            }
+            for (int c = 0; c < colonnes.length && premier + c < positions.size(); c++) {
+                if (COLONNE_SENSIBLE.matcher(colonnes[c].replace("`", "").trim()).matches()) {
+                    sensibles[premier + c + 1] = true;
+                }
+            }
+        }
+        return sensibles;
+    }
+
+    /**
+     * Remplace les suites de chiffres ayant la forme d'un numéro de carte par leurs quatre derniers chiffres.
+     */
+    static String masquerNumerosCarte(String valeur) {
+        Matcher numero = NUMERO_CARTE.matcher(valeur);
+        if (!numero.find()) {
+            return valeur;
+        }
+        StringBuilder resultat = new StringBuilder();
+        do {
+            String chiffres = numero.group().replaceAll("\\D", "");
+            numero.appendReplacement(resultat, "************" + chiffres.substring(chiffres.length() - 4));
+        } while (numero.find());
+        return numero.appendTail(resultat).toString();
+    }
+
+    /**
+     * Opérations mesurées, de la plus coûteuse (temps cumulé) à la moins coûteuse.
+     */
+    public List<Operation> getOperations() {
+        List<Operation> liste = new ArrayList<>(operations.values());
+        liste.sort(Comparator.comparingDouble((Operation o) -> o.durees.getMeanMillis() * o.getCount()).reversed());
+        return liste;
+    }
+
+    public Map<String, Operation> getOperationsParNom() {
+        return Map.copyOf(operations);
+    }
+
+    /**
+     * Oublie les mesures (par exemple entre deux phases d'un test de charge).
+     */
+    public void reinitialiser() {
+        operations.clear();
+    }
+
+    /**
+     * Résumé lisible, une opération par ligne, de la plus coûteuse à la moins coûteuse.
+     */
+    public String resume() {
+        StringBuilder texte = new StringBuilder(String.format(Locale.ROOT,
+                "%-48s %9s %9s %7s %7s %10s %9s %9s %9s %9s%n",
+                "operation", "appels", "lignes", "erreurs", "lentes", "total_ms", "p50_ms", "p95_ms", "p99_ms", "max_ms"));
+        for (Operation operation : getOperations()) {
+            LatencyHistogram durees = operation.durees;
+            texte.append(String.format(Locale.ROOT, "%-48s %9d %9d %7d %7d %10.1f %9.3f %9.3f %9.3f %9.3f%n",
+                    operation.nom, operation.getCount(), operation.getLignes(), operation.getErreurs(), operation.getLentes(),
+                    durees.getMeanMillis() * durees.getCount(), durees.getPercentileMillis(50),
+                    durees.getPercentileMillis(95), durees.getPercentileMillis(99), durees.getMaxMillis()));
+        }
+        return texte.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.util;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistiques d'une requête SQL préparée via le {@link ConnectionPool}, cumulées sur
+ * toutes les connexions : préparations servies par le cache de la connexion ou faites
+ * par le driver, et durées d'exécution.
+ */
+public class StatementStats {
+
+    private final String sql;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LatencyHistogram executionTimes = new LatencyHistogram();
+
+    StatementStats(String sql) {
+        this.sql = sql;
+    }
+
+    void recordHit() { hits.increment(); }
+
+    void recordMiss() { misses.increment(); }
+
+    void recordExecution(long nanos) { executionTimes.record(nanos); }
+
+    public String getSql() { return sql; }
+
+    /** Préparations servies par le cache de la connexion. */
+    public long getHitCount() { return hits.sum(); }
+
+    /** Préparations demandées au driver (premier usage sur la connexion, cache plein ou instruction déjà utilisée). */
+    public long getMissCount() { return misses.sum(); }
+
+    public double getHitRatio() {
+        long total = hits.sum() + misses.sum();
+        return total == 0 ? 0 : (double) hits.sum() / total;
+    }
+
+    /** Durées des appels {@code execute*} (lecture des lignes non comprise). */
+    public LatencyHistogram getExecutionTimes() { return executionTimes; }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "lus=%d ratés=%d (%.1f%%) exécution: %s | %s",
+                getHitCount(), getMissCount(), getHitRatio() * 100, executionTimes, sql);
+    }
+}